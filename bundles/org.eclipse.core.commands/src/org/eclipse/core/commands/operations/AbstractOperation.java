@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,7 +11,9 @@
 package org.eclipse.core.commands.operations;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.core.runtime.Assert;
@@ -34,8 +36,20 @@ import org.eclipse.core.runtime.IStatus;
  * @since 3.1
  */
 public abstract class AbstractOperation implements IUndoableOperation {
+	private static final OperationList[] NO_LISTS = new OperationList[0];
+
+	private static final AtomicReferenceFieldUpdater<AbstractOperation, OperationList[]> INDEXING_LISTS = AtomicReferenceFieldUpdater
+			.newUpdater(AbstractOperation.class, OperationList[].class, "indexingLists"); //$NON-NLS-1$
+
 	List<IUndoContext> contexts = new ArrayList<>();
 
+	/**
+	 * The lists of operation histories indexing the receiver by its contexts.
+	 * The array is replaced rather than modified, since the lists of different
+	 * histories may change it concurrently.
+	 */
+	private volatile OperationList[] indexingLists = NO_LISTS;
+
 	private String label = ""; //$NON-NLS-1$
 
 	/**
@@ -54,6 +68,7 @@ public abstract class AbstractOperation implements IUndoableOperation {
 	public void addContext(IUndoContext context) {
 		if (!contexts.contains(context)) {
 			contexts.add(context);
+			contextsChanged();
 		}
 	}
 
@@ -122,7 +137,52 @@ public abstract class AbstractOperation implements IUndoableOperation {
 
 	@Override
 	public void removeContext(IUndoContext context) {
-		contexts.remove(context);
+		if (contexts.remove(context)) {
+			contextsChanged();
+		}
+	}
+
+	/*
+	 * Invalidate the context index of the lists that contain the receiver.
+	 */
+	void contextsChanged() {
+		for (OperationList list : indexingLists) {
+			list.contextsChanged();
+		}
+	}
+
+	/*
+	 * Register a list that indexes the receiver by its contexts.
+	 */
+	void addIndexingList(OperationList list) {
+		OperationList[] lists;
+		OperationList[] newLists;
+		do {
+			lists = indexingLists;
+			newLists = Arrays.copyOf(lists, lists.length + 1);
+			newLists[lists.length] = list;
+		} while (!INDEXING_LISTS.compareAndSet(this, lists, newLists));
+	}
+
+	/*
+	 * Unregister a list that no longer indexes the receiver.
+	 */
+	void removeIndexingList(OperationList list) {
+		OperationList[] lists;
+		OperationList[] newLists;
+		do {
+			lists = indexingLists;
+			int index = 0;
+			while (index < lists.length && lists[index] != list) {
+				index++;
+			}
+			if (index == lists.length) {
+				return;
+			}
+			newLists = lists.length == 1 ? NO_LISTS : new OperationList[lists.length - 1];
+			System.arraycopy(lists, 0, newLists, 0, index);
+			System.arraycopy(lists, index + 1, newLists, index, lists.length - index - 1);
+		} while (!INDEXING_LISTS.compareAndSet(this, lists, newLists));
 	}
 
 	@Override
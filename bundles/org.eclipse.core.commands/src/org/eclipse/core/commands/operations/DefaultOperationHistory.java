@@ -15,8 +15,6 @@ package org.eclipse.core.commands.operations;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 
 import org.eclipse.core.commands.ExecutionException;
@@ -62,6 +60,13 @@ import org.eclipse.core.runtime.Status;
  * be properly synchronized using the techniques specified by the client's
  * widget library.
  * </p>
+ * <p>
+ * The undo and redo histories are indexed by undo context, so that the cost of
+ * enforcing the limit of a context does not depend on the size of the history
+ * of other contexts. In addition to the limits per context, the history can be
+ * given a memory limit that bounds the memory retained by operations
+ * implementing {@link IMemoryAwareOperation}.
+ * </p>
  *
  * <p>
  * This implementation is not intended to be subclassed.
@@ -129,12 +134,17 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	/**
 	 * the list of operations available for redo, LIFO
 	 */
-	private List<IUndoableOperation> redoList = Collections.synchronizedList(new ArrayList<IUndoableOperation>());
+	private OperationList redoList = new OperationList();
 
 	/**
 	 * the list of operations available for undo, LIFO
 	 */
-	private List<IUndoableOperation> undoList = Collections.synchronizedList(new ArrayList<IUndoableOperation>());
+	private OperationList undoList = new OperationList();
+
+	/**
+	 * the memory limit of the undo and redo history, or 0 if unlimited
+	 */
+	private long memoryLimit;
 
 	/**
 	 * a lock that is used to synchronize access between the undo and redo
@@ -192,6 +202,7 @@ public final class DefaultOperationHistory implements IOperationHistory {
 			for (IUndoContext context : contexts) {
 				flushRedo(context);
 			}
+			enforceMemoryLimit();
 		} else {
 			// Dispose the operation since we will not have a reference to it.
 			operation.dispose();
@@ -517,27 +528,14 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	/*
 	 * Filter the specified list to include only the specified undo context.
 	 */
-	private IUndoableOperation[] filter(List<IUndoableOperation> list, IUndoContext context) {
+	private IUndoableOperation[] filter(OperationList list, IUndoContext context) {
 		/*
-		 * This method is used whenever there is a need to filter the undo or
-		 * redo history on a particular context. Currently there are no caches
-		 * kept to optimize repeated requests for the same filter. If benchmarks
-		 * show this to be a common pattern that causes performances problems,
-		 * we could implement a filtered cache here that is nullified whenever
-		 * the global history changes.
+		 * The lists are indexed by context, so only the operations of the
+		 * contexts matching the specified context are visited.
 		 */
-
-		List<IUndoableOperation> filtered = new ArrayList<>();
 		synchronized (undoRedoHistoryLock) {
-			Iterator<IUndoableOperation> iterator = list.iterator();
-			while (iterator.hasNext()) {
-				IUndoableOperation operation = iterator.next();
-				if (operation.hasContext(context)) {
-					filtered.add(operation);
-				}
-			}
+			return list.get(context);
 		}
-		return filtered.toArray(new IUndoableOperation[filtered.size()]);
 	}
 
 	/*
@@ -566,7 +564,7 @@ public final class DefaultOperationHistory implements IOperationHistory {
 					// dispose.
 					for (IUndoContext undoContext : operation.getContexts()) {
 						if (undoContext.matches(context)) {
-							operation.removeContext(undoContext);
+							redoList.removeContext(operation, undoContext);
 						}
 					}
 					if (operation.getContexts().length == 0) {
@@ -605,7 +603,7 @@ public final class DefaultOperationHistory implements IOperationHistory {
 					// dispose.
 					for (IUndoContext undoContext : operation.getContexts()) {
 						if (undoContext.matches(context)) {
-							operation.removeContext(undoContext);
+							undoList.removeContext(operation, undoContext);
 						}
 					}
 					if (operation.getContexts().length == 0) {
@@ -646,31 +644,7 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	 */
 	private void forceRedoLimit(IUndoContext context, int max) {
 		synchronized (undoRedoHistoryLock) {
-			Object[] filtered = filter(redoList, context);
-			int size = filtered.length;
-			if (size > 0) {
-				int index = 0;
-				while (size > max) {
-					IUndoableOperation removed = (IUndoableOperation) filtered[index];
-					if (context == GLOBAL_UNDO_CONTEXT || removed.getContexts().length == 1) {
-						/*
-						 * remove the operation if we are enforcing a global limit
-						 * or if the operation only has the specified context
-						 */
-						redoList.remove(removed);
-						internalRemove(removed);
-					} else {
-						/*
-						 * if the operation has multiple contexts and we've reached
-						 * the limit for only one of them, then just remove the
-						 * context, not the operation.
-						 */
-						removed.removeContext(context);
-					}
-					size--;
-					index++;
-				}
-			}
+			forceLimit(redoList, context, max);
 		}
 	}
 
@@ -680,34 +654,150 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	 */
 	private void forceUndoLimit(IUndoContext context, int max) {
 		synchronized (undoRedoHistoryLock) {
-			Object[] filtered = filter(undoList, context);
-			int size = filtered.length;
-			if (size > 0) {
-				int index = 0;
-				while (size > max) {
-					IUndoableOperation removed = (IUndoableOperation) filtered[index];
-					if (context == GLOBAL_UNDO_CONTEXT || removed.getContexts().length == 1) {
-						/*
-						 * remove the operation if we are enforcing a global limit
-						 * or if the operation only has the specified context
-						 */
-						undoList.remove(removed);
-						internalRemove(removed);
-					} else {
-						/*
-						 * if the operation has multiple contexts and we've reached
-						 * the limit for only one of them, then just remove the
-						 * context, not the operation.
-						 */
-						removed.removeContext(context);
-					}
-					size--;
-					index++;
-				}
+			forceLimit(undoList, context, max);
+		}
+	}
+
+	/*
+	 * Force the given history for the given context to contain max or less
+	 * items. Only the operations exceeding the limit are visited.
+	 */
+	private void forceLimit(OperationList list, IUndoContext context, int max) {
+		int size = list.size(context);
+		if (size <= max) {
+			return;
+		}
+		for (IUndoableOperation removed : list.getFirst(context, size - max)) {
+			if (context == GLOBAL_UNDO_CONTEXT || removed.getContexts().length == 1) {
+				/*
+				 * remove the operation if we are enforcing a global limit or if
+				 * the operation only has the specified context
+				 */
+				list.remove(removed);
+				internalRemove(removed);
+			} else {
+				/*
+				 * if the operation has multiple contexts and we've reached the
+				 * limit for only one of them, then just remove the context, not
+				 * the operation.
+				 */
+				list.removeContext(removed, context);
 			}
 		}
 	}
 
+	/*
+	 * Remove the oldest operations from the history until the memory retained
+	 * by the history is within the memory limit. Adjacent operations are
+	 * merged before any operation is removed. The most recent undo operation
+	 * is always kept.
+	 */
+	private void enforceMemoryLimit() {
+		if (memoryLimit <= 0) {
+			return;
+		}
+		synchronized (undoRedoHistoryLock) {
+			if (getMemorySize() <= memoryLimit) {
+				return;
+			}
+			compactUndoHistory();
+			while (getMemorySize() > memoryLimit && undoList.size() > 1) {
+				IUndoableOperation removed = undoList.getFirst();
+				undoList.remove(removed);
+				internalRemove(removed);
+			}
+			while (getMemorySize() > memoryLimit && redoList.size() > 0) {
+				IUndoableOperation removed = redoList.getFirst();
+				redoList.remove(removed);
+				internalRemove(removed);
+			}
+		}
+	}
+
+	/*
+	 * Merge adjacent operations of the undo history, oldest first, until the
+	 * history is within the memory limit. The most recent operation of a
+	 * context is never absorbed, since its creator may still be updating it.
+	 */
+	private void compactUndoHistory() {
+		IUndoableOperation operation = undoList.getFirst();
+		while (operation != null && getMemorySize() > memoryLimit) {
+			IUndoableOperation next = undoList.getNext(operation);
+			if (next == null) {
+				return;
+			}
+			if (operation instanceof IMemoryAwareOperation && !isMostRecentUndo(next)
+					&& ((IMemoryAwareOperation) operation).absorb(next)) {
+				undoList.remove(next);
+				notifyRemoved(next);
+				undoList.update(operation);
+				notifyChanged(operation);
+			} else {
+				operation = next;
+			}
+		}
+	}
+
+	/*
+	 * Return whether the operation is the most recent undo operation of any of
+	 * its contexts.
+	 */
+	private boolean isMostRecentUndo(IUndoableOperation operation) {
+		for (IUndoContext context : operation.getContexts()) {
+			if (undoList.getLast(context) == operation) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * Return the memory retained by the undo and redo history.
+	 */
+	private long getMemorySize() {
+		return undoList.getMemorySize() + redoList.getMemorySize();
+	}
+
+	/**
+	 * Return the memory limit of the undo and redo history.
+	 *
+	 * @return the maximum number of bytes retained by the operations in the
+	 *         history, or <code>0</code> if the memory is not limited
+	 *
+	 * @see #setMemoryLimit(long)
+	 * @since 3.10
+	 */
+	public long getMemoryLimit() {
+		return memoryLimit;
+	}
+
+	/**
+	 * <p>
+	 * Set the memory limit of the undo and redo history. The memory retained by
+	 * the history is the sum of the sizes reported by the operations
+	 * implementing {@link IMemoryAwareOperation}. When the limit is exceeded,
+	 * the history first lets the oldest operations absorb the operations
+	 * following them, and then removes the oldest undo operations, followed by
+	 * the oldest redo operations, until the history is within the limit. The
+	 * most recent undo operation is always kept.
+	 * </p>
+	 * <p>
+	 * The memory limit applies in addition to the limits of the undo contexts.
+	 * </p>
+	 *
+	 * @param limit
+	 *            the maximum number of bytes retained by the operations in the
+	 *            history, or <code>0</code> if the memory should not be
+	 *            limited. Must not be negative.
+	 *
+	 * @since 3.10
+	 */
+	public void setMemoryLimit(long limit) {
+		Assert.isTrue(limit >= 0);
+		memoryLimit = limit;
+		enforceMemoryLimit();
+	}
+
 	@Override
 	public int getLimit(IUndoContext context) {
 		if (!limits.containsKey(context)) {
@@ -747,14 +837,8 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	public IUndoableOperation getRedoOperation(IUndoContext context) {
 		Assert.isNotNull(context);
 		synchronized (undoRedoHistoryLock) {
-			for (int i = redoList.size() - 1; i >= 0; i--) {
-				IUndoableOperation operation = redoList.get(i);
-				if (operation.hasContext(context)) {
-					return operation;
-				}
-			}
+			return redoList.getLast(context);
 		}
-		return null;
 	}
 
 	/*
@@ -788,14 +872,8 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	public IUndoableOperation getUndoOperation(IUndoContext context) {
 		Assert.isNotNull(context);
 		synchronized (undoRedoHistoryLock) {
-			for (int i = undoList.size() - 1; i >= 0; i--) {
-				IUndoableOperation operation = undoList.get(i);
-				if (operation.hasContext(context)) {
-					return operation;
-				}
-			}
+			return undoList.getLast(context);
 		}
-		return null;
 	}
 
 	/*
@@ -1043,20 +1121,15 @@ public final class DefaultOperationHistory implements IOperationHistory {
 		// check the undo history first.
 		boolean inUndo = false;
 		synchronized (undoRedoHistoryLock) {
-			int index = undoList.indexOf(operation);
-			if (index > -1) {
+			// notify listeners after the lock on undoList is released
+			if (undoList.replace(operation, replacements)) {
 				inUndo = true;
-				undoList.remove(operation);
-				// notify listeners after the lock on undoList is released
 				ArrayList<IUndoContext> allContexts = new ArrayList<>(replacements.length);
 				for (IUndoableOperation replacement : replacements) {
 					IUndoContext[] opContexts = replacement.getContexts();
 					for (IUndoContext opContext : opContexts) {
 						allContexts.add(opContext);
 					}
-					undoList.add(index, replacement);
-					// notify listeners after the lock on the history is
-					// released
 				}
 				// recheck all the limits. We do this at the end so the index
 				// doesn't change during replacement
@@ -1078,20 +1151,16 @@ public final class DefaultOperationHistory implements IOperationHistory {
 		// operation was not in the undo history. Check the redo history.
 
 		synchronized (undoRedoHistoryLock) {
-			int index = redoList.indexOf(operation);
-			if (index == -1) {
+			// notify listeners after we release the lock on redoList
+			if (!redoList.replace(operation, replacements)) {
 				return;
 			}
 			ArrayList<IUndoContext> allContexts = new ArrayList<>(replacements.length);
-			redoList.remove(operation);
-			// notify listeners after we release the lock on redoList
 			for (IUndoableOperation replacement : replacements) {
 				IUndoContext[] opContexts = replacement.getContexts();
 				for (IUndoContext opContext : opContexts) {
 					allContexts.add(opContext);
 				}
-				redoList.add(index, replacement);
-				// notify listeners after we release the lock on redoList
 			}
 			// recheck all the limits. We do this at the end so the index
 			// doesn't change during replacement
@@ -1229,8 +1298,18 @@ public final class DefaultOperationHistory implements IOperationHistory {
 
 	@Override
 	public void operationChanged(IUndoableOperation operation) {
-		if (undoList.contains(operation) || redoList.contains(operation)) {
+		boolean inHistory;
+		synchronized (undoRedoHistoryLock) {
+			inHistory = undoList.contains(operation) || redoList.contains(operation);
+			if (inHistory) {
+				// the memory size or the contexts may have changed
+				undoList.update(operation);
+				redoList.update(operation);
+			}
+		}
+		if (inHistory) {
 			notifyChanged(operation);
+			enforceMemoryLimit();
 		}
 	}
 }
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.commands.operations;
+
+/**
+ * <p>
+ * IMemoryAwareOperation defines methods that allow an operation history to
+ * bound the memory retained by its undo and redo history. An operation reports
+ * an estimate of the memory it retains, and may absorb the operation that
+ * directly follows it in the undo history when the history needs to be
+ * compacted.
+ * </p>
+ *
+ * @see DefaultOperationHistory#setMemoryLimit(long)
+ *
+ * @since 3.10
+ */
+public interface IMemoryAwareOperation extends IUndoableOperation {
+
+	/**
+	 * Return an estimate of the memory in bytes that is retained by the
+	 * receiver in order to undo or redo it. The estimate is consulted when the
+	 * operation is added to a history and whenever the history is notified
+	 * that the operation changed.
+	 *
+	 * @return the estimated number of bytes retained by the operation
+	 * @see IOperationHistory#operationChanged(IUndoableOperation)
+	 */
+	long getMemorySize();
+
+	/**
+	 * Absorb the specified operation into the receiver, so that undoing and
+	 * redoing the receiver also undoes and redoes the specified operation. This
+	 * method is called by an operation history that exceeds its memory limit
+	 * in order to merge adjacent operations, such as consecutive typing
+	 * operations, into fewer operations.
+	 * <p>
+	 * The specified operation has been executed directly after the receiver and
+	 * is never the most recent operation of any of its undo contexts. If the
+	 * operation is absorbed, the history removes it without disposing it and
+	 * notifies listeners that the receiver changed. Operations that cannot be
+	 * combined should return <code>false</code>.
+	 * </p>
+	 *
+	 * @param operation
+	 *            the operation that directly follows the receiver in the undo
+	 *            history
+	 * @return <code>true</code> if the receiver absorbed the operation,
+	 *         <code>false</code> if the operations must be kept separate
+	 */
+	boolean absorb(IUndoableOperation operation);
+}
@@ -0,0 +1,506 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.commands.operations;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * The undo or redo history of a {@link DefaultOperationHistory}. The
+ * operations are kept in the order they were added, and are additionally
+ * indexed by the undo contexts they had when they were added, so that the
+ * history of one context can be inspected and trimmed without looking at the
+ * operations of all other contexts.
+ * </p>
+ * <p>
+ * Undo contexts may match other contexts, so a query for a context consults
+ * the index of every context that matches it. Operations extending
+ * {@link AbstractOperation} report changes to their contexts to the lists
+ * indexing them, which causes the index of those lists to be rebuilt on next
+ * access. Other
+ * operations are not indexed and are checked on every query.
+ * </p>
+ * <p>
+ * This class is not thread safe. Access is synchronized by the history, only
+ * {@link #contextsChanged()} may be called from any thread.
+ * </p>
+ */
+final class OperationList {
+
+	private static final class Entry {
+		final IUndoableOperation operation;
+
+		/**
+		 * Whether the operation reports changes of its contexts.
+		 */
+		boolean tracked;
+
+		/**
+		 * The contexts the entry is indexed by, <code>null</code> if the entry
+		 * is not indexed.
+		 */
+		IUndoContext[] contexts;
+
+		long sequence;
+
+		long memorySize;
+
+		Entry previous;
+
+		Entry next;
+
+		Entry(IUndoableOperation operation) {
+			this.operation = operation;
+		}
+	}
+
+	private static final Comparator<Entry> SEQUENCE_ORDER = (entry1, entry2) -> Long.compare(entry1.sequence,
+			entry2.sequence);
+
+	private final Map<IUndoableOperation, Entry> entries = new IdentityHashMap<>();
+
+	private final Map<IUndoContext, ArrayDeque<Entry>> entriesByContext = new IdentityHashMap<>();
+
+	private final List<Entry> unindexedEntries = new ArrayList<>();
+
+	private Entry first;
+
+	private Entry last;
+
+	private long nextSequence;
+
+	private long memorySize;
+
+	/**
+	 * Whether the contexts of an indexed operation changed since the index was
+	 * last built.
+	 */
+	private volatile boolean contextsChanged;
+
+	/**
+	 * Appends the operation to the list. An operation that is already in the
+	 * list is moved to the end.
+	 */
+	void add(IUndoableOperation operation) {
+		validateIndex();
+		remove(operation);
+		Entry entry = createEntry(operation);
+		link(entry, last);
+		entry.sequence = nextSequence++;
+		index(entry);
+	}
+
+	/**
+	 * Replaces the operation with the given replacements, each of which is
+	 * inserted at the position of the operation. This reverses the order of the
+	 * replacements.
+	 *
+	 * @return whether the operation was in the list
+	 */
+	boolean replace(IUndoableOperation operation, IUndoableOperation[] replacements) {
+		Entry entry = entries.get(operation);
+		if (entry == null) {
+			return false;
+		}
+		Entry previous = entry.previous;
+		remove(operation);
+		for (IUndoableOperation replacement : replacements) {
+			if (previous != null && previous.operation == replacement) {
+				previous = previous.previous;
+			}
+			remove(replacement);
+			Entry replacementEntry = createEntry(replacement);
+			link(replacementEntry, previous);
+		}
+		rebuildIndex();
+		return true;
+	}
+
+	/**
+	 * @return whether the operation was in the list
+	 */
+	boolean remove(IUndoableOperation operation) {
+		Entry entry = entries.remove(operation);
+		if (entry == null) {
+			return false;
+		}
+		if (entry.previous == null) {
+			first = entry.next;
+		} else {
+			entry.previous.next = entry.next;
+		}
+		if (entry.next == null) {
+			last = entry.previous;
+		} else {
+			entry.next.previous = entry.previous;
+		}
+		unindex(entry);
+		setTracked(entry, false);
+		memorySize -= entry.memorySize;
+		return true;
+	}
+
+	boolean contains(IUndoableOperation operation) {
+		return entries.containsKey(operation);
+	}
+
+	int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Called by an indexed operation when its contexts changed, possibly from
+	 * another thread.
+	 */
+	void contextsChanged() {
+		contextsChanged = true;
+	}
+
+	/**
+	 * Removes the context from an operation of the list and updates the index
+	 * of the operation.
+	 */
+	void removeContext(IUndoableOperation operation, IUndoContext context) {
+		Entry entry = entries.get(operation);
+		if (entry == null) {
+			operation.removeContext(context);
+			return;
+		}
+		validateIndex();
+		// the change is applied to the index right away, do not report it
+		boolean tracked = entry.tracked;
+		setTracked(entry, false);
+		try {
+			operation.removeContext(context);
+		} finally {
+			// removing a context may replace the operation in the history
+			if (entries.get(operation) == entry) {
+				setTracked(entry, tracked);
+				update(entry);
+			}
+		}
+	}
+
+	/**
+	 * Updates the index and the memory size of an operation after it changed.
+	 */
+	void update(IUndoableOperation operation) {
+		Entry entry = entries.get(operation);
+		if (entry != null) {
+			validateIndex();
+			update(entry);
+		}
+	}
+
+	private void update(Entry entry) {
+		memorySize -= entry.memorySize;
+		entry.memorySize = computeMemorySize(entry.operation);
+		memorySize += entry.memorySize;
+		if (entry.contexts == null) {
+			return;
+		}
+		IUndoContext[] contexts = entry.operation.getContexts();
+		Set<IUndoContext> remaining = Collections.newSetFromMap(new IdentityHashMap<IUndoContext, Boolean>());
+		Collections.addAll(remaining, entry.contexts);
+		for (IUndoContext context : contexts) {
+			if (!remaining.remove(context)) {
+				// the entry cannot be inserted in the middle of the index of
+				// the new context
+				rebuildIndex();
+				return;
+			}
+		}
+		for (IUndoContext context : remaining) {
+			unindex(entry, context);
+		}
+		entry.contexts = contexts;
+	}
+
+	/**
+	 * @return the least recently added operation, or <code>null</code>
+	 */
+	IUndoableOperation getFirst() {
+		return first == null ? null : first.operation;
+	}
+
+	/**
+	 * @return the operation added after the given one, or <code>null</code>
+	 */
+	IUndoableOperation getNext(IUndoableOperation operation) {
+		Entry entry = entries.get(operation);
+		if (entry == null || entry.next == null) {
+			return null;
+		}
+		return entry.next.operation;
+	}
+
+	/**
+	 * @return the most recently added operation with the context, or
+	 *         <code>null</code>
+	 */
+	IUndoableOperation getLast(IUndoContext context) {
+		validateIndex();
+		if (context == IOperationHistory.GLOBAL_UNDO_CONTEXT) {
+			for (Entry entry = last; entry != null; entry = entry.previous) {
+				if (entry.operation.hasContext(context)) {
+					return entry.operation;
+				}
+			}
+			return null;
+		}
+		Entry result = null;
+		for (ArrayDeque<Entry> contextEntries : getMatchingEntries(context)) {
+			Entry entry = contextEntries.peekLast();
+			if (result == null || entry.sequence > result.sequence) {
+				result = entry;
+			}
+		}
+		for (int i = unindexedEntries.size() - 1; i >= 0; i--) {
+			Entry entry = unindexedEntries.get(i);
+			if (result != null && entry.sequence < result.sequence) {
+				break;
+			}
+			if (entry.operation.hasContext(context)) {
+				result = entry;
+				break;
+			}
+		}
+		return result == null ? null : result.operation;
+	}
+
+	/**
+	 * @return the operations with the context, least recently added first
+	 */
+	IUndoableOperation[] get(IUndoContext context) {
+		List<Entry> contextEntries = getEntries(context);
+		IUndoableOperation[] operations = new IUndoableOperation[contextEntries.size()];
+		for (int i = 0; i < operations.length; i++) {
+			operations[i] = contextEntries.get(i).operation;
+		}
+		return operations;
+	}
+
+	/**
+	 * @return the number of operations with the context
+	 */
+	int size(IUndoContext context) {
+		ArrayDeque<Entry> contextEntries = getOnlyMatchingEntries(context);
+		if (contextEntries != null) {
+			return contextEntries.size();
+		}
+		return getEntries(context).size();
+	}
+
+	/**
+	 * @return at most <code>count</code> of the least recently added operations
+	 *         with the context, least recently added first
+	 */
+	List<IUndoableOperation> getFirst(IUndoContext context, int count) {
+		List<IUndoableOperation> operations = new ArrayList<>(count);
+		ArrayDeque<Entry> contextEntries = getOnlyMatchingEntries(context);
+		Iterator<Entry> iterator = contextEntries != null ? contextEntries.iterator()
+				: getEntries(context).iterator();
+		while (operations.size() < count && iterator.hasNext()) {
+			operations.add(iterator.next().operation);
+		}
+		return operations;
+	}
+
+	/**
+	 * @return the sum of the memory sizes reported by the operations
+	 */
+	long getMemorySize() {
+		return memorySize;
+	}
+
+	private Entry createEntry(IUndoableOperation operation) {
+		Entry entry = new Entry(operation);
+		entries.put(operation, entry);
+		setTracked(entry, operation instanceof AbstractOperation);
+		entry.memorySize = computeMemorySize(operation);
+		memorySize += entry.memorySize;
+		return entry;
+	}
+
+	private static long computeMemorySize(IUndoableOperation operation) {
+		if (operation instanceof IMemoryAwareOperation) {
+			return Math.max(0, ((IMemoryAwareOperation) operation).getMemorySize());
+		}
+		return 0;
+	}
+
+	/**
+	 * Links the entry after the given entry, or first if it is
+	 * <code>null</code>.
+	 */
+	private void link(Entry entry, Entry previous) {
+		entry.previous = previous;
+		entry.next = previous == null ? first : previous.next;
+		if (entry.next == null) {
+			last = entry;
+		} else {
+			entry.next.previous = entry;
+		}
+		if (previous == null) {
+			first = entry;
+		} else {
+			previous.next = entry;
+		}
+	}
+
+	private void setTracked(Entry entry, boolean tracked) {
+		if (entry.tracked == tracked) {
+			return;
+		}
+		entry.tracked = tracked;
+		AbstractOperation operation = (AbstractOperation) entry.operation;
+		if (tracked) {
+			operation.addIndexingList(this);
+		} else {
+			operation.removeIndexingList(this);
+		}
+	}
+
+	private void index(Entry entry) {
+		if (!entry.tracked) {
+			entry.contexts = null;
+			unindexedEntries.add(entry);
+			return;
+		}
+		entry.contexts = entry.operation.getContexts();
+		for (IUndoContext context : entry.contexts) {
+			entriesByContext.computeIfAbsent(context, key -> new ArrayDeque<>()).addLast(entry);
+		}
+	}
+
+	private void unindex(Entry entry) {
+		if (entry.contexts == null) {
+			unindexedEntries.remove(entry);
+			return;
+		}
+		for (IUndoContext context : entry.contexts) {
+			unindex(entry, context);
+		}
+		entry.contexts = null;
+	}
+
+	private void unindex(Entry entry, IUndoContext context) {
+		ArrayDeque<Entry> contextEntries = entriesByContext.get(context);
+		if (contextEntries == null) {
+			return;
+		}
+		// entries are mostly removed at either end of the history
+		if (entry.sequence - contextEntries.peekFirst().sequence < contextEntries.peekLast().sequence
+				- entry.sequence) {
+			contextEntries.removeFirstOccurrence(entry);
+		} else {
+			contextEntries.removeLastOccurrence(entry);
+		}
+		if (contextEntries.isEmpty()) {
+			entriesByContext.remove(context);
+		}
+	}
+
+	/**
+	 * Rebuilds the index if the contexts of an indexed operation changed since
+	 * it was last built.
+	 */
+	private void validateIndex() {
+		if (contextsChanged) {
+			rebuildIndex();
+		}
+	}
+
+	private void rebuildIndex() {
+		// reset before reading the contexts, so that concurrent changes cause
+		// another rebuild
+		contextsChanged = false;
+		entriesByContext.clear();
+		unindexedEntries.clear();
+		nextSequence = 0;
+		for (Entry entry = first; entry != null; entry = entry.next) {
+			entry.sequence = nextSequence++;
+			index(entry);
+		}
+	}
+
+	/**
+	 * @return the indexed entries of every context matching the given context
+	 */
+	private List<ArrayDeque<Entry>> getMatchingEntries(IUndoContext context) {
+		List<ArrayDeque<Entry>> matchingEntries = new ArrayList<>(1);
+		for (Map.Entry<IUndoContext, ArrayDeque<Entry>> mapEntry : entriesByContext.entrySet()) {
+			IUndoContext otherContext = mapEntry.getKey();
+			// same rule as AbstractOperation#hasContext
+			if (context.matches(otherContext) || otherContext.matches(context)) {
+				matchingEntries.add(mapEntry.getValue());
+			}
+		}
+		return matchingEntries;
+	}
+
+	/**
+	 * @return the entries of the context if they are exactly the entries of a
+	 *         single indexed context, <code>null</code> otherwise
+	 */
+	private ArrayDeque<Entry> getOnlyMatchingEntries(IUndoContext context) {
+		validateIndex();
+		if (context == IOperationHistory.GLOBAL_UNDO_CONTEXT || !unindexedEntries.isEmpty()) {
+			return null;
+		}
+		List<ArrayDeque<Entry>> matchingEntries = getMatchingEntries(context);
+		if (matchingEntries.size() != 1) {
+			return null;
+		}
+		return matchingEntries.get(0);
+	}
+
+	private List<Entry> getEntries(IUndoContext context) {
+		validateIndex();
+		List<Entry> result = new ArrayList<>();
+		if (context == IOperationHistory.GLOBAL_UNDO_CONTEXT) {
+			for (Entry entry = first; entry != null; entry = entry.next) {
+				if (entry.operation.hasContext(context)) {
+					result.add(entry);
+				}
+			}
+			return result;
+		}
+		List<ArrayDeque<Entry>> matchingEntries = getMatchingEntries(context);
+		if (matchingEntries.size() == 1 && unindexedEntries.isEmpty()) {
+			result.addAll(matchingEntries.get(0));
+			return result;
+		}
+		Set<Entry> found = Collections.newSetFromMap(new IdentityHashMap<Entry, Boolean>());
+		for (ArrayDeque<Entry> contextEntries : matchingEntries) {
+			for (Entry entry : contextEntries) {
+				if (found.add(entry)) {
+					result.add(entry);
+				}
+			}
+		}
+		for (Entry entry : unindexedEntries) {
+			if (entry.operation.hasContext(context)) {
+				result.add(entry);
+			}
+		}
+		result.sort(SEQUENCE_ORDER);
+		return result;
+	}
+}
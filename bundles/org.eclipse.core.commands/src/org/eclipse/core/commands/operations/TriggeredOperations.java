@@ -292,7 +292,7 @@ public final class TriggeredOperations extends AbstractOperation implements
 			}
 		}
 		contexts = allContexts;
-
+		contextsChanged();
 	}
 
 	/*
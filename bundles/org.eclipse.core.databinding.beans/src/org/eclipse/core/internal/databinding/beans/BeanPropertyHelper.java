@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2014 Matthew Hall and others.
+ * Copyright (c) 2008, 2018 Matthew Hall and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -18,10 +18,16 @@ import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.databinding.observable.value.IObservableValue;
 import org.eclipse.core.databinding.util.Policy;
@@ -33,6 +39,126 @@ import org.eclipse.core.runtime.Status;
  *
  */
 public class BeanPropertyHelper {
+	private static final MethodType READ_TYPE = MethodType.methodType(
+			Object.class, Object.class);
+
+	private static final MethodType WRITE_TYPE = MethodType.methodType(
+			void.class, Object.class, Object.class);
+
+	/**
+	 * The accessors of the read and write methods of each class, created once
+	 * and shared by all properties. Keyed by the declaring class so that the
+	 * cache does not prevent classes from being unloaded.
+	 */
+	private static final ClassValue<Map<Method, Accessor>> ACCESSORS = new ClassValue<Map<Method, Accessor>>() {
+		@Override
+		protected Map<Method, Accessor> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	/**
+	 * A method handle for a read or write method, adapted to take and return
+	 * plain objects, together with the types needed to reject illegal
+	 * arguments the way {@link Method#invoke(Object, Object...)} does.
+	 */
+	private static final class Accessor {
+		final MethodHandle handle;
+
+		final Class<?> declaringClass;
+
+		/**
+		 * The boxed type of the value of a write method, <code>null</code> for
+		 * read methods.
+		 */
+		final Class<?> valueType;
+
+		final boolean primitiveValue;
+
+		Accessor(Method method, MethodType type) throws IllegalAccessException {
+			if (!method.isAccessible()) {
+				method.setAccessible(true);
+			}
+			handle = MethodHandles.lookup().unreflect(method).asType(type);
+			declaringClass = method.getDeclaringClass();
+			Class<?>[] parameterTypes = method.getParameterTypes();
+			if (parameterTypes.length == 1) {
+				valueType = MethodType.methodType(parameterTypes[0]).wrap()
+						.returnType();
+				primitiveValue = parameterTypes[0].isPrimitive();
+			} else {
+				valueType = null;
+				primitiveValue = false;
+			}
+		}
+
+		/**
+		 * Checks the arguments and returns the value to pass to the method,
+		 * widened like {@link Method#invoke(Object, Object...)} widens boxed
+		 * primitives, e.g. from an <code>Integer</code> to a <code>long</code>.
+		 */
+		Object checkArguments(Object source, Object value) {
+			if (!declaringClass.isInstance(source)) {
+				throw new IllegalArgumentException(
+						"object is not an instance of declaring class"); //$NON-NLS-1$
+			}
+			if (valueType == null || valueType.isInstance(value)) {
+				return value;
+			}
+			if (!primitiveValue) {
+				if (value == null) {
+					return null;
+				}
+				throw new IllegalArgumentException("argument type mismatch"); //$NON-NLS-1$
+			}
+			if (value == null) {
+				throw new IllegalArgumentException("argument type mismatch"); //$NON-NLS-1$
+			}
+			return widen(value, valueType);
+		}
+	}
+
+	/**
+	 * The boxed primitive types, each of which can be widened to the types
+	 * after it, except that nothing widens to <code>Character</code> and a
+	 * <code>Character</code> only widens to <code>Integer</code> and after.
+	 */
+	private static final List<Class<?>> WIDENING_ORDER = Arrays.asList(
+			Byte.class, Short.class, Character.class, Integer.class,
+			Long.class, Float.class, Double.class);
+
+	private static Object widen(Object value, Class<?> type) {
+		int from = WIDENING_ORDER.indexOf(value.getClass());
+		int to = WIDENING_ORDER.indexOf(type);
+		if (from == -1 || to <= from || type == Character.class) {
+			throw new IllegalArgumentException("argument type mismatch"); //$NON-NLS-1$
+		}
+		Number number = value instanceof Character ? Integer
+				.valueOf(((Character) value).charValue()) : (Number) value;
+		if (type == Short.class) {
+			return Short.valueOf(number.shortValue());
+		} else if (type == Integer.class) {
+			return Integer.valueOf(number.intValue());
+		} else if (type == Long.class) {
+			return Long.valueOf(number.longValue());
+		} else if (type == Float.class) {
+			return Float.valueOf(number.floatValue());
+		}
+		return Double.valueOf(number.doubleValue());
+	}
+
+	private static Accessor getAccessor(Method method, MethodType type)
+			throws IllegalAccessException {
+		Map<Method, Accessor> accessors = ACCESSORS.get(method
+				.getDeclaringClass());
+		Accessor accessor = accessors.get(method);
+		if (accessor == null) {
+			accessor = new Accessor(method, type);
+			accessors.put(method, accessor);
+		}
+		return accessor;
+	}
+
 	/**
 	 * Sets the contents of the given property on the given source object to the
 	 * given value.
@@ -53,10 +179,13 @@ public class BeanPropertyHelper {
 						"Missing public setter method for " //$NON-NLS-1$
 								+ propertyDescriptor.getName() + " property"); //$NON-NLS-1$
 			}
-			if (!writeMethod.isAccessible()) {
-				writeMethod.setAccessible(true);
+			Accessor accessor = getAccessor(writeMethod, WRITE_TYPE);
+			Object argument = accessor.checkArguments(source, value);
+			try {
+				accessor.handle.invokeExact(source, argument);
+			} catch (Throwable t) {
+				throw new InvocationTargetException(t);
 			}
-			writeMethod.invoke(source, new Object[] { value });
 		} catch (InvocationTargetException e) {
 			/*
 			 * InvocationTargetException wraps any exception thrown by the
@@ -90,10 +219,13 @@ public class BeanPropertyHelper {
 				throw new IllegalArgumentException(propertyDescriptor.getName()
 						+ " property does not have a read method."); //$NON-NLS-1$
 			}
-			if (!readMethod.isAccessible()) {
-				readMethod.setAccessible(true);
+			Accessor accessor = getAccessor(readMethod, READ_TYPE);
+			accessor.checkArguments(source, null);
+			try {
+				return (Object) accessor.handle.invokeExact(source);
+			} catch (Throwable t) {
+				throw new InvocationTargetException(t);
 			}
-			return readMethod.invoke(source);
 		} catch (InvocationTargetException e) {
 			/*
 			 * InvocationTargetException wraps any exception thrown by the
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,9 +11,20 @@
  *******************************************************************************/
 package org.eclipse.core.internal.databinding.beans;
 
+import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.eclipse.core.databinding.beans.BeansObservables;
 import org.eclipse.core.databinding.util.Policy;
@@ -24,10 +35,48 @@ import org.eclipse.core.runtime.Status;
 /**
  * This is a helper that will hook up and listen for
  * <code>PropertyChangeEvent</code> events for a set of target JavaBeans
+ * <p>
+ * All listeners hooked to a bean share a single multiplexing listener which
+ * dispatches the events by property name. It is registered with the bean only
+ * once, or once per property name if the bean has no unnamed registration
+ * method.
+ * </p>
  *
  * @since 1.0
  */
 public class BeanPropertyListenerSupport {
+	private static final MethodType LISTENER_METHOD_TYPE = MethodType
+			.methodType(void.class, Object.class, PropertyChangeListener.class);
+
+	private static final MethodType NAMED_LISTENER_METHOD_TYPE = MethodType
+			.methodType(void.class, Object.class, String.class,
+					PropertyChangeListener.class);
+
+	private static final String ADD_METHOD = "addPropertyChangeListener"; //$NON-NLS-1$
+
+	private static final String REMOVE_METHOD = "removePropertyChangeListener"; //$NON-NLS-1$
+
+	private static final String ADD_ERROR = "Could not attach listener to "; //$NON-NLS-1$
+
+	private static final String REMOVE_ERROR = "Cound not remove listener from "; //$NON-NLS-1$
+
+	private static final ClassValue<ListenerMethods> LISTENER_METHODS = new ClassValue<ListenerMethods>() {
+		@Override
+		protected ListenerMethods computeValue(Class<?> type) {
+			return new ListenerMethods(type);
+		}
+	};
+
+	/**
+	 * The multiplexing listener of each bean with hooked listeners. Guarded by
+	 * itself. The multiplexers are only referenced weakly since the hooked
+	 * listeners usually reference the bean; the bean keeps its multiplexer
+	 * alive while it is registered.
+	 */
+	private static final Map<BeanReference, WeakReference<Multiplexer>> multiplexers = new HashMap<>();
+
+	private static final ReferenceQueue<Object> collectedBeans = new ReferenceQueue<>();
+
 	/**
 	 * Start listen to target (if it supports the JavaBean property change
 	 * listener pattern)
@@ -41,8 +90,43 @@ public class BeanPropertyListenerSupport {
 		Assert.isNotNull(bean, "Bean cannot be null"); //$NON-NLS-1$
 		Assert.isNotNull(listener, "Listener cannot be null"); //$NON-NLS-1$
 		Assert.isNotNull(propertyName, "Property name cannot be null"); //$NON-NLS-1$
-		processListener(bean, propertyName, listener,
-				"addPropertyChangeListener", "Could not attach listener to ");//$NON-NLS-1$ //$NON-NLS-2$
+		while (true) {
+			Multiplexer multiplexer;
+			synchronized (multiplexers) {
+				expungeCollectedBeans();
+				multiplexer = getMultiplexer(new BeanReference(bean, null));
+				if (multiplexer == null) {
+					ListenerMethods methods = LISTENER_METHODS.get(bean
+							.getClass());
+					if (methods.add == null && methods.namedAdd == null) {
+						if (methods.error != null) {
+							log(IStatus.WARNING, ADD_ERROR + bean,
+									methods.error);
+						}
+						return;
+					}
+					multiplexer = new Multiplexer(methods);
+					multiplexers.put(new BeanReference(bean, collectedBeans),
+							new WeakReference<>(multiplexer));
+				}
+			}
+
+			// Bean code may block or call back, so it is only called while
+			// holding the lock of the bean's multiplexer
+			synchronized (multiplexer) {
+				if (multiplexer.disposed) {
+					// emptied by a concurrent unhook, use a new one
+					continue;
+				}
+				boolean register = !multiplexer.isRegistered(propertyName);
+				multiplexer.add(propertyName, listener);
+				if (register && !multiplexer.register(bean, propertyName)) {
+					multiplexer.remove(propertyName, listener);
+					disposeIfEmpty(bean, multiplexer);
+				}
+				return;
+			}
+		}
 	}
 
 	/**
@@ -58,11 +142,56 @@ public class BeanPropertyListenerSupport {
 		Assert.isNotNull(listener, "Listener cannot be null"); //$NON-NLS-1$
 		Assert.isNotNull(propertyName, "Property name cannot be null"); //$NON-NLS-1$
 
-		processListener(
-				bean,
-				propertyName,
-				listener,
-				"removePropertyChangeListener", "Cound not remove listener from "); //$NON-NLS-1$ //$NON-NLS-2$
+		Multiplexer multiplexer;
+		synchronized (multiplexers) {
+			multiplexer = getMultiplexer(new BeanReference(bean, null));
+		}
+		if (multiplexer != null) {
+			synchronized (multiplexer) {
+				if (!multiplexer.disposed
+						&& multiplexer.remove(propertyName, listener)) {
+					if (!multiplexer.isRegistered(propertyName)) {
+						multiplexer.unregister(bean, propertyName);
+					}
+					disposeIfEmpty(bean, multiplexer);
+					return;
+				}
+			}
+		}
+
+		// The listener was not hooked through this class, so remove it
+		// directly
+		processListener(bean, propertyName, listener, REMOVE_METHOD,
+				REMOVE_ERROR);
+	}
+
+	private static Multiplexer getMultiplexer(BeanReference key) {
+		WeakReference<Multiplexer> reference = multiplexers.get(key);
+		return reference == null ? null : reference.get();
+	}
+
+	/**
+	 * Removes the multiplexer of the bean if it has no listeners left. Must be
+	 * called while holding the lock of the multiplexer.
+	 */
+	private static void disposeIfEmpty(Object bean, Multiplexer multiplexer) {
+		if (!multiplexer.isEmpty()) {
+			return;
+		}
+		multiplexer.disposed = true;
+		synchronized (multiplexers) {
+			BeanReference key = new BeanReference(bean, null);
+			if (getMultiplexer(key) == multiplexer) {
+				multiplexers.remove(key);
+			}
+		}
+	}
+
+	private static void expungeCollectedBeans() {
+		Reference<?> reference;
+		while ((reference = collectedBeans.poll()) != null) {
+			multiplexers.remove(reference);
+		}
 	}
 
 	/**
@@ -132,4 +261,226 @@ public class BeanPropertyListenerSupport {
 							message, throwable));
 		}
 	}
+
+	/**
+	 * The property change listener registration methods of a bean class,
+	 * looked up once per class.
+	 */
+	private static final class ListenerMethods {
+		final MethodHandle add;
+
+		final MethodHandle remove;
+
+		final MethodHandle namedAdd;
+
+		final MethodHandle namedRemove;
+
+		/**
+		 * The reason why the add methods are missing, if they are.
+		 */
+		NoSuchMethodException error;
+
+		ListenerMethods(Class<?> type) {
+			add = findMethod(type, ADD_METHOD, LISTENER_METHOD_TYPE);
+			remove = findMethod(type, REMOVE_METHOD, LISTENER_METHOD_TYPE);
+			namedAdd = findMethod(type, ADD_METHOD, NAMED_LISTENER_METHOD_TYPE);
+			namedRemove = findMethod(type, REMOVE_METHOD,
+					NAMED_LISTENER_METHOD_TYPE);
+		}
+
+		private MethodHandle findMethod(Class<?> type, String name,
+				MethodType methodType) {
+			try {
+				Method method = type.getMethod(name, methodType
+						.dropParameterTypes(0, 1).parameterArray());
+				if (!method.isAccessible()) {
+					method.setAccessible(true);
+				}
+				return MethodHandles.lookup().unreflect(method)
+						.asType(methodType);
+			} catch (NoSuchMethodException e) {
+				if (error == null) {
+					error = e;
+				}
+			} catch (SecurityException | IllegalAccessException e) {
+				// ignore
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * The single listener registered with a bean, dispatching the events to
+	 * the listeners hooked for the property. It is registered once through the
+	 * unnamed registration method and filters the events by property name.
+	 * Only beans without that method get it registered once per property name
+	 * through the named method.
+	 * <p>
+	 * The listener maps are changed, and the registration methods of the bean
+	 * called, while holding the lock of the multiplexer, so a registration
+	 * always matches the listeners. The registry lock is never held while
+	 * bean code runs.
+	 * </p>
+	 */
+	private static final class Multiplexer implements PropertyChangeListener {
+		private final ListenerMethods methods;
+
+		/**
+		 * Whether the receiver has lost its last listener and has been removed
+		 * from the registry. Guarded by the receiver.
+		 */
+		boolean disposed;
+
+		/**
+		 * The listeners by property name. Replaced on every change so that
+		 * events can be dispatched without locking.
+		 */
+		private volatile Map<String, PropertyChangeListener[]> listeners = Collections
+				.emptyMap();
+
+		Multiplexer(ListenerMethods methods) {
+			this.methods = methods;
+		}
+
+		/**
+		 * @return <code>true</code> if the receiver is registered with the
+		 *         bean for events of the property
+		 */
+		boolean isRegistered(String propertyName) {
+			return methods.add != null ? !listeners.isEmpty() : listeners
+					.containsKey(propertyName);
+		}
+
+		void add(String propertyName, PropertyChangeListener listener) {
+			Map<String, PropertyChangeListener[]> newListeners = new HashMap<>(
+					listeners);
+			PropertyChangeListener[] current = newListeners.get(propertyName);
+			PropertyChangeListener[] updated;
+			if (current == null) {
+				updated = new PropertyChangeListener[] { listener };
+			} else {
+				updated = Arrays.copyOf(current, current.length + 1);
+				updated[current.length] = listener;
+			}
+			newListeners.put(propertyName, updated);
+			listeners = newListeners;
+		}
+
+		/**
+		 * @return <code>true</code> if the listener was hooked
+		 */
+		boolean remove(String propertyName, PropertyChangeListener listener) {
+			PropertyChangeListener[] current = listeners.get(propertyName);
+			int index = current == null ? -1 : Arrays.asList(current).indexOf(
+					listener);
+			if (index == -1) {
+				return false;
+			}
+			Map<String, PropertyChangeListener[]> newListeners = new HashMap<>(
+					listeners);
+			if (current.length == 1) {
+				newListeners.remove(propertyName);
+			} else {
+				PropertyChangeListener[] updated = new PropertyChangeListener[current.length - 1];
+				System.arraycopy(current, 0, updated, 0, index);
+				System.arraycopy(current, index + 1, updated, index,
+						updated.length - index);
+				newListeners.put(propertyName, updated);
+			}
+			listeners = newListeners;
+			return true;
+		}
+
+		/**
+		 * Registers the receiver with the bean for events of the property.
+		 *
+		 * @return <code>false</code> if the registration failed
+		 */
+		boolean register(Object bean, String propertyName) {
+			try {
+				if (methods.add != null) {
+					methods.add.invokeExact(bean,
+							(PropertyChangeListener) this);
+				} else {
+					methods.namedAdd.invokeExact(bean, propertyName,
+							(PropertyChangeListener) this);
+				}
+				return true;
+			} catch (Throwable t) {
+				log(IStatus.WARNING, ADD_ERROR + bean, t);
+				return false;
+			}
+		}
+
+		void unregister(Object bean, String propertyName) {
+			try {
+				if (methods.add != null) {
+					if (methods.remove != null) {
+						methods.remove.invokeExact(bean,
+								(PropertyChangeListener) this);
+					}
+				} else if (methods.namedRemove != null) {
+					methods.namedRemove.invokeExact(bean, propertyName,
+							(PropertyChangeListener) this);
+				}
+			} catch (Throwable t) {
+				log(IStatus.WARNING, REMOVE_ERROR + bean, t);
+			}
+		}
+
+		boolean isEmpty() {
+			return listeners.isEmpty();
+		}
+
+		@Override
+		public void propertyChange(PropertyChangeEvent evt) {
+			Map<String, PropertyChangeListener[]> current = listeners;
+			String propertyName = evt.getPropertyName();
+			if (propertyName == null) {
+				for (PropertyChangeListener[] propertyListeners : current
+						.values()) {
+					for (PropertyChangeListener listener : propertyListeners) {
+						listener.propertyChange(evt);
+					}
+				}
+			} else {
+				PropertyChangeListener[] propertyListeners = current
+						.get(propertyName);
+				if (propertyListeners != null) {
+					for (PropertyChangeListener listener : propertyListeners) {
+						listener.propertyChange(evt);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * A weak reference to a bean which compares by the identity of the bean.
+	 */
+	private static final class BeanReference extends WeakReference<Object> {
+		private final int hashCode;
+
+		BeanReference(Object bean, ReferenceQueue<Object> queue) {
+			super(bean, queue);
+			hashCode = System.identityHashCode(bean);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof BeanReference)) {
+				return false;
+			}
+			Object bean = get();
+			return bean != null && bean == ((BeanReference) obj).get();
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2016 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,12 +16,27 @@ package org.eclipse.core.databinding;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 
+import org.eclipse.core.databinding.observable.IChangeListener;
 import org.eclipse.core.databinding.observable.IObservableCollection;
+import org.eclipse.core.databinding.observable.IStaleListener;
+import org.eclipse.core.databinding.observable.ObservableTracker;
 import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.StaleEvent;
+import org.eclipse.core.databinding.observable.list.IListChangeListener;
+import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.databinding.observable.list.ListChangeEvent;
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
 import org.eclipse.core.databinding.observable.value.ComputedValue;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.IValueChangeListener;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
 import org.eclipse.core.databinding.util.Policy;
 import org.eclipse.core.internal.databinding.BindingMessages;
 import org.eclipse.core.runtime.IStatus;
@@ -61,6 +76,36 @@ public final class AggregateValidationStatus extends ComputedValue<IStatus> {
 	private int strategy;
 	private IObservableCollection validationStatusProviders;
 
+	/**
+	 * The tracked validation status providers, or <code>null</code> while the
+	 * receiver has no listeners. Instead of reading every validation status on
+	 * each change, an observed receiver listens to the individual validation
+	 * statuses and keeps the non-OK ones sorted, so that a change costs O(log
+	 * n).
+	 */
+	private Map<ValidationStatusProvider, ProviderEntry> entries;
+
+	/**
+	 * The entries with a non-OK status in the order of the providers.
+	 */
+	private TreeSet<ProviderEntry> problems;
+
+	/**
+	 * The entries with a non-OK status, most severe first and in the order of
+	 * the providers for the same severity.
+	 */
+	private TreeSet<ProviderEntry> problemsBySeverity;
+
+	private long nextSequence;
+
+	private int staleCount;
+
+	private IChangeListener providersListener;
+
+	private IListChangeListener providersListListener;
+
+	private IStaleListener providersStaleListener;
+
 	/**
 	 * Creates a new aggregate validation status observable for the given data
 	 * binding context.
@@ -112,15 +157,251 @@ public final class AggregateValidationStatus extends ComputedValue<IStatus> {
 
 	@Override
 	protected IStatus calculate() {
-		IStatus result;
-		if (strategy == MERGED) {
-			result = getStatusMerged(validationStatusProviders);
-		} else {
-			result = getStatusMaxSeverity(validationStatusProviders);
+		if (entries == null) {
+			if (!hasListeners()) {
+				// Nobody is notified of changes, so do not keep listeners on
+				// the providers
+				return strategy == MERGED ? getStatusMerged(validationStatusProviders)
+						: getStatusMaxSeverity(validationStatusProviders);
+			}
+			ObservableTracker.runAndIgnore(this::startTracking);
+		}
+		if (problems.isEmpty()) {
+			return Status.OK_STATUS;
+		}
+		if (strategy != MERGED) {
+			return problemsBySeverity.first().status;
+		}
+		if (problems.size() == 1) {
+			return problems.first().status;
+		}
+		MultiStatus result = new MultiStatus(Policy.JFACE_DATABINDING, 0,
+				BindingMessages.getString(BindingMessages.MULTIPLE_PROBLEMS),
+				null);
+		for (ProviderEntry entry : problems) {
+			result.merge(entry.status);
 		}
 		return result;
 	}
 
+	@Override
+	public boolean isStale() {
+		getValue();
+		if (entries == null) {
+			return super.isStale();
+		}
+		return isTrackedStale();
+	}
+
+	private boolean isTrackedStale() {
+		return staleCount > 0 || validationStatusProviders.isStale();
+	}
+
+	@Override
+	protected void lastListenerRemoved() {
+		super.lastListenerRemoved();
+		if (entries != null) {
+			stopTracking();
+			makeDirty();
+		}
+	}
+
+	@Override
+	public synchronized void dispose() {
+		stopTracking();
+		super.dispose();
+	}
+
+	private void startTracking() {
+		entries = new HashMap<>();
+		problems = new TreeSet<>(
+				Comparator.comparingLong((ProviderEntry entry) -> entry.sequence));
+		problemsBySeverity = new TreeSet<>(Comparator
+				.comparingInt((ProviderEntry entry) -> -entry.status.getSeverity())
+				.thenComparingLong(entry -> entry.sequence));
+		if (validationStatusProviders instanceof IObservableList) {
+			providersListListener = this::handleProvidersChange;
+			((IObservableList) validationStatusProviders)
+					.addListChangeListener(providersListListener);
+		} else {
+			providersListener = event -> synchronizeProviders();
+			validationStatusProviders.addChangeListener(providersListener);
+		}
+		providersStaleListener = event -> {
+			if (staleCount == 0) {
+				fireStale();
+			}
+		};
+		validationStatusProviders.addStaleListener(providersStaleListener);
+		synchronizeProviders();
+	}
+
+	private void stopTracking() {
+		if (entries == null) {
+			return;
+		}
+		if (providersListListener != null) {
+			((IObservableList) validationStatusProviders)
+					.removeListChangeListener(providersListListener);
+			providersListListener = null;
+		}
+		if (providersListener != null) {
+			validationStatusProviders.removeChangeListener(providersListener);
+			providersListener = null;
+		}
+		validationStatusProviders.removeStaleListener(providersStaleListener);
+		providersStaleListener = null;
+		for (ProviderEntry entry : entries.values()) {
+			entry.dispose();
+		}
+		entries = null;
+		problems = null;
+		problemsBySeverity = null;
+		staleCount = 0;
+	}
+
+	/**
+	 * Applies the changes of the provider list. Providers appended to the end
+	 * or removed keep the order of the others; any other change resynchronizes
+	 * all providers.
+	 */
+	private void handleProvidersChange(ListChangeEvent event) {
+		ObservableTracker.runAndIgnore(() -> {
+			for (ListDiffEntry difference : event.diff.getDifferences()) {
+				ValidationStatusProvider provider = (ValidationStatusProvider) difference
+						.getElement();
+				if (difference.isAddition()) {
+					if (difference.getPosition() != entries.size()
+							|| entries.containsKey(provider)) {
+						synchronizeProviders();
+						return;
+					}
+					addEntry(provider, nextSequence++);
+				} else {
+					ProviderEntry entry = entries.remove(provider);
+					if (entry == null) {
+						synchronizeProviders();
+						return;
+					}
+					removeEntry(entry);
+				}
+			}
+			makeDirty();
+		});
+	}
+
+	/**
+	 * Tracks exactly the current providers, numbered in iteration order.
+	 */
+	private void synchronizeProviders() {
+		ObservableTracker.runAndIgnore(() -> {
+			Map<ValidationStatusProvider, ProviderEntry> oldEntries = entries;
+			entries = new HashMap<>();
+			problems.clear();
+			problemsBySeverity.clear();
+			nextSequence = 0;
+			for (Iterator it = validationStatusProviders.iterator(); it
+					.hasNext();) {
+				ValidationStatusProvider provider = (ValidationStatusProvider) it
+						.next();
+				if (entries.containsKey(provider)) {
+					continue;
+				}
+				ProviderEntry entry = oldEntries.remove(provider);
+				if (entry == null) {
+					addEntry(provider, nextSequence++);
+				} else {
+					entry.sequence = nextSequence++;
+					entries.put(provider, entry);
+					addProblem(entry);
+				}
+			}
+			for (ProviderEntry entry : oldEntries.values()) {
+				entry.dispose();
+			}
+			makeDirty();
+		});
+	}
+
+	private void addEntry(ValidationStatusProvider provider, long sequence) {
+		ProviderEntry entry = new ProviderEntry(provider, sequence);
+		entries.put(provider, entry);
+		addProblem(entry);
+	}
+
+	private void removeEntry(ProviderEntry entry) {
+		removeProblem(entry);
+		entry.dispose();
+	}
+
+	private void addProblem(ProviderEntry entry) {
+		if (entry.status != null && !entry.status.isOK()) {
+			problems.add(entry);
+			problemsBySeverity.add(entry);
+		}
+	}
+
+	private void removeProblem(ProviderEntry entry) {
+		if (entry.status != null && !entry.status.isOK()) {
+			problems.remove(entry);
+			problemsBySeverity.remove(entry);
+		}
+	}
+
+	/**
+	 * Listens to the validation status of one provider.
+	 */
+	private final class ProviderEntry implements IValueChangeListener,
+			IStaleListener {
+		private final IObservableValue validationStatus;
+
+		long sequence;
+
+		IStatus status;
+
+		private boolean stale;
+
+		ProviderEntry(ValidationStatusProvider provider, long sequence) {
+			this.sequence = sequence;
+			validationStatus = provider.getValidationStatus();
+			status = (IStatus) validationStatus.getValue();
+			validationStatus.addValueChangeListener(this);
+			validationStatus.addStaleListener(this);
+			setStale(validationStatus.isStale());
+		}
+
+		@Override
+		public void handleValueChange(ValueChangeEvent event) {
+			removeProblem(this);
+			status = (IStatus) event.diff.getNewValue();
+			addProblem(this);
+			setStale(validationStatus.isStale());
+			makeDirty();
+		}
+
+		@Override
+		public void handleStale(StaleEvent staleEvent) {
+			boolean wasStale = isTrackedStale();
+			setStale(true);
+			if (!wasStale) {
+				fireStale();
+			}
+		}
+
+		private void setStale(boolean stale) {
+			if (this.stale != stale) {
+				this.stale = stale;
+				staleCount += stale ? 1 : -1;
+			}
+		}
+
+		void dispose() {
+			setStale(false);
+			validationStatus.removeValueChangeListener(this);
+			validationStatus.removeStaleListener(this);
+		}
+	}
+
 	/**
 	 * Returns a status object that merges multiple non-OK status objects in a
 	 * {@link MultiStatus}. Returns an OK status result if all statuses from the
@@ -14,6 +14,8 @@
 package org.eclipse.e4.ui.css.swt.internal.theme;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -21,6 +23,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -38,6 +41,7 @@ import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.RegistryFactory;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.e4.ui.css.core.dom.ExtendedDocumentCSS;
 import org.eclipse.e4.ui.css.core.engine.CSSElementContext;
 import org.eclipse.e4.ui.css.core.engine.CSSEngine;
 import org.eclipse.e4.ui.css.core.util.impl.resources.FileResourcesLocatorImpl;
@@ -58,6 +62,8 @@ import org.osgi.service.prefs.BackingStoreException;
 import org.w3c.css.sac.InputSource;
 import org.w3c.dom.Element;
 import org.w3c.dom.css.CSSStyleDeclaration;
+import org.w3c.dom.css.DocumentCSS;
+import org.w3c.dom.stylesheets.StyleSheet;
 
 public class ThemeEngine implements IThemeEngine {
 	private List<Theme> themes = new ArrayList<>();
@@ -75,6 +81,23 @@ public class ThemeEngine implements IThemeEngine {
 	private HashMap<String, List<String>> modifiedStylesheets = new HashMap<>();
 	private HashMap<String, List<IResourceLocator>> sourceLocators = new HashMap<>();
 
+	/**
+	 * The parsed style sheets by URL. A parsed style sheet is shared by all CSS
+	 * engines and reused by later theme switches as long as the content of the
+	 * style sheet does not change.
+	 */
+	private HashMap<String, ParsedStyleSheet> parsedStyleSheets = new HashMap<>();
+
+	private static class ParsedStyleSheet {
+		final byte[] content;
+		final StyleSheet styleSheet;
+
+		ParsedStyleSheet(byte[] content, StyleSheet styleSheet) {
+			this.content = content;
+			this.styleSheet = styleSheet;
+		}
+	}
+
 	private static final String THEMEID_KEY = "themeid";
 
 	public static final String THEME_PLUGIN_ID = "org.eclipse.e4.ui.css.swt.theme";
@@ -413,29 +436,9 @@ public class ThemeEngine implements IThemeEngine {
 				}
 			}
 			for (String stylesheet : getAllStyles(theme.getId())) {
-				URL url;
-				InputStream stream = null;
 				try {
-					url = FileLocator.resolve(new URL(stylesheet.toString()));
-					for (CSSEngine engine : cssEngines) {
-						try {
-							stream = url.openStream();
-							InputSource source = new InputSource();
-							source.setByteStream(stream);
-							source.setURI(url.toString());
-							engine.parseStyleSheet(source);
-						} catch (IOException e) {
-							ThemeEngineManager.logError(e.getMessage(), e);
-						} finally {
-							if (stream != null) {
-								try {
-									stream.close();
-								} catch (IOException e) {
-									ThemeEngineManager.logError(e.getMessage(), e);
-								}
-							}
-						}
-					}
+					URL url = FileLocator.resolve(new URL(stylesheet.toString()));
+					addStyleSheet(url);
 				} catch (IOException e) {
 					ThemeEngineManager.logError(e.getMessage(), e);
 				}
@@ -461,6 +464,49 @@ public class ThemeEngine implements IThemeEngine {
 		}
 	}
 
+	/**
+	 * Adds the style sheet at the given URL to every CSS engine. The style
+	 * sheet is only parsed once and the parsed rules are shared by all engines
+	 * whose document supports adding style sheets.
+	 */
+	private void addStyleSheet(URL url) throws IOException {
+		String uri = url.toString();
+		byte[] content = readContent(url);
+		ParsedStyleSheet parsed = parsedStyleSheets.get(uri);
+		StyleSheet shared = parsed != null && Arrays.equals(parsed.content, content) ? parsed.styleSheet : null;
+		for (CSSEngine engine : cssEngines) {
+			DocumentCSS document = engine.getDocumentCSS();
+			if (shared != null && document instanceof ExtendedDocumentCSS) {
+				((ExtendedDocumentCSS) document).addStyleSheet(shared);
+				continue;
+			}
+			try {
+				InputSource source = new InputSource();
+				source.setByteStream(new ByteArrayInputStream(content));
+				source.setURI(uri);
+				StyleSheet styleSheet = engine.parseStyleSheet(source);
+				if (shared == null) {
+					shared = styleSheet;
+					parsedStyleSheets.put(uri, new ParsedStyleSheet(content, styleSheet));
+				}
+			} catch (IOException e) {
+				ThemeEngineManager.logError(e.getMessage(), e);
+			}
+		}
+	}
+
+	private static byte[] readContent(URL url) throws IOException {
+		try (InputStream stream = url.openStream()) {
+			ByteArrayOutputStream content = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = stream.read(buffer)) != -1) {
+				content.write(buffer, 0, read);
+			}
+			return content.toByteArray();
+		}
+	}
+
 	/**
 	 * Broadcast theme-change event using OSGi Event Admin.
 	 */
@@ -586,6 +632,8 @@ public class ThemeEngine implements IThemeEngine {
 
 	public void themeModified(ITheme theme, List<String> paths) {
 		modifiedStylesheets.put(theme.getId(), paths);
+		// the modified style sheets may import style sheets that changed as well
+		parsedStyleSheets.clear();
 		setTheme(theme, false, true);
 	}
 
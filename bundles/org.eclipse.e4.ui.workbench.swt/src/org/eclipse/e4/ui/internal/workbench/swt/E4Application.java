@@ -298,6 +298,11 @@ public class E4Application implements IApplication {
 			appContext.set(E4Workbench.RENDERER_FACTORY_URI, rendererFactoryURIValue);
 		});
 
+		Optional<String> deferredRendering = getArgValue(E4Workbench.DEFERRED_RENDERING, applicationContext, true);
+		deferredRendering.ifPresent(deferredRenderingValue -> {
+			appContext.set(E4Workbench.DEFERRED_RENDERING, Boolean.valueOf(deferredRenderingValue));
+		});
+
 		// This is a default arg, if missing we use the default rendering engine
 		Optional<String> presentationURI = getArgValue(IWorkbench.PRESENTATION_URI_ARG, applicationContext, false);
 		appContext.set(IWorkbench.PRESENTATION_URI_ARG, presentationURI.orElse(PartRenderingEngine.engineURI));
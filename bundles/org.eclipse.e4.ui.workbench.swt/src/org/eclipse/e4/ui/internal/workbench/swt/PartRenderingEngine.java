@@ -21,6 +21,8 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -58,6 +60,7 @@ import org.eclipse.e4.ui.di.Focus;
 import org.eclipse.e4.ui.di.PersistState;
 import org.eclipse.e4.ui.internal.workbench.Activator;
 import org.eclipse.e4.ui.internal.workbench.E4Workbench;
+import org.eclipse.e4.ui.internal.workbench.PartServiceImpl;
 import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.MApplicationElement;
 import org.eclipse.e4.ui.model.application.MContribution;
@@ -67,6 +70,8 @@ import org.eclipse.e4.ui.model.application.ui.MGenericStack;
 import org.eclipse.e4.ui.model.application.ui.MUIElement;
 import org.eclipse.e4.ui.model.application.ui.advanced.MPerspective;
 import org.eclipse.e4.ui.model.application.ui.advanced.MPlaceholder;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartSashContainerElement;
 import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
 import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
 import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
@@ -78,6 +83,7 @@ import org.eclipse.e4.ui.workbench.IResourceUtilities;
 import org.eclipse.e4.ui.workbench.IWorkbench;
 import org.eclipse.e4.ui.workbench.UIEvents;
 import org.eclipse.e4.ui.workbench.modeling.EModelService;
+import org.eclipse.e4.ui.workbench.modeling.EPartService;
 import org.eclipse.e4.ui.workbench.swt.factories.IRendererFactory;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.equinox.app.IApplication;
@@ -160,6 +166,9 @@ public class PartRenderingEngine implements IPresentationEngine {
 				WorkbenchSWTActivator.trace(Policy.DEBUG_RENDERER_FLAG, "visible -> false", null); //$NON-NLS-1$
 			}
 
+			// An element whose creation was deferred has nothing to tear down
+			deferredElements.remove(changedElement);
+
 			// Ensure that the element about to be removed is not the
 			// selected element
 			if (parent instanceof MElementContainer<?>) {
@@ -203,6 +212,11 @@ public class PartRenderingEngine implements IPresentationEngine {
 		// Re-parent the control based on the visible state
 		if (changedElement.isVisible()) {
 			if (changedElement.isToBeRendered()) {
+				// Materialize an element whose creation was deferred
+				if (changedElement.getWidget() == null && deferredElements.containsKey(changedElement)) {
+					createGui(changedElement);
+				}
+
 				if (changedElement.getWidget() instanceof Control) {
 					// Ensure that the control is under its 'real' parent if
 					// it's visible
@@ -371,6 +385,22 @@ public class PartRenderingEngine implements IPresentationEngine {
 		subscribeChildrenHandler(event);
 	}
 
+	@Inject
+	@Optional
+	private void subscribeActivateHandler(@EventTopic(UIEvents.UILifeCycle.ACTIVATE) Event event) {
+		activationStamp++;
+		if (deferredElements.isEmpty()) {
+			return;
+		}
+		// the elements hosting the part now host the most recently activated
+		// part
+		MUIElement element = (MUIElement) event.getProperty(UIEvents.EventTags.ELEMENT);
+		while (element != null) {
+			deferredElements.replace(element, Long.valueOf(activationStamp));
+			element = getHost(element);
+		}
+	}
+
 	@Inject
 	@Optional
 	private void subscribeCssThemeChanged(@EventTopic(IThemeEngine.Events.THEME_CHANGED) Event event) {
@@ -393,6 +423,26 @@ public class PartRenderingEngine implements IPresentationEngine {
 
 	private MUIElement removeRoot = null;
 
+	/**
+	 * Whether the creation of widgets for elements which are not visible should
+	 * be deferred until they become visible or the event loop is idle.
+	 */
+	private boolean deferRendering;
+
+	/**
+	 * The elements whose widget creation has been deferred, in the order they
+	 * were encountered, with the activation stamp of the most recently
+	 * activated part they host. The stamp is computed once when the element
+	 * is deferred and is updated by part activation events, so choosing the
+	 * next element to create does not search the model.
+	 */
+	private Map<MUIElement, Long> deferredElements = new LinkedHashMap<>();
+
+	/**
+	 * Incremented for every part activation.
+	 */
+	private long activationStamp;
+
 	@Inject
 	@Optional
 	IEventBroker eventBroker;
@@ -493,6 +543,8 @@ public class PartRenderingEngine implements IPresentationEngine {
 		curFactory = factory;
 		context.set(IRendererFactory.class, curFactory);
 
+		deferRendering = Boolean.TRUE.equals(context.get(E4Workbench.DEFERRED_RENDERING));
+
 		cssThemeChangedHandler = new StylingPreferencesHandler(context.get(Display.class));
 	}
 
@@ -559,6 +611,9 @@ public class PartRenderingEngine implements IPresentationEngine {
 			return null;
 		}
 
+		// an explicit create materializes a deferred element
+		deferredElements.remove(element);
+
 		Object currentWidget = element.getWidget();
 		if (currentWidget != null) {
 			if (currentWidget instanceof Control) {
@@ -745,6 +800,9 @@ public class PartRenderingEngine implements IPresentationEngine {
 			AbstractPartRenderer renderer = getRendererFor(parentME);
 			if (renderer != null) {
 				if (!element.isVisible()) {
+					if (deferCreation(element)) {
+						return null;
+					}
 					parent = getLimboShell();
 				} else {
 					parent = renderer.getUIContainer(element);
@@ -767,6 +825,131 @@ public class PartRenderingEngine implements IPresentationEngine {
 		return safeCreateGui(element, parent, parentContext);
 	}
 
+	/**
+	 * Determines whether the creation of the given non-visible element should
+	 * be postponed. The element is remembered so that it is created once it
+	 * becomes visible, is explicitly asked to be created again or the event
+	 * loop becomes idle.
+	 *
+	 * @param element
+	 *            the element about to be created under the limbo shell
+	 * @return <code>true</code> if the creation has been deferred
+	 */
+	private boolean deferCreation(MUIElement element) {
+		if (!deferRendering || element.getWidget() != null) {
+			return false;
+		}
+		if (!(element instanceof MPartSashContainerElement) && !(element instanceof MWindow)) {
+			return false;
+		}
+		// a second request for the same element means it is needed now
+		if (deferredElements.containsKey(element)) {
+			return false;
+		}
+		deferredElements.put(element, Long.valueOf(getActivationStamp(element)));
+		return true;
+	}
+
+	/**
+	 * Creates the deferred element which is most likely to be shown next. The
+	 * elements hosting recently activated parts are created first, the other
+	 * elements in the order they were deferred. Called when the event loop is
+	 * idle.
+	 *
+	 * @return <code>true</code> if an element has been created,
+	 *         <code>false</code> if there was nothing left to do
+	 */
+	public boolean createNextDeferredElement() {
+		MUIElement next = null;
+		long nextStamp = Long.MIN_VALUE;
+		for (Iterator<Entry<MUIElement, Long>> it = deferredElements.entrySet().iterator(); it.hasNext();) {
+			Entry<MUIElement, Long> entry = it.next();
+			MUIElement element = entry.getKey();
+			if (!isDeferredElementValid(element)) {
+				it.remove();
+				continue;
+			}
+			long stamp = entry.getValue().longValue();
+			if (next == null || stamp > nextStamp) {
+				next = element;
+				nextStamp = stamp;
+			}
+		}
+		if (next == null) {
+			return false;
+		}
+
+		if (Policy.DEBUG_RENDERER) {
+			WorkbenchSWTActivator.trace(Policy.DEBUG_RENDERER_FLAG, "warming up " + next, null); //$NON-NLS-1$
+		}
+		// the element is still in the deferred set so this creates it
+		Object w = createGui(next);
+		deferredElements.remove(next);
+		if (w instanceof Control && !(w instanceof Shell)) {
+			fixZOrder(next);
+		}
+		return true;
+	}
+
+	private boolean isDeferredElementValid(MUIElement element) {
+		if (!element.isToBeRendered() || element.getWidget() != null) {
+			return false;
+		}
+		MUIElement parent = element.getParent();
+		if (parent == null) {
+			parent = (MUIElement) ((EObject) element).eContainer();
+		}
+		return parent != null && getRendererFor(parent) != null;
+	}
+
+	/**
+	 * Computes the activation stamp of the most recently activated part hosted
+	 * by the given element from the activation history of its window. Parts
+	 * activated before the element was deferred get stamps below the current
+	 * one, in the order of the history.
+	 */
+	private long getActivationStamp(MUIElement element) {
+		MWindow window = modelService.getTopLevelWindowFor(element);
+		if (window == null) {
+			return Long.MIN_VALUE;
+		}
+		IEclipseContext windowContext = window.getContext();
+		EPartService partService = windowContext == null ? null : windowContext.get(EPartService.class);
+		if (!(partService instanceof PartServiceImpl)) {
+			return Long.MIN_VALUE;
+		}
+		List<MPart> history = ((PartServiceImpl) partService).getActivationHistory();
+		if (history.isEmpty()) {
+			return Long.MIN_VALUE;
+		}
+
+		int rank = Integer.MAX_VALUE;
+		for (MPart part : modelService.findElements(element, null, MPart.class, null)) {
+			int index = history.indexOf(part);
+			if (index != -1 && index < rank) {
+				rank = index;
+			}
+		}
+		return rank == Integer.MAX_VALUE ? Long.MIN_VALUE : activationStamp - rank;
+	}
+
+	/**
+	 * Returns the element that hosts the given element: its parent, the
+	 * placeholder of a shared part or the containing model element of a
+	 * window.
+	 */
+	private static MUIElement getHost(MUIElement element) {
+		MUIElement parent = element.getParent();
+		if (parent != null) {
+			return parent;
+		}
+		if (element instanceof MPart && ((MPart) element).getCurSharedRef() != null) {
+			return ((MPart) element).getCurSharedRef();
+		}
+		EObject container = ((EObject) element).eContainer();
+		return container instanceof MUIElement ? (MUIElement) container : null;
+	}
+
 	@Override
 	public void focusGui(MUIElement element) {
 		AbstractPartRenderer renderer = (AbstractPartRenderer) element
@@ -1152,6 +1335,10 @@ public class PartRenderingEngine implements IPresentationEngine {
 							if (spinOnce) {
 								return;
 							}
+							// use idle time to create deferred elements
+							if (!deferredElements.isEmpty() && createNextDeferredElement()) {
+								continue;
+							}
 							advisor.eventLoopIdle(display);
 						}
 					} catch (ThreadDeath th) {
@@ -1235,6 +1422,7 @@ public class PartRenderingEngine implements IPresentationEngine {
 	 * why this is needed we should make this safe for multiple calls
 	 */
 	private void cleanUp() {
+		deferredElements.clear();
 		if (keyListener != null) {
 			Display display = Display.getDefault();
 			if (!display.isDisposed()) {
@@ -62,6 +62,14 @@ public class E4Workbench implements IWorkbench {
 	 */
 	public static final String RENDERER_FACTORY_URI = "rendererFactoryUri"; //$NON-NLS-1$
 
+	/**
+	 * The argument for deferring the creation of widgets for elements which
+	 * are not visible at the time they are rendered <br>
+	 * <br>
+	 * Value is: <code>deferredRendering</code>
+	 */
+	public static final String DEFERRED_RENDERING = "deferredRendering"; //$NON-NLS-1$
+
 	/**
 	 * The argument for setting RTL mode <br>
 	 * <br>
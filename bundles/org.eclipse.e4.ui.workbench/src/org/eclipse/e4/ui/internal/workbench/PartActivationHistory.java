@@ -76,6 +76,17 @@ class PartActivationHistory {
 		}
 	}
 
+	/**
+	 * Returns a snapshot of the activation history, most recently activated
+	 * part first.
+	 *
+	 * @return the parts in the order of their activation, never
+	 *         <code>null</code>
+	 */
+	List<MPart> getHistory() {
+		return new ArrayList<>(generalActivationHistory);
+	}
+
 	/**
 	 * Adds the specified part to the front of the activation history.
 	 *
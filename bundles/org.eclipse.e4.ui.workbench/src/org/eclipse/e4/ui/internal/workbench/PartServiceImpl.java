@@ -812,6 +812,16 @@ public class PartServiceImpl implements EPartService {
 		}
 	}
 
+	/**
+	 * Returns the parts of this service's window in the order of their
+	 * activation, most recently activated part first.
+	 *
+	 * @return a snapshot of the activation history, never <code>null</code>
+	 */
+	public List<MPart> getActivationHistory() {
+		return partActivationHistory.getHistory();
+	}
+
 	@Override
 	public MPart getActivePart() {
 		return activePart;
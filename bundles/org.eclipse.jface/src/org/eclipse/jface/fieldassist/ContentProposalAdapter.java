@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2016 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,6 +12,13 @@
 package org.eclipse.jface.fieldassist;
 
 import java.util.ArrayList;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.ListenerList;
@@ -19,6 +26,7 @@ import org.eclipse.jface.bindings.keys.KeyStroke;
 import org.eclipse.jface.dialogs.PopupDialog;
 import org.eclipse.jface.preference.JFacePreferences;
 import org.eclipse.jface.resource.JFaceResources;
+import org.eclipse.jface.util.Policy;
 import org.eclipse.jface.util.Util;
 import org.eclipse.jface.viewers.ILabelProvider;
 import org.eclipse.swt.SWT;
@@ -34,6 +42,7 @@ import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.widgets.Combo;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.ScrollBar;
@@ -55,6 +64,12 @@ import org.eclipse.swt.widgets.Text;
  * <p>
  * This class provides some overridable methods to allow clients to manually
  * control the popup. However, most of the implementation remains private.
+ * <p>
+ * The proposals of an {@link IAsyncContentProposalProvider} are computed
+ * without blocking the UI thread. The popup is opened as soon as the first
+ * proposals are reported and is updated as more proposals arrive. A pending
+ * computation is cancelled when the proposals are recomputed or the popup is
+ * closed.
  *
  * @since 3.2
  */
@@ -890,6 +905,7 @@ public class ContentProposalAdapter {
 		 */
 		@Override
 		public boolean close() {
+			cancelPendingProposals();
 			popupCloser.removeListeners();
 			if (infoPopup != null) {
 				infoPopup.close();
@@ -905,22 +921,22 @@ public class ContentProposalAdapter {
 		 */
 		private void showProposalDescription() {
 			// If we do not already have a pending update, then
-			// create a thread now that will show the proposal description
+			// schedule one now that will show the proposal description
 			if (!pendingDescriptionUpdate) {
-				// Create a thread that will sleep for the specified delay
-				// before creating the popup. We do not use Jobs since this
-				// code must be able to run independently of the Eclipse
-				// runtime.
+				// Show the popup after the specified delay. We do not use
+				// Jobs since this code must be able to run independently of
+				// the Eclipse runtime.
+				pendingDescriptionUpdate = true;
+				Display display = getShell().getDisplay();
 				Runnable runnable = () -> {
-					pendingDescriptionUpdate = true;
-					try {
-						Thread.sleep(POPUP_DELAY);
-					} catch (InterruptedException e) {
-					}
-					if (!isValid()) {
+					if (!isValid() || display.isDisposed()) {
 						return;
 					}
-					getShell().getDisplay().syncExec(() -> {
+					display.asyncExec(() -> {
+						pendingDescriptionUpdate = false;
+						if (!isValid()) {
+							return;
+						}
 						// Query the current selection since we have
 						// been delayed
 						IContentProposal p = getSelectedProposal();
@@ -941,13 +957,10 @@ public class ContentProposalAdapter {
 							} else if (infoPopup != null) {
 								infoPopup.close();
 							}
-							pendingDescriptionUpdate = false;
-
 						}
 					});
 				};
-				Thread t = new Thread(runnable);
-				t.start();
+				SCHEDULER.schedule(runnable, POPUP_DELAY, TimeUnit.MILLISECONDS);
 			}
 		}
 
@@ -969,13 +982,30 @@ public class ContentProposalAdapter {
 		 * caches. Repopulate the popup if it is open.
 		 */
 		private void recomputeProposals(String filterText) {
-			IContentProposal[] allProposals = getProposals();
+			if (proposalProvider instanceof IAsyncContentProposalProvider) {
+				requestProposals(partialProposals -> showProposals(partialProposals, filterText, false),
+						allProposals -> showProposals(allProposals, filterText, true));
+			} else {
+				showProposals(getProposals(), filterText, true);
+			}
+		}
+
+		/*
+		 * Show the proposals obtained from the proposal provider, filtered by
+		 * the filter text. The proposals are not complete if an asynchronous
+		 * proposal provider is still computing them.
+		 */
+		private void showProposals(IContentProposal[] allProposals, String filterText, boolean complete) {
 			if (allProposals == null)
 				 allProposals = getEmptyProposalArray();
 			// If the non-filtered proposal list is empty, we should
 			// close the popup.
 			// See https://bugs.eclipse.org/bugs/show_bug.cgi?id=147377
 			if (allProposals.length == 0) {
+				if (!complete) {
+					// keep the current proposals until more are found
+					return;
+				}
 				proposals = allProposals;
 				close();
 			} else {
@@ -1097,6 +1127,12 @@ public class ContentProposalAdapter {
 	 */
 	private static final int POPUP_DELAY = 750;
 
+	/*
+	 * The executor that runs the delayed autoactivations and secondary popups
+	 * of all adapters, so that no thread has to sleep for each of them.
+	 */
+	private static final ScheduledExecutorService SCHEDULER = createScheduler();
+
 	/*
 	 * The character height hint for the popup. May be overridden by using
 	 * setInitialPopupSize.
@@ -1206,7 +1242,19 @@ public class ContentProposalAdapter {
 	 * A boolean indicating whether a keystroke has been received. Used to see
 	 * if an autoactivation delay was interrupted by a keystroke.
 	 */
-	private boolean receivedKeyDown;
+	private volatile boolean receivedKeyDown;
+
+	/*
+	 * The proposals that are being computed by an asynchronous proposal
+	 * provider, or null if no computation is pending.
+	 */
+	private CompletableFuture<IContentProposal[]> pendingProposals;
+
+	/*
+	 * Identifies the current request for proposals. Results of other requests
+	 * are ignored.
+	 */
+	private Object proposalRequest;
 
 	/*
 	 * The desired size in pixels of the proposal popup.
@@ -1564,6 +1612,7 @@ public class ContentProposalAdapter {
 		// If we are disabling it while it's proposing content, close the
 		// content proposal popup.
 		if (isEnabled && !enabled) {
+			cancelPendingProposals();
 			if (popup != null) {
 				popup.close();
 			}
@@ -1696,6 +1745,15 @@ public class ContentProposalAdapter {
 						return;
 					}
 
+					// The popup is not open yet, but proposals are being
+					// computed. Escape abandons them rather than leaving the
+					// popup to open later.
+					if (e.character == SWT.ESC && pendingProposals != null) {
+						cancelPendingProposals();
+						e.doit = false;
+						return;
+					}
+
 					// We were only listening to traverse events for the popup
 					if (e.type == SWT.Traverse) {
 						return;
@@ -1796,6 +1854,15 @@ public class ContentProposalAdapter {
 							}
 						}
 						break;
+
+					// Proposals that are still being computed when focus leaves
+					// the control must not open a popup afterwards. Once the
+					// popup is open, it watches the focus itself.
+					case SWT.FocusOut:
+						if (popup == null) {
+							cancelPendingProposals();
+						}
+						break;
 				default:
 					break;
 				}
@@ -1829,6 +1896,7 @@ public class ContentProposalAdapter {
 		control.addListener(SWT.KeyDown, controlListener);
 		control.addListener(SWT.Traverse, controlListener);
 		control.addListener(SWT.Modify, controlListener);
+		control.addListener(SWT.FocusOut, controlListener);
 
 		if (DEBUG) {
 			System.out
@@ -1851,26 +1919,43 @@ public class ContentProposalAdapter {
 			if (popup == null) {
 				// Check whether there are any proposals to be shown.
 				recordCursorPosition(); // must be done before getting proposals
-				IContentProposal[] proposals = getProposals();
-				if (proposals == null)
-					return;
-				if (proposals.length > 0) {
-					if (DEBUG) {
-						System.out.println("POPUP OPENED BY PRECEDING EVENT"); //$NON-NLS-1$
-					}
-					recordCursorPosition();
-					popup = new ContentProposalPopup(null, proposals);
-					popup.open();
-					popup.getShell().addDisposeListener(event -> popup = null);
-					internalPopupOpened();
-					notifyPopupOpened();
-				} else if (!autoActivated) {
-					getControl().getDisplay().beep();
+				if (proposalProvider instanceof IAsyncContentProposalProvider) {
+					requestProposals(partialProposals -> openProposalPopup(partialProposals, autoActivated, false),
+							allProposals -> openProposalPopup(allProposals, autoActivated, true));
+				} else {
+					openProposalPopup(getProposals(), autoActivated, true);
 				}
 			}
 		}
 	}
 
+	/*
+	 * Open the proposal popup with the specified proposals. If the popup has
+	 * already been opened with the partial proposals of an asynchronous
+	 * proposal provider, update its proposals instead.
+	 */
+	private void openProposalPopup(IContentProposal[] proposals, boolean autoActivated, boolean complete) {
+		if (popup != null) {
+			popup.showProposals(proposals, popup.filterText, complete);
+			return;
+		}
+		if (proposals == null)
+			return;
+		if (proposals.length > 0) {
+			if (DEBUG) {
+				System.out.println("POPUP OPENED BY PRECEDING EVENT"); //$NON-NLS-1$
+			}
+			recordCursorPosition();
+			popup = new ContentProposalPopup(null, proposals);
+			popup.open();
+			popup.getShell().addDisposeListener(event -> popup = null);
+			internalPopupOpened();
+			notifyPopupOpened();
+		} else if (complete && !autoActivated) {
+			getControl().getDisplay().beep();
+		}
+	}
+
 	/**
 	 * Open the proposal popup and display the proposals provided by the
 	 * proposal provider. This method returns immediately. That is, it does not
@@ -1884,13 +1969,15 @@ public class ContentProposalAdapter {
 
 	/**
 	 * Close the proposal popup without accepting a proposal. This method
-	 * returns immediately, and has no effect if the proposal popup was not
-	 * open. This method is used by subclasses to explicitly close the popup
-	 * based on additional logic.
+	 * returns immediately. If the proposal popup was not open, any proposals
+	 * that are still being computed are discarded so that the popup does not
+	 * open later. This method is used by subclasses to explicitly close the
+	 * popup based on additional logic.
 	 *
 	 * @since 3.3
 	 */
 	protected void closeProposalPopup() {
+		cancelPendingProposals();
 		if (popup != null) {
 			popup.close();
 		}
@@ -1995,16 +2082,86 @@ public class ContentProposalAdapter {
 		if (DEBUG) {
 			System.out.println(">>> obtaining proposals from provider"); //$NON-NLS-1$
 		}
+		IContentProposal[] proposals = proposalProvider.getProposals(getControlContentAdapter().getControlContents(
+				getControl()), getProposalPosition());
+		return proposals;
+	}
+
+	/*
+	 * Get the cursor position that proposals are computed for.
+	 */
+	private int getProposalPosition() {
 		int position = insertionPos;
 		if (position == -1) {
 			position = getControlContentAdapter().getCursorPosition(
 					getControl());
 		}
-		String contents = getControlContentAdapter().getControlContents(
-				getControl());
-		IContentProposal[] proposals = proposalProvider.getProposals(contents,
-				position);
-		return proposals;
+		return position;
+	}
+
+	/*
+	 * Request the proposals from an asynchronous proposal provider, cancelling
+	 * any pending request. The consumers are called in the UI thread with the
+	 * proposals found so far each time the provider reports more proposals,
+	 * and with all proposals once they have been computed, unless the request
+	 * has been cancelled in the meantime.
+	 */
+	private void requestProposals(Consumer<IContentProposal[]> partialProposals,
+			Consumer<IContentProposal[]> allProposals) {
+		cancelPendingProposals();
+		if (!isValid()) {
+			return;
+		}
+		if (DEBUG) {
+			System.out.println(">>> requesting proposals from provider"); //$NON-NLS-1$
+		}
+		Object request = new Object();
+		proposalRequest = request;
+		Display display = getControl().getDisplay();
+		CompletableFuture<IContentProposal[]> future = ((IAsyncContentProposalProvider) proposalProvider)
+				.getProposalsAsync(getControlContentAdapter().getControlContents(getControl()),
+						getProposalPosition(),
+						proposals -> runIfCurrent(display, request, () -> partialProposals.accept(proposals)));
+		pendingProposals = future;
+		future.whenComplete((proposals, exception) -> {
+			if (exception instanceof CancellationException) {
+				return;
+			}
+			if (exception != null) {
+				Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
+				Policy.logException(cause instanceof Exception ? (Exception) cause : new CompletionException(cause));
+			}
+			runIfCurrent(display, request, () -> {
+				pendingProposals = null;
+				allProposals.accept(proposals);
+			});
+		});
+	}
+
+	/*
+	 * Run the runnable in the UI thread if the request is still the current
+	 * request for proposals.
+	 */
+	private void runIfCurrent(Display display, Object request, Runnable runnable) {
+		if (display.isDisposed()) {
+			return;
+		}
+		display.asyncExec(() -> {
+			if (request == proposalRequest && isValid()) {
+				runnable.run();
+			}
+		});
+	}
+
+	/*
+	 * Cancel the pending request for proposals, if any.
+	 */
+	private void cancelPendingProposals() {
+		proposalRequest = null;
+		if (pendingProposals != null) {
+			pendingProposals.cancel(true);
+			pendingProposals = null;
+		}
 	}
 
 	/**
@@ -2013,19 +2170,19 @@ public class ContentProposalAdapter {
 	 */
 	private void autoActivate() {
 		if (autoActivationDelay > 0) {
+			receivedKeyDown = false;
+			Display display = getControl().getDisplay();
 			Runnable runnable = () -> {
-				receivedKeyDown = false;
-				try {
-					Thread.sleep(autoActivationDelay);
-				} catch (InterruptedException e) {
-				}
-				if (!isValid() || receivedKeyDown) {
+				if (!isValid() || receivedKeyDown || display.isDisposed()) {
 					return;
 				}
-				getControl().getDisplay().syncExec(() -> openProposalPopup(true));
+				display.asyncExec(() -> {
+					if (isValid() && !receivedKeyDown) {
+						openProposalPopup(true);
+					}
+				});
 			};
-			Thread t = new Thread(runnable);
-			t.start();
+			SCHEDULER.schedule(runnable, autoActivationDelay, TimeUnit.MILLISECONDS);
 		} else {
 			// Since we do not sleep, we must open the popup
 			// in an async exec. This is necessary because
@@ -2041,6 +2198,22 @@ public class ContentProposalAdapter {
 		}
 	}
 
+	/*
+	 * Create the executor for delayed autoactivations and secondary popups.
+	 * Its thread is only kept alive while there is something to run.
+	 */
+	private static ScheduledExecutorService createScheduler() {
+		ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "Content Proposal Scheduler"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.setKeepAliveTime(5, TimeUnit.SECONDS);
+		scheduler.allowCoreThreadTimeOut(true);
+		scheduler.setRemoveOnCancelPolicy(true);
+		return scheduler;
+	}
+
 	/*
 	 * A proposal has been accepted. Notify interested listeners.
 	 */
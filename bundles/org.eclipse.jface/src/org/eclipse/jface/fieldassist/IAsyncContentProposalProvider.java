@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.fieldassist;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+import org.eclipse.jface.util.Policy;
+
+/**
+ * IAsyncContentProposalProvider is an {@link IContentProposalProvider} that
+ * computes its proposals in the background. {@link ContentProposalAdapter}
+ * does not block the UI thread while the proposals of such a provider are
+ * computed, shows the proposals as they are reported, and cancels the
+ * computation when the proposals are no longer needed, e.g. because another
+ * key has been typed.
+ *
+ * @since 3.14
+ *
+ * @see ContentProposalAdapter
+ */
+public interface IAsyncContentProposalProvider extends IContentProposalProvider {
+
+	/**
+	 * Start computing the content proposals for a field. This method is called
+	 * in the UI thread and should return immediately.
+	 * <p>
+	 * The provider may report the proposals incrementally by passing all
+	 * proposals found so far to the given consumer each time more proposals
+	 * have been found. The consumer may be called from any thread. The
+	 * returned future is completed with all proposals once the computation is
+	 * done.
+	 * </p>
+	 * <p>
+	 * The returned future is cancelled when the proposals are no longer
+	 * needed. The provider should stop computing the proposals as soon as
+	 * possible in that case.
+	 * </p>
+	 *
+	 * @param contents
+	 *            the current contents of the text field
+	 * @param position
+	 *            the current position of the cursor in the contents
+	 * @param partialProposals
+	 *            the consumer of the proposals that have been found so far
+	 * @return a future that is completed with the array of
+	 *         {@link IContentProposal} that represent valid proposals for the
+	 *         field.
+	 */
+	CompletableFuture<IContentProposal[]> getProposalsAsync(String contents, int position,
+			Consumer<IContentProposal[]> partialProposals);
+
+	/**
+	 * Computes the proposals with
+	 * {@link #getProposalsAsync(String, int, Consumer)} and waits until they
+	 * have been computed.
+	 */
+	@Override
+	default IContentProposal[] getProposals(String contents, int position) {
+		try {
+			return getProposalsAsync(contents, position, proposals -> {
+				// only the complete result is of interest
+			}).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (CancellationException e) {
+			// no proposals
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			Policy.logException(cause instanceof Exception ? (Exception) cause : e);
+		}
+		return new IContentProposal[0];
+	}
+}
@@ -0,0 +1,323 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.jface.internal;
+
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+
+/**
+ * A process wide cache of decoded image data, keyed by the source of the
+ * image and the zoom level. The source is the location of a decoded image or
+ * any other value that identifies the image data, e.g. the images a composite
+ * image is composed of. The cache is bounded by the number of bytes of the
+ * cached pixel data and evicts the least recently used image data first.
+ * <p>
+ * The absence of an image is cached as well, since high resolution variants
+ * are looked up for every image but usually do not exist. Only a loader
+ * returning <code>null</code> marks an image as absent. Nothing is cached if
+ * the loader fails, e.g. with an {@link UncheckedIOException} for an I/O error
+ * that may not persist.
+ * </p>
+ * <p>
+ * The cached image data is never handed out, callers receive a copy that
+ * they are free to modify.
+ * </p>
+ */
+public final class ImageDataCache {
+
+	/**
+	 * The default maximum number of bytes of cached pixel data.
+	 */
+	private static final long DEFAULT_MAX_SIZE = 16 * 1024 * 1024;
+
+	/**
+	 * The estimated overhead of an entry, also used as the size of a missing
+	 * image.
+	 */
+	private static final int ENTRY_OVERHEAD = 64;
+
+	private static final ImageData MISSING = new ImageData(1, 1, 1, new PaletteData(new RGB[] { new RGB(0, 0, 0) }));
+
+	private static final ImageDataCache DEFAULT = new ImageDataCache(DEFAULT_MAX_SIZE);
+
+	private static final class Key {
+		final Object source;
+
+		final int zoom;
+
+		Key(Object source, int zoom) {
+			this.source = source;
+			this.zoom = zoom;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return zoom == other.zoom && source.equals(other.source);
+		}
+
+		@Override
+		public int hashCode() {
+			return source.hashCode() * 31 + zoom;
+		}
+	}
+
+	private final LinkedHashMap<Key, ImageData> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+	private final Set<Integer> requestedZooms = ConcurrentHashMap.newKeySet();
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	private final long maxSize;
+
+	private long size;
+
+	private ThreadPoolExecutor decoder;
+
+	/**
+	 * Creates a cache that holds at most the given number of bytes of pixel
+	 * data.
+	 *
+	 * @param maxSize
+	 *            the maximum number of bytes
+	 */
+	public ImageDataCache(long maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @return the cache shared by all image descriptors
+	 */
+	public static ImageDataCache getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Returns a copy of the image data of the given source and zoom level,
+	 * creating it with the given loader if it is not cached.
+	 *
+	 * @param source
+	 *            the source of the image, e.g. its URL
+	 * @param zoom
+	 *            the zoom level
+	 * @param loader
+	 *            creates the image data, may return <code>null</code> if the
+	 *            image does not exist
+	 * @return a copy of the image data, or <code>null</code> if the image does
+	 *         not exist
+	 * @throws RuntimeException
+	 *             any exception thrown by the loader, nothing is cached then
+	 */
+	public ImageData getImageData(Object source, int zoom, Supplier<ImageData> loader) {
+		requestedZooms.add(Integer.valueOf(zoom));
+		Key key = new Key(source, zoom);
+		ImageData data;
+		synchronized (entries) {
+			data = entries.get(key);
+		}
+		if (data != null) {
+			hits.incrementAndGet();
+		} else {
+			misses.incrementAndGet();
+			// decode outside of the lock, a concurrent decode of the same
+			// image is harmless
+			data = loader.get();
+			if (data == null) {
+				data = MISSING;
+			}
+			put(key, data);
+		}
+		return data == MISSING ? null : (ImageData) data.clone();
+	}
+
+	/**
+	 * Returns whether the image data of the given source and zoom level is
+	 * cached and the image exists.
+	 *
+	 * @param source
+	 *            the source of the image
+	 * @param zoom
+	 *            the zoom level
+	 * @return <code>true</code> if decoded image data is cached
+	 */
+	public boolean contains(Object source, int zoom) {
+		synchronized (entries) {
+			ImageData data = entries.get(new Key(source, zoom));
+			return data != null && data != MISSING;
+		}
+	}
+
+	/**
+	 * Decodes the image data of the given source in a background thread, at
+	 * every zoom level that image data has been requested for so far. Does
+	 * nothing for image data that is already cached. Image data is decoded in
+	 * the order it is requested.
+	 *
+	 * @param source
+	 *            the source of the image
+	 * @param loader
+	 *            decodes the image data at a zoom level, may return
+	 *            <code>null</code>
+	 * @return the pending decoding
+	 */
+	public Future<?> decodeInBackground(Object source, IntFunction<ImageData> loader) {
+		return getDecoder().submit(() -> decode(source, loader));
+	}
+
+	/**
+	 * Decodes the image data of the given source in the calling thread, at
+	 * every zoom level that image data has been requested for so far. Does
+	 * nothing for image data that is already cached. Zoom levels the loader
+	 * throws an {@link UncheckedIOException} for are skipped.
+	 *
+	 * @param source
+	 *            the source of the image
+	 * @param loader
+	 *            decodes the image data at a zoom level, may return
+	 *            <code>null</code>
+	 */
+	public void decode(Object source, IntFunction<ImageData> loader) {
+		for (Integer zoom : requestedZooms.isEmpty() ? Collections.singleton(Integer.valueOf(100)) : requestedZooms) {
+			int zoomLevel = zoom.intValue();
+			Key key = new Key(source, zoomLevel);
+			synchronized (entries) {
+				if (entries.containsKey(key)) {
+					continue;
+				}
+			}
+			ImageData data;
+			try {
+				data = loader.apply(zoomLevel);
+			} catch (UncheckedIOException e) {
+				// not cached, the next request tries again
+				continue;
+			}
+			put(key, data == null ? MISSING : data);
+		}
+	}
+
+	private synchronized ThreadPoolExecutor getDecoder() {
+		if (decoder == null) {
+			decoder = new ThreadPoolExecutor(1, 1, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+				Thread thread = new Thread(runnable, "Image Data Decoder"); //$NON-NLS-1$
+				thread.setDaemon(true);
+				thread.setPriority(Thread.MIN_PRIORITY);
+				return thread;
+			});
+			decoder.allowCoreThreadTimeOut(true);
+		}
+		return decoder;
+	}
+
+	private void put(Key key, ImageData data) {
+		synchronized (entries) {
+			ImageData previous = entries.put(key, data);
+			if (previous != null) {
+				size -= getSize(previous);
+			}
+			size += getSize(data);
+			Iterator<Map.Entry<Key, ImageData>> iterator = entries.entrySet().iterator();
+			while (size > maxSize && iterator.hasNext()) {
+				Map.Entry<Key, ImageData> eldest = iterator.next();
+				if (eldest.getKey().equals(key)) {
+					// keep the entry that was just added
+					continue;
+				}
+				size -= getSize(eldest.getValue());
+				iterator.remove();
+			}
+		}
+	}
+
+	private static long getSize(ImageData data) {
+		if (data == MISSING) {
+			return ENTRY_OVERHEAD;
+		}
+		long result = ENTRY_OVERHEAD;
+		if (data.data != null) {
+			result += data.data.length;
+		}
+		if (data.maskData != null) {
+			result += data.maskData.length;
+		}
+		if (data.alphaData != null) {
+			result += data.alphaData.length;
+		}
+		return result;
+	}
+
+	/**
+	 * Removes all image data from the cache and resets the statistics.
+	 */
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+			size = 0;
+		}
+		hits.set(0);
+		misses.set(0);
+	}
+
+	/**
+	 * @return the number of requests that were served from the cache
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * @return the number of requests that had to decode the image data
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * @return the number of bytes of the cached image data
+	 */
+	public long getSize() {
+		synchronized (entries) {
+			return size;
+		}
+	}
+
+	/**
+	 * Returns the statistics of the cache. Used for debugging purposes only.
+	 */
+	@Override
+	public String toString() {
+		long hitCount = hits.get();
+		long total = hitCount + misses.get();
+		long hitRate = total == 0 ? 0 : hitCount * 100 / total;
+		return "ImageDataCache(size: " + getSize() + " bytes, requests: " + total + ", hit rate: " + hitRate + "%)"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	}
+}
@@ -0,0 +1,385 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.resource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.util.Policy;
+import org.eclipse.swt.graphics.Device;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * A local registry that shares its resources with some global registry, like
+ * {@link LocalResourceManager}, but that may be used from any thread. This
+ * allows label providers that run in background jobs to allocate colors, fonts
+ * and images without calling {@link Display#syncExec(Runnable)} for every
+ * resource.
+ * <p>
+ * The reference counts are kept in a concurrent map and are updated without a
+ * global lock. Only the first reference to a resource allocates it: image
+ * descriptors are decoded in the calling thread, and the resource is then
+ * allocated from the parent registry in the UI thread of the display. Requests
+ * of all threads are queued and allocated in a single batch, and background
+ * threads wait until their batch has been processed. A background job that
+ * needs many resources should create them with {@link #createAll(Collection)},
+ * so that it waits for the UI thread at most once. Releasing the last reference
+ * to a resource releases it from the parent registry in the same way.
+ * </p>
+ * <p>
+ * The parent registry is only accessed in the UI thread, so it does not need
+ * to be thread safe. The device of the parent registry must be a
+ * {@link Display}. This manager must be disposed in the UI thread. Creating a
+ * resource after the manager has been disposed fails with a
+ * {@link DeviceResourceException}.
+ * </p>
+ *
+ * @since 3.14
+ */
+public final class ConcurrentResourceManager extends ResourceManager {
+
+	/**
+	 * Interval in milliseconds at which waiting threads check whether the
+	 * display has been disposed.
+	 */
+	private static final long DISPOSED_CHECK_INTERVAL = 100;
+
+	/**
+	 * Holds a reference count and the resource, which is allocated later in
+	 * the UI thread. The count is only accessed within atomic operations of the
+	 * map.
+	 */
+	private static final class RefCount {
+		final CompletableFuture<Object> resource = new CompletableFuture<>();
+
+		int count;
+	}
+
+	private final ResourceManager parentRegistry;
+
+	private final Display display;
+
+	private final Map<DeviceResourceDescriptor, RefCount> map = new ConcurrentHashMap<>();
+
+	/**
+	 * Allocations and releases that have not been run in the UI thread yet, in
+	 * the order they have been requested.
+	 */
+	private final ConcurrentLinkedQueue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+
+	private volatile boolean disposed;
+
+	/**
+	 * Creates a concurrent resource manager that allocates its resources from
+	 * the given parent registry.
+	 *
+	 * @param parentRegistry
+	 *            the registry to allocate resources from, whose device must be
+	 *            a display
+	 */
+	public ConcurrentResourceManager(ResourceManager parentRegistry) {
+		Device device = parentRegistry.getDevice();
+		Assert.isLegal(device instanceof Display, "The device of the parent registry must be a display"); //$NON-NLS-1$
+		this.parentRegistry = parentRegistry;
+		this.display = (Display) device;
+	}
+
+	/**
+	 * Creates a concurrent resource manager that allocates its resources from
+	 * the given parent registry and is disposed when the given control is
+	 * disposed.
+	 *
+	 * @param parentRegistry
+	 *            the registry to allocate resources from, whose device must be
+	 *            a display
+	 * @param owner
+	 *            control whose disposal will trigger cleanup of everything in
+	 *            the registry
+	 */
+	public ConcurrentResourceManager(ResourceManager parentRegistry, Control owner) {
+		this(parentRegistry);
+
+		owner.addDisposeListener(e -> ConcurrentResourceManager.this.dispose());
+	}
+
+	@Override
+	public Device getDevice() {
+		return display;
+	}
+
+	@Override
+	public Object create(DeviceResourceDescriptor descriptor) {
+		return createAll(Collections.singletonList(descriptor)).get(0);
+	}
+
+	/**
+	 * Creates the resources of all given descriptors, like calling
+	 * {@link #create(DeviceResourceDescriptor)} for each of them, but queues
+	 * the allocation of all new resources in a single batch. A background
+	 * thread therefore waits for the UI thread at most once.
+	 * <p>
+	 * If one of the resources cannot be created, the references to all of them
+	 * are released again and the exception is thrown.
+	 * </p>
+	 *
+	 * @param descriptors
+	 *            the descriptors of the resources to create
+	 * @return the resources, in the order of the descriptors
+	 * @throws DeviceResourceException
+	 *             if a resource could not be created, or if this manager has
+	 *             been disposed
+	 */
+	public List<Object> createAll(Collection<? extends DeviceResourceDescriptor> descriptors) {
+		List<DeviceResourceDescriptor> acquired = new ArrayList<>(descriptors.size());
+		List<RefCount> refCounts = new ArrayList<>(descriptors.size());
+		try {
+			List<DeviceResourceDescriptor> added = new ArrayList<>();
+			List<Runnable> allocations = new ArrayList<>();
+			try {
+				for (DeviceResourceDescriptor descriptor : descriptors) {
+					boolean[] isNew = new boolean[1];
+					RefCount refCount = map.compute(descriptor, (key, value) -> {
+						if (value == null) {
+							value = new RefCount();
+							isNew[0] = true;
+						}
+						value.count++;
+						return value;
+					});
+					acquired.add(descriptor);
+					refCounts.add(refCount);
+					if (isNew[0]) {
+						// other threads may wait for this allocation, so it is
+						// always queued
+						added.add(descriptor);
+						allocations.add(() -> allocate(refCount, descriptor));
+					}
+					if (disposed) {
+						throw new DeviceResourceException(descriptor);
+					}
+				}
+				if (!isDisplayThread()) {
+					for (DeviceResourceDescriptor descriptor : added) {
+						prepare(descriptor);
+					}
+				}
+			} finally {
+				if (!allocations.isEmpty()) {
+					schedule(() -> allocations.forEach(Runnable::run));
+				}
+			}
+
+			List<Object> resources = new ArrayList<>(refCounts.size());
+			for (int i = 0; i < refCounts.size(); i++) {
+				RefCount refCount = refCounts.get(i);
+				DeviceResourceDescriptor descriptor = acquired.get(i);
+				resources.add(await(refCount.resource, descriptor, () -> allocate(refCount, descriptor)));
+			}
+			return resources;
+		} catch (RuntimeException e) {
+			// the caller will not destroy resources that could not be created
+			for (int i = 0; i < refCounts.size(); i++) {
+				release(acquired.get(i), refCounts.get(i));
+			}
+			throw e;
+		}
+	}
+
+	@Override
+	public void destroy(DeviceResourceDescriptor descriptor) {
+		release(descriptor, null);
+	}
+
+	/**
+	 * Releases a reference to the resource. Releasing the last reference
+	 * releases the resource from the parent registry in the UI thread, once it
+	 * has been allocated.
+	 *
+	 * @param descriptor
+	 *            the descriptor of the resource
+	 * @param expected
+	 *            the reference count the reference was taken from, or
+	 *            <code>null</code> to release from the current one
+	 */
+	private void release(DeviceResourceDescriptor descriptor, RefCount expected) {
+		RefCount[] released = new RefCount[1];
+		map.computeIfPresent(descriptor, (key, value) -> {
+			if (expected != null && value != expected) {
+				return value;
+			}
+			value.count--;
+			if (value.count > 0) {
+				return value;
+			}
+			released[0] = value;
+			return null;
+		});
+		if (released[0] != null) {
+			CompletableFuture<Object> resource = released[0].resource;
+			// queued after the allocation, so it sees whether it succeeded
+			schedule(() -> {
+				if (resource.isDone() && !resource.isCompletedExceptionally()) {
+					parentRegistry.destroy(descriptor);
+				}
+			});
+		}
+	}
+
+	@Override
+	public Object find(DeviceResourceDescriptor descriptor) {
+		RefCount refCount = map.get(descriptor);
+		if (refCount == null || refCount.resource.isCompletedExceptionally()) {
+			return null;
+		}
+		return refCount.resource.getNow(null);
+	}
+
+	@Override
+	protected Image getDefaultImage() {
+		if (isDisplayThread()) {
+			return parentRegistry.getDefaultImage();
+		}
+		CompletableFuture<Object> image = new CompletableFuture<>();
+		schedule(() -> image.complete(parentRegistry.getDefaultImage()));
+		return (Image) await(image, ImageDescriptor.getMissingImageDescriptor(), null);
+	}
+
+	/**
+	 * Deallocates everything that was allocated by this manager. Must be
+	 * called in the UI thread.
+	 */
+	@Override
+	public void dispose() {
+		disposed = true;
+		super.dispose();
+
+		drain();
+		for (Map.Entry<DeviceResourceDescriptor, RefCount> entry : map.entrySet()) {
+			CompletableFuture<Object> resource = entry.getValue().resource;
+			if (resource.isDone() && !resource.isCompletedExceptionally()) {
+				parentRegistry.destroy(entry.getKey());
+			}
+		}
+		map.clear();
+	}
+
+	/**
+	 * Resolves the descriptor to device independent data in the calling
+	 * thread, so that allocating the resource in the UI thread is cheap.
+	 */
+	private static void prepare(DeviceResourceDescriptor descriptor) {
+		if (descriptor instanceof URLImageDescriptor) {
+			((URLImageDescriptor) descriptor).decode();
+		}
+	}
+
+	/**
+	 * Allocates the resource from the parent registry unless this has already
+	 * been done. Must be called in the UI thread.
+	 */
+	private void allocate(RefCount refCount, DeviceResourceDescriptor descriptor) {
+		if (refCount.resource.isDone()) {
+			return;
+		}
+		if (disposed) {
+			refCount.resource.completeExceptionally(new DeviceResourceException(descriptor));
+			return;
+		}
+		try {
+			refCount.resource.complete(parentRegistry.create(descriptor));
+		} catch (RuntimeException e) {
+			refCount.resource.completeExceptionally(e);
+		}
+	}
+
+	private boolean isDisplayThread() {
+		return Display.getCurrent() == display;
+	}
+
+	/**
+	 * Queues the given task to be run in the UI thread. Runs it right away when
+	 * called in the UI thread, after the tasks that have been queued before.
+	 */
+	private void schedule(Runnable task) {
+		pending.add(task);
+		if (isDisplayThread()) {
+			drain();
+		} else if (scheduled.compareAndSet(false, true) && !display.isDisposed()) {
+			display.asyncExec(this::drain);
+		}
+	}
+
+	/**
+	 * Runs all queued tasks in the UI thread.
+	 */
+	private void drain() {
+		scheduled.set(false);
+		Runnable task;
+		while ((task = pending.poll()) != null) {
+			try {
+				task.run();
+			} catch (RuntimeException e) {
+				Policy.getLog().log(new Status(IStatus.ERROR, Policy.JFACE, 0, e.getLocalizedMessage(), e));
+			}
+		}
+	}
+
+	/**
+	 * Waits until the given resource has been allocated in the UI thread. When
+	 * called in the UI thread, the queued tasks are run instead, and if the
+	 * allocation has not been queued yet, the given allocation is run
+	 * directly.
+	 */
+	private Object await(CompletableFuture<Object> resource, DeviceResourceDescriptor descriptor,
+			Runnable allocation) {
+		if (isDisplayThread()) {
+			drain();
+			if (allocation != null) {
+				allocation.run();
+			}
+		}
+		while (true) {
+			try {
+				return resource.get(DISPOSED_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				if (display.isDisposed()) {
+					throw new DeviceResourceException(descriptor, e);
+				}
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				throw new DeviceResourceException(descriptor, cause);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new DeviceResourceException(descriptor, e);
+			}
+		}
+	}
+}
@@ -11,6 +11,7 @@
 package org.eclipse.jface.resource;
 
 import java.net.URL;
+import java.util.Collection;
 
 import org.eclipse.swt.SWTException;
 import org.eclipse.swt.graphics.Device;
@@ -175,6 +176,30 @@ public abstract class ImageDescriptor extends DeviceResourceDescriptor {
         return new URLImageDescriptor(url);
     }
 
+	/**
+	 * Decodes the image data of the given image descriptors in a background
+	 * thread. Creating an image from a descriptor whose image data has been
+	 * decoded only needs to create the SWT image, which keeps the UI thread
+	 * responsive when the images of a whole view are created at once. The
+	 * decoded image data is kept in a size bounded cache that is shared by all
+	 * image descriptors.
+	 * <p>
+	 * Only image descriptors created from a URL are decoded, other image
+	 * descriptors are ignored.
+	 * </p>
+	 *
+	 * @param descriptors
+	 *            the image descriptors to decode
+	 * @since 3.14
+	 */
+	public static void decodeInBackground(Collection<? extends ImageDescriptor> descriptors) {
+		for (ImageDescriptor descriptor : descriptors) {
+			if (descriptor instanceof URLImageDescriptor) {
+				((URLImageDescriptor) descriptor).decodeInBackground();
+			}
+		}
+	}
+
     @Override
 	public Object createResource(Device device) throws DeviceResourceException {
         Image result = createImage(false, device);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 IBM Corporation and others.
+ * Copyright (c) 2004, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,11 +10,18 @@
  *******************************************************************************/
 package org.eclipse.jface.resource;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import org.eclipse.core.commands.common.EventManager;
+import org.eclipse.core.runtime.ListenerList;
 
 import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.Policy;
 import org.eclipse.jface.util.PropertyChangeEvent;
 
 /**
@@ -24,6 +31,32 @@ import org.eclipse.jface.util.PropertyChangeEvent;
  */
 public abstract class ResourceRegistry extends EventManager {
 
+	/**
+	 * The property of the events that are sent to batch listeners. The old
+	 * and new values of such an event are unmodifiable maps from the changed
+	 * keys to their old and new values.
+	 *
+	 * @see #addBatchListener(IPropertyChangeListener)
+	 * @since 3.14
+	 */
+	public static final String MAPPINGS_CHANGED = "org.eclipse.jface.resource.mappingsChanged"; //$NON-NLS-1$
+
+	private final ListenerList<IPropertyChangeListener> batchListeners = new ListenerList<>();
+
+	private int batchDepth;
+
+	/**
+	 * The keys that have been changed in the current batch, mapped to their
+	 * values before the batch, in the order in which they have been changed.
+	 */
+	private Map<String, Object> batchOldValues;
+
+	/**
+	 * The keys that have been changed in the current batch, mapped to their
+	 * current values.
+	 */
+	private Map<String, Object> batchNewValues;
+
     /**
      * Adds a property change listener to this registry.
      *
@@ -33,6 +66,65 @@ public abstract class ResourceRegistry extends EventManager {
         addListenerObject(listener);
     }
 
+	/**
+	 * Adds a listener that is notified once for all mappings that have been
+	 * changed together. The listener receives a single event with the
+	 * {@link #MAPPINGS_CHANGED} property for every batch of changes, see
+	 * {@link #runBatch(Runnable)}, and for every change that is made outside of
+	 * a batch. The old and new values of the event are unmodifiable maps whose
+	 * key sets are the changed keys.
+	 * <p>
+	 * Listeners that react to any change of the registry, e.g. by refreshing
+	 * a viewer, should use this method instead of
+	 * {@link #addListener(IPropertyChangeListener)}, since a theme switch
+	 * changes hundreds of mappings at once.
+	 * </p>
+	 *
+	 * @param listener
+	 *            a property change listener
+	 * @since 3.14
+	 */
+	public void addBatchListener(IPropertyChangeListener listener) {
+		batchListeners.add(listener);
+	}
+
+	/**
+	 * Runs the given changes to this registry as a single batch. The listeners
+	 * are not notified while the changes are made. Once the batch is done,
+	 * listeners added with {@link #addListener(IPropertyChangeListener)}
+	 * receive one event per changed key with the value before the batch and the
+	 * final value, and listeners added with
+	 * {@link #addBatchListener(IPropertyChangeListener)} receive a single event
+	 * for all changed keys. Keys whose final value equals their value before
+	 * the batch are not reported.
+	 * <p>
+	 * Batches may be nested, the listeners are notified when the outermost
+	 * batch is done. The listeners are notified even if the changes throw an
+	 * exception.
+	 * </p>
+	 *
+	 * @param changes
+	 *            the changes to run, usually calls to <code>put</code>
+	 * @since 3.14
+	 */
+	public void runBatch(Runnable changes) {
+		if (batchDepth++ == 0) {
+			batchOldValues = new LinkedHashMap<>();
+			batchNewValues = new HashMap<>();
+		}
+		try {
+			changes.run();
+		} finally {
+			if (--batchDepth == 0) {
+				Map<String, Object> oldValues = batchOldValues;
+				Map<String, Object> newValues = batchNewValues;
+				batchOldValues = null;
+				batchNewValues = null;
+				fireBatch(oldValues, newValues);
+			}
+		}
+	}
+
     /**
      * Disposes all currently allocated resources.
      */
@@ -61,6 +153,21 @@ public abstract class ResourceRegistry extends EventManager {
      */
     protected void fireMappingChanged(String name, Object oldValue,
             Object newValue) {
+		if (batchDepth > 0) {
+			// only the value before the batch and the latest value are kept
+			if (!batchOldValues.containsKey(name)) {
+				batchOldValues.put(name, oldValue);
+			}
+			batchNewValues.put(name, newValue);
+			return;
+		}
+		fireMappingChangedNow(name, oldValue, newValue);
+		if (!batchListeners.isEmpty()) {
+			fireBatchListeners(Collections.singletonMap(name, oldValue), Collections.singletonMap(name, newValue));
+		}
+	}
+
+	private void fireMappingChangedNow(String name, Object oldValue, Object newValue) {
         final Object[] myListeners = getListeners();
         if (myListeners.length > 0) {
             PropertyChangeEvent event = new PropertyChangeEvent(this, name,
@@ -76,13 +183,42 @@ public abstract class ResourceRegistry extends EventManager {
         }
     }
 
+	private void fireBatch(Map<String, Object> oldValues, Map<String, Object> newValues) {
+		oldValues.keySet().removeIf(name -> Objects.deepEquals(oldValues.get(name), newValues.get(name)));
+		if (oldValues.isEmpty()) {
+			return;
+		}
+		Map<String, Object> changedValues = new LinkedHashMap<>();
+		for (Map.Entry<String, Object> entry : oldValues.entrySet()) {
+			String name = entry.getKey();
+			Object newValue = newValues.get(name);
+			changedValues.put(name, newValue);
+			fireMappingChangedNow(name, entry.getValue(), newValue);
+		}
+		if (!batchListeners.isEmpty()) {
+			fireBatchListeners(Collections.unmodifiableMap(oldValues), Collections.unmodifiableMap(changedValues));
+		}
+	}
+
+	private void fireBatchListeners(Map<String, Object> oldValues, Map<String, Object> newValues) {
+		PropertyChangeEvent event = new PropertyChangeEvent(this, MAPPINGS_CHANGED, oldValues, newValues);
+		for (IPropertyChangeListener listener : batchListeners) {
+			try {
+				listener.propertyChange(event);
+			} catch (Exception e) {
+				Policy.logException(e);
+			}
+		}
+	}
+
     /**
      * Removes the given listener from this registry. Has no effect if the
-     * listener is not registered.
+     * listener is not registered. Removes batch listeners as well.
      *
      * @param listener a property change listener
      */
     public void removeListener(IPropertyChangeListener listener) {
         removeListenerObject(listener);
+		batchListeners.remove(listener);
     }
 }
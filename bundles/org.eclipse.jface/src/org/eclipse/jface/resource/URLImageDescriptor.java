@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,8 +12,10 @@
 package org.eclipse.jface.resource;
 
 import java.io.BufferedInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 
@@ -21,6 +23,7 @@ import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.internal.ImageDataCache;
 import org.eclipse.jface.internal.InternalPolicy;
 import org.eclipse.jface.util.Policy;
 import org.eclipse.swt.SWT;
@@ -67,14 +70,15 @@ class URLImageDescriptor extends ImageDescriptor {
 
 		@Override
 		public ImageData getImageData(int zoom) {
-			URL tempURL = getURL(url);
-			if (tempURL != null) {
-				URL xUrl = getxURL(tempURL, zoom);
-				if (xUrl != null) {
-					return URLImageDescriptor.getImageData(xUrl);
+			try {
+				if (!isCacheable(url)) {
+					return loadImageData(url, zoom);
 				}
+				return ImageDataCache.getDefault().getImageData(url, zoom, () -> loadImageData(url, zoom));
+			} catch (UncheckedIOException e) {
+				Policy.getLog().log(new Status(IStatus.ERROR, Policy.JFACE, e.getLocalizedMessage(), e.getCause()));
+				return null;
 			}
-			return null;
 		}
 	}
 
@@ -107,7 +111,7 @@ class URLImageDescriptor extends ImageDescriptor {
 	@Deprecated
 	@Override
 	public ImageData getImageData() {
-		return getImageData(getURL(url));
+		return new URLImageDataProvider(url).getImageData(100);
 	}
 
 	@Override
@@ -115,21 +119,63 @@ class URLImageDescriptor extends ImageDescriptor {
 		return new URLImageDataProvider(url).getImageData(zoom);
 	}
 
-	private static ImageData getImageData(URL url) {
-		ImageData result = null;
-		try (InputStream in = getStream(url)) {
-			if (in != null) {
-				result = new ImageData(in);
-			}
-		} catch (SWTException e) {
-			if (e.code != SWT.ERROR_INVALID_IMAGE) {
-				throw e;
-				// fall through otherwise
+	/**
+	 * Decodes the image data of the receiver in a background thread, so that
+	 * creating an image of the receiver later does not need to decode it.
+	 */
+	void decodeInBackground() {
+		if (isCacheable(url)) {
+			ImageDataCache.getDefault().decodeInBackground(url, zoom -> loadImageData(url, zoom));
+		}
+	}
+
+	/**
+	 * Decodes the image data of the receiver in the calling thread, so that
+	 * creating an image of the receiver later does not need to decode it.
+	 */
+	void decode() {
+		if (isCacheable(url)) {
+			ImageDataCache.getDefault().decode(url, zoom -> loadImageData(url, zoom));
+		}
+	}
+
+	/**
+	 * Returns whether the image data of the given URL may be cached. Files
+	 * can be created, changed or deleted at any time, so images read from
+	 * <code>file:</code> URLs are not cached.
+	 */
+	private static boolean isCacheable(String url) {
+		return !url.regionMatches(true, 0, FILE_PROTOCOL + ':', 0, FILE_PROTOCOL.length() + 1);
+	}
+
+	/**
+	 * Decodes the image data of the given URL at the given zoom level.
+	 *
+	 * @return the image data, or <code>null</code> if the image does not
+	 *         exist or is not a valid image
+	 * @throws UncheckedIOException
+	 *             if the image could not be read
+	 */
+	private static ImageData loadImageData(String url, int zoom) {
+		URL tempURL = getURL(url);
+		if (tempURL != null) {
+			URL xUrl = getxURL(tempURL, zoom);
+			if (xUrl != null) {
+				try (InputStream in = openStream(xUrl)) {
+					if (in != null) {
+						return new ImageData(in);
+					}
+				} catch (SWTException e) {
+					if (e.code != SWT.ERROR_INVALID_IMAGE) {
+						throw e;
+						// fall through otherwise
+					}
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
 			}
-		} catch (IOException e) {
-			Policy.getLog().log(new Status(IStatus.ERROR, Policy.JFACE, e.getLocalizedMessage(), e));
 		}
-		return result;
+		return null;
 	}
 
 	/**
@@ -143,30 +189,51 @@ class URLImageDescriptor extends ImageDescriptor {
 	}
 
 	private static InputStream getStream(URL url) {
+		try {
+			return openStream(url);
+		} catch (IOException e) {
+			logMissingImage(url, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Returns a stream on the image contents.
+	 *
+	 * @return the stream, or <code>null</code> if the URL is <code>null</code>
+	 *         or the image does not exist
+	 * @throws IOException
+	 *             if the stream could not be opened for another reason
+	 */
+	private static InputStream openStream(URL url) throws IOException {
 		if (url == null) {
 			return null;
 		}
 
-		try {
-			if (InternalPolicy.OSGI_AVAILABLE) {
-				URL platformURL = FileLocator.find(url);
-				if (platformURL != null) {
-					url = platformURL;
-				}
+		if (InternalPolicy.OSGI_AVAILABLE) {
+			URL platformURL = FileLocator.find(url);
+			if (platformURL != null) {
+				url = platformURL;
 			}
+		}
+		try {
 			return new BufferedInputStream(url.openStream());
-		} catch (IOException e) {
-			if (InternalPolicy.DEBUG_LOG_URL_IMAGE_DESCRIPTOR_MISSING_2x) {
-				String path = url.getPath();
-				if (path.endsWith("@2x.png") || path.endsWith("@1.5x.png")) { //$NON-NLS-1$ //$NON-NLS-2$
-					String message = "High-resolution image missing: " + url; //$NON-NLS-1$
-					Policy.getLog().log(new Status(IStatus.WARNING, Policy.JFACE, message, e));
-				}
-			}
+		} catch (FileNotFoundException e) {
+			logMissingImage(url, e);
 			return null;
 		}
 	}
 
+	private static void logMissingImage(URL url, IOException e) {
+		if (InternalPolicy.DEBUG_LOG_URL_IMAGE_DESCRIPTOR_MISSING_2x) {
+			String path = url.getPath();
+			if (path.endsWith("@2x.png") || path.endsWith("@1.5x.png")) { //$NON-NLS-1$ //$NON-NLS-2$
+				String message = "High-resolution image missing: " + url; //$NON-NLS-1$
+				Policy.getLog().log(new Status(IStatus.WARNING, Policy.JFACE, message, e));
+			}
+		}
+	}
+
 	@Override
 	public int hashCode() {
 		return url.hashCode();
@@ -254,9 +321,13 @@ class URLImageDescriptor extends ImageDescriptor {
 			start = System.nanoTime();
 		}
 		try {
+			// Decode through the image data cache, so that the image data only
+			// needs to be copied when the image is created again after it has
+			// been disposed. Letting SWT read the file would bypass the cache.
+			boolean cacheable = isCacheable(url);
 
 			if (InternalPolicy.DEBUG_LOAD_URL_IMAGE_DESCRIPTOR_2x) {
-				if (!InternalPolicy.DEBUG_LOAD_URL_IMAGE_DESCRIPTOR_DIRECTLY) {
+				if (!InternalPolicy.DEBUG_LOAD_URL_IMAGE_DESCRIPTOR_DIRECTLY && !cacheable) {
 					try {
 						return new Image(device, new URLImageFileNameProvider(url));
 					} catch (SWTException exception) {
@@ -286,7 +357,7 @@ class URLImageDescriptor extends ImageDescriptor {
 				return image;
 
 			}
-			if (InternalPolicy.DEBUG_LOAD_URL_IMAGE_DESCRIPTOR_DIRECTLY) {
+			if (InternalPolicy.DEBUG_LOAD_URL_IMAGE_DESCRIPTOR_DIRECTLY || cacheable) {
 				return super.createImage(returnMissingImageOnError, device);
 			}
 
@@ -308,7 +379,8 @@ class URLImageDescriptor extends ImageDescriptor {
 			if (InternalPolicy.DEBUG_TRACE_URL_IMAGE_DESCRIPTOR) {
 				long time = System.nanoTime() - start;
 				cumulativeTime += time;
-				System.out.println("Accumulated time (ms) to load URLImageDescriptor images: " + cumulativeTime / 1000000); //$NON-NLS-1$
+				System.out.println("Accumulated time (ms) to load URLImageDescriptor images: " + cumulativeTime / 1000000 //$NON-NLS-1$
+						+ ", " + ImageDataCache.getDefault()); //$NON-NLS-1$
 			}
 		}
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2015 IBM Corporation and others.
+ * Copyright (c) 2006, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,8 +11,10 @@
 package org.eclipse.jface.viewers;
 
 import java.util.Arrays;
+import java.util.Objects;
 import java.util.function.Supplier;
 
+import org.eclipse.jface.internal.ImageDataCache;
 import org.eclipse.jface.resource.CompositeImageDescriptor;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.swt.graphics.Image;
@@ -45,6 +47,44 @@ public class DecorationOverlayIcon extends CompositeImageDescriptor {
 	 */
 	private Supplier<Point> size;
 
+	/**
+	 * The explicit size of this composite image, or <code>null</code> if the
+	 * size is that of the base image descriptor
+	 */
+	private Point fixedSize;
+
+	/**
+	 * Identifies the composed image data in the {@link ImageDataCache}.
+	 */
+	private static final class CompositionKey {
+		private final ImageDescriptor base;
+
+		private final ImageDescriptor[] overlays;
+
+		private final Point size;
+
+		CompositionKey(ImageDescriptor base, ImageDescriptor[] overlays, Point size) {
+			this.base = base;
+			this.overlays = overlays.clone();
+			this.size = size;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof CompositionKey)) {
+				return false;
+			}
+			CompositionKey other = (CompositionKey) obj;
+			return base.equals(other.base) && Arrays.equals(overlays, other.overlays)
+					&& Objects.equals(size, other.size);
+		}
+
+		@Override
+		public int hashCode() {
+			return (base.hashCode() * 31 + Arrays.hashCode(overlays)) * 31 + Objects.hashCode(size);
+		}
+	}
+
     /**
      * Create the decoration overlay for the base image using the array of
      * provided overlays. The indices of the array correspond to the values
@@ -62,7 +102,9 @@ public class DecorationOverlayIcon extends CompositeImageDescriptor {
 		this.referenceImageOrDescriptor = baseImage;
         this.overlays = overlaysArray;
 		this.baseImageDataProvider = createCachedImageDataProvider(baseImage);
-		this.size = () -> sizeValue;
+		Point sizeCopy = new Point(sizeValue.x, sizeValue.y);
+		this.size = () -> sizeCopy;
+		this.fixedSize = sizeCopy;
     }
 
     /**
@@ -182,12 +224,14 @@ public class DecorationOverlayIcon extends CompositeImageDescriptor {
 		}
         DecorationOverlayIcon other = (DecorationOverlayIcon) o;
 		return referenceImageOrDescriptor.equals(other.referenceImageOrDescriptor)
-                && Arrays.equals(overlays, other.overlays);
+				&& Arrays.equals(overlays, other.overlays) && Objects.equals(fixedSize, other.fixedSize);
     }
 
     @Override
 	public int hashCode() {
-		int code = System.identityHashCode(referenceImageOrDescriptor);
+		// equal icons must have equal hash codes, so that resource managers
+		// share a single image for every combination of base and overlays
+		int code = referenceImageOrDescriptor.hashCode();
         for (ImageDescriptor overlay : overlays) {
             if (overlay != null) {
 				code ^= overlay.hashCode();
@@ -196,6 +240,22 @@ public class DecorationOverlayIcon extends CompositeImageDescriptor {
         return code;
     }
 
+	/**
+	 * Returns the composed image data, which is shared with all icons that
+	 * combine the same base image descriptor and overlays, so that every
+	 * combination is composed only once. Icons on a base image are composed
+	 * every time, since the contents of the image may change.
+	 */
+	@Override
+	public ImageData getImageData(int zoom) {
+		if (getClass() != DecorationOverlayIcon.class || !(referenceImageOrDescriptor instanceof ImageDescriptor)) {
+			// subclasses may draw differently
+			return super.getImageData(zoom);
+		}
+		CompositionKey key = new CompositionKey((ImageDescriptor) referenceImageOrDescriptor, overlays, fixedSize);
+		return ImageDataCache.getDefault().getImageData(key, zoom, () -> super.getImageData(zoom));
+	}
+
     @Override
 	protected void drawCompositeImage(int width, int height) {
     	if (overlays.length > IDecoration.UNDERLAY) {
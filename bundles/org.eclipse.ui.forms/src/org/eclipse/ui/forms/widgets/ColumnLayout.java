@@ -90,6 +90,17 @@ public final class ColumnLayout extends Layout implements ILayoutExtension {
 		cache.setControls(children);
 	}
 
+	/**
+	 * Flushes only the cached size of the given child, so that the next layout
+	 * reuses the sizes of all other children.
+	 *
+	 * @see Layout#flushCache(Control)
+	 */
+	@Override
+	protected boolean flushCache(Control control) {
+		return cache.flush(control);
+	}
+
 	@Override
 	protected Point computeSize(Composite composite, int wHint, int hHint, boolean flushCache) {
 		updateCache(composite, flushCache);
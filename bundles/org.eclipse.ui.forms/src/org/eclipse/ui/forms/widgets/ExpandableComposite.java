@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -223,7 +223,7 @@ public class ExpandableComposite extends Canvas {
 
 	private Color titleBarForeground;
 
-	private class ExpandableLayout extends Layout implements ILayoutExtension {
+	class ExpandableLayout extends Layout implements ILayoutExtension {
 
 		private static final int MIN_WIDTH = -2;
 
@@ -253,6 +253,30 @@ public class ExpandableComposite extends Canvas {
 			}
 		}
 
+		/*
+		 * Flushes the cached sizes of the title and the description, which are
+		 * not watched for changes, without flushing the content of the client.
+		 */
+		void flushTitle() {
+			toggleCache.flush(false);
+			textClientCache.flush(false);
+			textLabelCache.flush(false);
+			descriptionCache.flush(false);
+			clientCache.flush(false);
+		}
+
+		@Override
+		protected boolean flushCache(Control control) {
+			for (SizeCache cache : new SizeCache[] { toggleCache, textClientCache, textLabelCache, descriptionCache,
+					clientCache }) {
+				if (cache.getControl() == control) {
+					cache.flushChanged();
+					return true;
+				}
+			}
+			return false;
+		}
+
 		@Override
 		protected void layout(Composite parent, boolean changed) {
 			initCache(changed);
@@ -1126,6 +1150,10 @@ public class ExpandableComposite extends Canvas {
 	}
 
 	void reflow() {
+		Layout layout = getLayout();
+		if (layout instanceof ExpandableLayout) {
+			((ExpandableLayout) layout).flushTitle();
+		}
 		Composite c = this;
 		while (c != null) {
 			c.setRedraw(false);
@@ -1139,7 +1167,7 @@ public class ExpandableComposite extends Canvas {
 			c.requestLayout();
 			c = c.getParent();
 			if (c instanceof SharedScrolledComposite) {
-				((SharedScrolledComposite) c).reflow(true);
+				((SharedScrolledComposite) c).reflowChanged();
 				break;
 			}
 		}
@@ -55,6 +55,7 @@ import org.eclipse.swt.widgets.Layout;
 import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.Menu;
 import org.eclipse.swt.widgets.MenuItem;
+import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.TypedListener;
 import org.eclipse.ui.forms.HyperlinkSettings;
 import org.eclipse.ui.forms.events.HyperlinkEvent;
@@ -216,6 +217,20 @@ public class FormText extends Canvas {
 
 	private static final String CONTROL_KEY = "__segment__"; //$NON-NLS-1$
 
+	private boolean virtualized;
+
+	/**
+	 * The locator that the next paragraph is laid out with, or
+	 * <code>null</code> if all paragraphs have been laid out.
+	 */
+	private Locator layoutLocator;
+
+	private Paragraph[] layoutParagraphs;
+
+	private int layoutWidth;
+
+	private int layoutLineHeight;
+
 	private class FormTextLayout extends Layout implements ILayoutExtension {
 		public FormTextLayout() {
 		}
@@ -272,27 +287,9 @@ public class FormText extends Canvas {
 				loc.rowHeight = 0;
 				loc.indent = p.getIndent();
 				loc.x = p.getIndent();
-				ParagraphSegment[] segments = p.getSegments();
-				if (segments.length > 0) {
-					selectableInTheLastRow = false;
-					int pwidth = 0;
-					for (ParagraphSegment segment : segments) {
-						segment.advanceLocator(gc, wHint, loc, resourceTable, false);
-						if (wHint != SWT.DEFAULT) {
-							width = Math.max(width, loc.width);
-						} else {
-							pwidth = Math.max(pwidth, loc.width);
-						}
-						if (segment instanceof IFocusSelectable)
-							selectableInTheLastRow = true;
-					}
-					if (wHint == SWT.DEFAULT)
-						width = Math.max(width, pwidth);
-					loc.y += loc.rowHeight;
-				} else {
-					// empty new line
-					loc.y += lineHeight;
-				}
+				if (p.hasSegments())
+					selectableInTheLastRow = p.hasFocusSelectableSegments();
+				width = Math.max(width, p.advanceLocator(gc, wHint, loc, lineHeight, resourceTable));
 			}
 			gc.dispose();
 			if (selectableInTheLastRow)
@@ -315,29 +312,29 @@ public class FormText extends Canvas {
 			GC gc = new GC(composite);
 			gc.setFont(getFont());
 			ensureBoldFontPresent(getFont());
-			gc.setForeground(getForeground());
-			gc.setBackground(getBackground());
+			FontMetrics fm = gc.getFontMetrics();
+			gc.dispose();
 
 			Locator loc = new Locator();
 			loc.marginWidth = marginWidth;
 			loc.marginHeight = marginHeight;
 			loc.y = marginHeight;
-			FontMetrics fm = gc.getFontMetrics();
-			int lineHeight = fm.getHeight();
-
-			Paragraph[] paragraphs = model.getParagraphs();
-			IHyperlinkSegment selectedLink = getSelectedLink();
-			for (int i = 0; i < paragraphs.length; i++) {
-				Paragraph p = paragraphs[i];
-				if (i > 0 && paragraphsSeparated && p.getAddVerticalSpace())
-					loc.y += getParagraphSpacing(lineHeight);
-				loc.indent = p.getIndent();
-				loc.resetCaret();
-				loc.rowHeight = 0;
-				p.layout(gc, carea.width, loc, lineHeight, resourceTable,
-						selectedLink);
+			layoutLocator = loc;
+			layoutWidth = carea.width;
+			layoutLineHeight = fm.getHeight();
+			layoutParagraphs = model.getParagraphs();
+			model.resetLayout(layoutLineHeight);
+			if (virtualized) {
+				// controls must be positioned even if they are not visible
+				int controlCount = 0;
+				for (int i = 0; i < layoutParagraphs.length; i++) {
+					if (layoutParagraphs[i].hasControlSegments())
+						controlCount = i + 1;
+				}
+				layoutParagraphs(getVisibleBottom(), controlCount);
+			} else {
+				layoutParagraphs(Integer.MAX_VALUE, 0);
 			}
-			gc.dispose();
 			if (DEBUG_TEXT) {
 				long stop = System.currentTimeMillis();
 				System.out.println("FormText.layout: " + (stop - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
@@ -528,6 +525,38 @@ public class FormText extends Canvas {
 		paragraphsSeparated = value;
 	}
 
+	/**
+	 * Sets whether only the paragraphs in the visible area are laid out. In
+	 * the virtualized mode, a layout only lays out the paragraphs that are
+	 * visible and those that contain controls. The remaining paragraphs are
+	 * laid out when they are painted or needed otherwise, e.g. for keyboard
+	 * navigation. This makes resizing a form text with a very large number of
+	 * paragraphs much faster. The size of the form text is always computed
+	 * from all paragraphs.
+	 *
+	 * @param value
+	 *            <samp>true</samp> to lay out visible paragraphs only,
+	 *            <samp>false</samp> to lay out all paragraphs.
+	 * @since 3.8
+	 */
+	public void setVirtualized(boolean value) {
+		virtualized = value;
+		if (!value)
+			ensureLayout();
+	}
+
+	/**
+	 * Tests if only the paragraphs in the visible area are laid out.
+	 *
+	 * @return <samp>true</samp> if paragraphs are laid out when they become
+	 *         visible, <samp>false</samp> if all paragraphs are laid out at
+	 *         once.
+	 * @since 3.8
+	 */
+	public boolean isVirtualized() {
+		return virtualized;
+	}
+
 	/**
 	 * Tests if there is some inter-paragraph spacing.
 	 *
@@ -661,6 +690,7 @@ public class FormText extends Canvas {
 	public void setText(String text, boolean parseTags, boolean expandURLs) {
 		disposeResourceTable(false);
 		entered = null;
+		layoutLocator = null;
 		if (parseTags)
 			model.parseTaggedText(text, expandURLs);
 		else
@@ -684,6 +714,7 @@ public class FormText extends Canvas {
 	public void setContents(InputStream is, boolean expandURLs) {
 		entered = null;
 		disposeResourceTable(false);
+		layoutLocator = null;
 		model.parseInputStream(is, expandURLs);
 		hookControlSegmentFocus();
 		layout();
@@ -1143,6 +1174,7 @@ public class FormText extends Canvas {
 			@Override
 			public void getChildAtPoint(AccessibleControlEvent e) {
 				Point pt = toControl(new Point(e.x, e.y));
+				ensureLayout(pt.y);
 				IHyperlinkSegment link = model.findHyperlinkAt(pt.x, pt.y);
 				if (link != null)
 					e.childID = model.indexOf(link);
@@ -1158,6 +1190,7 @@ public class FormText extends Canvas {
 					int index = e.childID;
 					IHyperlinkSegment link = model.getHyperlink(index);
 					if (link != null) {
+						ensureLayout();
 						location = link.getBounds();
 					}
 				}
@@ -1282,6 +1315,7 @@ public class FormText extends Canvas {
 	}
 
 	private void computeSelection() {
+		ensureLayout();
 		GC gc = new GC(this);
 		Paragraph[] paragraphs = model.getParagraphs();
 		IHyperlinkSegment selectedLink = getSelectedLink();
@@ -1333,6 +1367,7 @@ public class FormText extends Canvas {
 		if (down) {
 			// select a hyperlink
 			mouseFocus = true;
+			ensureLayout(e.y);
 			IHyperlinkSegment segmentUnder = model.findHyperlinkAt(e.x, e.y);
 			if (segmentUnder != null) {
 				IHyperlinkSegment oldLink = getSelectedLink();
@@ -1384,6 +1419,7 @@ public class FormText extends Canvas {
 			handleDrag(e);
 			return;
 		}
+		ensureLayout(e.y);
 		ParagraphSegment segmentUnder = model.findSegmentAt(e.x, e.y);
 		updateTooltipText(segmentUnder);
 		if (segmentUnder == null) {
@@ -1587,7 +1623,8 @@ public class FormText extends Canvas {
 		textGC.fillRectangle(0, 0, width, height);
 		Rectangle repaintRegion = new Rectangle(x, y, width, height);
 
-		Paragraph[] paragraphs = model.getParagraphs();
+		ensureLayout(y + height);
+		Paragraph[] paragraphs = model.getParagraphsIn(y, height);
 		IHyperlinkSegment selectedLink = getSelectedLink();
 		if (getDisplay().getFocusControl() != this)
 			selectedLink = null;
@@ -1607,8 +1644,76 @@ public class FormText extends Canvas {
 		return lineHeight / 2;
 	}
 
+	/**
+	 * Lays out the paragraphs that have not been laid out yet, until the
+	 * given location is reached and at least the given number of paragraphs
+	 * has been laid out.
+	 */
+	private void layoutParagraphs(int bottom, int minCount) {
+		Locator loc = layoutLocator;
+		if (loc == null)
+			return;
+		int i = model.getLaidOutCount();
+		if (i < layoutParagraphs.length && (loc.y <= bottom || i < minCount)) {
+			GC gc = new GC(this);
+			gc.setFont(getFont());
+			gc.setForeground(getForeground());
+			gc.setBackground(getBackground());
+			IHyperlinkSegment selectedLink = getSelectedLink();
+			for (; i < layoutParagraphs.length && (loc.y <= bottom || i < minCount); i++) {
+				Paragraph p = layoutParagraphs[i];
+				if (i > 0 && paragraphsSeparated && p.getAddVerticalSpace())
+					loc.y += getParagraphSpacing(layoutLineHeight);
+				int top = loc.y;
+				loc.indent = p.getIndent();
+				loc.resetCaret();
+				loc.rowHeight = 0;
+				p.layout(gc, layoutWidth, loc, layoutLineHeight, resourceTable,
+						selectedLink);
+				model.paragraphLaidOut(top, loc.y);
+			}
+			gc.dispose();
+		}
+		if (i == layoutParagraphs.length) {
+			layoutLocator = null;
+			layoutParagraphs = null;
+		}
+	}
+
+	/**
+	 * Lays out the paragraphs that start above the given location, if they
+	 * have not been laid out yet.
+	 */
+	private void ensureLayout(int y) {
+		layoutParagraphs(y, 0);
+	}
+
+	/**
+	 * Lays out all paragraphs that have not been laid out yet.
+	 */
+	private void ensureLayout() {
+		layoutParagraphs(Integer.MAX_VALUE, 0);
+	}
+
+	/**
+	 * Returns the bottom of the area of this control that is not clipped by
+	 * its parents, e.g. by a scrolled form.
+	 */
+	private int getVisibleBottom() {
+		Rectangle visible = getClientArea();
+		Control child = this;
+		Composite parent = getParent();
+		while (parent != null && !(child instanceof Shell)) {
+			visible.intersect(getDisplay().map(parent, this, parent.getClientArea()));
+			child = parent;
+			parent = parent.getParent();
+		}
+		return visible.y + visible.height;
+	}
+
 	private void paintFocusTransfer(IHyperlinkSegment oldLink,
 			IHyperlinkSegment newLink) {
+		ensureLayout();
 		if (oldLink != null) {
 			Rectangle r = oldLink.getBounds();
 			redraw(r.x, r.y, r.width, r.height, true);
@@ -1633,6 +1738,7 @@ public class FormText extends Canvas {
 		}
 		if (segment == null)
 			return;
+		ensureLayout();
 		Rectangle bounds = segment.getBounds();
 		ScrolledComposite scomp = FormUtil.getScrolledComposite(this);
 		if (scomp == null)
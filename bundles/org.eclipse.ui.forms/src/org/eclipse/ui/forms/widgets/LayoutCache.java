@@ -109,6 +109,23 @@ public class LayoutCache {
         caches[controlIndex].flush();
     }
 
+    /**
+     * Flushes the cache for the given control after the control or one of its
+     * descendants has changed.
+     *
+     * @param control
+     * @return <code>false</code> if the size of the control is not cached here
+     */
+    boolean flush(Control control) {
+        for (SizeCache cache : caches) {
+            if (cache.getControl() == control) {
+                cache.flushChanged();
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Flushes the cache.
      */
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2000, 2016 IBM Corporation and others.
+ *  Copyright (c) 2000, 2018 IBM Corporation and others.
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v1.0
  *  which accompanies this distribution, and is available at
@@ -49,6 +49,10 @@ public abstract class SharedScrolledComposite extends ScrolledComposite {
 
 	private boolean delayedReflow = false;
 
+	private boolean changedReflowPending = false;
+
+	private boolean changedReflowScheduled = false;
+
 	/**
 	 * Creates the new instance.
 	 *
@@ -165,6 +169,8 @@ public abstract class SharedScrolledComposite extends ScrolledComposite {
 	 *            if <code>true</code>, drop the cached data
 	 */
 	public void reflow(boolean flushCache) {
+		boolean changed = changedReflowPending;
+		changedReflowPending = false;
 		Composite c = (Composite) getContent();
 		Rectangle clientArea = getClientArea();
 		if (c == null)
@@ -179,6 +185,8 @@ public abstract class SharedScrolledComposite extends ScrolledComposite {
 		contentCache.setControl(c);
 		if (flushCache) {
 			contentCache.flush();
+		} else if (changed) {
+			contentCache.flushChanged();
 		}
 
 		int minWidth = contentCache.computeMinimumWidth();
@@ -209,6 +217,34 @@ public abstract class SharedScrolledComposite extends ScrolledComposite {
 		contentCache.layoutIfNecessary();
 	}
 
+	/**
+	 * Reflows the body after some controls in it changed. Unlike
+	 * {@link #reflow(boolean)} with <code>true</code>, only the cached sizes of
+	 * the changed controls and their parents are dropped. The controls must
+	 * have been reported to their parents, e.g. with
+	 * {@link Control#requestLayout()}. When delayed reflow is used, the reflow
+	 * is performed in the next event loop turn and all requests made until
+	 * then are coalesced into one reflow. A {@link #reflow(boolean)} made in
+	 * the meantime performs the pending reflow right away.
+	 */
+	void reflowChanged() {
+		changedReflowPending = true;
+		if (!delayedReflow) {
+			reflow(false);
+			return;
+		}
+		if (changedReflowScheduled) {
+			return;
+		}
+		changedReflowScheduled = true;
+		getDisplay().asyncExec(() -> {
+			changedReflowScheduled = false;
+			if (changedReflowPending && !isDisposed()) {
+				reflow(false);
+			}
+		});
+	}
+
 	private void updateSizeWhilePending() {
 		Control c = getContent();
 		Rectangle area = getClientArea();
@@ -256,7 +292,9 @@ public abstract class SharedScrolledComposite extends ScrolledComposite {
 	 * Sets the delayed reflow feature. When used,
 	 * it will schedule a reflow on resize requests
 	 * and reject subsequent reflows until the
-	 * scheduled one is performed.
+	 * scheduled one is performed. The reflows caused by
+	 * expanding or collapsing an {@link ExpandableComposite}
+	 * in the body are delayed and coalesced as well.
 	 *
 	 * @param delayedReflow
 	 *            The delayedReflow to set.
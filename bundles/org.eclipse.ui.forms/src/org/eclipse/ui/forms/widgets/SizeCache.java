@@ -139,6 +139,31 @@ public class SizeCache {
         flush(true);
     }
 
+    /**
+     * Flushes the cache after the control or one of its descendants has changed, see
+     * {@link Layout#flushCache(Control)}. The caches of the descendants are only flushed
+     * as well if the layout of the control does not track changed children itself.
+     */
+    void flushChanged() {
+        flush(!isTrackingChanges(control));
+    }
+
+    /**
+     * Returns whether the layout of the given control flushes its own caches for
+     * changed children. The widths of an {@link ILayoutExtension} are queried
+     * without the changed state that SWT keeps for the layout, so only the layouts
+     * of this package that implement {@link Layout#flushCache(Control)} can be
+     * trusted.
+     */
+    private static boolean isTrackingChanges(Control control) {
+        if (!(control instanceof Composite)) {
+            return true;
+        }
+        Layout layout = ((Composite) control).getLayout();
+        return !(layout instanceof ILayoutExtension) || layout instanceof TableWrapLayout
+                || layout instanceof ColumnLayout || layout instanceof ExpandableComposite.ExpandableLayout;
+    }
+
     public void flush(boolean recursive) {
         preferredSize = null;
 		cachedWidthQuery = -1;
@@ -209,6 +209,17 @@ public final class TableWrapLayout extends Layout implements ILayoutExtension {
 		return internalGetMaximumWidth(parent, changed);
 	}
 
+	/**
+	 * Flushes only the cached size of the given child, so that the next layout
+	 * reuses the sizes of all other children.
+	 *
+	 * @see Layout#flushCache(Control)
+	 */
+	@Override
+	protected boolean flushCache(Control control) {
+		return cache.flush(control);
+	}
+
 	/**
 	 * @see Layout#layout(Composite, boolean)
 	 */
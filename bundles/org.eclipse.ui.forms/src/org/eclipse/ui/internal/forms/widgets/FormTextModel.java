@@ -11,49 +11,44 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.forms.widgets;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Vector;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-
 import org.eclipse.swt.SWT;
 import org.eclipse.ui.forms.HyperlinkSettings;
-import org.w3c.dom.Document;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.ErrorHandler;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
-import org.xml.sax.SAXParseException;
 
 public class FormTextModel {
 
-	/*
-	 * This class prevents parse errors from being written to standard output
+	/**
+	 * The maximum number of parsed markup strings that are cached.
 	 */
-	public class ParseErrorHandler implements ErrorHandler {
+	private static final int MAX_CACHED_MARKUP = 32;
 
-		@Override
-		public void error(SAXParseException arg0) throws SAXException {
-		}
+	/**
+	 * Markup longer than this is parsed every time instead of being cached.
+	 */
+	private static final int MAX_CACHED_MARKUP_LENGTH = 64 * 1024;
 
-		@Override
-		public void fatalError(SAXParseException arg0) throws SAXException {
-		}
+	/**
+	 * The parsed markup of the most recently used tagged texts. Pages that are
+	 * refreshed often set the same text over and over again, and the parsed
+	 * markup is immutable, so it can be shared by all models.
+	 */
+	private static final Map<String, MarkupNode> markupCache = new LinkedHashMap<String, MarkupNode>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
 
 		@Override
-		public void warning(SAXParseException arg0) throws SAXException {
+		protected boolean removeEldestEntry(Map.Entry<String, MarkupNode> eldest) {
+			return size() > MAX_CACHED_MARKUP;
 		}
-	}
-
-	private static final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory
-			.newInstance();
+	};
 
 	private boolean whitespaceNormalized = true;
 
@@ -67,6 +62,23 @@ public class FormTextModel {
 
 	private HyperlinkSettings hyperlinkSettings;
 
+	/**
+	 * The vertical extent of the paragraphs that have been laid out so far,
+	 * in the order of the paragraphs. Since paragraphs are laid out from top
+	 * to bottom, the paragraphs at a location are found with a binary search.
+	 */
+	private int[] paragraphTops;
+
+	private int[] paragraphBottoms;
+
+	private int laidOutCount;
+
+	/**
+	 * How far the bounds of a segment may extend beyond the rows of its
+	 * paragraph.
+	 */
+	private int overhang;
+
 	public static final String BOLD_FONT_ID = "f.____bold"; //$NON-NLS-1$
 
 	//private static final int TEXT_ONLY_LINK = 1;
@@ -109,52 +121,61 @@ public class FormTextModel {
 			reset();
 			return;
 		}
-		InputStream stream = new ByteArrayInputStream(taggedText.getBytes(StandardCharsets.UTF_8));
-		parseInputStream(stream, expandURLs);
+		MarkupNode root;
+		synchronized (markupCache) {
+			root = markupCache.get(taggedText);
+		}
+		if (root == null) {
+			root = parseMarkup(new InputSource(new StringReader(taggedText)));
+			if (root != null && taggedText.length() <= MAX_CACHED_MARKUP_LENGTH) {
+				synchronized (markupCache) {
+					markupCache.put(taggedText, root);
+				}
+			}
+		}
+		reset();
+		if (root != null)
+			processDocument(root, expandURLs);
 	}
 
 	public void parseInputStream(InputStream is, boolean expandURLs) {
-
-		documentBuilderFactory.setNamespaceAware(true);
-		documentBuilderFactory.setIgnoringComments(true);
-
+		MarkupNode root = parseMarkup(new InputSource(is));
 		reset();
+		if (root != null)
+			processDocument(root, expandURLs);
+	}
+
+	private MarkupNode parseMarkup(InputSource source) {
 		try {
-			DocumentBuilder parser = documentBuilderFactory
-					.newDocumentBuilder();
-			parser.setErrorHandler(new ParseErrorHandler());
-			InputSource source = new InputSource(is);
-			Document doc = parser.parse(source);
-			processDocument(doc, expandURLs);
-		} catch (ParserConfigurationException e) {
-			SWT.error(SWT.ERROR_INVALID_ARGUMENT, e, " " + e.getMessage()); //$NON-NLS-1$
+			return MarkupNode.parse(source);
 		} catch (SAXException e) {
+			reset();
 			SWT.error(SWT.ERROR_INVALID_ARGUMENT, e, " " + e.getMessage()); //$NON-NLS-1$
 		} catch (IOException e) {
+			reset();
 			SWT.error(SWT.ERROR_IO, e);
 		}
+		return null;
 	}
 
-	private void processDocument(Document doc, boolean expandURLs) {
-		Node root = doc.getDocumentElement();
-		NodeList children = root.getChildNodes();
-		processSubnodes(paragraphs, children, expandURLs);
+	private void processDocument(MarkupNode root, boolean expandURLs) {
+		processSubnodes(paragraphs, root.getChildren(), expandURLs);
 	}
 
-	private void processSubnodes(Vector<Paragraph> plist, NodeList children, boolean expandURLs) {
-		for (int i = 0; i < children.getLength(); i++) {
-			Node child = children.item(i);
-			if (child.getNodeType() == Node.TEXT_NODE) {
+	private void processSubnodes(Vector<Paragraph> plist, MarkupNode[] children, boolean expandURLs) {
+		for (int i = 0; i < children.length; i++) {
+			MarkupNode child = children[i];
+			if (child.isText()) {
 				// Make an implicit paragraph
-				String text = getSingleNodeText(child);
+				String text = getSingleNodeText(children, i);
 				if (text != null && !isIgnorableWhiteSpace(text, true)) {
 					Paragraph p = new Paragraph(true);
 					p.parseRegularText(text, expandURLs, true,
 							getHyperlinkSettings(), null);
 					plist.add(p);
 				}
-			} else if (child.getNodeType() == Node.ELEMENT_NODE) {
-				String tag = child.getNodeName().toLowerCase();
+			} else if (child.isElement()) {
+				String tag = child.getName().toLowerCase();
 				if (tag.equals("p")) { //$NON-NLS-1$
 					Paragraph p = processParagraph(child, expandURLs);
 					if (p != null)
@@ -168,33 +189,28 @@ public class FormTextModel {
 		}
 	}
 
-	private Paragraph processParagraph(Node paragraph, boolean expandURLs) {
-		NodeList children = paragraph.getChildNodes();
-		NamedNodeMap atts = paragraph.getAttributes();
-		Node addSpaceAtt = atts.getNamedItem("addVerticalSpace"); //$NON-NLS-1$
+	private Paragraph processParagraph(MarkupNode paragraph, boolean expandURLs) {
+		String addSpaceAtt = paragraph.getAttribute("addVerticalSpace"); //$NON-NLS-1$
 		boolean addSpace = true;
 
 		if (addSpaceAtt == null)
-			addSpaceAtt = atts.getNamedItem("vspace"); //$NON-NLS-1$
+			addSpaceAtt = paragraph.getAttribute("vspace"); //$NON-NLS-1$
 
 		if (addSpaceAtt != null) {
-			String value = addSpaceAtt.getNodeValue();
-			addSpace = value.equalsIgnoreCase("true"); //$NON-NLS-1$
+			addSpace = addSpaceAtt.equalsIgnoreCase("true"); //$NON-NLS-1$
 		}
 		Paragraph p = new Paragraph(addSpace);
 
-		processSegments(p, children, expandURLs);
+		processSegments(p, paragraph.getChildren(), expandURLs);
 		return p;
 	}
 
-	private Paragraph processListItem(Node listItem, boolean expandURLs) {
-		NodeList children = listItem.getChildNodes();
-		NamedNodeMap atts = listItem.getAttributes();
-		Node addSpaceAtt = atts.getNamedItem("addVerticalSpace");//$NON-NLS-1$
-		Node styleAtt = atts.getNamedItem("style");//$NON-NLS-1$
-		Node valueAtt = atts.getNamedItem("value");//$NON-NLS-1$
-		Node indentAtt = atts.getNamedItem("indent");//$NON-NLS-1$
-		Node bindentAtt = atts.getNamedItem("bindent");//$NON-NLS-1$
+	private Paragraph processListItem(MarkupNode listItem, boolean expandURLs) {
+		String addSpaceAtt = listItem.getAttribute("addVerticalSpace");//$NON-NLS-1$
+		String styleAtt = listItem.getAttribute("style");//$NON-NLS-1$
+		String valueAtt = listItem.getAttribute("value");//$NON-NLS-1$
+		String indentAtt = listItem.getAttribute("indent");//$NON-NLS-1$
+		String bindentAtt = listItem.getAttribute("bindent");//$NON-NLS-1$
 		int style = BulletParagraph.CIRCLE;
 		int indent = -1;
 		int bindent = -1;
@@ -202,35 +218,31 @@ public class FormTextModel {
 		boolean addSpace = true;
 
 		if (addSpaceAtt != null) {
-			String value = addSpaceAtt.getNodeValue();
-			addSpace = value.equalsIgnoreCase("true"); //$NON-NLS-1$
+			addSpace = addSpaceAtt.equalsIgnoreCase("true"); //$NON-NLS-1$
 		}
 		if (styleAtt != null) {
-			String value = styleAtt.getNodeValue();
-			if (value.equalsIgnoreCase("text")) { //$NON-NLS-1$
+			if (styleAtt.equalsIgnoreCase("text")) { //$NON-NLS-1$
 				style = BulletParagraph.TEXT;
-			} else if (value.equalsIgnoreCase("image")) { //$NON-NLS-1$
+			} else if (styleAtt.equalsIgnoreCase("image")) { //$NON-NLS-1$
 				style = BulletParagraph.IMAGE;
-			} else if (value.equalsIgnoreCase("bullet")) { //$NON-NLS-1$
+			} else if (styleAtt.equalsIgnoreCase("bullet")) { //$NON-NLS-1$
 				style = BulletParagraph.CIRCLE;
 			}
 		}
 		if (valueAtt != null) {
-			text = valueAtt.getNodeValue();
+			text = valueAtt;
 			if (style == BulletParagraph.IMAGE)
 				text = "i." + text; //$NON-NLS-1$
 		}
 		if (indentAtt != null) {
-			String value = indentAtt.getNodeValue();
 			try {
-				indent = Integer.parseInt(value);
+				indent = Integer.parseInt(indentAtt);
 			} catch (NumberFormatException e) {
 			}
 		}
 		if (bindentAtt != null) {
-			String value = bindentAtt.getNodeValue();
 			try {
-				bindent = Integer.parseInt(value);
+				bindent = Integer.parseInt(bindentAtt);
 			} catch (NumberFormatException e) {
 			}
 		}
@@ -241,25 +253,25 @@ public class FormTextModel {
 		p.setBulletStyle(style);
 		p.setBulletText(text);
 
-		processSegments(p, children, expandURLs);
+		processSegments(p, listItem.getChildren(), expandURLs);
 		return p;
 	}
 
-	private void processSegments(Paragraph p, NodeList children,
+	private void processSegments(Paragraph p, MarkupNode[] children,
 			boolean expandURLs) {
-		for (int i = 0; i < children.getLength(); i++) {
-			Node child = children.item(i);
+		for (int i = 0; i < children.length; i++) {
+			MarkupNode child = children[i];
 			ParagraphSegment segment = null;
 
-			if (child.getNodeType() == Node.TEXT_NODE) {
-				String value = getSingleNodeText(child);
+			if (child.isText()) {
+				String value = getSingleNodeText(children, i);
 
 				if (value != null && !isIgnorableWhiteSpace(value, false)) {
 					p.parseRegularText(value, expandURLs, true,
 							getHyperlinkSettings(), null);
 				}
-			} else if (child.getNodeType() == Node.ELEMENT_NODE) {
-				String name = child.getNodeName();
+			} else if (child.isElement()) {
+				String name = child.getName();
 				if (name.equalsIgnoreCase("img")) { //$NON-NLS-1$
 					segment = processImageSegment(child);
 				} else if (name.equalsIgnoreCase("a")) { //$NON-NLS-1$
@@ -296,32 +308,29 @@ public class FormTextModel {
 		return true;
 	}
 
-	private ImageSegment processImageSegment(Node image) {
+	private ImageSegment processImageSegment(MarkupNode image) {
 		ImageSegment segment = new ImageSegment();
 		processObjectSegment(segment, image, "i."); //$NON-NLS-1$
 		return segment;
 	}
 
-	private ControlSegment processControlSegment(Node control) {
+	private ControlSegment processControlSegment(MarkupNode control) {
 		ControlSegment segment = new ControlSegment();
 		processObjectSegment(segment, control, "o."); //$NON-NLS-1$
-		Node fill = control.getAttributes().getNamedItem("fill"); //$NON-NLS-1$
+		String fill = control.getAttribute("fill"); //$NON-NLS-1$
 		if (fill!=null) {
-			String value = fill.getNodeValue();
-			boolean doFill = value.equalsIgnoreCase("true"); //$NON-NLS-1$
+			boolean doFill = fill.equalsIgnoreCase("true"); //$NON-NLS-1$
 			segment.setFill(doFill);
 		}
 		try {
-			Node width = control.getAttributes().getNamedItem("width"); //$NON-NLS-1$
+			String width = control.getAttribute("width"); //$NON-NLS-1$
 			if (width!=null) {
-				String value = width.getNodeValue();
-				int doWidth = Integer.parseInt(value);
+				int doWidth = Integer.parseInt(width);
 				segment.setWidth(doWidth);
 			}
-			Node height = control.getAttributes().getNamedItem("height"); //$NON-NLS-1$
+			String height = control.getAttribute("height"); //$NON-NLS-1$
 			if (height!=null) {
-				String value = height.getNodeValue();
-				int doHeight = Integer.parseInt(value);
+				int doHeight = Integer.parseInt(height);
 				segment.setHeight(doHeight);
 			}
 		}
@@ -331,16 +340,14 @@ public class FormTextModel {
 		return segment;
 	}
 
-	private void processObjectSegment(ObjectSegment segment, Node object, String prefix) {
-		NamedNodeMap atts = object.getAttributes();
-		Node id = atts.getNamedItem("href"); //$NON-NLS-1$
-		Node align = atts.getNamedItem("align"); //$NON-NLS-1$
+	private void processObjectSegment(ObjectSegment segment, MarkupNode object, String prefix) {
+		String id = object.getAttribute("href"); //$NON-NLS-1$
+		String align = object.getAttribute("align"); //$NON-NLS-1$
 		if (id != null) {
-			String value = id.getNodeValue();
-			segment.setObjectId(prefix + value);
+			segment.setObjectId(prefix + id);
 		}
 		if (align != null) {
-			String value = align.getNodeValue().toLowerCase();
+			String value = align.toLowerCase();
 			if (value.equals("top")) //$NON-NLS-1$
 				segment.setVerticalAlignment(ObjectSegment.TOP);
 			else if (value.equals("middle")) //$NON-NLS-1$
@@ -385,28 +392,25 @@ public class FormTextModel {
 		return buf.toString();
 	}
 
-	private String getSingleNodeText(Node node) {
-		String text = getNormalizedText(node.getNodeValue());
+	private String getSingleNodeText(MarkupNode[] siblings, int index) {
+		String text = getNormalizedText(siblings[index].getText());
 		if (!whitespaceNormalized)
 			return text;
-		if (text.length() > 0 && node.getPreviousSibling() == null && isIgnorableWhiteSpace(text.substring(0, 1), true))
+		if (text.length() > 0 && index == 0 && isIgnorableWhiteSpace(text.substring(0, 1), true))
 			return text.substring(1);
-		if (text.length() > 1 && node.getNextSibling() == null
+		if (text.length() > 1 && index == siblings.length - 1
 				&& isIgnorableWhiteSpace(text.substring(text.length() - 1), true))
 			return text.substring(0, text.length() - 1);
 		return text;
 	}
 
-	private String getNodeText(Node node) {
-		NodeList children = node.getChildNodes();
+	private String getNodeText(MarkupNode node) {
 		StringBuilder buf = new StringBuilder();
 		int[] spaceCounter = new int[1];
 
-		for (int i = 0; i < children.getLength(); i++) {
-			Node child = children.item(i);
-			if (child.getNodeType() == Node.TEXT_NODE) {
-				String value = child.getNodeValue();
-				appendText(value, buf, spaceCounter);
+		for (MarkupNode child : node.getChildren()) {
+			if (child.isText()) {
+				appendText(child.getText(), buf, spaceCounter);
 			}
 		}
 		if (whitespaceNormalized) {
@@ -415,39 +419,30 @@ public class FormTextModel {
 		return buf.toString();
 	}
 
-	private ParagraphSegment processHyperlinkSegment(Node link,
+	private ParagraphSegment processHyperlinkSegment(MarkupNode link,
 			HyperlinkSettings settings) {
-		NamedNodeMap atts = link.getAttributes();
-		String href = null;
+		String href = link.getAttribute("href"); //$NON-NLS-1$
 		boolean wrapAllowed = true;
 		String boldFontId = null;
 
-		Node hrefAtt = atts.getNamedItem("href"); //$NON-NLS-1$
-		if (hrefAtt != null) {
-			href = hrefAtt.getNodeValue();
-		}
-		Node boldAtt = atts.getNamedItem("bold"); //$NON-NLS-1$
-		if (boldAtt != null) {
+		if (link.getAttribute("bold") != null) { //$NON-NLS-1$
 			boldFontId = BOLD_FONT_ID;
 		}
-		Node nowrap = atts.getNamedItem("nowrap"); //$NON-NLS-1$
-		if (nowrap != null) {
-			String value = nowrap.getNodeValue();
-			if (value != null && value.equalsIgnoreCase("true")) //$NON-NLS-1$
-				wrapAllowed = false;
-		}
+		String nowrap = link.getAttribute("nowrap"); //$NON-NLS-1$
+		if (nowrap != null && nowrap.equalsIgnoreCase("true")) //$NON-NLS-1$
+			wrapAllowed = false;
 		Object status = checkChildren(link);
-		if (status instanceof Node) {
-			Node child = (Node)status;
+		if (status instanceof MarkupNode) {
+			MarkupNode child = (MarkupNode)status;
 			ImageHyperlinkSegment segment = new ImageHyperlinkSegment();
 			segment.setHref(href);
 			segment.setWordWrapAllowed(wrapAllowed);
-			Node alt = child.getAttributes().getNamedItem("alt"); //$NON-NLS-1$
+			String alt = child.getAttribute("alt"); //$NON-NLS-1$
 			if (alt!=null)
-				segment.setTooltipText(alt.getNodeValue());
-			Node text = child.getAttributes().getNamedItem("text"); //$NON-NLS-1$
+				segment.setTooltipText(alt);
+			String text = child.getAttribute("text"); //$NON-NLS-1$
 			if (text!=null)
-				segment.setText(text.getNodeValue());
+				segment.setText(text);
 			processObjectSegment(segment, child, "i."); //$NON-NLS-1$
 			return segment;
 		}  else if (status instanceof String) {
@@ -456,34 +451,30 @@ public class FormTextModel {
 					settings, null);
 			segment.setHref(href);
 			segment.setFontId(boldFontId);
-			Node alt = atts.getNamedItem("alt"); //$NON-NLS-1$
+			String alt = link.getAttribute("alt"); //$NON-NLS-1$
 			if (alt!=null)
-				segment.setTooltipText(alt.getNodeValue());
+				segment.setTooltipText(alt);
 			segment.setWordWrapAllowed(wrapAllowed);
 			return segment;
 		} else {
 			AggregateHyperlinkSegment parent = new AggregateHyperlinkSegment();
 			parent.setHref(href);
-			NodeList children = link.getChildNodes();
-			for (int i = 0; i < children.getLength(); i++) {
-				Node child = children.item(i);
-				if (child.getNodeType() == Node.TEXT_NODE) {
-					String value = child.getNodeValue();
+			for (MarkupNode child : link.getChildren()) {
+				if (child.isText()) {
 					TextHyperlinkSegment ts = new TextHyperlinkSegment(
-							getNormalizedText(value), settings, null);
-					Node alt = atts.getNamedItem("alt"); //$NON-NLS-1$
+							getNormalizedText(child.getText()), settings, null);
+					String alt = link.getAttribute("alt"); //$NON-NLS-1$
 					if (alt!=null)
-						ts.setTooltipText(alt.getNodeValue());
+						ts.setTooltipText(alt);
 					ts.setWordWrapAllowed(wrapAllowed);
 					parent.add(ts);
-				} else if (child.getNodeType() == Node.ELEMENT_NODE) {
-					String name = child.getNodeName();
-					if (name.equalsIgnoreCase("img")) { //$NON-NLS-1$
+				} else if (child.isElement()) {
+					if (child.getName().equalsIgnoreCase("img")) { //$NON-NLS-1$
 						ImageHyperlinkSegment is = new ImageHyperlinkSegment();
 						processObjectSegment(is, child, "i."); //$NON-NLS-1$
-						Node alt = child.getAttributes().getNamedItem("alt"); //$NON-NLS-1$
+						String alt = child.getAttribute("alt"); //$NON-NLS-1$
 						if (alt!=null)
-							is.setTooltipText(alt.getNodeValue());
+							is.setTooltipText(alt);
 						parent.add(is);
 						is.setWordWrapAllowed(wrapAllowed);
 					}
@@ -493,18 +484,16 @@ public class FormTextModel {
 		}
 	}
 
-	private Object checkChildren(Node node) {
+	private Object checkChildren(MarkupNode node) {
 		boolean text = false;
-		Node imgNode = null;
+		MarkupNode imgNode = null;
 		//int status = 0;
 
-		NodeList children = node.getChildNodes();
-		for (int i = 0; i < children.getLength(); i++) {
-			Node child = children.item(i);
-			if (child.getNodeType() == Node.TEXT_NODE)
+		for (MarkupNode child : node.getChildren()) {
+			if (child.isText())
 				text = true;
-			else if (child.getNodeType() == Node.ELEMENT_NODE
-					&& child.getNodeName().equalsIgnoreCase("img")) { //$NON-NLS-1$
+			else if (child.isElement()
+					&& child.getName().equalsIgnoreCase("img")) { //$NON-NLS-1$
 				imgNode = child;
 			}
 		}
@@ -516,26 +505,22 @@ public class FormTextModel {
 	}
 
 	private void processTextSegment(Paragraph p, boolean expandURLs,
-			Node textNode) {
+			MarkupNode textNode) {
 		String text = getNodeText(textNode);
 
-		NamedNodeMap atts = textNode.getAttributes();
-		Node font = atts.getNamedItem("font"); //$NON-NLS-1$
-		Node color = atts.getNamedItem("color"); //$NON-NLS-1$
+		String font = textNode.getAttribute("font"); //$NON-NLS-1$
+		String color = textNode.getAttribute("color"); //$NON-NLS-1$
 		boolean wrapAllowed=true;
-		Node nowrap = atts.getNamedItem("nowrap"); //$NON-NLS-1$
-		if (nowrap != null) {
-			String value = nowrap.getNodeValue();
-			if (value != null && value.equalsIgnoreCase("true")) //$NON-NLS-1$
-				wrapAllowed = false;
-		}
+		String nowrap = textNode.getAttribute("nowrap"); //$NON-NLS-1$
+		if (nowrap != null && nowrap.equalsIgnoreCase("true")) //$NON-NLS-1$
+			wrapAllowed = false;
 		String fontId = null;
 		String colorId = null;
 		if (font != null) {
-			fontId = "f." + font.getNodeValue(); //$NON-NLS-1$
+			fontId = "f." + font; //$NON-NLS-1$
 		}
 		if (color != null) {
-			colorId = "c." + color.getNodeValue(); //$NON-NLS-1$
+			colorId = "c." + color; //$NON-NLS-1$
 		}
 		p.parseRegularText(text, expandURLs, wrapAllowed, getHyperlinkSettings(), fontId,
 				colorId);
@@ -592,6 +577,7 @@ public class FormTextModel {
 		selectedSegmentIndex = -1;
 		savedSelectedLinkIndex = -1;
 		selectableSegments = null;
+		laidOutCount = 0;
 	}
 
 	IFocusSelectable[] getFocusSelectableSegments() {
@@ -622,13 +608,10 @@ public class FormTextModel {
 	}
 
 	public IHyperlinkSegment findHyperlinkAt(int x, int y) {
-		IFocusSelectable[] selectables = getFocusSelectableSegments();
-		for (IFocusSelectable segment : selectables) {
-			if (segment instanceof IHyperlinkSegment) {
-				IHyperlinkSegment link = (IHyperlinkSegment)segment;
-				if (link.contains(x, y))
-					return link;
-			}
+		for (int i = getFirstParagraphAt(y); i < laidOutCount && paragraphTops[i] - overhang <= y; i++) {
+			IHyperlinkSegment link = paragraphs.get(i).findHyperlinkAt(x, y);
+			if (link != null)
+				return link;
 		}
 		return null;
 	}
@@ -651,15 +634,93 @@ public class FormTextModel {
 	}
 
 	public ParagraphSegment findSegmentAt(int x, int y) {
-		for (int i = 0; i < paragraphs.size(); i++) {
-			Paragraph p = paragraphs.get(i);
-			ParagraphSegment segment = p.findSegmentAt(x, y);
+		for (int i = getFirstParagraphAt(y); i < laidOutCount && paragraphTops[i] - overhang <= y; i++) {
+			ParagraphSegment segment = paragraphs.get(i).findSegmentAt(x, y);
 			if (segment != null)
 				return segment;
 		}
 		return null;
 	}
 
+	/**
+	 * Returns the paragraphs that have been laid out and intersect the given
+	 * vertical range.
+	 *
+	 * @param y
+	 *            the top of the range
+	 * @param height
+	 *            the height of the range
+	 * @return the paragraphs in the range, from top to bottom
+	 */
+	public Paragraph[] getParagraphsIn(int y, int height) {
+		if (paragraphs == null)
+			return new Paragraph[0];
+		int count = Math.min(laidOutCount, paragraphs.size());
+		int first = getFirstParagraphAt(y);
+		if (first >= count)
+			return new Paragraph[0];
+		int last = first;
+		while (last < count && paragraphTops[last] - overhang < y + height)
+			last++;
+		return paragraphs.subList(first, last).toArray(new Paragraph[last - first]);
+	}
+
+	/**
+	 * Forgets the extent of all paragraphs before they are laid out again.
+	 *
+	 * @param overhang
+	 *            how far the bounds of a segment may extend beyond the rows of
+	 *            its paragraph
+	 */
+	public void resetLayout(int overhang) {
+		this.overhang = overhang;
+		laidOutCount = 0;
+	}
+
+	/**
+	 * Records the extent of the next paragraph that has been laid out.
+	 *
+	 * @param top
+	 *            the top of the first row of the paragraph
+	 * @param bottom
+	 *            the bottom of the last row of the paragraph
+	 */
+	public void paragraphLaidOut(int top, int bottom) {
+		if (paragraphTops == null || paragraphTops.length == laidOutCount) {
+			int size = Math.max(paragraphs.size(), laidOutCount + 1);
+			paragraphTops = paragraphTops == null ? new int[size] : Arrays.copyOf(paragraphTops, size);
+			paragraphBottoms = paragraphBottoms == null ? new int[size] : Arrays.copyOf(paragraphBottoms, size);
+		}
+		paragraphTops[laidOutCount] = top;
+		paragraphBottoms[laidOutCount] = bottom;
+		laidOutCount++;
+	}
+
+	/**
+	 * @return the number of paragraphs that have been laid out, starting with
+	 *         the first paragraph
+	 */
+	public int getLaidOutCount() {
+		return laidOutCount;
+	}
+
+	/**
+	 * @return the index of the first laid out paragraph whose bounds may
+	 *         contain the given location or are below it
+	 */
+	private int getFirstParagraphAt(int y) {
+		int low = 0;
+		int high = laidOutCount;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (paragraphBottoms[mid] + overhang <= y)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
 	public void clearCache(String fontId) {
 		for (int i = 0; i < paragraphs.size(); i++) {
 			Paragraph p = paragraphs.get(i);
@@ -756,6 +817,9 @@ public class FormTextModel {
 
 	public void dispose() {
 		paragraphs = null;
+		paragraphTops = null;
+		paragraphBottoms = null;
+		laidOutCount = 0;
 		selectedSegmentIndex = -1;
 		savedSelectedLinkIndex = -1;
 		selectableSegments = null;
@@ -0,0 +1,258 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.forms.widgets;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.SAXNotSupportedException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.ext.DefaultHandler2;
+
+/**
+ * An immutable node of the markup of a form text. The markup is parsed with a
+ * streaming SAX parser into a tree of these nodes, which only keeps what
+ * {@link FormTextModel} needs to create its paragraphs. Since the tree is
+ * immutable, the tree of the same markup can be shared by several models.
+ * <p>
+ * Text is kept in the way a DOM parser that ignores comments would keep it:
+ * adjacent text is merged into a single node, while CDATA sections and
+ * processing instructions are kept as nodes of their own that have neither a
+ * name nor text.
+ * </p>
+ */
+final class MarkupNode {
+
+	private static final MarkupNode[] NO_CHILDREN = new MarkupNode[0];
+
+	private static final String[] NO_ATTRIBUTES = new String[0];
+
+	private static final String LEXICAL_HANDLER = "http://xml.org/sax/properties/lexical-handler"; //$NON-NLS-1$
+
+	private static final SAXParserFactory parserFactory = SAXParserFactory.newInstance();
+
+	private final String name;
+
+	private final String text;
+
+	/**
+	 * Alternating attribute names and values.
+	 */
+	private final String[] attributes;
+
+	private final MarkupNode[] children;
+
+	private MarkupNode(String name, String text, String[] attributes, MarkupNode[] children) {
+		this.name = name;
+		this.text = text;
+		this.attributes = attributes;
+		this.children = children;
+	}
+
+	/**
+	 * Parses the given markup.
+	 *
+	 * @param source
+	 *            the markup
+	 * @return the document element of the markup
+	 * @throws SAXException
+	 *             if the markup is not well formed
+	 * @throws IOException
+	 *             if the markup cannot be read
+	 */
+	static MarkupNode parse(InputSource source) throws SAXException, IOException {
+		SAXParser parser;
+		try {
+			parser = parserFactory.newSAXParser();
+		} catch (ParserConfigurationException e) {
+			throw new SAXException(e);
+		}
+		TreeBuilder builder = new TreeBuilder();
+		XMLReader reader = parser.getXMLReader();
+		try {
+			reader.setProperty(LEXICAL_HANDLER, builder);
+		} catch (SAXNotRecognizedException | SAXNotSupportedException e) {
+			// CDATA sections are reported as text then
+		}
+		reader.setContentHandler(builder);
+		reader.setErrorHandler(builder);
+		reader.parse(source);
+		return builder.root;
+	}
+
+	/**
+	 * @return <code>true</code> if this node is a text node
+	 */
+	boolean isText() {
+		return text != null;
+	}
+
+	/**
+	 * @return <code>true</code> if this node is an element
+	 */
+	boolean isElement() {
+		return name != null;
+	}
+
+	/**
+	 * @return the tag name of an element, or <code>null</code>
+	 */
+	String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the text of a text node, or <code>null</code>
+	 */
+	String getText() {
+		return text;
+	}
+
+	/**
+	 * @param attributeName
+	 *            the name of the attribute
+	 * @return the value of the attribute, or <code>null</code> if this node
+	 *         does not have the attribute
+	 */
+	String getAttribute(String attributeName) {
+		for (int i = 0; i < attributes.length; i += 2) {
+			if (attributes[i].equals(attributeName)) {
+				return attributes[i + 1];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the child nodes, must not be modified
+	 */
+	MarkupNode[] getChildren() {
+		return children;
+	}
+
+	/**
+	 * Creates the tree of nodes from the events of the parser.
+	 */
+	private static final class TreeBuilder extends DefaultHandler2 {
+
+		private final Deque<MarkupNode> openElements = new ArrayDeque<>();
+
+		private final Deque<List<MarkupNode>> openChildren = new ArrayDeque<>();
+
+		private final StringBuilder pendingText = new StringBuilder();
+
+		private boolean inCDATA;
+
+		MarkupNode root;
+
+		TreeBuilder() {
+			openChildren.push(new ArrayList<>());
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes atts) {
+			flushText();
+			String[] values = NO_ATTRIBUTES;
+			if (atts.getLength() > 0) {
+				values = new String[atts.getLength() * 2];
+				for (int i = 0; i < atts.getLength(); i++) {
+					values[i * 2] = atts.getQName(i);
+					values[i * 2 + 1] = atts.getValue(i);
+				}
+			}
+			// the children are added once the element ends
+			openElements.push(new MarkupNode(qName, null, values, null));
+			openChildren.push(new ArrayList<>());
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) {
+			flushText();
+			List<MarkupNode> children = openChildren.pop();
+			MarkupNode start = openElements.pop();
+			MarkupNode element = new MarkupNode(start.name, null, start.attributes,
+					children.isEmpty() ? NO_CHILDREN : children.toArray(new MarkupNode[children.size()]));
+			openChildren.peek().add(element);
+			if (openChildren.size() == 1) {
+				root = element;
+			}
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			if (!inCDATA) {
+				pendingText.append(ch, start, length);
+			}
+		}
+
+		@Override
+		public void ignorableWhitespace(char[] ch, int start, int length) {
+			characters(ch, start, length);
+		}
+
+		@Override
+		public void processingInstruction(String target, String data) {
+			addOther();
+		}
+
+		@Override
+		public void startCDATA() {
+			flushText();
+			inCDATA = true;
+		}
+
+		@Override
+		public void endCDATA() {
+			inCDATA = false;
+			addOther();
+		}
+
+		@Override
+		public void error(SAXParseException e) {
+			// parse errors must not be written to standard output
+		}
+
+		@Override
+		public void warning(SAXParseException e) {
+			// parse errors must not be written to standard output
+		}
+
+		private void addOther() {
+			flushText();
+			if (openChildren.size() > 1) {
+				openChildren.peek().add(new MarkupNode(null, null, NO_ATTRIBUTES, NO_CHILDREN));
+			}
+		}
+
+		private void flushText() {
+			if (pendingText.length() == 0) {
+				return;
+			}
+			// text outside of the document element is not part of the tree
+			if (openChildren.size() > 1) {
+				openChildren.peek().add(new MarkupNode(null, pendingText.toString(), NO_ATTRIBUTES, NO_CHILDREN));
+			}
+			pendingText.setLength(0);
+		}
+	}
+}
@@ -29,10 +29,24 @@ import org.eclipse.ui.forms.HyperlinkSettings;
 public class Paragraph {
 	public static final String[] PROTOCOLS = {"http://", "https://", "ftp://"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 
+	/**
+	 * The maximum number of width hints that the size of a paragraph is
+	 * cached for. A layout pass usually asks for the preferred, the minimum
+	 * and the actual width.
+	 */
+	private static final int MAX_CACHED_SIZES = 4;
+
 	private Vector<ParagraphSegment> segments;
 
 	private boolean addVerticalSpace = true;
 
+	/**
+	 * The cached sizes of a text only paragraph, each entry holds the width
+	 * hint, the margin width of the locator, the width of the paragraph, its
+	 * height and the width that the locator is left with.
+	 */
+	private ArrayList<int[]> cachedSizes;
+
 	public Paragraph(boolean addVerticalSpace) {
 		this.addVerticalSpace = addVerticalSpace;
 	}
@@ -45,6 +59,10 @@ public class Paragraph {
 		return addVerticalSpace;
 	}
 
+	public boolean hasSegments() {
+		return segments != null && !segments.isEmpty();
+	}
+
 	public ParagraphSegment[] getSegments() {
 		if (segments == null)
 			return new ParagraphSegment[0];
@@ -56,6 +74,7 @@ public class Paragraph {
 		if (segments == null)
 			segments = new Vector<>();
 		segments.add(segment);
+		cachedSizes = null;
 	}
 
 	public void parseRegularText(String text, boolean expandURLs, boolean wrapAllowed,
@@ -125,6 +144,84 @@ public class Paragraph {
 		addSegment(hs);
 	}
 
+	/**
+	 * Moves the locator over this paragraph without laying out the segments.
+	 * The locator must be positioned at the start of the paragraph, and is
+	 * left below the last row of the paragraph. The sizes of paragraphs that
+	 * only contain text are cached per width hint and margin width, since they
+	 * depend on nothing else than these and the fonts.
+	 *
+	 * @return the width of the paragraph
+	 */
+	public int advanceLocator(GC gc, int wHint, Locator loc, int lineHeight,
+			Hashtable<String, Object> resourceTable) {
+		if (segments == null || segments.isEmpty()) {
+			// empty new line
+			loc.y += lineHeight;
+			return 0;
+		}
+		boolean cacheable = isTextOnly();
+		if (cacheable && cachedSizes != null) {
+			for (int[] size : cachedSizes) {
+				if (size[0] == wHint && size[1] == loc.marginWidth) {
+					loc.y += size[3];
+					loc.width = size[4];
+					return size[2];
+				}
+			}
+		}
+		int y = loc.y;
+		int width = 0;
+		for (ParagraphSegment segment : segments) {
+			segment.advanceLocator(gc, wHint, loc, resourceTable, false);
+			width = Math.max(width, loc.width);
+		}
+		loc.y += loc.rowHeight;
+		if (cacheable) {
+			if (cachedSizes == null)
+				cachedSizes = new ArrayList<>(MAX_CACHED_SIZES);
+			else if (cachedSizes.size() == MAX_CACHED_SIZES)
+				cachedSizes.remove(0);
+			cachedSizes.add(new int[] { wHint, loc.marginWidth, width, loc.y - y, loc.width });
+		}
+		return width;
+	}
+
+	private boolean isTextOnly() {
+		for (ParagraphSegment segment : segments) {
+			if (!(segment instanceof TextSegment) && !(segment instanceof BreakSegment))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return <code>true</code> if one of the segments of this paragraph can
+	 *         be selected with the keyboard
+	 */
+	public boolean hasFocusSelectableSegments() {
+		if (segments != null) {
+			for (ParagraphSegment segment : segments) {
+				if (segment instanceof IFocusSelectable)
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return <code>true</code> if this paragraph contains a control
+	 */
+	public boolean hasControlSegments() {
+		if (segments != null) {
+			for (ParagraphSegment segment : segments) {
+				if (segment instanceof ControlSegment)
+					return true;
+			}
+		}
+		return false;
+	}
+
 	protected void computeRowHeights(GC gc, int width, Locator loc,
 			int lineHeight, Hashtable<String, Object> resourceTable) {
 		ParagraphSegment[] segments = getSegments();
@@ -223,7 +320,20 @@ public class Paragraph {
 		}
 		return null;
 	}
+
+	public IHyperlinkSegment findHyperlinkAt(int x, int y) {
+		if (segments != null) {
+			for (int i = 0; i < segments.size(); i++) {
+				ParagraphSegment segment = segments.get(i);
+				if (segment instanceof IHyperlinkSegment && segment.contains(x, y))
+					return (IHyperlinkSegment) segment;
+			}
+		}
+		return null;
+	}
+
 	public void clearCache(String fontId) {
+		cachedSizes = null;
 		if (segments != null) {
 			for (int i = 0; i < segments.size(); i++) {
 				ParagraphSegment segment = segments.get(i);
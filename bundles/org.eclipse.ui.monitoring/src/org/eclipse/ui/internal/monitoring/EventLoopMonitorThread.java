@@ -12,9 +12,15 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.monitoring;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadInfo;
 import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -46,6 +52,10 @@ import org.eclipse.ui.monitoring.UiFreezeEvent;
  */
 public class EventLoopMonitorThread extends Thread {
 	private static final int EVENT_HISTORY_SIZE = 100;
+	private static final long PROFILE_WRITE_INTERVAL = 60000;
+	private static final int MAX_PROFILE_HOT_FRAMES = 100;
+	private static final String PROFILE_COLLAPSED_STACKS_FILE = "ui_thread_profile.collapsed"; //$NON-NLS-1$
+	private static final String PROFILE_HOT_FRAMES_FILE = "ui_thread_profile.txt"; //$NON-NLS-1$
 	private static final String EXTENSION_ID = "org.eclipse.ui.monitoring.logger"; //$NON-NLS-1$
 	private static final String NEW_LINE_AND_BULLET = "\n* "; //$NON-NLS-1$
 	private static final String TRACE_EVENT_MONITOR = "/debug/event_monitor"; //$NON-NLS-1$
@@ -77,6 +87,13 @@ public class EventLoopMonitorThread extends Thread {
 		public String uiThreadFilter;
 		/** @see org.eclipse.ui.monitoring.PreferenceConstants#NONINTERESTING_THREAD_FILTER */
 		public String noninterestingThreadFilter;
+		/**
+		 * Interval between samples of the UI thread taken by the sampling profiler. Zero disables
+		 * the profiler.
+		 */
+		public int profilerSampleInterval;
+		/** The directory the profile of the UI thread is written to. */
+		public File profileDirectory;
 
 		/**
 		 * Checks if the values of parameters for UI responsiveness monitoring are valid.
@@ -105,6 +122,12 @@ public class EventLoopMonitorThread extends Thread {
 								deadlockThreshold, longEventErrorThreshold));
 			}
 
+			if (profilerSampleInterval < 0) {
+				problems.append(NEW_LINE_AND_BULLET +
+						NLS.bind(Messages.EventLoopMonitorThread_profiler_sample_interval_error_1,
+								profilerSampleInterval));
+			}
+
 			if (problems.length() != 0) {
 				throw new IllegalArgumentException(
 						NLS.bind(Messages.EventLoopMonitorThread_invalid_argument_error_1,
@@ -355,6 +378,9 @@ public class EventLoopMonitorThread extends Thread {
 	private final long uiThreadId;
 	private final Object sleepMonitor;
 	private final boolean logToErrorLog;
+	private final long profilerSampleInterval;
+	private final File profileDirectory;
+	private UiThreadProfile profile;
 	private EventHistory eventHistory;
 	private ThreadMXBean threadMXBean;
 	private boolean dumpLockedMonitors;
@@ -392,6 +418,11 @@ public class EventLoopMonitorThread extends Thread {
 		logToErrorLog = args.logToErrorLog;
 		uiThreadFilter = new FilterHandler(args.uiThreadFilter);
 		noninterestingThreadFilter = new FilterHandler(args.noninterestingThreadFilter);
+		profilerSampleInterval = args.profilerSampleInterval;
+		profileDirectory = args.profileDirectory;
+		if (profilerSampleInterval > 0) {
+			profile = new UiThreadProfile(noninterestingThreadFilter);
+		}
 		sleepMonitor = new Object();
 	}
 
@@ -489,6 +520,8 @@ public class EventLoopMonitorThread extends Thread {
 		display.asyncExec(() -> registerDisplayListeners());
 
 		long currTime = getTimestamp();
+		long profileSampleAt = currTime + profilerSampleInterval;
+		long profileWrittenAt = currTime;
 
 		while (!cancelled.get()) {
 			long sleepFor;
@@ -517,6 +550,9 @@ public class EventLoopMonitorThread extends Thread {
 			} else {
 				sleepFor = Math.min(pollingNyquistDelay, Math.max(1, grabStackSampleAt - currTime));
 			}
+			if (profile != null) {
+				sleepFor = Math.min(sleepFor, Math.max(1, profileSampleAt - currTime));
+			}
 
 			// Allow the discarded stack samples to be garbage collected.
 			for (int i = numSamples; i < stackSamples.length && stackSamples[i] != null; i++) {
@@ -547,6 +583,21 @@ public class EventLoopMonitorThread extends Thread {
 			}
 			boolean starved = starvedAsleepCurrentCycle || starvedAwakeCurrentCycle;
 
+			// Sample the UI thread for the profile if it is busy dispatching an event.
+			if (profile != null && currTime >= profileSampleAt) {
+				if (currEventStartOrResumeTime != 0 && !starved) {
+					ThreadInfo uiThread = threadMXBean.getThreadInfo(uiThreadId, Integer.MAX_VALUE);
+					if (uiThread != null) {
+						profile.addSample(uiThread.getStackTrace(), profilerSampleInterval);
+					}
+				}
+				profileSampleAt = currTime + profilerSampleInterval;
+				if (currTime >= profileWrittenAt + PROFILE_WRITE_INTERVAL) {
+					writeProfile();
+					profileWrittenAt = currTime;
+				}
+			}
+
 			/*
 			 * If after sleeping we see that a new event has been dispatched, mark that we should
 			 * update the stalled event state. Otherwise, check if we have surpassed our threshold
@@ -640,6 +691,34 @@ public class EventLoopMonitorThread extends Thread {
 
 			lastEventStartOrResumeTime = currEventStartOrResumeTime;
 		}
+
+		if (profile != null) {
+			writeProfile();
+		}
+	}
+
+	/**
+	 * Writes the profile of the UI thread collected so far. The call tree is written in
+	 * the collapsed stack format suitable for generating flame graphs, the frames consuming most
+	 * of the UI thread time are written to a separate file.
+	 */
+	private void writeProfile() {
+		if (profileDirectory == null || profile.isEmpty()) {
+			return;
+		}
+		profileDirectory.mkdirs();
+		File file = new File(profileDirectory, PROFILE_COLLAPSED_STACKS_FILE);
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+			profile.writeCollapsedStacks(writer);
+			file = new File(profileDirectory, PROFILE_HOT_FRAMES_FILE);
+			try (Writer hotFramesWriter =
+					new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+				profile.writeHotFrames(hotFramesWriter, MAX_PROFILE_HOT_FRAMES);
+			}
+		} catch (IOException e) {
+			MonitoringPlugin.logError(
+					NLS.bind(Messages.EventLoopMonitorThread_profile_write_error_1, file), e);
+		}
 	}
 
 	private ThreadInfo[] captureThreadStacks(boolean dumpAllThreads) {
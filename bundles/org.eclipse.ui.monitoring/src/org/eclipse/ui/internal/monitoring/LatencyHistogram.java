@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (C) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations with exponentially growing buckets. Bucket {@code i} counts
+ * the durations between 2<sup>i-1</sup> (inclusive) and 2<sup>i</sup> (exclusive) microseconds,
+ * bucket zero counts durations below one microsecond. Recording a value never blocks, so
+ * the histogram can be updated from any thread including the UI thread.
+ */
+public class LatencyHistogram {
+	private static final int NUM_BUCKETS = 40;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records a duration.
+	 *
+	 * @param micros the duration in microseconds
+	 */
+	public void record(long micros) {
+		if (micros < 0) {
+			micros = 0;
+		}
+		int bucket = Math.min(64 - Long.numberOfLeadingZeros(micros), NUM_BUCKETS - 1);
+		buckets.incrementAndGet(bucket);
+		count.increment();
+		sum.add(micros);
+		if (micros > max.get()) {
+			max.accumulateAndGet(micros, Math::max);
+		}
+	}
+
+	/** Returns the number of recorded durations. */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/** Returns the sum of the recorded durations in microseconds. */
+	public long getSum() {
+		return sum.sum();
+	}
+
+	/** Returns the largest recorded duration in microseconds. */
+	public long getMax() {
+		return max.get();
+	}
+
+	/** Returns the mean of the recorded durations in microseconds. */
+	public long getMean() {
+		long n = getCount();
+		return n == 0 ? 0 : getSum() / n;
+	}
+
+	/**
+	 * Returns an upper bound of the given percentile of the recorded durations. The result is
+	 * accurate within a factor of two.
+	 *
+	 * @param percentile the percentile between 0 and 100
+	 * @return the percentile in microseconds
+	 */
+	public long getPercentile(double percentile) {
+		long[] counts = new long[NUM_BUCKETS];
+		long total = 0;
+		for (int i = 0; i < NUM_BUCKETS; i++) {
+			counts[i] = buckets.get(i);
+			total += counts[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long threshold = (long) Math.ceil(total * percentile / 100);
+		long cumulative = 0;
+		for (int i = 0; i < NUM_BUCKETS; i++) {
+			cumulative += counts[i];
+			if (cumulative >= threshold && counts[i] != 0) {
+				return Math.min(1L << i, getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Adds the durations recorded by another histogram to this one.
+	 */
+	public void add(LatencyHistogram other) {
+		for (int i = 0; i < NUM_BUCKETS; i++) {
+			long n = other.buckets.get(i);
+			if (n != 0) {
+				buckets.addAndGet(i, n);
+			}
+		}
+		count.add(other.getCount());
+		sum.add(other.getSum());
+		long otherMax = other.getMax();
+		if (otherMax > max.get()) {
+			max.accumulateAndGet(otherMax, Math::max);
+		}
+	}
+}
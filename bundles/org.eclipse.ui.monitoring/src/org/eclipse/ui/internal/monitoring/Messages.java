@@ -36,9 +36,23 @@ final class Messages extends NLS {
 	public static String EventLoopMonitorThread_logging_disabled_error;
 	public static String EventLoopMonitorThread_warning_threshold_error_1;
 	public static String EventLoopMonitorThread_max_event_loop_depth_exceeded_1;
+	public static String EventLoopMonitorThread_profile_write_error_1;
+	public static String EventLoopMonitorThread_profiler_sample_interval_error_1;
 	public static String EventLoopMonitorThread_workbench_was_null;
 	public static String FilterHandler_missing_thread_error;
 	public static String MonitoringStartup_initialization_error;
+	public static String UiThreadWorkTracker_report_job_name;
+	public static String UiThreadWorkView_accounting_disabled;
+	public static String UiThreadWorkView_bundle_column;
+	public static String UiThreadWorkView_contributor_column;
+	public static String UiThreadWorkView_count_column;
+	public static String UiThreadWorkView_max_time_column;
+	public static String UiThreadWorkView_mean_latency_column;
+	public static String UiThreadWorkView_mean_time_column;
+	public static String UiThreadWorkView_p99_latency_column;
+	public static String UiThreadWorkView_p99_time_column;
+	public static String UiThreadWorkView_reset_action;
+	public static String UiThreadWorkView_total_time_column;
 
 	private Messages() {
 		// Do not instantiate.
@@ -23,6 +23,8 @@ import org.osgi.framework.BundleContext;
  */
 public class MonitoringPlugin extends AbstractUIPlugin {
 	private static MonitoringPlugin plugin;
+	private UiThreadWorkTracker uiThreadWorkTracker;
+	private boolean uiThreadWorkTrackingEnabled;
 
 	@Override
 	public void start(BundleContext context) throws Exception {
@@ -32,6 +34,7 @@ public class MonitoringPlugin extends AbstractUIPlugin {
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
+		setUiThreadWorkTrackingEnabled(false);
 		plugin = null;
 		super.stop(context);
 	}
@@ -40,6 +43,39 @@ public class MonitoringPlugin extends AbstractUIPlugin {
 		return plugin;
 	}
 
+	/**
+	 * Returns the tracker accounting the work queued for the UI thread. The tracker retains
+	 * the collected statistics when the accounting is disabled.
+	 */
+	public synchronized UiThreadWorkTracker getUiThreadWorkTracker() {
+		if (uiThreadWorkTracker == null) {
+			uiThreadWorkTracker = new UiThreadWorkTracker();
+		}
+		return uiThreadWorkTracker;
+	}
+
+	/**
+	 * Returns {@code true} if the work queued for the UI thread is currently being accounted.
+	 */
+	public synchronized boolean isUiThreadWorkTrackingEnabled() {
+		return uiThreadWorkTrackingEnabled;
+	}
+
+	/**
+	 * Starts or stops accounting of the work queued for the UI thread.
+	 */
+	public synchronized void setUiThreadWorkTrackingEnabled(boolean enabled) {
+		if (enabled == uiThreadWorkTrackingEnabled) {
+			return;
+		}
+		uiThreadWorkTrackingEnabled = enabled;
+		if (enabled) {
+			getUiThreadWorkTracker().start();
+		} else {
+			getUiThreadWorkTracker().stop();
+		}
+	}
+
 	public static void logError(String message, Throwable e) {
 		log(new Status(IStatus.ERROR, PreferenceConstants.PLUGIN_ID, message, e));
 	}
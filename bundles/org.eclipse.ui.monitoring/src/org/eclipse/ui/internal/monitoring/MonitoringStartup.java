@@ -35,9 +35,22 @@ public class MonitoringStartup implements IStartup {
 			monitoringThread = createAndStartMonitorThread();
 		}
 
+		updateUiThreadWorkTracker();
+
 		preferences.addPropertyChangeListener(new MonitoringPreferenceListener(monitoringThread));
 	}
 
+	/**
+	 * Starts or stops accounting of the work queued for the UI thread according to
+	 * the preferences.
+	 */
+	public static void updateUiThreadWorkTracker() {
+		IPreferenceStore preferences = MonitoringPlugin.getDefault().getPreferenceStore();
+		boolean enabled = preferences.getBoolean(PreferenceConstants.MONITORING_ENABLED)
+				&& preferences.getBoolean(PreferenceConstants.UI_THREAD_WORK_ACCOUNTING_ENABLED);
+		MonitoringPlugin.getDefault().setUiThreadWorkTrackingEnabled(enabled);
+	}
+
 	/**
 	 * Creates and starts a new monitoring thread.
 	 */
@@ -79,6 +92,11 @@ public class MonitoringStartup implements IStartup {
 		args.noninterestingThreadFilter =
 				preferences.getString(PreferenceConstants.NONINTERESTING_THREAD_FILTER);
 		args.logToErrorLog = preferences.getBoolean(PreferenceConstants.LOG_TO_ERROR_LOG);
+		if (preferences.getBoolean(PreferenceConstants.PROFILER_ENABLED)) {
+			args.profilerSampleInterval =
+					preferences.getInt(PreferenceConstants.PROFILER_SAMPLE_INTERVAL_MILLIS);
+			args.profileDirectory = MonitoringPlugin.getDefault().getStateLocation().toFile();
+		}
 
 		return args;
 	}
@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * Copyright (C) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates stack samples of the UI thread into a call tree. The samples are weighted by the time
+ * they represent, so that the tree shows where the UI thread spends its time across many events
+ * rather than within a single long event.
+ * <p>
+ * Each sample is also attributed to its <i>hot frame</i>, the topmost frame not matching the frame
+ * filter. With a filter excluding JRE and SWT internals the hot frames point to the plug-in code
+ * consuming the UI thread time.
+ * </p>
+ * <p>
+ * The profile lives as long as the monitor, so the number of call tree nodes and of hot frames
+ * is bounded. Once the limit has been reached, the time of a sample whose call path leaves the
+ * existing tree is attributed to the deepest existing node of the path, and the time of new hot
+ * frames is only counted in the total time.
+ * </p>
+ * <p>
+ * <strong>This class is not thread safe.</strong>
+ * </p>
+ */
+public class UiThreadProfile {
+	/**
+	 * The time attributed to a single stack frame.
+	 */
+	public static class HotFrame {
+		public final String frame;
+		public final long time;
+
+		HotFrame(String frame, long time) {
+			this.frame = frame;
+			this.time = time;
+		}
+
+		@Override
+		public String toString() {
+			return frame + ' ' + time;
+		}
+	}
+
+	private static class Node {
+		final String frame;
+		final Map<String, Node> children = new HashMap<>();
+		long selfTime;
+
+		Node(String frame) {
+			this.frame = frame;
+		}
+
+		Node getChild(String childFrame) {
+			Node child = children.get(childFrame);
+			if (child == null) {
+				child = new Node(childFrame);
+				children.put(childFrame, child);
+			}
+			return child;
+		}
+	}
+
+	/**
+	 * The default maximum number of call tree nodes and of hot frames.
+	 */
+	private static final int DEFAULT_MAX_NODES = 100000;
+
+	private final FilterHandler frameFilter;
+	private final int maxNodes;
+	private final Node root = new Node(""); //$NON-NLS-1$
+	private final Map<String, long[]> hotFrameTimes = new HashMap<>();
+	private int nodeCount;
+	private long totalTime;
+
+	/**
+	 * Creates an empty profile.
+	 *
+	 * @param frameFilter stack frames matching this filter are not reported as hot frames
+	 */
+	public UiThreadProfile(FilterHandler frameFilter) {
+		this(frameFilter, DEFAULT_MAX_NODES);
+	}
+
+	/**
+	 * Creates an empty profile with a limited size.
+	 *
+	 * @param frameFilter stack frames matching this filter are not reported as hot frames
+	 * @param maxNodes the maximum number of call tree nodes, and of hot frames
+	 */
+	public UiThreadProfile(FilterHandler frameFilter, int maxNodes) {
+		this.frameFilter = frameFilter;
+		this.maxNodes = maxNodes;
+	}
+
+	/**
+	 * Adds a stack sample to the profile.
+	 *
+	 * @param stackTrace the stack trace of the UI thread, the most recent call first
+	 * @param duration the time represented by the sample
+	 */
+	public void addSample(StackTraceElement[] stackTrace, long duration) {
+		if (stackTrace.length == 0 || duration <= 0) {
+			return;
+		}
+		totalTime += duration;
+
+		Node node = root;
+		for (int i = stackTrace.length; --i >= 0;) {
+			String frame = getFrameName(stackTrace[i]);
+			Node child = node.children.get(frame);
+			if (child == null) {
+				if (nodeCount >= maxNodes) {
+					break;
+				}
+				child = node.getChild(frame);
+				nodeCount++;
+			}
+			node = child;
+		}
+		node.selfTime += duration;
+
+		for (StackTraceElement element : stackTrace) {
+			if (!frameFilter.matchesFilter(element)) {
+				String frame = getFrameName(element);
+				long[] time = hotFrameTimes.get(frame);
+				if (time == null) {
+					if (hotFrameTimes.size() < maxNodes) {
+						hotFrameTimes.put(frame, new long[] { duration });
+					}
+				} else {
+					time[0] += duration;
+				}
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Returns the total time represented by the samples in this profile.
+	 */
+	public long getTotalTime() {
+		return totalTime;
+	}
+
+	/**
+	 * Returns {@code true} if the profile doesn't contain any samples.
+	 */
+	public boolean isEmpty() {
+		return totalTime == 0;
+	}
+
+	/**
+	 * Returns the frames consuming most of the UI thread time, the most expensive frame first.
+	 *
+	 * @param maxFrames the maximum number of frames to return
+	 */
+	public List<HotFrame> getHotFrames(int maxFrames) {
+		List<HotFrame> frames = new ArrayList<>(hotFrameTimes.size());
+		for (Map.Entry<String, long[]> entry : hotFrameTimes.entrySet()) {
+			frames.add(new HotFrame(entry.getKey(), entry.getValue()[0]));
+		}
+		Collections.sort(frames, (f1, f2) -> Long.compare(f2.time, f1.time));
+		return frames.size() <= maxFrames ? frames : frames.subList(0, maxFrames);
+	}
+
+	/**
+	 * Writes the call tree in the collapsed stack format consumed by flame graph tools. Each line
+	 * contains the semicolon separated frames of a call path, starting from the outermost call,
+	 * followed by a space and the time spent in the innermost frame of the path.
+	 *
+	 * @param out the destination of the output
+	 * @throws IOException if writing fails
+	 */
+	public void writeCollapsedStacks(Appendable out) throws IOException {
+		StringBuilder path = new StringBuilder();
+		for (Node child : root.children.values()) {
+			writeCollapsedStacks(child, path, out);
+		}
+	}
+
+	private static void writeCollapsedStacks(Node node, StringBuilder path, Appendable out)
+			throws IOException {
+		int length = path.length();
+		if (length != 0) {
+			path.append(';');
+		}
+		path.append(node.frame);
+		if (node.selfTime > 0) {
+			out.append(path).append(' ').append(Long.toString(node.selfTime)).append('\n');
+		}
+		for (Node child : node.children.values()) {
+			writeCollapsedStacks(child, path, out);
+		}
+		path.setLength(length);
+	}
+
+	/**
+	 * Writes the hot frames, one per line, with the time and the percentage of the total time
+	 * attributed to each of them.
+	 *
+	 * @param out the destination of the output
+	 * @param maxFrames the maximum number of frames to write
+	 * @throws IOException if writing fails
+	 */
+	public void writeHotFrames(Appendable out, int maxFrames) throws IOException {
+		for (HotFrame frame : getHotFrames(maxFrames)) {
+			out.append(String.format("%8d ms %5.1f%%  %s%n", //$NON-NLS-1$
+					frame.time, frame.time * 100.0 / totalTime, frame.frame));
+		}
+	}
+
+	/**
+	 * Removes all samples from the profile.
+	 */
+	public void clear() {
+		root.children.clear();
+		root.selfTime = 0;
+		nodeCount = 0;
+		hotFrameTimes.clear();
+		totalTime = 0;
+	}
+
+	private static String getFrameName(StackTraceElement element) {
+		return element.getClassName() + '.' + element.getMethodName();
+	}
+}
@@ -0,0 +1,264 @@
+/*******************************************************************************
+ * Copyright (C) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.UnaryOperator;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.ui.internal.UISynchronizer;
+import org.eclipse.ui.monitoring.IUiThreadWorkReporter;
+import org.eclipse.ui.monitoring.UiThreadWorkStatistics;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
+
+/**
+ * Accounts the work queued for execution on the UI thread through {@code Display.asyncExec} and
+ * {@code Display.syncExec}. Every queued runnable is wrapped, attributed to the class defining it,
+ * which for lambdas and anonymous classes is the class queuing the work, and its queue latency and
+ * execution time are recorded in lock-free histograms.
+ */
+public class UiThreadWorkTracker implements UnaryOperator<Runnable> {
+	private static final String EXTENSION_ID = "org.eclipse.ui.monitoring.uiThreadWorkReporter"; //$NON-NLS-1$
+	private static final String LAMBDA_CLASS_MARKER = "$$Lambda$"; //$NON-NLS-1$
+	private static final long REPORT_INTERVAL = 60000;
+	private static final int MAX_REPORTED_CONTRIBUTORS = 20;
+
+	/**
+	 * Statistics of the runnables of a single class.
+	 */
+	private static class ContributorStats {
+		final String contributor;
+		final String bundleId;
+		final LatencyHistogram executionTime = new LatencyHistogram();
+		final LatencyHistogram queueLatency = new LatencyHistogram();
+
+		ContributorStats(String contributor, String bundleId) {
+			this.contributor = contributor;
+			this.bundleId = bundleId;
+		}
+
+		ContributorStats(Class<?> runnableClass) {
+			this(getContributorName(runnableClass.getName()), getBundleId(runnableClass));
+		}
+
+		private static String getBundleId(Class<?> runnableClass) {
+			Bundle bundle = FrameworkUtil.getBundle(runnableClass);
+			return bundle == null ? null : bundle.getSymbolicName();
+		}
+	}
+
+	private static class TrackedRunnable implements Runnable {
+		private final Runnable runnable;
+		private final ContributorStats stats;
+		private final long queuedAt;
+
+		TrackedRunnable(Runnable runnable, ContributorStats stats) {
+			this.runnable = runnable;
+			this.stats = stats;
+			this.queuedAt = System.nanoTime();
+		}
+
+		@Override
+		public void run() {
+			long start = System.nanoTime();
+			stats.queueLatency.record((start - queuedAt) / 1000);
+			try {
+				runnable.run();
+			} finally {
+				stats.executionTime.record((System.nanoTime() - start) / 1000);
+			}
+		}
+	}
+
+	/**
+	 * The statistics of each runnable class. A class value does not keep the class, and thus the
+	 * class loader of an uninstalled bundle, reachable. It is replaced to discard the statistics.
+	 */
+	private volatile ClassValue<ContributorStats> statisticsByClass = createStatisticsByClass();
+	/** All statistics of {@link #statisticsByClass}, which holds no reference to the classes. */
+	private final ConcurrentLinkedQueue<ContributorStats> statistics = new ConcurrentLinkedQueue<>();
+	private final List<IUiThreadWorkReporter> reporters = new CopyOnWriteArrayList<>();
+	private Job reportJob;
+
+	/**
+	 * Starts wrapping the runnables queued for the UI thread and reporting the top contributors to
+	 * the registered reporters.
+	 */
+	public void start() {
+		loadReporterExtensions();
+		UISynchronizer.setRunnableWrapper(this);
+		if (!reporters.isEmpty()) {
+			reportJob = new Job(Messages.UiThreadWorkTracker_report_job_name) {
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					report();
+					schedule(REPORT_INTERVAL);
+					return Status.OK_STATUS;
+				}
+			};
+			reportJob.setSystem(true);
+			reportJob.schedule(REPORT_INTERVAL);
+		}
+	}
+
+	/**
+	 * Stops accounting the work queued for the UI thread. The collected statistics are retained.
+	 */
+	public void stop() {
+		UISynchronizer.setRunnableWrapper(null);
+		if (reportJob != null) {
+			reportJob.cancel();
+			reportJob = null;
+		}
+		reporters.clear();
+	}
+
+	@Override
+	public Runnable apply(Runnable runnable) {
+		if (runnable instanceof TrackedRunnable) {
+			return runnable;
+		}
+		return new TrackedRunnable(runnable, statisticsByClass.get(runnable.getClass()));
+	}
+
+	private ClassValue<ContributorStats> createStatisticsByClass() {
+		return new ClassValue<ContributorStats>() {
+			@Override
+			protected ContributorStats computeValue(Class<?> type) {
+				ContributorStats stats = new ContributorStats(type);
+				statistics.add(stats);
+				return stats;
+			}
+		};
+	}
+
+	/**
+	 * Returns the contributors with the highest total execution time, the most expensive first.
+	 *
+	 * @param maxContributors the maximum number of contributors to return
+	 */
+	public List<UiThreadWorkStatistics> getTopContributors(int maxContributors) {
+		// Merge the statistics of all runnable classes defined by the same contributor.
+		Map<String, ContributorStats> merged = new HashMap<>();
+		for (ContributorStats stats : statistics) {
+			ContributorStats total = merged.get(stats.contributor);
+			if (total == null) {
+				total = new ContributorStats(stats.contributor, stats.bundleId);
+				merged.put(stats.contributor, total);
+			}
+			total.executionTime.add(stats.executionTime);
+			total.queueLatency.add(stats.queueLatency);
+		}
+
+		List<UiThreadWorkStatistics> result = new ArrayList<>(merged.size());
+		for (ContributorStats total : merged.values()) {
+			LatencyHistogram executionTime = total.executionTime;
+			LatencyHistogram queueLatency = total.queueLatency;
+			if (executionTime.getCount() == 0) {
+				continue;
+			}
+			result.add(new UiThreadWorkStatistics(total.contributor, total.bundleId,
+					executionTime.getCount(), executionTime.getSum(), executionTime.getMean(),
+					executionTime.getPercentile(99), executionTime.getMax(),
+					queueLatency.getMean(), queueLatency.getPercentile(99)));
+		}
+		Collections.sort(result,
+				(s1, s2) -> Long.compare(s2.getTotalExecutionTime(), s1.getTotalExecutionTime()));
+		return result.size() <= maxContributors ? result : result.subList(0, maxContributors);
+	}
+
+	/**
+	 * Discards the collected statistics.
+	 */
+	public void reset() {
+		statisticsByClass = createStatisticsByClass();
+		statistics.clear();
+	}
+
+	private void report() {
+		List<UiThreadWorkStatistics> topContributors = getTopContributors(MAX_REPORTED_CONTRIBUTORS);
+		if (topContributors.isEmpty()) {
+			return;
+		}
+		topContributors = Collections.unmodifiableList(topContributors);
+		for (IUiThreadWorkReporter reporter : reporters) {
+			try {
+				reporter.report(topContributors);
+			} catch (Throwable t) {
+				reporters.remove(reporter);
+				MonitoringPlugin.logError(NLS.bind(
+						Messages.EventLoopMonitorThread_external_exception_error_1,
+						reporter.getClass().getName()), t);
+			}
+		}
+	}
+
+	private void loadReporterExtensions() {
+		IConfigurationElement[] configElements =
+				Platform.getExtensionRegistry().getConfigurationElementsFor(EXTENSION_ID);
+
+		for (IConfigurationElement element : configElements) {
+			try {
+				Object object = element.createExecutableExtension("class"); //$NON-NLS-1$
+				if (object instanceof IUiThreadWorkReporter) {
+					reporters.add((IUiThreadWorkReporter) object);
+				} else {
+					MonitoringPlugin.logWarning(NLS.bind(
+							Messages.EventLoopMonitorThread_invalid_logger_type_error_4,
+							new Object[] { object.getClass().getName(),
+									IUiThreadWorkReporter.class.getSimpleName(),
+									EXTENSION_ID, element.getContributor().getName() }));
+				}
+			} catch (CoreException e) {
+				MonitoringPlugin.logError(e.getMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the name of the class queuing runnables of the given class. Lambdas and anonymous
+	 * classes are attributed to the class defining them, named inner classes to themselves.
+	 */
+	static String getContributorName(String runnableClassName) {
+		String name = runnableClassName;
+		int pos = name.indexOf(LAMBDA_CLASS_MARKER);
+		if (pos > 0) {
+			name = name.substring(0, pos);
+		}
+		// strip the "$1" suffixes of anonymous classes, which may be nested
+		while (true) {
+			int dollar = name.lastIndexOf('$');
+			if (dollar <= 0 || dollar == name.length() - 1) {
+				return name;
+			}
+			for (int i = dollar + 1; i < name.length(); i++) {
+				if (!Character.isDigit(name.charAt(i))) {
+					return name;
+				}
+			}
+			name = name.substring(0, dollar);
+		}
+	}
+}
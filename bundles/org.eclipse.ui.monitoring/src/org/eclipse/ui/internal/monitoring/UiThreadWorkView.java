@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (C) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.util.List;
+
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.action.IToolBarManager;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.ColumnLabelProvider;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.TableViewerColumn;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.ui.ISharedImages;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.monitoring.UiThreadWorkStatistics;
+import org.eclipse.ui.part.ViewPart;
+
+/**
+ * Shows the contributors queuing most work on the UI thread through {@code Display.asyncExec} and
+ * {@code Display.syncExec}. The view refreshes itself periodically while it is visible.
+ */
+public class UiThreadWorkView extends ViewPart {
+	public static final String ID = "org.eclipse.ui.monitoring.uiThreadWorkView"; //$NON-NLS-1$
+	private static final int REFRESH_INTERVAL = 2000;
+	private static final int MAX_CONTRIBUTORS = 200;
+
+	private TableViewer viewer;
+
+	private final Runnable refresher = new Runnable() {
+		@Override
+		public void run() {
+			if (viewer == null || viewer.getControl().isDisposed()) {
+				return;
+			}
+			refresh();
+			viewer.getControl().getDisplay().timerExec(REFRESH_INTERVAL, this);
+		}
+	};
+
+	private abstract static class StatisticsLabelProvider extends ColumnLabelProvider {
+		@Override
+		public String getText(Object element) {
+			return getText((UiThreadWorkStatistics) element);
+		}
+
+		abstract String getText(UiThreadWorkStatistics statistics);
+	}
+
+	@Override
+	public void createPartControl(Composite parent) {
+		viewer = new TableViewer(parent, SWT.FULL_SELECTION | SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL);
+		Table table = viewer.getTable();
+		table.setHeaderVisible(true);
+		table.setLinesVisible(true);
+
+		createColumn(Messages.UiThreadWorkView_contributor_column, 300, SWT.LEFT,
+				new StatisticsLabelProvider() {
+					@Override
+					String getText(UiThreadWorkStatistics statistics) {
+						return statistics.getContributor();
+					}
+				});
+		createColumn(Messages.UiThreadWorkView_bundle_column, 180, SWT.LEFT,
+				new StatisticsLabelProvider() {
+					@Override
+					String getText(UiThreadWorkStatistics statistics) {
+						String bundleId = statistics.getBundleId();
+						return bundleId == null ? "" : bundleId; //$NON-NLS-1$
+					}
+				});
+		createColumn(Messages.UiThreadWorkView_count_column, 80, SWT.RIGHT,
+				new StatisticsLabelProvider() {
+					@Override
+					String getText(UiThreadWorkStatistics statistics) {
+						return Long.toString(statistics.getCount());
+					}
+				});
+		createColumn(Messages.UiThreadWorkView_total_time_column, 100, SWT.RIGHT,
+				new StatisticsLabelProvider() {
+					@Override
+					String getText(UiThreadWorkStatistics statistics) {
+						return formatMillis(statistics.getTotalExecutionTime());
+					}
+				});
+		createColumn(Messages.UiThreadWorkView_mean_time_column, 100, SWT.RIGHT,
+				new StatisticsLabelProvider() {
+					@Override
+					String getText(UiThreadWorkStatistics statistics) {
+						return formatMillis(statistics.getMeanExecutionTime());
+					}
+				});
+		createColumn(Messages.UiThreadWorkView_p99_time_column, 100, SWT.RIGHT,
+				new StatisticsLabelProvider() {
+					@Override
+					String getText(UiThreadWorkStatistics statistics) {
+						return formatMillis(statistics.getP99ExecutionTime());
+					}
+				});
+		createColumn(Messages.UiThreadWorkView_max_time_column, 100, SWT.RIGHT,
+				new StatisticsLabelProvider() {
+					@Override
+					String getText(UiThreadWorkStatistics statistics) {
+						return formatMillis(statistics.getMaxExecutionTime());
+					}
+				});
+		createColumn(Messages.UiThreadWorkView_mean_latency_column, 100, SWT.RIGHT,
+				new StatisticsLabelProvider() {
+					@Override
+					String getText(UiThreadWorkStatistics statistics) {
+						return formatMillis(statistics.getMeanQueueLatency());
+					}
+				});
+		createColumn(Messages.UiThreadWorkView_p99_latency_column, 100, SWT.RIGHT,
+				new StatisticsLabelProvider() {
+					@Override
+					String getText(UiThreadWorkStatistics statistics) {
+						return formatMillis(statistics.getP99QueueLatency());
+					}
+				});
+
+		viewer.setContentProvider(ArrayContentProvider.getInstance());
+		createActions();
+		refresh();
+		parent.getDisplay().timerExec(REFRESH_INTERVAL, refresher);
+	}
+
+	private void createColumn(String title, int width, int style, ColumnLabelProvider labelProvider) {
+		TableViewerColumn column = new TableViewerColumn(viewer, style);
+		column.getColumn().setText(title);
+		column.getColumn().setWidth(width);
+		column.setLabelProvider(labelProvider);
+	}
+
+	private void createActions() {
+		Action resetAction = new Action(Messages.UiThreadWorkView_reset_action) {
+			@Override
+			public void run() {
+				MonitoringPlugin.getDefault().getUiThreadWorkTracker().reset();
+				refresh();
+			}
+		};
+		resetAction.setImageDescriptor(PlatformUI.getWorkbench().getSharedImages()
+				.getImageDescriptor(ISharedImages.IMG_ELCL_REMOVEALL));
+		IToolBarManager toolBar = getViewSite().getActionBars().getToolBarManager();
+		toolBar.add(resetAction);
+	}
+
+	private void refresh() {
+		MonitoringPlugin plugin = MonitoringPlugin.getDefault();
+		setContentDescription(plugin.isUiThreadWorkTrackingEnabled() ? "" //$NON-NLS-1$
+				: Messages.UiThreadWorkView_accounting_disabled);
+		List<UiThreadWorkStatistics> contributors =
+				plugin.getUiThreadWorkTracker().getTopContributors(MAX_CONTRIBUTORS);
+		viewer.setInput(contributors);
+	}
+
+	private static String formatMillis(long micros) {
+		return String.format("%.3f", micros / 1000.0); //$NON-NLS-1$
+	}
+
+	@Override
+	public void setFocus() {
+		viewer.getControl().setFocus();
+	}
+
+	@Override
+	public void dispose() {
+		if (viewer != null && !viewer.getControl().isDisposed()) {
+			viewer.getControl().getDisplay().timerExec(-1, refresher);
+		}
+		super.dispose();
+	}
+}
@@ -33,9 +33,12 @@ public final class Messages extends NLS {
 	public static String MonitoringPreferencePage_log_freeze_events_label;
 	public static String MonitoringPreferencePage_max_stack_samples_label;
 	public static String MonitoringPreferencePage_noninteresting_thread_filter_label;
+	public static String MonitoringPreferencePage_profiler_enabled_label;
+	public static String MonitoringPreferencePage_profiler_sample_interval_label;
 	public static String MonitoringPreferencePage_remove_ui_thread_filter_button_label;
 	public static String MonitoringPreferencePage_remove_noninteresting_thread_filter_button_label;
 	public static String MonitoringPreferencePage_ui_thread_filter_label;
+	public static String MonitoringPreferencePage_ui_thread_work_accounting_label;
 	public static String MonitoringPreferencePage_warning_threshold_label;
 
 	private Messages() {
@@ -31,6 +31,9 @@ public class MonitoringPreferenceInitializer extends AbstractPreferenceInitializ
 		store.setDefault(PreferenceConstants.DEADLOCK_REPORTING_THRESHOLD_MILLIS,
 				5 * 60 * 1000); // 5 min
 		store.setDefault(PreferenceConstants.LOG_TO_ERROR_LOG, true);
+		store.setDefault(PreferenceConstants.PROFILER_ENABLED, false);
+		store.setDefault(PreferenceConstants.PROFILER_SAMPLE_INTERVAL_MILLIS, 20);
+		store.setDefault(PreferenceConstants.UI_THREAD_WORK_ACCOUNTING_ENABLED, false);
 		store.setDefault(PreferenceConstants.UI_THREAD_FILTER, ""); //$NON-NLS-1$
 		store.setDefault(PreferenceConstants.NONINTERESTING_THREAD_FILTER,
 				"java.*" //$NON-NLS-1$
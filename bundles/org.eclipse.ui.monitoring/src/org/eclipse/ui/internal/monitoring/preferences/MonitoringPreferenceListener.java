@@ -49,6 +49,9 @@ public class MonitoringPreferenceListener implements IPropertyChangeListener {
 				&& !property.equals(PreferenceConstants.LONG_EVENT_WARNING_THRESHOLD_MILLIS)
 				&& !property.equals(PreferenceConstants.LOG_TO_ERROR_LOG)
 				&& !property.equals(PreferenceConstants.MAX_STACK_SAMPLES)
+				&& !property.equals(PreferenceConstants.PROFILER_ENABLED)
+				&& !property.equals(PreferenceConstants.PROFILER_SAMPLE_INTERVAL_MILLIS)
+				&& !property.equals(PreferenceConstants.UI_THREAD_WORK_ACCOUNTING_ENABLED)
 				&& !property.equals(PreferenceConstants.UI_THREAD_FILTER)
 				&& !property.equals(PreferenceConstants.NONINTERESTING_THREAD_FILTER)) {
 			return;
@@ -74,6 +77,7 @@ public class MonitoringPreferenceListener implements IPropertyChangeListener {
 			monitoringThread = null;
 		}
 		monitorThreadRestartInProgress = false;
+		MonitoringStartup.updateUiThreadWorkTracker();
 
 		MonitoringPlugin plugin = MonitoringPlugin.getDefault();
 		IPreferenceStore preferences = plugin.getPreferenceStore();
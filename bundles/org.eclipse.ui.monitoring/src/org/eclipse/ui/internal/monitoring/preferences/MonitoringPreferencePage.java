@@ -145,6 +145,13 @@ public class MonitoringPreferencePage extends FieldEditorPreferencePage
 		createIntegerEditor(
 				PreferenceConstants.MAX_STACK_SAMPLES,
 				Messages.MonitoringPreferencePage_max_stack_samples_label, block, 0, 100);
+		createBooleanEditor(PreferenceConstants.PROFILER_ENABLED,
+				Messages.MonitoringPreferencePage_profiler_enabled_label, block);
+		createIntegerEditor(
+				PreferenceConstants.PROFILER_SAMPLE_INTERVAL_MILLIS,
+				Messages.MonitoringPreferencePage_profiler_sample_interval_label, block, 1, 1000);
+		createBooleanEditor(PreferenceConstants.UI_THREAD_WORK_ACCOUNTING_ENABLED,
+				Messages.MonitoringPreferencePage_ui_thread_work_accounting_label, block);
 		GridLayoutFactory.fillDefaults()
 				.numColumns(2)
 				.spacing(LayoutConstants.getSpacing())
@@ -0,0 +1,30 @@
+/*******************************************************************************
+ * Copyright (C) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.monitoring;
+
+import java.util.List;
+
+/**
+ * All classes receiving periodic reports about the contributors queuing most work on the UI thread
+ * have to implement this interface.
+ *
+ * @since 1.2
+ */
+public interface IUiThreadWorkReporter {
+	/**
+	 * Invoked periodically from a background thread while UI thread work accounting is enabled.
+	 * Implementations of this function must end quickly.
+	 *
+	 * @param topContributors the contributors with the highest total execution time on the UI
+	 *     thread since accounting was enabled, the most expensive contributor first
+	 */
+	void report(List<UiThreadWorkStatistics> topContributors);
+}
@@ -55,6 +55,27 @@ public class PreferenceConstants {
 	 * message if all stack frames of the thread match the filter.
 	 */
 	public static final String NONINTERESTING_THREAD_FILTER = "noninteresting_thread_filter"; //$NON-NLS-1$
+	/**
+	 * If true, the UI thread is sampled continuously while it is dispatching events and
+	 * the samples are aggregated into a profile written to the plug-in state location.
+	 *
+	 * @since 1.2
+	 */
+	public static final String PROFILER_ENABLED = "ui_thread_profiler_enabled"; //$NON-NLS-1$
+	/**
+	 * Interval in milliseconds between samples of the UI thread taken by the profiler.
+	 *
+	 * @since 1.2
+	 */
+	public static final String PROFILER_SAMPLE_INTERVAL_MILLIS = "ui_thread_profiler_sample_interval"; //$NON-NLS-1$
+	/**
+	 * If true, the runnables passed to {@code Display.asyncExec} and {@code Display.syncExec} are
+	 * attributed to the classes queuing them and their queue latency and execution time are
+	 * recorded.
+	 *
+	 * @since 1.2
+	 */
+	public static final String UI_THREAD_WORK_ACCOUNTING_ENABLED = "ui_thread_work_accounting_enabled"; //$NON-NLS-1$
 
 	private PreferenceConstants() {}
 }
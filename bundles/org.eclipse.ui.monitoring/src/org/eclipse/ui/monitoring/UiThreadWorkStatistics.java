@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (C) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.monitoring;
+
+/**
+ * Snapshot of the work a single contributor has queued for execution on the UI thread through
+ * {@code Display.asyncExec} and {@code Display.syncExec}. All durations are in microseconds.
+ *
+ * @since 1.2
+ */
+public class UiThreadWorkStatistics {
+	private final String contributor;
+	private final String bundleId;
+	private final long count;
+	private final long totalExecutionTime;
+	private final long meanExecutionTime;
+	private final long p99ExecutionTime;
+	private final long maxExecutionTime;
+	private final long meanQueueLatency;
+	private final long p99QueueLatency;
+
+	/**
+	 * Creates a snapshot of the statistics of a contributor.
+	 *
+	 * @param contributor the name of the class queuing the work
+	 * @param bundleId the symbolic name of the bundle defining the class, or {@code null}
+	 * @param count the number of executed runnables
+	 * @param totalExecutionTime the total execution time
+	 * @param meanExecutionTime the mean execution time of a runnable
+	 * @param p99ExecutionTime the 99th percentile of the execution time of a runnable
+	 * @param maxExecutionTime the longest execution time of a runnable
+	 * @param meanQueueLatency the mean time a runnable waited for its execution
+	 * @param p99QueueLatency the 99th percentile of the time a runnable waited for its execution
+	 */
+	public UiThreadWorkStatistics(String contributor, String bundleId, long count,
+			long totalExecutionTime, long meanExecutionTime, long p99ExecutionTime,
+			long maxExecutionTime, long meanQueueLatency, long p99QueueLatency) {
+		this.contributor = contributor;
+		this.bundleId = bundleId;
+		this.count = count;
+		this.totalExecutionTime = totalExecutionTime;
+		this.meanExecutionTime = meanExecutionTime;
+		this.p99ExecutionTime = p99ExecutionTime;
+		this.maxExecutionTime = maxExecutionTime;
+		this.meanQueueLatency = meanQueueLatency;
+		this.p99QueueLatency = p99QueueLatency;
+	}
+
+	/** Returns the name of the class queuing the work. */
+	public String getContributor() {
+		return contributor;
+	}
+
+	/** Returns the symbolic name of the bundle defining the contributor, or {@code null}. */
+	public String getBundleId() {
+		return bundleId;
+	}
+
+	/** Returns the number of executed runnables. */
+	public long getCount() {
+		return count;
+	}
+
+	/** Returns the total execution time of the runnables. */
+	public long getTotalExecutionTime() {
+		return totalExecutionTime;
+	}
+
+	/** Returns the mean execution time of a runnable. */
+	public long getMeanExecutionTime() {
+		return meanExecutionTime;
+	}
+
+	/** Returns the 99th percentile of the execution time of a runnable. */
+	public long getP99ExecutionTime() {
+		return p99ExecutionTime;
+	}
+
+	/** Returns the longest execution time of a runnable. */
+	public long getMaxExecutionTime() {
+		return maxExecutionTime;
+	}
+
+	/** Returns the mean time between queuing a runnable and the start of its execution. */
+	public long getMeanQueueLatency() {
+		return meanQueueLatency;
+	}
+
+	/**
+	 * Returns the 99th percentile of the time between queuing a runnable and the start of its
+	 * execution.
+	 */
+	public long getP99QueueLatency() {
+		return p99QueueLatency;
+	}
+
+	@Override
+	public String toString() {
+		return contributor + (bundleId == null ? "" : " [" + bundleId + ']') //$NON-NLS-1$ //$NON-NLS-2$
+				+ " count=" + count + " total=" + totalExecutionTime + "us"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+}
@@ -12,10 +12,15 @@
 package org.eclipse.ui.internal.views.properties.tabbed.view;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
@@ -26,6 +31,7 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.viewers.ILabelProvider;
 import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.IStructuredContentProvider;
+import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.ui.IWorkbenchPart;
 import org.eclipse.ui.internal.views.properties.tabbed.TabbedPropertyViewStatusCodes;
 import org.eclipse.ui.internal.views.properties.tabbed.l10n.TabbedPropertyMessages;
@@ -108,6 +114,38 @@ public class TabbedPropertyRegistry {
 
 	protected boolean overridableTabListContentProvider = false;
 
+	/**
+	 * The maximum number of memoized tab descriptor arrays.
+	 */
+	private static final int MAX_MEMOIZED_SELECTIONS = 64;
+
+	/**
+	 * The filtered tab descriptors by the effective types of the selection,
+	 * the least recently used first.
+	 */
+	private Map<List<Object>, ITabDescriptor[]> tabDescriptorsByTypes = new LinkedHashMap<List<Object>, ITabDescriptor[]>(
+			16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(
+				Map.Entry<List<Object>, ITabDescriptor[]> eldest) {
+			return size() > MAX_MEMOIZED_SELECTIONS;
+		}
+	};
+
+	/**
+	 * Whether the sections only depend on the types of the selected objects,
+	 * <code>null</code> if not computed yet.
+	 */
+	private Boolean filteredByTypesOnly;
+
+	/**
+	 * Whether the size of the selection is part of the memoization key because
+	 * some section is only enabled for a number of selected objects.
+	 */
+	private boolean selectionSizeMatters;
+
 	/**
 	 * There is one details registry for each contributor type.
 	 */
@@ -276,6 +314,16 @@ public class TabbedPropertyRegistry {
 		ITabDescriptor[] allDescriptors = null;
 		if (tabDescriptorProvider == null) {
 			allDescriptors = getAllTabDescriptors();
+			List<Object> key = getTypesKey(selection);
+			if (key != null) {
+				ITabDescriptor[] result = tabDescriptorsByTypes.get(key);
+				if (result == null) {
+					result = filterTabDescriptors(allDescriptors, part,
+							selection);
+					tabDescriptorsByTypes.put(key, result);
+				}
+				return result.clone();
+			}
 		} else {
 			allDescriptors = tabDescriptorProvider.getTabDescriptors(part,
 					selection);
@@ -286,6 +334,60 @@ public class TabbedPropertyRegistry {
 		return result;
 	}
 
+	/**
+	 * Returns the key of the memoized tab descriptors for the given selection,
+	 * or <code>null</code> if the tab descriptors cannot be memoized. The key
+	 * consists of the effective types of the selected objects and, if it
+	 * matters, the size of the selection.
+	 */
+	private List<Object> getTypesKey(ISelection selection) {
+		if (!(selection instanceof IStructuredSelection)
+				|| !isFilteredByTypesOnly()) {
+			return null;
+		}
+		IStructuredSelection structuredSelection = (IStructuredSelection) selection;
+		Set<Class> types = new HashSet<>();
+		for (Iterator i = structuredSelection.iterator(); i.hasNext();) {
+			Object object = i.next();
+			types.add(typeMapper == null ? object.getClass() : typeMapper
+					.mapType(object));
+		}
+		int size = selectionSizeMatters ? structuredSelection.size() : -1;
+		return Arrays.asList(types, Integer.valueOf(size));
+	}
+
+	/**
+	 * Returns whether all sections only depend on the types of the selected
+	 * objects and on the size of the selection, i.e. they are read from the
+	 * extension registry and do not have a filter.
+	 */
+	private boolean isFilteredByTypesOnly() {
+		if (filteredByTypesOnly == null) {
+			filteredByTypesOnly = Boolean.valueOf(computeFilteredByTypesOnly());
+		}
+		return filteredByTypesOnly.booleanValue();
+	}
+
+	private boolean computeFilteredByTypesOnly() {
+		if (sectionDescriptorProvider != null) {
+			return false;
+		}
+		for (ITabDescriptor tab : getAllTabDescriptors()) {
+			for (Iterator i = tab.getSectionDescriptors().iterator(); i
+					.hasNext();) {
+				ISectionDescriptor section = (ISectionDescriptor) i.next();
+				if (section.getClass() != SectionDescriptor.class
+						|| section.getFilter() != null) {
+					return false;
+				}
+				if (section.getEnablesFor() != ISectionDescriptor.ENABLES_FOR_ANY) {
+					selectionSizeMatters = true;
+				}
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Filters out the tab descriptors that do not have any sections for the
 	 * given input.
@@ -537,6 +639,7 @@ public class TabbedPropertyRegistry {
 	 * @since 3.7
 	 */
 	public void dispose() {
+		tabDescriptorsByTypes.clear();
 		if (labelProvider != null) {
 			labelProvider.dispose();
 			labelProvider = null;
@@ -11,9 +11,11 @@
 package org.eclipse.ui.internal.views.properties.tabbed.view;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -32,6 +34,25 @@ import org.eclipse.ui.views.properties.tabbed.ITypeMapper;
  */
 public class TabbedPropertyRegistryClassSectionFilter {
 
+	/**
+	 * The names of the classes and interfaces each class extends or
+	 * implements, computed once per class.
+	 */
+	private static final ClassValue<Set<String>> CLASS_TYPES = new ClassValue<Set<String>>() {
+		@Override
+		protected Set<String> computeValue(Class<?> type) {
+			Set<String> result = new LinkedHashSet<>();
+			// add classes
+			List classes = computeClassOrder(type);
+			for (Iterator i = classes.iterator(); i.hasNext();) {
+				result.add(((Class) i.next()).getName());
+			}
+			// add interfaces
+			result.addAll(computeInterfaceOrder(classes));
+			return Collections.unmodifiableSet(result);
+		}
+	};
+
 	private ITypeMapper typeMapper = null;
 
 	/**
@@ -126,7 +147,7 @@ public class TabbedPropertyRegistryClassSectionFilter {
 	private boolean appliesToEffectiveType(ISectionDescriptor descriptor,
 			Class inputClass) {
 
-		ArrayList classTypes = getClassTypes(inputClass);
+		Set<String> classTypes = CLASS_TYPES.get(inputClass);
 
 		List sectionInputTypes = descriptor.getInputTypes();
 		for (Iterator j = sectionInputTypes.iterator(); j.hasNext();) {
@@ -145,18 +166,10 @@ public class TabbedPropertyRegistryClassSectionFilter {
 	 * extends/implements.
 	 */
 	protected ArrayList getClassTypes(Class target) {
-		ArrayList result = new ArrayList();
-		// add classes
-		List classes = computeClassOrder(target);
-		for (Iterator i = classes.iterator(); i.hasNext();) {
-			result.add(((Class) i.next()).getName());
-		}
-		// add interfaces
-		result.addAll(computeInterfaceOrder(classes));
-		return result;
+		return new ArrayList(CLASS_TYPES.get(target));
 	}
 
-	private List computeClassOrder(Class target) {
+	private static List computeClassOrder(Class target) {
 		List result = new ArrayList(4);
 		Class clazz = target;
 		while (clazz != null) {
@@ -166,7 +179,7 @@ public class TabbedPropertyRegistryClassSectionFilter {
 		return result;
 	}
 
-	private List computeInterfaceOrder(List classes) {
+	private static List computeInterfaceOrder(List classes) {
 		List result = new ArrayList(4);
 		Map seen = new HashMap(4);
 		for (Iterator iter = classes.iterator(); iter.hasNext();) {
@@ -176,7 +189,7 @@ public class TabbedPropertyRegistryClassSectionFilter {
 		return result;
 	}
 
-	private void internalComputeInterfaceOrder(Class[] interfaces, List result,
+	private static void internalComputeInterfaceOrder(Class[] interfaces, List result,
 			Map seen) {
 		List newInterfaces = new ArrayList(seen.size());
 		for (Class interfac : interfaces) {
@@ -63,15 +63,19 @@ public abstract class AbstractTabDescriptor implements ITabDescriptor,
 	 */
 	@Override
 	public TabContents createTab() {
-		List sections = new ArrayList(getSectionDescriptors().size());
-		for (Iterator iter = getSectionDescriptors().iterator(); iter.hasNext();) {
-			ISectionDescriptor descriptor = (ISectionDescriptor) iter.next();
-			ISection section = descriptor.getSectionClass();
-			sections.add(section);
-		}
+		// the sections are created when the tab is first shown
+		List descriptors = new ArrayList(getSectionDescriptors());
 		TabContents tab = new TabContents();
-		tab.setSections((ISection[]) sections.toArray(new ISection[sections
-				.size()]));
+		tab.setSectionFactory(() -> {
+			List sections = new ArrayList(descriptors.size());
+			for (Iterator iter = descriptors.iterator(); iter.hasNext();) {
+				ISectionDescriptor descriptor = (ISectionDescriptor) iter.next();
+				ISection section = descriptor.getSectionClass();
+				sections.add(section);
+			}
+			return (ISection[]) sections.toArray(new ISection[sections
+					.size()]);
+		});
 		return tab;
 	}
 
@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.ui.views.properties.tabbed;
 
+import java.util.function.Supplier;
+
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.jface.util.SafeRunnable;
 import org.eclipse.jface.viewers.ISelection;
@@ -31,6 +33,12 @@ public final class TabContents {
 
     private ISection[] sections;
 
+    /**
+     * Creates the sections when they are first needed, <code>null</code> once
+     * the sections have been created or set.
+     */
+    private Supplier<ISection[]> sectionFactory;
+
     private boolean controlsCreated;
 
     /**
@@ -46,6 +54,7 @@ public final class TabContents {
      * @return the section index.
      */
     public int getSectionIndex(ISection section) {
+        ISection[] sections = getSections();
         for (int i = 0; i < sections.length; i++) {
 			if (section == sections[i]) {
 				return i;
@@ -60,6 +69,7 @@ public final class TabContents {
      * @return the section.
      */
     public ISection getSectionAtIndex(int i) {
+        ISection[] sections = getSections();
         if (i >= 0 && i < sections.length) {
 			return sections[i];
 		}
@@ -72,6 +82,10 @@ public final class TabContents {
      * @return the sections on the tab.
      */
     public ISection[] getSections() {
+        if (sectionFactory != null) {
+            sections = sectionFactory.get();
+            sectionFactory = null;
+        }
         return sections;
     }
 
@@ -91,7 +105,7 @@ public final class TabContents {
         layout.verticalSpacing = 0;
         pageComposite.setLayout(layout);
 
-        for (final ISection section : sections) {
+        for (final ISection section : getSections()) {
             final Composite sectionComposite = page.getWidgetFactory()
                 .createComposite(pageComposite, SWT.NO_FOCUS);
             sectionComposite.setLayout(new FillLayout());
@@ -118,6 +132,10 @@ public final class TabContents {
      * Dispose of page's sections controls.
      */
     public void dispose() {
+        if (sectionFactory != null) {
+            // the sections have never been created
+            return;
+        }
         for (final ISection section : sections) {
             ISafeRunnable runnable = new SafeRunnable() {
 
@@ -135,7 +153,7 @@ public final class TabContents {
      * Sends the lifecycle event to the page's sections.
      */
     public void aboutToBeShown() {
-        for (final ISection section : sections) {
+        for (final ISection section : getSections()) {
             ISafeRunnable runnable = new SafeRunnable() {
 
                 @Override
@@ -152,7 +170,7 @@ public final class TabContents {
      * Sends the lifecycle event to the page's sections.
      */
     public void aboutToBeHidden() {
-        for (final ISection section : sections) {
+        for (final ISection section : getSections()) {
             ISafeRunnable runnable = new SafeRunnable() {
 
                 @Override
@@ -172,7 +190,7 @@ public final class TabContents {
      * @param selection
      */
     public void setInput(final IWorkbenchPart part, final ISelection selection) {
-        for (final ISection section : sections) {
+        for (final ISection section : getSections()) {
             ISafeRunnable runnable = new SafeRunnable() {
 
                 @Override
@@ -192,6 +210,20 @@ public final class TabContents {
      */
     public void setSections(ISection[] sections) {
         this.sections = sections;
+        this.sectionFactory = null;
+    }
+
+    /**
+     * Sets the factory that creates the sections of the tab when they are
+     * first needed, so that the sections of tabs that are never shown are not
+     * created.
+     *
+     * @param factory
+     *            creates the sections
+     */
+    void setSectionFactory(Supplier<ISection[]> factory) {
+        this.sections = null;
+        this.sectionFactory = factory;
     }
 
     /**
@@ -208,7 +240,7 @@ public final class TabContents {
      */
     public void refresh() {
         if (controlsCreated) {
-            for (final ISection section : sections) {
+            for (final ISection section : getSections()) {
                 ISafeRunnable runnable = new SafeRunnable() {
 
                     @Override
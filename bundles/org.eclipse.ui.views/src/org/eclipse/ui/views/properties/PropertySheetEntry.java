@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,8 +17,11 @@ package org.eclipse.ui.views.properties;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 import org.eclipse.core.commands.common.EventManager;
 import org.eclipse.core.runtime.Adapters;
@@ -84,6 +87,18 @@ public class PropertySheetEntry extends EventManager implements IPropertySheetEn
 
 	private PropertySheetEntry[] childEntries = null;
 
+	/**
+	 * The merged descriptors of our values, or <code>null</code> if they have
+	 * not been computed since our values changed.
+	 */
+	private List<IPropertyDescriptor> mergedDescriptors;
+
+	/**
+	 * Whether our values differ from each other, or <code>null</code> if this
+	 * has not been computed since our values changed.
+	 */
+	private Boolean mixedValues;
+
 	/**
 	 * Create the CellEditorListener for this entry. It listens for value
 	 * changes in the CellEditor, and cancel and finish requests.
@@ -154,6 +169,14 @@ public class PropertySheetEntry extends EventManager implements IPropertySheetEn
 	/**
 	 * Return the unsorted intersection of all the
 	 * <code>IPropertyDescriptor</code>s for the objects.
+	 * <p>
+	 * The descriptors of each object are intersected with the result as they
+	 * are obtained. Objects that return the same descriptors as an object
+	 * that has already been intersected, which is common for selections of
+	 * objects of the same class, are skipped since the descriptors are known
+	 * to be compatible with the result, and the intersection stops as soon as
+	 * it is empty.
+	 * </p>
 	 *
 	 * @return List
 	 */
@@ -167,46 +190,41 @@ public class PropertySheetEntry extends EventManager implements IPropertySheetEn
 			return new ArrayList<>(0);
 		}
 
+		IPropertyDescriptor[] firstDescs = firstSource.getPropertyDescriptors();
 		if (values.length == 1) {
-			return Arrays.asList(firstSource.getPropertyDescriptors());
+			return Arrays.asList(firstDescs);
 		}
 
-		// get all descriptors from each object
-		@SuppressWarnings("unchecked")
-		Map<Object, IPropertyDescriptor>[] propertyDescriptorMaps = new Map[values.length];
-		for (int i = 0; i < values.length; i++) {
-			Object object = values[i];
-			IPropertySource source = getPropertySource(object);
+		Map<Object, IPropertyDescriptor> intersection = computePropertyDescriptorsFor(firstDescs);
+		Set<List<IPropertyDescriptor>> intersectedDescs = new HashSet<>();
+		for (int i = 1; i < values.length; i++) {
+			IPropertySource source = getPropertySource(values[i]);
 			if (source == null) {
 				// if one of the selected items is not a property source
 				// then we show no properties
 				return new ArrayList<>(0);
 			}
+			IPropertyDescriptor[] descs = source.getPropertyDescriptors();
+			if (!intersectedDescs.add(Arrays.asList(descs))) {
+				// the same descriptors have already been intersected
+				continue;
+			}
 			// get the property descriptors keyed by id
-			propertyDescriptorMaps[i] = computePropertyDescriptorsFor(source);
-		}
-
-		// intersect
-		Map<Object, IPropertyDescriptor> intersection = propertyDescriptorMaps[0];
-		for (int i = 1; i < propertyDescriptorMaps.length; i++) {
-			// get the current ids
-			Object[] ids = intersection.keySet().toArray();
-			for (int j = 0; j < ids.length; j++) {
-				Object object = propertyDescriptorMaps[i].get(ids[j]);
-				if (object == null ||
+			Map<Object, IPropertyDescriptor> descriptorMap = computePropertyDescriptorsFor(descs);
+			intersection.values().removeIf(desc -> {
+				IPropertyDescriptor other = descriptorMap.get(desc.getId());
 				// see if the descriptors (which have the same id) are
-						// compatible
-						!intersection.get(ids[j])
-								.isCompatibleWith((IPropertyDescriptor) object)) {
-					intersection.remove(ids[j]);
-				}
+				// compatible
+				return other == null || !desc.isCompatibleWith(other);
+			});
+			if (intersection.isEmpty()) {
+				return new ArrayList<>(0);
 			}
 		}
 
 		// sorting is handled in the PropertySheetViewer, return unsorted (in
 		// the original order)
 		ArrayList<IPropertyDescriptor> result = new ArrayList<>(intersection.size());
-		IPropertyDescriptor[] firstDescs = firstSource.getPropertyDescriptors();
 		for (IPropertyDescriptor desc : firstDescs) {
 			if (intersection.containsKey(desc.getId())) {
 				result.add(desc);
@@ -217,14 +235,13 @@ public class PropertySheetEntry extends EventManager implements IPropertySheetEn
 
 	/**
 	 * Returns an map of property descriptors (keyed on id) for the given
-	 * property source.
+	 * descriptors.
 	 *
-	 * @param source
-	 *            a property source for which to obtain descriptors
+	 * @param descriptors
+	 *            the descriptors of a property source
 	 * @return a table of descriptors keyed on their id
 	 */
-	private Map<Object, IPropertyDescriptor> computePropertyDescriptorsFor(IPropertySource source) {
-		IPropertyDescriptor[] descriptors = source.getPropertyDescriptors();
+	private Map<Object, IPropertyDescriptor> computePropertyDescriptorsFor(IPropertyDescriptor[] descriptors) {
 		Map<Object, IPropertyDescriptor> result = new HashMap<>(descriptors.length * 2 + 1);
 		for (IPropertyDescriptor desc : descriptors) {
 			result.put(desc.getId(), desc);
@@ -238,6 +255,7 @@ public class PropertySheetEntry extends EventManager implements IPropertySheetEn
 	private void createChildEntries() {
 		// get the current descriptors
 		List<IPropertyDescriptor> descriptors = computeMergedPropertyDescriptors();
+		mergedDescriptors = descriptors;
 
 		// rebuild child entries using old when possible
 		PropertySheetEntry[] newEntries = new PropertySheetEntry[descriptors
@@ -459,7 +477,8 @@ public class PropertySheetEntry extends EventManager implements IPropertySheetEn
 
 	@Override
 	public String getValueAsString() {
-		if (editValue == null) {
+		if (editValue == null || hasMixedValues()) {
+			// the selected objects have different values
 			return "";//$NON-NLS-1$
 		}
 		ILabelProvider provider = descriptor.getLabelProvider();
@@ -489,7 +508,34 @@ public class PropertySheetEntry extends EventManager implements IPropertySheetEn
 			return true;
 		}
 		// see if we could have entires if we were asked
-		return computeMergedPropertyDescriptors().size() > 0;
+		if (mergedDescriptors == null) {
+			mergedDescriptors = computeMergedPropertyDescriptors();
+		}
+		return mergedDescriptors.size() > 0;
+	}
+
+	/**
+	 * Returns whether the values of this entry differ from each other, e.g.
+	 * because the selected objects have different values for the property of
+	 * this entry. The value of such an entry is the value of the first object,
+	 * but it is displayed as empty text.
+	 * <p>
+	 * The values are compared using <code>equals</code> until the first
+	 * difference is found.
+	 * </p>
+	 *
+	 * @return <code>true</code> if the values are not all equal
+	 * @since 3.10
+	 */
+	protected boolean hasMixedValues() {
+		if (mixedValues == null) {
+			boolean mixed = false;
+			for (int i = 1; i < values.length && !mixed; i++) {
+				mixed = !Objects.equals(values[0], values[i]);
+			}
+			mixedValues = Boolean.valueOf(mixed);
+		}
+		return mixedValues.booleanValue();
 	}
 
 	/**
@@ -498,6 +544,7 @@ public class PropertySheetEntry extends EventManager implements IPropertySheetEn
 	 * descriptor id of the old entry).
 	 */
 	private void refreshChildEntries() {
+		mergedDescriptors = null;
 		if (childEntries == null) {
 			// no children to refresh
 			return;
@@ -505,6 +552,7 @@ public class PropertySheetEntry extends EventManager implements IPropertySheetEn
 
 		// get the current descriptors
 		List<IPropertyDescriptor> descriptors = computeMergedPropertyDescriptors();
+		mergedDescriptors = descriptors;
 
 		// cache old entries by their descriptor id
 		Map<Object, PropertySheetEntry> entryCache = new HashMap<>(childEntries.length * 2 + 1);
@@ -685,6 +733,8 @@ public class PropertySheetEntry extends EventManager implements IPropertySheetEn
 		for (int i = 0; i < values.length; i++) {
 			values[i] = newValue;
 		}
+		mergedDescriptors = null;
+		mixedValues = null;
 
 		// Inform our parent
 		parent.valueChanged(this);
@@ -709,6 +759,8 @@ public class PropertySheetEntry extends EventManager implements IPropertySheetEn
 	public void setValues(Object[] objects) {
 		values = objects;
 		sources = new HashMap<>(values.length * 2 + 1);
+		mergedDescriptors = null;
+		mixedValues = null;
 
 		if (values.length == 0) {
 			editValue = null;
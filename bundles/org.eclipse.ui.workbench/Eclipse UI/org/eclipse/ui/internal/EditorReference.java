@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2015 IBM Corporation and others.
+ * Copyright (c) 2006, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -314,6 +314,18 @@ public class EditorReference extends WorkbenchPartReference implements IEditorRe
 		return input;
 	}
 
+	/**
+	 * Returns the input of the editor if it is known without restoring it,
+	 * i.e. the input of the editor part if it has been created or the input
+	 * the reference was created with.
+	 *
+	 * @return the input, or <code>null</code> if it is not known yet
+	 */
+	IEditorInput peekEditorInput() {
+		IEditorPart editor = getEditor(false);
+		return editor == null ? input : editor.getEditorInput();
+	}
+
 	@Override
 	public IWorkbenchPart createPart() throws PartInitException {
 		try {
@@ -396,6 +408,16 @@ public class EditorReference extends WorkbenchPartReference implements IEditorRe
 
 		legacyPart = part;
 		addPropertyListeners();
+		((WorkbenchPage) getPage()).editorInputChanged(this);
+	}
+
+	@Override
+	protected void partPropertyChanged(Object source, int propId) {
+		if (propId == IEditorPart.PROP_INPUT || propId == IEditorPart.PROP_TITLE) {
+			// the title usually shows the name of the input
+			((WorkbenchPage) getPage()).editorInputChanged(this);
+		}
+		super.partPropertyChanged(source, propId);
 	}
 
 	@Override
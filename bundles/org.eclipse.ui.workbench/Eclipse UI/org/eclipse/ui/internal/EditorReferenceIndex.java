@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.ui.IEditorInput;
+import org.eclipse.ui.internal.registry.EditorDescriptor;
+
+/**
+ * Indexes the editor references of a page by the name of their input, so that
+ * looking up the editors for an input usually only needs to check a few
+ * candidates instead of every editor.
+ * <p>
+ * The index only narrows the candidates. It does not rely on
+ * {@link IEditorInput#hashCode()} being consistent with
+ * {@link IEditorInput#equals(Object)}, so the candidates still have to be
+ * checked with <code>equals</code>. A reference is indexed again when its
+ * editor fires {@link org.eclipse.ui.IWorkbenchPartConstants#PROP_INPUT} or
+ * {@link org.eclipse.ui.IWorkbenchPartConstants#PROP_TITLE}, or gets a new
+ * input through {@link org.eclipse.ui.IWorkbenchPage#reuseEditor}. An input
+ * whose name changes without any of these is not found.
+ * </p>
+ * <p>
+ * A reference whose input is known without restoring it, i.e. the input of
+ * its editor part or the input it was created with, is indexed by the name of
+ * that input. A reference that has not been restored yet is indexed by its
+ * name. Editors that declare an {@link org.eclipse.ui.IEditorMatchingStrategy}
+ * may match any input and are therefore always candidates.
+ * </p>
+ */
+class EditorReferenceIndex {
+
+	private final Map<String, List<EditorReference>> referencesByName = new HashMap<>();
+
+	private final Map<EditorReference, String> namesByReference = new IdentityHashMap<>();
+
+	private final Set<EditorReference> strategyReferences = Collections
+			.newSetFromMap(new IdentityHashMap<EditorReference, Boolean>());
+
+	/**
+	 * Adds the reference to the index or updates its key if it is already
+	 * indexed.
+	 *
+	 * @param reference
+	 */
+	void add(EditorReference reference) {
+		remove(reference);
+		String name = getName(reference);
+		namesByReference.put(reference, name);
+		if (name != null) {
+			referencesByName.computeIfAbsent(name, k -> new ArrayList<>(1)).add(reference);
+		}
+		EditorDescriptor descriptor = reference.getDescriptor();
+		if (descriptor != null && descriptor.hasEditorMatchingStrategy()) {
+			strategyReferences.add(reference);
+		}
+	}
+
+	/**
+	 * Updates the name of the reference after its input changed. Does nothing
+	 * if the reference is not indexed.
+	 *
+	 * @param reference
+	 */
+	void update(EditorReference reference) {
+		if (namesByReference.containsKey(reference)) {
+			add(reference);
+		}
+	}
+
+	/**
+	 * Removes the reference from the index.
+	 *
+	 * @param reference
+	 */
+	void remove(EditorReference reference) {
+		if (!namesByReference.containsKey(reference)) {
+			return;
+		}
+		String name = namesByReference.remove(reference);
+		if (name != null) {
+			List<EditorReference> references = referencesByName.get(name);
+			if (references != null) {
+				references.remove(reference);
+				if (references.isEmpty()) {
+					referencesByName.remove(name);
+				}
+			}
+		}
+		strategyReferences.remove(reference);
+	}
+
+	/**
+	 * Removes all references from the index.
+	 */
+	void clear() {
+		referencesByName.clear();
+		namesByReference.clear();
+		strategyReferences.clear();
+	}
+
+	/**
+	 * Returns the references that are likely to be editing the given input.
+	 * The candidates still have to be checked against the input.
+	 *
+	 * @param input
+	 *            the input to look up
+	 * @return the candidates, in no particular order
+	 */
+	Set<EditorReference> getCandidates(IEditorInput input) {
+		Set<EditorReference> candidates = Collections
+				.newSetFromMap(new IdentityHashMap<EditorReference, Boolean>());
+		candidates.addAll(strategyReferences);
+		String name = input == null ? null : input.getName();
+		if (name != null) {
+			List<EditorReference> references = referencesByName.get(name);
+			if (references != null) {
+				candidates.addAll(references);
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * Returns the name the reference is indexed by without restoring its
+	 * editor or input, or <code>null</code> if the reference is not indexed by
+	 * name.
+	 */
+	private static String getName(EditorReference reference) {
+		IEditorInput input = reference.peekEditorInput();
+		if (input != null) {
+			return input.getName();
+		}
+		if (reference.getEditor(false) != null) {
+			// the editor is being initialized, it is indexed once it has an
+			// input
+			return null;
+		}
+		return reference.getName();
+	}
+}
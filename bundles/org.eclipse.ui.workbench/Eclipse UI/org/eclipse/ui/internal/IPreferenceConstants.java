@@ -281,4 +281,18 @@ public interface IPreferenceConstants {
 	 */
 	public static final String SAVE_AUTOMATICALLY_INTERVAL = "SAVE_AUTOMATICALLY_INTERVAL"; //$NON-NLS-1$
 
+	/**
+	 * Preference value that specifies the number of concurrently scheduled
+	 * jobs of the same family at which the progress views show the family as
+	 * one element with counters, throughput and durations instead of one
+	 * element per job.
+	 * <p>
+	 * The integer default value for this preference is: <code>0</code>,
+	 * meaning that jobs are never aggregated.
+	 * </p>
+	 *
+	 * @since 3.110
+	 */
+	public static final String PROGRESS_FAMILY_AGGREGATION_THRESHOLD = "PROGRESS_FAMILY_AGGREGATION_THRESHOLD"; //$NON-NLS-1$
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,6 +13,7 @@ package org.eclipse.ui.internal;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.UnaryOperator;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Synchronizer;
 import org.eclipse.ui.internal.StartupThreading.StartupRunnable;
@@ -76,6 +77,32 @@ public class UISynchronizer extends Synchronizer {
 		}
 	};
 
+	/**
+	 * Optional hook that wraps the runnables passed to a/syncExec calls. Used
+	 * by instrumentation measuring the work done on the UI thread.
+	 */
+	private static volatile UnaryOperator<Runnable> runnableWrapper;
+
+	/**
+	 * Sets the hook that wraps every runnable passed to a/syncExec calls
+	 * before it is queued for execution on the UI thread. The wrapper is
+	 * invoked on the thread making the call and must be fast and thread safe.
+	 *
+	 * @param wrapper
+	 *            the wrapper, or <code>null</code> to remove the current one
+	 */
+	public static void setRunnableWrapper(UnaryOperator<Runnable> wrapper) {
+		runnableWrapper = wrapper;
+	}
+
+	private static Runnable wrap(Runnable runnable) {
+		UnaryOperator<Runnable> wrapper = runnableWrapper;
+		if (wrapper == null || runnable == null) {
+			return runnable;
+		}
+		return wrapper.apply(runnable);
+	}
+
     public UISynchronizer(Display display, UILockListener lock) {
         super(display);
         this.lockListener = lock;
@@ -106,6 +133,15 @@ public class UISynchronizer extends Synchronizer {
 
     @Override
 	protected void asyncExec(Runnable runnable) {
+		queueAsync(runnable, wrap(runnable));
+	}
+
+	/**
+	 * Queues the given work, which is either the wrapped runnable or a
+	 * runnable internal to this synchronizer that must not be accounted as
+	 * work of its own.
+	 */
+	private void queueAsync(Runnable runnable, Runnable work) {
     	// the following block should not be invoked if we're using 3.2 threading.
     	if (runnable != null && !use32Threading) {
 			synchronized (this) {
@@ -113,17 +149,18 @@ public class UISynchronizer extends Synchronizer {
 						&& overrideThread.get() == Boolean.FALSE) {
 
 					// don't run it now, add it to the list of deferred runnables
-					pendingStartup.add(runnable);
+					pendingStartup.add(work);
 
 					return;
 				}
 			}
 		}
-    	super.asyncExec(runnable);
+    	super.asyncExec(work);
     }
 
 	@Override
 	public void syncExec(Runnable runnable) {
+		runnable = wrap(runnable);
 
 		synchronized (this) {
 			// the following block should not be invoked if we're using 3.2 threading.
@@ -147,7 +184,9 @@ public class UISynchronizer extends Synchronizer {
         PendingSyncExec work = new PendingSyncExec(runnable);
         work.setOperationThread(Thread.currentThread());
         lockListener.addPendingWork(work);
-        asyncExec(() -> lockListener.doPendingWork());
+        // the wrapped runnable is accounted, not the one running it
+        Runnable doPendingWork = () -> lockListener.doPendingWork();
+        queueAsync(doPendingWork, doPendingWork);
 
 		try {
 			work.waitUntilExecuted(lockListener);
@@ -450,6 +450,7 @@ public class WorkbenchMessages extends NLS {
 	public static String PreferenceNode_errorMessage;
     public static String PreferenceNode_NotFound;
 	public static String Preference_note;
+	public static String PreferencePageIndex_jobName;
 
 	// --- Workbench ---
 	public static String WorkbenchPreference_showMultipleEditorTabsButton;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -32,6 +32,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -511,6 +512,11 @@ public class WorkbenchPage implements IWorkbenchPage {
 	private List<ViewReference> viewReferences = new ArrayList<>();
 	private List<EditorReference> editorReferences = new ArrayList<>();
 
+	/**
+	 * Indexes {@link #editorReferences} by input for {@link #findEditors}.
+	 */
+	private EditorReferenceIndex editorReferenceIndex = new EditorReferenceIndex();
+
 	private List<IPerspectiveDescriptor> sortedPerspectives = new ArrayList<>();
 
 	private ListenerList<IPartListener> partListenerList = new ListenerList<>();
@@ -886,8 +892,10 @@ public class WorkbenchPage implements IWorkbenchPage {
 				Object impl = changedPart.getObject();
 				if (impl != null && !(impl instanceof CompatibilityPart)) {
 					EditorReference eRef = getEditorReference(changedPart);
-					if (eRef != null)
+					if (eRef != null) {
 						editorReferences.remove(eRef);
+						editorReferenceIndex.remove(eRef);
+					}
 					ViewReference vRef = getViewReference(changedPart);
 					if (vRef != null)
 						viewReferences.remove(vRef);
@@ -1118,41 +1126,85 @@ public class WorkbenchPage implements IWorkbenchPage {
 	}
 
 	private List<EditorReference> getSortedEditorReferences(boolean allPerspectives) {
-		List<EditorReference> sortedReferences = new ArrayList<>();
-		for (MPart part : activationList) {
-			for (EditorReference ref : editorReferences) {
-				if (ref.getModel() == part) {
-					sortedReferences.add(ref);
-					break;
-				}
-			}
+		return getSortedEditorReferences(editorReferences, allPerspectives);
+	}
+
+	/**
+	 * Sorts the given references in activation order, followed by the
+	 * references that have never been activated, and drops the references
+	 * without a rendered placeholder.
+	 *
+	 * @param references
+	 *            editor references of this page, in the order of
+	 *            {@link #editorReferences}
+	 * @param allPerspectives
+	 *            whether placeholders of all perspectives are considered
+	 * @return the sorted references
+	 */
+	private List<EditorReference> getSortedEditorReferences(List<EditorReference> references,
+			boolean allPerspectives) {
+		if (references.isEmpty()) {
+			return new ArrayList<>();
 		}
 
-		for (EditorReference ref : editorReferences) {
-			if (!sortedReferences.contains(ref)) {
+		Map<MPart, EditorReference> referencesByModel = new IdentityHashMap<>();
+		for (EditorReference ref : references) {
+			referencesByModel.putIfAbsent(ref.getModel(), ref);
+		}
+		Set<EditorReference> sortedReferences = new LinkedHashSet<>();
+		for (MPart part : activationList) {
+			EditorReference ref = referencesByModel.get(part);
+			if (ref != null) {
 				sortedReferences.add(ref);
 			}
 		}
+		sortedReferences.addAll(references);
 
 		MPerspective currentPerspective = getCurrentPerspective();
 		if (currentPerspective != null) {
 			int scope = allPerspectives ? WINDOW_SCOPE : EModelService.PRESENTATION;
 			List<MPart> placeholders = modelService.findElements(window,
 					CompatibilityEditor.MODEL_ELEMENT_ID, MPart.class, null, scope);
+			Set<MPart> renderedPlaceholders = Collections.newSetFromMap(new IdentityHashMap<MPart, Boolean>());
+			for (MPart placeholder : placeholders) {
+				// only rendered placeholders are valid references
+				if (placeholder.isToBeRendered()) {
+					renderedPlaceholders.add(placeholder);
+				}
+			}
 			List<EditorReference> visibleReferences = new ArrayList<>();
 			for (EditorReference reference : sortedReferences) {
-				for (MPart placeholder : placeholders) {
-					if (reference.getModel() == placeholder && placeholder.isToBeRendered()) {
-						// only rendered placeholders are valid references
-						visibleReferences.add(reference);
-					}
+				if (renderedPlaceholders.contains(reference.getModel())) {
+					visibleReferences.add(reference);
 				}
 			}
 
 			return visibleReferences;
 		}
 
-		return sortedReferences;
+		return new ArrayList<>(sortedReferences);
+	}
+
+	/**
+	 * Returns the visible editor references that are likely to be editing the
+	 * given input, in the order of {@link #getSortedEditorReferences()}.
+	 *
+	 * @param input
+	 *            the input to look up
+	 * @return the candidate references
+	 */
+	private List<EditorReference> getEditorReferenceCandidates(IEditorInput input) {
+		Set<EditorReference> candidates = editorReferenceIndex.getCandidates(input);
+		if (candidates.isEmpty()) {
+			return new ArrayList<>();
+		}
+		List<EditorReference> references = new ArrayList<>(candidates.size());
+		for (EditorReference ref : editorReferences) {
+			if (candidates.contains(ref)) {
+				references.add(ref);
+			}
+		}
+		return getSortedEditorReferences(references, false);
 	}
 
 	public List<EditorReference> getInternalEditorReferences() {
@@ -1198,15 +1250,28 @@ public class WorkbenchPage implements IWorkbenchPage {
 		// Ensure that the page is up-to-date
 		if (curPage != this) {
 			curPage.editorReferences.remove(editorReference);
+			curPage.editorReferenceIndex.remove(editorReference);
 			editorReference.setPage(this);
 		}
 
 		// Avoid dups
 		if (!editorReferences.contains(editorReference)) {
 			editorReferences.add(editorReference);
+			editorReferenceIndex.add(editorReference);
 		}
 	}
 
+	/**
+	 * Updates the index of the editor references after the input of the
+	 * editor changed or became known.
+	 *
+	 * @param editorReference
+	 *            the reference whose input changed
+	 */
+	void editorInputChanged(EditorReference editorReference) {
+		editorReferenceIndex.update(editorReference);
+	}
+
 	MPartDescriptor findDescriptor(String id) {
 		return modelService.getPartDescriptor(id);
 	}
@@ -1800,6 +1865,7 @@ public class WorkbenchPage implements IWorkbenchPage {
 
 		viewReferences.clear();
 		editorReferences.clear();
+		editorReferenceIndex.clear();
 		sortedPerspectives.clear();
 		modelToPerspectiveMapping.clear();
 
@@ -2246,18 +2312,13 @@ public class WorkbenchPage implements IWorkbenchPage {
 
 	@Override
 	public IEditorReference[] findEditors(IEditorInput input, String editorId, int matchFlags) {
-		List<EditorReference> filteredReferences = getSortedEditorReferences();
-
 		switch (matchFlags) {
 		case MATCH_INPUT:
-			List<IEditorReference> editorRefs = new ArrayList<>();
-			for (EditorReference editorRef : filteredReferences) {
-				checkEditor(input, editorRefs, editorRef);
-			}
+			List<IEditorReference> editorRefs = findEditorsForInput(input, null);
 			return editorRefs.toArray(new IEditorReference[editorRefs.size()]);
 		case MATCH_ID:
 			editorRefs = new ArrayList<>();
-			for (IEditorReference editorRef : filteredReferences) {
+			for (IEditorReference editorRef : getSortedEditorReferences()) {
 				if (editorId.equals(editorRef.getId())) {
 					editorRefs.add(editorRef);
 				}
@@ -2266,18 +2327,34 @@ public class WorkbenchPage implements IWorkbenchPage {
 		default:
 			if ((matchFlags & IWorkbenchPage.MATCH_ID) != 0
 					&& (matchFlags & IWorkbenchPage.MATCH_INPUT) != 0) {
-				editorRefs = new ArrayList<>();
-				for (EditorReference editorRef : filteredReferences) {
-					if (editorRef.getId().equals(editorId)) {
-						checkEditor(input, editorRefs, editorRef);
-					}
-				}
+				editorRefs = findEditorsForInput(input, editorId);
 				return editorRefs.toArray(new IEditorReference[editorRefs.size()]);
 			}
 			return new IEditorReference[0];
 		}
 	}
 
+	/**
+	 * Returns the editors of the input. Only the candidates of the index are
+	 * checked, so the matching strategies of other editors are not consulted.
+	 *
+	 * @param input
+	 *            the input to look up
+	 * @param editorId
+	 *            the id the editors must have, or <code>null</code>
+	 * @return the matching editor references
+	 */
+	private List<IEditorReference> findEditorsForInput(IEditorInput input, String editorId) {
+		List<IEditorReference> editorRefs = new ArrayList<>();
+		List<EditorReference> candidates = getEditorReferenceCandidates(input);
+		for (EditorReference editorRef : candidates) {
+			if (editorId == null || editorRef.getId().equals(editorId)) {
+				checkEditor(input, editorRefs, editorRef);
+			}
+		}
+		return editorRefs;
+	}
+
 	private void checkEditor(IEditorInput input, List<IEditorReference> editorRefs,
 			EditorReference editorRef) {
 		EditorDescriptor descriptor = editorRef.getDescriptor();
@@ -3086,6 +3163,11 @@ public class WorkbenchPage implements IWorkbenchPage {
 
 		// TODO compat: should we be talking to the editor reference here
 		editor.setInput(input);
+		// re-index editors that do not fire PROP_INPUT
+		IWorkbenchPartReference reference = getReference(editor);
+		if (reference instanceof EditorReference) {
+			editorInputChanged((EditorReference) reference);
+		}
         navigationHistory.markEditor(editor);
     }
 
@@ -5154,6 +5236,9 @@ public class WorkbenchPage implements IWorkbenchPage {
 			viewReferences.remove(partReference);
 		} else {
 			editorReferences.remove(partReference);
+			if (partReference instanceof EditorReference) {
+				editorReferenceIndex.remove((EditorReference) partReference);
+			}
 		}
 
 		for (int i = 0; i < activationList.size(); i++) {
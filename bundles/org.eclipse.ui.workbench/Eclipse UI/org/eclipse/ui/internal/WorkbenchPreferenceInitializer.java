@@ -50,6 +50,7 @@ public class WorkbenchPreferenceInitializer extends AbstractPreferenceInitialize
 				.getDefault().getBundle().getSymbolicName());
 
 		node.putBoolean(IPreferenceConstants.RUN_IN_BACKGROUND, true);
+		node.putInt(IPreferenceConstants.PROGRESS_FAMILY_AGGREGATION_THRESHOLD, 0);
 		node.putBoolean(IPreferenceConstants.SHOULD_PROMPT_FOR_ENABLEMENT, true);
 
 		node.putBoolean(IPreferenceConstants.EDITORLIST_PULLDOWN_ACTIVE, false);
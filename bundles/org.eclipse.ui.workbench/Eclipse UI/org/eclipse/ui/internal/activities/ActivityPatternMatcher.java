@@ -0,0 +1,291 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.internal.activities;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import org.eclipse.ui.activities.IActivityPatternBinding;
+
+/**
+ * Matches identifier ids against the pattern bindings of all activities at
+ * once.
+ * <p>
+ * Equality patterns and regular expressions without any meta character are
+ * looked up in a hash map. Regular expressions of the common form
+ * <code>literal.*</code>, e.g. <code>org\.eclipse\.jdt\.ui/.*</code>, are
+ * stored in a trie keyed by their literal prefix and are matched without
+ * running the regular expression. All other regular expressions are stored
+ * in the trie under the literal prefix they start with, if any, and are only
+ * evaluated for ids starting with that prefix.
+ * </p>
+ * <p>
+ * The matches of an id only depend on the pattern bindings, so they are
+ * remembered for the lifetime of the matcher. A new matcher is created
+ * whenever the pattern bindings change.
+ * </p>
+ *
+ * @since 3.110
+ */
+public final class ActivityPatternMatcher {
+
+	/**
+	 * A node of the literal prefix trie.
+	 */
+	private static final class Node {
+		Map<Character, Node> children;
+
+		/**
+		 * Activities that match every id starting with the prefix of the node.
+		 */
+		List<String> prefixActivityIds;
+
+		/**
+		 * Regular expressions that may match ids starting with the prefix of
+		 * the node.
+		 */
+		List<RegexBinding> regexBindings;
+
+		Node getChild(char c) {
+			return children == null ? null : children.get(Character.valueOf(c));
+		}
+
+		Node addChild(char c) {
+			if (children == null) {
+				children = new HashMap<>(4);
+			}
+			return children.computeIfAbsent(Character.valueOf(c), key -> new Node());
+		}
+	}
+
+	private static final class RegexBinding {
+		final String activityId;
+
+		final Pattern pattern;
+
+		RegexBinding(String activityId, Pattern pattern) {
+			this.activityId = activityId;
+			this.pattern = pattern;
+		}
+	}
+
+	private static final String META_CHARACTERS = ".[]{}()*+?^$|"; //$NON-NLS-1$
+
+	private final Map<String, List<String>> equalityActivityIds = new HashMap<>();
+
+	private final Node root = new Node();
+
+	private final Map<String, Set<String>> activityIdsById = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a matcher for the given pattern bindings.
+	 *
+	 * @param activityPatternBindingsByActivityId
+	 *            the sets of {@link IActivityPatternBinding} keyed by activity
+	 *            id
+	 */
+	public ActivityPatternMatcher(Map activityPatternBindingsByActivityId) {
+		for (Iterator iterator = activityPatternBindingsByActivityId.entrySet().iterator(); iterator.hasNext();) {
+			Map.Entry entry = (Map.Entry) iterator.next();
+			String activityId = (String) entry.getKey();
+			Collection bindings = (Collection) entry.getValue();
+			if (bindings == null) {
+				continue;
+			}
+			for (Iterator iterator2 = bindings.iterator(); iterator2.hasNext();) {
+				add(activityId, (IActivityPatternBinding) iterator2.next());
+			}
+		}
+	}
+
+	private void add(String activityId, IActivityPatternBinding binding) {
+		if (binding.isEqualityPattern()) {
+			addEquality(binding.getString(), activityId);
+			return;
+		}
+		Pattern pattern = binding.getPattern();
+		String regex = pattern.pattern();
+		if (pattern.flags() != 0 || regex.indexOf('|') >= 0) {
+			// the literal prefix is not reliable, always evaluate
+			addRegex(root, activityId, pattern);
+			return;
+		}
+
+		StringBuilder prefix = new StringBuilder();
+		int end = parseLiteralPrefix(regex, prefix);
+		if (end == regex.length()) {
+			addEquality(prefix.toString(), activityId);
+			return;
+		}
+
+		char next = regex.charAt(end);
+		if (next == '*' || next == '?' || next == '{') {
+			// the quantifier applies to the last literal character
+			if (prefix.length() > 0) {
+				prefix.setLength(prefix.length() - 1);
+			}
+			addRegex(getNode(prefix), activityId, pattern);
+		} else if (end == regex.length() - 2 && regex.endsWith(".*")) { //$NON-NLS-1$
+			Node node = getNode(prefix);
+			if (node.prefixActivityIds == null) {
+				node.prefixActivityIds = new ArrayList<>(1);
+			}
+			node.prefixActivityIds.add(activityId);
+		} else {
+			addRegex(getNode(prefix), activityId, pattern);
+		}
+	}
+
+	private void addEquality(String id, String activityId) {
+		equalityActivityIds.computeIfAbsent(id, key -> new ArrayList<>(1)).add(activityId);
+	}
+
+	private static void addRegex(Node node, String activityId, Pattern pattern) {
+		if (node.regexBindings == null) {
+			node.regexBindings = new ArrayList<>(1);
+		}
+		node.regexBindings.add(new RegexBinding(activityId, pattern));
+	}
+
+	private Node getNode(CharSequence prefix) {
+		Node node = root;
+		for (int i = 0; i < prefix.length(); i++) {
+			node = node.addChild(prefix.charAt(i));
+		}
+		return node;
+	}
+
+	/**
+	 * Collects the unescaped literal characters the regular expression starts
+	 * with.
+	 *
+	 * @param regex
+	 *            the regular expression
+	 * @param prefix
+	 *            receives the literal characters
+	 * @return the index of the first character that is not part of the literal
+	 *         prefix
+	 */
+	static int parseLiteralPrefix(String regex, StringBuilder prefix) {
+		int i = 0;
+		while (i < regex.length()) {
+			char c = regex.charAt(i);
+			if (c == '\\') {
+				if (i + 1 >= regex.length()) {
+					break;
+				}
+				char escaped = regex.charAt(i + 1);
+				if (Character.isLetterOrDigit(escaped)) {
+					// character classes, back references and quotes
+					break;
+				}
+				if (i + 2 < regex.length() && isQuantifier(regex.charAt(i + 2))) {
+					break;
+				}
+				prefix.append(escaped);
+				i += 2;
+			} else if (META_CHARACTERS.indexOf(c) >= 0) {
+				break;
+			} else {
+				prefix.append(c);
+				i++;
+			}
+		}
+		return i;
+	}
+
+	private static boolean isQuantifier(char c) {
+		return c == '*' || c == '?' || c == '{' || c == '+';
+	}
+
+	/**
+	 * Returns the ids of the activities with a pattern binding matching the
+	 * given id.
+	 *
+	 * @param id
+	 *            the identifier id
+	 * @return an unmodifiable set of activity ids, never <code>null</code>
+	 */
+	public Set<String> getActivityIds(String id) {
+		Set<String> activityIds = activityIdsById.get(id);
+		if (activityIds == null) {
+			activityIds = computeActivityIds(id);
+			activityIdsById.put(id, activityIds);
+		}
+		return activityIds;
+	}
+
+	private Set<String> computeActivityIds(String id) {
+		Set<String> activityIds = null;
+		List<String> equalityMatches = equalityActivityIds.get(id);
+		if (equalityMatches != null) {
+			activityIds = new HashSet<>(equalityMatches);
+		}
+
+		int lastLineTerminator = getLastLineTerminator(id);
+		Node node = root;
+		for (int depth = 0; node != null; depth++) {
+			// '.*' does not match line terminators
+			if (node.prefixActivityIds != null && lastLineTerminator < depth) {
+				if (activityIds == null) {
+					activityIds = new HashSet<>();
+				}
+				activityIds.addAll(node.prefixActivityIds);
+			}
+			if (node.regexBindings != null) {
+				for (RegexBinding binding : node.regexBindings) {
+					if ((activityIds == null || !activityIds.contains(binding.activityId))
+							&& binding.pattern.matcher(id).matches()) {
+						if (activityIds == null) {
+							activityIds = new HashSet<>();
+						}
+						activityIds.add(binding.activityId);
+					}
+				}
+			}
+			if (depth == id.length()) {
+				break;
+			}
+			node = node.getChild(id.charAt(depth));
+		}
+
+		if (activityIds == null) {
+			return Collections.emptySet();
+		}
+		return Collections.unmodifiableSet(activityIds);
+	}
+
+	/**
+	 * Returns the index of the last character of the id that is not matched by
+	 * <code>.</code>, or -1.
+	 */
+	private static int getLastLineTerminator(String id) {
+		for (int i = id.length() - 1; i >= 0; i--) {
+			if (isLineTerminator(id.charAt(i))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean isLineTerminator(char c) {
+		return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+	}
+}
@@ -66,6 +66,14 @@ public final class MutableActivityManager extends AbstractActivityManager
 
     private Map activityPatternBindingsByActivityId = new HashMap();
 
+    /**
+     * Matches identifier ids against all pattern bindings at once. Replaced
+     * whenever the pattern bindings change, it is read by the identifier
+     * update job without holding the manager lock.
+     */
+    private volatile ActivityPatternMatcher activityPatternMatcher = new ActivityPatternMatcher(
+            Collections.EMPTY_MAP);
+
     private IActivityRegistry activityRegistry;
 
     private Map categoriesById = new HashMap();
@@ -433,6 +441,7 @@ public final class MutableActivityManager extends AbstractActivityManager
 
         this.activityRequirementBindingsByActivityId = activityRequirementBindingsByActivityId;
         this.activityDefinitionsById = activityDefinitionsById;
+        this.activityPatternMatcher = new ActivityPatternMatcher(activityPatternBindingsByActivityId);
         this.activityPatternBindingsByActivityId = activityPatternBindingsByActivityId;
         this.categoryActivityBindingsByCategoryId = categoryActivityBindingsByCategoryId;
         this.categoryDefinitionsById = categoryDefinitionsById;
@@ -580,7 +589,7 @@ public final class MutableActivityManager extends AbstractActivityManager
         }
 
         updateListeners(activityManagerChanged, activityEventsByActivityId,
-				deltaActivityIds, previouslyEnabledActivityIds);
+				previouslyEnabledActivityIds);
     }
 
 	/**
@@ -588,16 +597,14 @@ public final class MutableActivityManager extends AbstractActivityManager
 	 *
 	 * @param activityManagerChanged
 	 * @param activityEventsByActivityId
-	 * @param deltaActivityIds
 	 * @param previouslyEnabledActivityIds
 	 */
 	private void updateListeners(boolean activityManagerChanged,
-			Map activityEventsByActivityId, Set deltaActivityIds,
-			Set previouslyEnabledActivityIds) {
+			Map activityEventsByActivityId, Set previouslyEnabledActivityIds) {
 		// don't update identifiers if the enabled activity set has not changed
         if (activityManagerChanged) {
             Map identifierEventsByIdentifierId = updateIdentifiers(identifiersById
-                    .keySet(), deltaActivityIds);
+                    .keySet());
             if (identifierEventsByIdentifierId != null) {
 				notifyIdentifiers(identifierEventsByIdentifierId);
 			}
@@ -636,7 +643,7 @@ public final class MutableActivityManager extends AbstractActivityManager
 		deltaActivityIds.add(id);
 		Map activityEventsByActivityId = updateActivities(deltaActivityIds);
 
-		updateListeners(true, activityEventsByActivityId, deltaActivityIds,
+		updateListeners(true, activityEventsByActivityId,
 				previouslyEnabledActivityIds);
 	}
 
@@ -823,12 +830,7 @@ public final class MutableActivityManager extends AbstractActivityManager
     }
 
     private IdentifierEvent updateIdentifier(Identifier identifier) {
-        return updateIdentifier(identifier, definedActivityIds);
-    }
-
-    private IdentifierEvent updateIdentifier(Identifier identifier, Set changedActivityIds) {
         String id = identifier.getId();
-        Set activityIds = new HashSet();
 
         boolean enabled = false;
 
@@ -850,20 +852,9 @@ public final class MutableActivityManager extends AbstractActivityManager
                         enabledChanged);
 			}
         } else {
-            Set activityIdsToUpdate = new HashSet(changedActivityIds);
-            if (identifier.getActivityIds() != null) {
-                activityIdsToUpdate.addAll(identifier.getActivityIds());
-            }
-            for (Iterator iterator = activityIdsToUpdate.iterator(); iterator
-                    .hasNext();) {
-                String activityId = (String) iterator.next();
-                Activity activity = (Activity) getActivity(activityId);
-
-                if (activity.isMatch(id)) {
-                    activityIds.add(activityId);
-               }
-            }
-
+            // the matches only depend on the pattern bindings, so enablement
+            // changes are answered from the matcher without matching again
+            Set activityIds = activityPatternMatcher.getActivityIds(id);
             activityIdsChanged = identifier.setActivityIds(activityIds);
 
             if (advisor != null) {
@@ -880,10 +871,6 @@ public final class MutableActivityManager extends AbstractActivityManager
     }
 
     private Map updateIdentifiers(Collection identifierIds) {
-        return updateIdentifiers(identifierIds, definedActivityIds);
-    }
-
-    private Map updateIdentifiers(Collection identifierIds, Set changedActivityIds) {
         Map identifierEventsByIdentifierId = new TreeMap();
 
         for (Iterator iterator = identifierIds.iterator(); iterator.hasNext();) {
@@ -892,7 +879,7 @@ public final class MutableActivityManager extends AbstractActivityManager
                     .get(identifierId);
 
             if (identifier != null) {
-                IdentifierEvent identifierEvent = updateIdentifier(identifier, changedActivityIds);
+                IdentifierEvent identifierEvent = updateIdentifier(identifier);
 
                 if (identifierEvent != null) {
 					identifierEventsByIdentifierId.put(identifierId,
@@ -935,17 +922,7 @@ public final class MutableActivityManager extends AbstractActivityManager
 
                     while (!deferredIdentifiers.isEmpty()) {
                         Identifier identifier = (Identifier) deferredIdentifiers.remove(0);
-                        Set activityIds = new HashSet();
-                        for (Iterator iterator = definedActivityIds.iterator(); iterator
-                                .hasNext();) {
-                            String activityId = (String) iterator.next();
-                            Activity activity = (Activity) getActivity(activityId);
-
-                            if (activity.isMatch(identifier.getId())) {
-                                activityIds.add(activityId);
-                            }
-                        }
-
+                        Set activityIds = activityPatternMatcher.getActivityIds(identifier.getId());
                         boolean activityIdsChanged = identifier.setActivityIds(activityIds);
                         if (activityIdsChanged) {
                             IdentifierEvent identifierEvent = new IdentifierEvent(identifier, activityIdsChanged,
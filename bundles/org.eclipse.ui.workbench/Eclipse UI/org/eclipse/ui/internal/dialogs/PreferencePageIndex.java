@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.dialogs;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.InvalidRegistryObjectException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.dialogs.DialogSettings;
+import org.eclipse.jface.dialogs.IDialogSettings;
+import org.eclipse.jface.preference.IPreferenceNode;
+import org.eclipse.jface.preference.IPreferencePage;
+import org.eclipse.jface.preference.PreferenceManager;
+import org.eclipse.ui.internal.WorkbenchMessages;
+import org.eclipse.ui.internal.WorkbenchPlugin;
+import org.eclipse.ui.internal.registry.IWorkbenchRegistryConstants;
+import org.eclipse.ui.internal.registry.KeywordRegistry;
+
+/**
+ * An index of the texts that the filter of the workbench preference dialog
+ * searches: the labels of the preference pages, the labels of their keywords
+ * and the descriptions of the pages. Labels and keywords are read from the
+ * extension registry by a background job when the dialog is opened for the
+ * first time in a session. Descriptions are only known once a page has been
+ * created, so they are added whenever a page is shown.
+ * <p>
+ * The index is kept in dialog settings, so that the filter can answer from
+ * it right away in later sessions, without resolving the keywords of every
+ * page in the UI thread.
+ * </p>
+ */
+public final class PreferencePageIndex {
+
+	private static final String SECTION = "PreferencePageIndex"; //$NON-NLS-1$
+
+	private static final String KEY_LOCALE = "locale"; //$NON-NLS-1$
+
+	private static final String KEY_LABEL = "label"; //$NON-NLS-1$
+
+	private static final String KEY_KEYWORDS = "keywords"; //$NON-NLS-1$
+
+	private static final String KEY_DESCRIPTION = "description"; //$NON-NLS-1$
+
+	private static PreferencePageIndex instance;
+
+	/**
+	 * The indexed texts of a page. The keywords are <code>null</code> as long
+	 * as only the description of the page is known.
+	 */
+	private static final class Entry {
+		final String label;
+
+		final String[] keywords;
+
+		final String description;
+
+		final String[] texts;
+
+		Entry(String label, String[] keywords, String description) {
+			this.label = label;
+			this.keywords = keywords;
+			this.description = description;
+			List<String> all = new ArrayList<>();
+			if (label != null) {
+				all.add(label);
+			}
+			if (keywords != null) {
+				for (String keyword : keywords) {
+					all.add(keyword);
+				}
+			}
+			if (description != null) {
+				all.add(description);
+			}
+			this.texts = all.toArray(new String[all.size()]);
+		}
+	}
+
+	private final IDialogSettings settings;
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private Job indexJob;
+
+	private volatile boolean changed;
+
+	/**
+	 * Return the index of the workbench preference pages.
+	 *
+	 * @return the index, must only be used in the UI thread
+	 */
+	public static PreferencePageIndex getInstance() {
+		if (instance == null) {
+			instance = new PreferencePageIndex(WorkbenchPlugin.getDefault().getDialogSettings());
+		}
+		return instance;
+	}
+
+	/**
+	 * Create an index that is kept in the given dialog settings, and load the
+	 * entries that have been saved in them before.
+	 *
+	 * @param settings
+	 *            the settings to keep the index in
+	 */
+	public PreferencePageIndex(IDialogSettings settings) {
+		this.settings = settings;
+		IDialogSettings section = settings.getSection(SECTION);
+		// labels and descriptions of another language are of no use
+		if (section == null || !Locale.getDefault().toString().equals(section.get(KEY_LOCALE))) {
+			return;
+		}
+		for (IDialogSettings pageSection : section.getSections()) {
+			String[] keywords = pageSection.getArray(KEY_KEYWORDS);
+			entries.put(pageSection.getName(), new Entry(pageSection.get(KEY_LABEL),
+					keywords == null ? new String[0] : keywords, pageSection.get(KEY_DESCRIPTION)));
+		}
+	}
+
+	/**
+	 * Schedule a job that indexes the labels and keywords of the workbench
+	 * preference pages of the given manager, unless this has already been done.
+	 * Entries of pages that no longer exist are removed.
+	 *
+	 * @param manager
+	 *            the manager of the pages
+	 * @return the job that indexes the pages
+	 */
+	public Job update(PreferenceManager manager) {
+		if (indexJob != null) {
+			return indexJob;
+		}
+		// the keywords are read in the UI thread the first time
+		KeywordRegistry keywordRegistry = KeywordRegistry.getInstance();
+		Map<String, IConfigurationElement> pages = new LinkedHashMap<>();
+		for (IPreferenceNode node : manager.getElements(PreferenceManager.PRE_ORDER)) {
+			if (node instanceof WorkbenchPreferenceNode) {
+				pages.put(node.getId(), ((WorkbenchPreferenceNode) node).getConfigurationElement());
+			}
+		}
+		indexJob = new Job(WorkbenchMessages.PreferencePageIndex_jobName) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				return index(pages, keywordRegistry, monitor);
+			}
+		};
+		indexJob.setSystem(true);
+		indexJob.setPriority(Job.DECORATE);
+		indexJob.schedule();
+		return indexJob;
+	}
+
+	private IStatus index(Map<String, IConfigurationElement> pages, KeywordRegistry keywordRegistry,
+			IProgressMonitor monitor) {
+		entries.keySet().retainAll(pages.keySet());
+		for (Map.Entry<String, IConfigurationElement> page : pages.entrySet()) {
+			if (monitor.isCanceled()) {
+				return Status.CANCEL_STATUS;
+			}
+			IConfigurationElement element = page.getValue();
+			String label;
+			List<String> keywords = new ArrayList<>();
+			try {
+				label = element.getAttribute(IWorkbenchRegistryConstants.ATT_NAME);
+				for (IConfigurationElement reference : element
+						.getChildren(IWorkbenchRegistryConstants.TAG_KEYWORD_REFERENCE)) {
+					String keyword = keywordRegistry
+							.getKeywordLabel(reference.getAttribute(IWorkbenchRegistryConstants.ATT_ID));
+					if (keyword != null) {
+						keywords.add(keyword);
+					}
+				}
+			} catch (InvalidRegistryObjectException e) {
+				// the contributing plug-in has been removed
+				entries.remove(page.getKey());
+				continue;
+			}
+			String[] keywordLabels = keywords.toArray(new String[keywords.size()]);
+			entries.compute(page.getKey(),
+					(id, entry) -> new Entry(label, keywordLabels, entry == null ? null : entry.description));
+		}
+		changed = true;
+		return Status.OK_STATUS;
+	}
+
+	/**
+	 * Add the description of a page that has been created to the index.
+	 *
+	 * @param node
+	 *            the node of the page
+	 */
+	public void addDescription(IPreferenceNode node) {
+		IPreferencePage page = node.getPage();
+		if (!(node instanceof WorkbenchPreferenceNode) || page == null) {
+			return;
+		}
+		String description = page.getDescription();
+		Entry current = entries.get(node.getId());
+		if (current != null && description != null && description.equals(current.description)) {
+			return;
+		}
+		entries.compute(node.getId(), (id, entry) -> entry == null ? new Entry(null, null, description)
+				: new Entry(entry.label, entry.keywords, description));
+		changed = true;
+	}
+
+	/**
+	 * Return the indexed texts of the given page.
+	 *
+	 * @param pageId
+	 *            the id of the page
+	 * @return the label, keywords and description of the page, or
+	 *         <code>null</code> if the page has not been indexed yet
+	 */
+	public String[] getSearchTexts(String pageId) {
+		Entry entry = entries.get(pageId);
+		if (entry == null || entry.keywords == null) {
+			return null;
+		}
+		return entry.texts;
+	}
+
+	/**
+	 * Write the index to the dialog settings if it has changed.
+	 */
+	public void save() {
+		if (!changed) {
+			return;
+		}
+		changed = false;
+		// replaces the previous section, so removed pages are dropped
+		IDialogSettings section = new DialogSettings(SECTION);
+		section.put(KEY_LOCALE, Locale.getDefault().toString());
+		for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+			Entry value = entry.getValue();
+			if (value.keywords == null) {
+				continue;
+			}
+			IDialogSettings pageSection = section.addNewSection(entry.getKey());
+			if (value.label != null) {
+				pageSection.put(KEY_LABEL, value.label);
+			}
+			pageSection.put(KEY_KEYWORDS, value.keywords);
+			if (value.description != null) {
+				pageSection.put(KEY_DESCRIPTION, value.description);
+			}
+		}
+		settings.addSection(section);
+	}
+}
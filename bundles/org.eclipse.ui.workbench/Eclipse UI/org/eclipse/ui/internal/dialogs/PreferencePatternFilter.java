@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -38,6 +38,8 @@ public class PreferencePatternFilter extends PatternFilter {
 	 * this cache is needed because
 	 * WorkbenchPreferenceExtensionNode.getKeywordLabels() is expensive. When it
 	 * tracks keyword changes effectivly than this cache can be removed.
+	 * Workbench preference pages are looked up in the
+	 * {@link PreferencePageIndex} instead, once they have been indexed.
 	 */
 	private Map keywordCache = new HashMap();
 
@@ -107,6 +109,18 @@ public class PreferencePatternFilter extends PatternFilter {
 	@Override
 	protected boolean isLeafMatch(Viewer viewer, Object element) {
 		IPreferenceNode node = (IPreferenceNode) element;
+		if (node instanceof WorkbenchPreferenceNode) {
+			String[] texts = PreferencePageIndex.getInstance().getSearchTexts(node.getId());
+			if (texts != null) {
+				for (String text : texts) {
+					if (wordMatches(text)) {
+						return true;
+					}
+				}
+				return false;
+			}
+		}
+
 		String text = node.getLabelText();
 
 		if (wordMatches(text)) {
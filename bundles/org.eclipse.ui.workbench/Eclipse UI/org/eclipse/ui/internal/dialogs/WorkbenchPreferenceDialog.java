@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -135,16 +135,28 @@ public class WorkbenchPreferenceDialog extends FilteredPreferenceDialog {
 		Assert.isTrue((instance == null),
 				"There cannot be two preference dialogs at once in the workbench."); //$NON-NLS-1$
 		instance = this;
-
+		// the filter answers from the index once the pages have been indexed
+		PreferencePageIndex.getInstance().update(manager);
 	}
 
 
 	@Override
 	public boolean close() {
 		instance = null;
+		PreferencePageIndex.getInstance().save();
 		return super.close();
 	}
 
+	@Override
+	protected boolean showPage(IPreferenceNode node) {
+		boolean success = super.showPage(node);
+		if (success) {
+			// descriptions are only known once the page has been created
+			PreferencePageIndex.getInstance().addDescription(node);
+		}
+		return success;
+	}
+
 
 	/**
 	 * Differs from super implementation in that if the node is found but should
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -56,7 +56,8 @@ public class WorkbenchPreferenceNode extends WorkbenchPreferenceExtensionNode {
 		}
 
 		page.init(PlatformUI.getWorkbench());
-		if (getLabelImage() != null) {
+		// the image is only created when the page needs it
+		if (getImageDescriptor() != null) {
 			page.setImageDescriptor(getImageDescriptor());
 		}
 		page.setTitle(getLabelText());
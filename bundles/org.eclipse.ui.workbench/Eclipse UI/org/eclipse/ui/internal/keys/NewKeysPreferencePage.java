@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2016 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -22,12 +22,17 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import org.eclipse.core.commands.Category;
 import org.eclipse.core.commands.ParameterizedCommand;
 import org.eclipse.core.commands.util.Tracing;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.jface.bindings.Binding;
 import org.eclipse.jface.bindings.TriggerSequence;
 import org.eclipse.jface.bindings.keys.KeySequence;
@@ -73,6 +78,7 @@ import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Menu;
 import org.eclipse.swt.widgets.MenuItem;
@@ -81,7 +87,6 @@ import org.eclipse.swt.widgets.TableColumn;
 import org.eclipse.swt.widgets.Text;
 import org.eclipse.swt.widgets.Tree;
 import org.eclipse.swt.widgets.TreeColumn;
-import org.eclipse.swt.widgets.TreeItem;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.IWorkbenchPreferencePage;
 import org.eclipse.ui.PlatformUI;
@@ -166,6 +171,29 @@ public class NewKeysPreferencePage extends PreferencePage implements IWorkbenchP
 
 	private KeyController keyController;
 
+	/**
+	 * Loads the model of the key controller in the background.
+	 */
+	private Job loadJob;
+
+	/**
+	 * Whether the model has been loaded and its listeners have been added.
+	 */
+	private boolean modelLoaded;
+
+	/**
+	 * The listeners of the controls that are added once the model has been
+	 * loaded.
+	 */
+	private List<IPropertyChangeListener> pendingListeners = new ArrayList<>();
+
+	/**
+	 * The actions that need the model and are run once it has been loaded.
+	 */
+	private List<Runnable> pendingActions = new ArrayList<>();
+
+	private Composite pageComposite;
+
 	private Category fDefaultCategory;
 
 	private Label commandNameValueLabel;
@@ -474,7 +502,13 @@ public class NewKeysPreferencePage extends PreferencePage implements IWorkbenchP
 		createTreeControls(page);
 		createDataControls(page);
 
-		fill();
+		pageComposite = page;
+		if (modelLoaded) {
+			fill();
+		} else {
+			// filled once the model has been loaded
+			page.setEnabled(false);
+		}
 
 		applyDialogFont(page);
 
@@ -730,7 +764,7 @@ if (!event.getOldValue().equals(event.getNewValue())) {
 				fWhenCombo.setSelection(structuredSelection, true);
 			}
 		};
-		keyController.addPropertyChangeListener(whenListener);
+		addModelListener(whenListener);
 
 		// RIGHT DATA AREA
 		// Creates the right data area.
@@ -797,15 +831,10 @@ if (!event.getOldValue().equals(event.getNewValue())) {
 						bindingModel.setSelectedElement(binding);
 						conflictViewer.setSelection(selection);
 
-						boolean selectionVisible = false;
-						TreeItem[] items = fFilteredTree.getViewer()
-								.getTree().getItems();
-						for (TreeItem item : items) {
-							if (item.getData().equals(binding)) {
-								selectionVisible = true;
-								break;
-							}
-						}
+						// the items of the virtual tree may not have been
+						// created yet, so ask the filter
+						boolean selectionVisible = fPatternFilter
+								.isElementVisible(fFilteredTree.getViewer(), binding);
 
 						if (!selectionVisible) {
 							fFilteredTree.getFilterControl().setText(""); //$NON-NLS-1$
@@ -837,7 +866,7 @@ if (!event.getOldValue().equals(event.getNewValue())) {
 				conflictViewer.remove(event.getNewValue());
 			}
 		};
-		keyController.addPropertyChangeListener(conflictsListener);
+		addModelListener(conflictsListener);
 
 		IPropertyChangeListener dataUpdateListener = event -> {
 			BindingElement bindingElement = null;
@@ -867,7 +896,7 @@ if (!event.getOldValue().equals(event.getNewValue())) {
 				fKeySequenceText.setKeySequence(trigger);
 			}
 		};
-		keyController.addPropertyChangeListener(dataUpdateListener);
+		addModelListener(dataUpdateListener);
 
 	}
 
@@ -877,7 +906,8 @@ if (!event.getOldValue().equals(event.getNewValue())) {
 
 		GridData gridData;
 
-		fFilteredTree = new CategoryFilterTree(parent, SWT.SINGLE | SWT.FULL_SELECTION | SWT.BORDER, fPatternFilter);
+		fFilteredTree = new CategoryFilterTree(parent, SWT.SINGLE | SWT.FULL_SELECTION | SWT.BORDER | SWT.VIRTUAL,
+				fPatternFilter);
 		final GridLayout layout = new GridLayout(1, false);
 		layout.marginWidth = 0;
 		fFilteredTree.setLayout(layout);
@@ -978,7 +1008,7 @@ if (!event.getOldValue().equals(event.getNewValue())) {
 				viewer.refresh();
 			}
 		};
-		keyController.addPropertyChangeListener(treeUpdateListener);
+		addModelListener(treeUpdateListener);
 		// as far as I got
 	}
 
@@ -1085,13 +1115,100 @@ if (!event.getOldValue().equals(event.getNewValue())) {
 			}
 		};
 
-		keyController.addPropertyChangeListener(listener);
+		addModelListener(listener);
+	}
+
+	/**
+	 * Adds a listener to the key controller once the model has been loaded.
+	 *
+	 * @param listener
+	 *            the listener of a control
+	 */
+	private void addModelListener(IPropertyChangeListener listener) {
+		if (modelLoaded) {
+			keyController.addPropertyChangeListener(listener);
+		} else {
+			pendingListeners.add(listener);
+		}
+	}
+
+	/**
+	 * Adds the listeners to the loaded model, fills the controls and runs the
+	 * pending actions. If the model could not be loaded, shows an error and
+	 * leaves the page disabled. Must be called in the UI thread.
+	 */
+	private void modelLoaded() {
+		if (modelLoaded) {
+			return;
+		}
+		IStatus result = loadJob.getResult();
+		if (result == null || !result.isOK()) {
+			// the job framework has logged the failure
+			pendingListeners.clear();
+			pendingActions.clear();
+			if (pageComposite == null || !pageComposite.isDisposed()) {
+				setErrorMessage(NewKeysPreferenceMessages.LoadModelJob_Failed);
+			}
+			return;
+		}
+		modelLoaded = true;
+		keyController.hookListeners();
+		for (IPropertyChangeListener listener : pendingListeners) {
+			keyController.addPropertyChangeListener(listener);
+		}
+		pendingListeners.clear();
+		if (pageComposite != null && !pageComposite.isDisposed()) {
+			fill();
+			pageComposite.setEnabled(true);
+		}
+		for (Runnable action : pendingActions) {
+			action.run();
+		}
+		pendingActions.clear();
+	}
+
+	/**
+	 * Runs the given action now if the model has been loaded, otherwise once
+	 * it has been loaded. Does not block the UI thread, which the load may
+	 * need.
+	 *
+	 * @param action
+	 *            the action that needs the model
+	 */
+	private void whenModelLoaded(Runnable action) {
+		if (modelLoaded) {
+			action.run();
+		} else {
+			pendingActions.add(action);
+		}
 	}
 
 	@Override
 	public void init(IWorkbench workbench) {
 		keyController = new KeyController();
-		keyController.init(workbench);
+		// the services are read in the UI thread, but the model is large, so
+		// it is built in the background
+		keyController.readServices(workbench);
+		loadJob = new Job(NewKeysPreferenceMessages.LoadModelJob_Name) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				keyController.buildModels();
+				return Status.OK_STATUS;
+			}
+		};
+		loadJob.setSystem(true);
+		loadJob.addJobChangeListener(new JobChangeAdapter() {
+			@Override
+			public void done(IJobChangeEvent event) {
+				Display display = workbench.getDisplay();
+				if (display.isDisposed()) {
+					WorkbenchPlugin.log("Keys preference page model loaded after the display was disposed"); //$NON-NLS-1$
+				} else {
+					display.asyncExec(() -> modelLoaded());
+				}
+			}
+		});
+		loadJob.schedule();
 
 		commandService = workbench.getService(ICommandService.class);
 		fDefaultCategory = commandService.getCategory(null);
@@ -1102,6 +1219,10 @@ if (!event.getOldValue().equals(event.getNewValue())) {
 
 	@Override
 	public void applyData(Object data) {
+		whenModelLoaded(() -> select(data));
+	}
+
+	private void select(Object data) {
 		if (data instanceof ModelElement) {
 			keyController.getBindingModel().setSelectedElement((ModelElement) data);
 		}
@@ -1123,7 +1244,13 @@ if (!event.getOldValue().equals(event.getNewValue())) {
 
 	@Override
 	public boolean performOk() {
-		keyController.saveBindings(fBindingService);
+		// nothing can have been changed before the model has been loaded
+		if (modelLoaded) {
+			keyController.saveBindings(fBindingService);
+		} else if (!pendingActions.isEmpty()) {
+			WorkbenchPlugin.log("Keys preference page closed before its model was loaded, dropped " //$NON-NLS-1$
+					+ pendingActions.size() + " pending actions"); //$NON-NLS-1$
+		}
 		saveState(getDialogSettings());
 		return super.performOk();
 	}
@@ -1165,22 +1292,26 @@ if (!event.getOldValue().equals(event.getNewValue())) {
 				getShell(), title, message, SWT.SHEET);
 
 		if (confirmed) {
-			long startTime = 0L;
-			if (DEBUG) {
-				startTime = System.currentTimeMillis();
-			}
+			whenModelLoaded(this::restoreDefaultBindings);
+		}
 
-			fFilteredTree.setRedraw(false);
-			BusyIndicator.showWhile(fFilteredTree.getViewer().getTree().getDisplay(), () -> keyController.setDefaultBindings(fBindingService));
-			fFilteredTree.setRedraw(true);
-			if (DEBUG) {
-				final long elapsedTime = System.currentTimeMillis() - startTime;
-				Tracing.printTrace(TRACING_COMPONENT,
-						"performDefaults:model in " + elapsedTime + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+		super.performDefaults();
+	}
 
-			}
+	private void restoreDefaultBindings() {
+		long startTime = 0L;
+		if (DEBUG) {
+			startTime = System.currentTimeMillis();
 		}
 
-		super.performDefaults();
+		fFilteredTree.setRedraw(false);
+		BusyIndicator.showWhile(fFilteredTree.getViewer().getTree().getDisplay(), () -> keyController.setDefaultBindings(fBindingService));
+		fFilteredTree.setRedraw(true);
+		if (DEBUG) {
+			final long elapsedTime = System.currentTimeMillis() - startTime;
+			Tracing.printTrace(TRACING_COMPONENT,
+					"performDefaults:model in " + elapsedTime + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		}
 	}
 }
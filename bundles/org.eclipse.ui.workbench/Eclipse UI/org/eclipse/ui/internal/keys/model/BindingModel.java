@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -145,6 +145,77 @@ public class BindingModel extends CommonModel {
 	 */
 	public void init(IServiceLocator locator, BindingManager manager,
 			ContextModel model) {
+		init(manager, model, getParameterizedCommands(locator));
+	}
+
+	/**
+	 * Returns all parameterizations of the commands defined in the given
+	 * service locator, with their names computed. Must be called in the UI
+	 * thread, since it asks the command service and runs the contributed
+	 * parameter values.
+	 *
+	 * @param locator
+	 *            the service locator to read the commands from
+	 * @return the parameterized commands
+	 */
+	public static Set getParameterizedCommands(IServiceLocator locator) {
+		ICommandService commandService = locator
+				.getService(ICommandService.class);
+		final Collection commandIds = commandService.getDefinedCommandIds();
+		Set parameterizedCommands = new HashSet();
+		final Iterator commandIdItr = commandIds.iterator();
+		while (commandIdItr.hasNext()) {
+			final String currentCommandId = (String) commandIdItr.next();
+			final Command currentCommand = commandService
+					.getCommand(currentCommandId);
+			try {
+				Collection combinations = ParameterizedCommand
+						.generateCombinations(currentCommand);
+				Iterator i = combinations.iterator();
+				while (i.hasNext()) {
+					resolveName((ParameterizedCommand) i.next());
+				}
+				parameterizedCommands.addAll(combinations);
+			} catch (final NotDefinedException e) {
+				// It is safe to just ignore undefined commands.
+			}
+		}
+		return parameterizedCommands;
+	}
+
+	/**
+	 * Computes the name of the given command, which the command keeps. The
+	 * name includes the names of the parameter values, which come from
+	 * contributed code, so this must be called in the UI thread.
+	 *
+	 * @param command
+	 *            the command, may be <code>null</code>
+	 */
+	static void resolveName(ParameterizedCommand command) {
+		if (command == null) {
+			return;
+		}
+		try {
+			command.getName();
+		} catch (NotDefinedException e) {
+			// the element shows the command as undefined
+		}
+	}
+
+	/**
+	 * Creates the elements of the given bindings and commands. Only reads the
+	 * given objects, so it may be called outside of the UI thread once the
+	 * names of the commands have been computed.
+	 *
+	 * @param manager
+	 *            the binding manager of the model
+	 * @param model
+	 *            the context model
+	 * @param parameterizedCommands
+	 *            the result of {@link #getParameterizedCommands(IServiceLocator)}
+	 */
+	public void init(BindingManager manager, ContextModel model,
+			Set parameterizedCommands) {
 		Set cmdsForBindings = new HashSet();
 		bindingToElement = new HashMap();
 		commandToElement = new HashMap();
@@ -164,23 +235,7 @@ public class BindingModel extends CommonModel {
 			cmdsForBindings.add(b.getParameterizedCommand());
 		}
 
-		ICommandService commandService = locator
-				.getService(ICommandService.class);
-		final Collection commandIds = commandService.getDefinedCommandIds();
-		allParameterizedCommands = new HashSet();
-		final Iterator commandIdItr = commandIds.iterator();
-		while (commandIdItr.hasNext()) {
-			final String currentCommandId = (String) commandIdItr.next();
-			final Command currentCommand = commandService
-					.getCommand(currentCommandId);
-			try {
-				allParameterizedCommands.addAll(ParameterizedCommand
-						.generateCombinations(currentCommand));
-			} catch (final NotDefinedException e) {
-				// It is safe to just ignore undefined commands.
-			}
-		}
-
+		allParameterizedCommands = parameterizedCommands;
 		i = allParameterizedCommands.iterator();
 		while (i.hasNext()) {
 			ParameterizedCommand cmd = (ParameterizedCommand) i.next();
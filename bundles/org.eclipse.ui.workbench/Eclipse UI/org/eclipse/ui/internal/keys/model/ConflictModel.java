@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,6 +16,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Objects;
 
 import org.eclipse.jface.bindings.Binding;
 import org.eclipse.jface.bindings.BindingManager;
@@ -36,8 +37,6 @@ public class ConflictModel extends CommonModel {
 	 */
 	private Collection conflicts;
 
-	private BindingManager bindingManager;
-
 	private BindingModel bindingModel;
 
 	/**
@@ -45,6 +44,50 @@ public class ConflictModel extends CommonModel {
 	 */
 	private Map conflictsMap;
 
+	/**
+	 * The binding elements that have a binding, by the scheme, context and
+	 * trigger of their binding. Bindings can only conflict with the other
+	 * bindings of the same key.
+	 */
+	private Map<ConflictKey, Collection<BindingElement>> conflictIndex;
+
+	/**
+	 * The key that each binding element is indexed with.
+	 */
+	private Map<BindingElement, ConflictKey> elementToKey;
+
+	/**
+	 * The scheme, context and trigger of a binding.
+	 */
+	private static final class ConflictKey {
+		final String schemeId;
+
+		final String contextId;
+
+		final TriggerSequence trigger;
+
+		ConflictKey(Binding binding) {
+			schemeId = binding.getSchemeId();
+			contextId = binding.getContextId();
+			trigger = binding.getTriggerSequence();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ConflictKey)) {
+				return false;
+			}
+			ConflictKey other = (ConflictKey) obj;
+			return trigger.equals(other.trigger) && Objects.equals(contextId, other.contextId)
+					&& Objects.equals(schemeId, other.schemeId);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(schemeId, contextId, trigger);
+		}
+	}
+
 	/**
 	 * @param kc
 	 */
@@ -75,8 +118,8 @@ public class ConflictModel extends CommonModel {
 			Iterator i = this.conflicts.iterator();
 			Map bindingToElement = bindingModel.getBindingToElement();
 			while (i.hasNext()) {
-				Object next = i.next();
-				if (!bindingToElement.containsValue(next)
+				BindingElement next = (BindingElement) i.next();
+				if (!isBound(bindingToElement, next)
 						&& !next.equals(getSelectedElement())) {
 					i.remove();
 				}
@@ -86,6 +129,15 @@ public class ConflictModel extends CommonModel {
 		controller.firePropertyChange(this, PROP_CONFLICTS, old, conflicts);
 	}
 
+	/**
+	 * Returns whether the given element is the element of its binding in the
+	 * binding model, without searching the values of the map.
+	 */
+	private static boolean isBound(Map bindingToElement, BindingElement element) {
+		Object modelObject = element.getModelObject();
+		return modelObject instanceof Binding && bindingToElement.get(modelObject) == element;
+	}
+
 	public void updateConflictsFor(BindingElement source) {
 		updateConflictsFor(source, false);
 	}
@@ -157,23 +209,13 @@ public class ConflictModel extends CommonModel {
 			return;
 		}
 		Binding binding = (Binding) newValue.getModelObject();
-		TriggerSequence trigger = binding.getTriggerSequence();
-
-		matches = (Collection) bindingManager
-				.getActiveBindingsDisregardingContext().get(trigger);
+		Collection<BindingElement> sameKey = conflictIndex.get(new ConflictKey(binding));
 		ArrayList localConflicts = new ArrayList();
-		if (matches != null) {
+		if (sameKey != null) {
 			localConflicts.add(newValue);
-			Iterator i = matches.iterator();
-			while (i.hasNext()) {
-				Binding b = (Binding) i.next();
-				if (binding != b
-						&& b.getContextId().equals(binding.getContextId())
-						&& b.getSchemeId().equals(binding.getSchemeId())) {
-					Object element = bindingModel.getBindingToElement().get(b);
-					if (element != null) {
-						localConflicts.add(element);
-					}
+			for (BindingElement element : sameKey) {
+				if (element != newValue && element.getModelObject() != binding) {
+					localConflicts.add(element);
 				}
 			}
 		}
@@ -216,17 +258,76 @@ public class ConflictModel extends CommonModel {
 		}
 	}
 
+	/**
+	 * Finds the conflicts of the bindings of the given model. The listeners
+	 * that keep the conflicts up to date are added by {@link #hookListeners()}.
+	 *
+	 * @param manager
+	 * @param model
+	 */
 	public void init(BindingManager manager, BindingModel model) {
-		bindingManager = manager;
 		bindingModel = model;
 		conflictsMap = new HashMap();
+		conflictIndex = new HashMap<>();
+		elementToKey = new HashMap<>();
 		Iterator i = bindingModel.getBindings().iterator();
+		while (i.hasNext()) {
+			index((BindingElement) i.next());
+		}
+		i = bindingModel.getBindings().iterator();
 		while (i.hasNext()) {
 			BindingElement be = (BindingElement) i.next();
 			if (be.getModelObject() instanceof Binding) {
 				updateConflictsFor(be);
 			}
 		}
+	}
+
+	/**
+	 * Indexes the given element with the scheme, context and trigger of its
+	 * current binding, replacing the key it was indexed with before.
+	 *
+	 * @param element
+	 *            the element whose binding may have changed
+	 */
+	private void index(BindingElement element) {
+		unindex(element);
+		Object modelObject = element.getModelObject();
+		if (!(modelObject instanceof Binding)
+				|| ((Binding) modelObject).getTriggerSequence() == null) {
+			return;
+		}
+		ConflictKey key = new ConflictKey((Binding) modelObject);
+		conflictIndex.computeIfAbsent(key, k -> new ArrayList<>(2)).add(element);
+		elementToKey.put(element, key);
+	}
+
+	private void unindex(BindingElement element) {
+		ConflictKey key = elementToKey.remove(element);
+		if (key == null) {
+			return;
+		}
+		Collection<BindingElement> sameKey = conflictIndex.get(key);
+		sameKey.remove(element);
+		if (sameKey.isEmpty()) {
+			conflictIndex.remove(key);
+		}
+	}
+
+	/**
+	 * Listens to the controller for selection changes and for changes of the
+	 * bindings. Must be called before the controller adds its own listeners,
+	 * so that the index is up to date when they update the conflicts.
+	 */
+	public void hookListeners() {
+		controller.addPropertyChangeListener(event -> {
+			if (event.getSource() instanceof BindingElement
+					&& ModelElement.PROP_MODEL_OBJECT.equals(event.getProperty())) {
+				index((BindingElement) event.getSource());
+			} else if (BindingModel.PROP_BINDING_ADD.equals(event.getProperty())) {
+				index((BindingElement) event.getNewValue());
+			}
+		});
 		controller.addPropertyChangeListener(event -> {
 			if (event.getSource() == ConflictModel.this
 					&& CommonModel.PROP_SELECTED_ELEMENT.equals(event
@@ -242,6 +343,7 @@ public class ConflictModel extends CommonModel {
 				}
 			} else if (BindingModel.PROP_BINDING_REMOVE.equals(event
 					.getProperty())) {
+				unindex((BindingElement) event.getNewValue());
 				updateConflictsFor((BindingElement) event.getOldValue(),
 						(BindingElement) event.getNewValue(), true);
 			}
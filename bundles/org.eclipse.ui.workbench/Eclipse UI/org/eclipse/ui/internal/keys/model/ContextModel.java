@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -46,13 +46,25 @@ public class ContextModel extends CommonModel {
 	 * @param locator
 	 */
 	public void init(IServiceLocator locator) {
-		contextService = locator
-				.getService(IContextService.class);
+		IContextService service = locator.getService(IContextService.class);
+		init(service, service.getDefinedContexts());
+	}
+
+	/**
+	 * Creates the elements of the given contexts. Only reads the contexts, so
+	 * it may be called outside of the UI thread.
+	 *
+	 * @param service
+	 *            the context service, used when the contexts are filtered
+	 * @param definedContexts
+	 *            the contexts defined in the service
+	 */
+	public void init(IContextService service, Context[] definedContexts) {
+		contextService = service;
 		contexts = new ArrayList();
 		contextIdToFilteredContexts = new HashMap();
 		contextIdToElement = new HashMap();
 
-		Context[] definedContexts = contextService.getDefinedContexts();
 		for (Context definedContext : definedContexts) {
 			ContextElement ce = new ContextElement(controller);
 			ce.init(definedContext);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2016 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -25,6 +25,7 @@ import java.util.Set;
 import org.eclipse.core.commands.CommandManager;
 import org.eclipse.core.commands.ParameterizedCommand;
 import org.eclipse.core.commands.common.NotDefinedException;
+import org.eclipse.core.commands.contexts.Context;
 import org.eclipse.core.commands.contexts.ContextManager;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.ListenerList;
@@ -73,6 +74,9 @@ public class KeyController {
 	private boolean notifying = true;
 	private ConflictModel conflictModel;
 	private IServiceLocator serviceLocator;
+	private IContextService contextService;
+	private Context[] definedContexts;
+	private Set parameterizedCommands;
 
 	private ListenerList<IPropertyChangeListener> getEventManager() {
 		if (eventManager == null) {
@@ -114,17 +118,66 @@ public class KeyController {
 	}
 
 	public void init(IServiceLocator locator) {
-		getEventManager().clear();
+		readServices(locator);
+		buildModels();
+		hookListeners();
+	}
+
+	/**
+	 * Copies the schemes, bindings, contexts and commands of the given service
+	 * locator, and computes the names of the commands. Must be called in the
+	 * UI thread: the services are not thread safe, and the names of
+	 * parameterized commands come from contributed parameter values.
+	 *
+	 * @param locator
+	 *            the service locator to read the bindings from
+	 */
+	public void readServices(IServiceLocator locator) {
 		this.serviceLocator = locator;
 		fBindingManager = loadModelBackend(serviceLocator);
-		contextModel = new ContextModel(this);
-		contextModel.init(serviceLocator);
-		fSchemeModel = new SchemeModel(this);
-		fSchemeModel.init(fBindingManager);
-		bindingModel = new BindingModel(this);
-		bindingModel.init(serviceLocator, fBindingManager, contextModel);
-		conflictModel = new ConflictModel(this);
-		conflictModel.init(fBindingManager, bindingModel);
+		contextService = serviceLocator.getService(IContextService.class);
+		definedContexts = contextService.getDefinedContexts();
+		parameterizedCommands = BindingModel
+				.getParameterizedCommands(serviceLocator);
+	}
+
+	/**
+	 * Creates the models from what {@link #readServices(IServiceLocator)} has
+	 * read. Only reads those copies and the command and context handles, and
+	 * does not access any widgets, so it may be called outside of the UI
+	 * thread once {@link #readServices(IServiceLocator)} has returned. The
+	 * models are not kept up to date until {@link #hookListeners()} has been
+	 * called.
+	 */
+	public void buildModels() {
+		getEventManager().clear();
+		// nobody listens to the new models yet
+		boolean wasNotifying = notifying;
+		notifying = false;
+		try {
+			contextModel = new ContextModel(this);
+			contextModel.init(contextService, definedContexts);
+			fSchemeModel = new SchemeModel(this);
+			fSchemeModel.init(fBindingManager);
+			bindingModel = new BindingModel(this);
+			bindingModel.init(fBindingManager, contextModel,
+					parameterizedCommands);
+			conflictModel = new ConflictModel(this);
+			conflictModel.init(fBindingManager, bindingModel);
+		} finally {
+			notifying = wasNotifying;
+			definedContexts = null;
+			parameterizedCommands = null;
+		}
+	}
+
+	/**
+	 * Adds the listeners that keep the models created by
+	 * {@link #buildModels()} in sync with each other. Must be called in the UI
+	 * thread, before any other listener is added.
+	 */
+	public void hookListeners() {
+		conflictModel.hookListeners();
 		addSetContextListener();
 		addSetBindingListener();
 		addSetConflictListener();
@@ -165,6 +218,9 @@ public class KeyController {
 		for (Binding binding : bindingService.getBindings()) {
 			bindings.add(binding);
 		}
+		for (Binding binding : bindings) {
+			BindingModel.resolveName(binding.getParameterizedCommand());
+		}
 
 		bindingManager.setBindings(bindings.toArray(new Binding[0]));
 
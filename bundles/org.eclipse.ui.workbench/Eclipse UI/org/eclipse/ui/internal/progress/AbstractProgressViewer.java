@@ -30,4 +30,16 @@ public abstract class AbstractProgressViewer extends StructuredViewer {
 	 * @param elements
 	 */
 	public abstract void remove(Object[] elements);
+
+	/**
+	 * Refresh the elements in the receiver. Subclasses may batch the work
+	 * done for the individual elements.
+	 *
+	 * @param elements
+	 */
+	public void refresh(Object[] elements) {
+		for (Object element : elements) {
+			refresh(element, true);
+		}
+	}
 }
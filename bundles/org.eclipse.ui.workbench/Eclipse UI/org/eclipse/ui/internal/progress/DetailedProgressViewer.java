@@ -51,6 +51,14 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 
 	private Composite noEntryArea;
 
+	/**
+	 * Set while a batch of elements is refreshed, so that the size is only
+	 * computed once for the whole batch.
+	 */
+	private boolean batchRefresh;
+
+	private boolean sizeUpdateRequired;
+
 	/**
 	 * Create a new instance of the receiver with a control that is a child of
 	 * parent with style style.
@@ -332,7 +340,25 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 		}
 		((ProgressInfoItem) widget).refresh();
 
-		updateSize();
+		if (batchRefresh) {
+			sizeUpdateRequired = true;
+		} else {
+			updateSize();
+		}
+	}
+
+	@Override
+	public void refresh(Object[] elements) {
+		batchRefresh = true;
+		sizeUpdateRequired = false;
+		try {
+			super.refresh(elements);
+		} finally {
+			batchRefresh = false;
+		}
+		if (sizeUpdateRequired && !control.isDisposed()) {
+			updateSize();
+		}
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2015 IBM Corporation and others.
+ * Copyright (c) 2003, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -111,11 +111,17 @@ public class FinishedJobs extends EventManager {
 	}
 
 	/**
-	 * Returns true if JobInfo indicates that it must be kept.
+	 * Returns true if JobInfo indicates that it must be kept. The results of
+	 * aggregated jobs that are not kept are accounted in their family.
 	 */
 	static boolean keep(JobInfo info) {
 		Job job = info.getJob();
 		if (job != null) {
+			IStatus status = job.getResult();
+			if (status != null && status.getSeverity() == IStatus.ERROR) {
+				return true;
+			}
+
 			Object prop = job.getProperty(ProgressManagerUtil.KEEP_PROPERTY);
 			if (prop instanceof Boolean) {
 				if (((Boolean) prop).booleanValue()) {
@@ -129,11 +135,6 @@ public class FinishedJobs extends EventManager {
 					return true;
 				}
 			}
-
-			IStatus status = job.getResult();
-			if (status != null && status.getSeverity() == IStatus.ERROR) {
-				return true;
-			}
 		}
 		return false;
 	}
@@ -0,0 +1,268 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.progress;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * The JobFamilyInfo aggregates the jobs of one family, i.e. jobs of the same
+ * class and name, into a single element once the number of concurrently
+ * scheduled jobs of the family reaches a threshold. Instead of one row per job, the progress
+ * views show one row with counters, throughput and duration percentiles.
+ * Only a few of the running jobs are exposed as children.
+ */
+class JobFamilyInfo extends GroupInfo {
+	/**
+	 * The maximum number of running jobs exposed as children.
+	 */
+	private static final int MAX_SHOWN_JOBS = 3;
+
+	/**
+	 * Number of buckets of the duration histogram. Bucket <code>i</code> holds
+	 * durations below <code>2^i</code> milliseconds.
+	 */
+	private static final int BUCKETS = 32;
+
+	private final Object familyLock = new Object();
+
+	private final String familyName;
+
+	/**
+	 * The scheduled jobs of the family mapped to the time they were scheduled
+	 * at in nanoseconds.
+	 */
+	private final Map<JobInfo, Long> scheduledJobs = new LinkedHashMap<>();
+
+	private final int[] durations = new int[BUCKETS];
+
+	private boolean aggregated;
+
+	private long aggregationStart;
+
+	private int completed;
+
+	private int failed;
+
+	private int canceled;
+
+	/**
+	 * Creates a new family for the job.
+	 *
+	 * @param job
+	 *            the first job of the family
+	 */
+	JobFamilyInfo(Job job) {
+		familyName = job.getName();
+	}
+
+	/**
+	 * Returns the key of the family the job belongs to. Jobs belong to the
+	 * same family if they are instances of the same class and have the same
+	 * name when they are scheduled. The class alone does not identify a family
+	 * since unrelated jobs are often created from one anonymous class or by a
+	 * helper. The families answered by {@link Job#belongsTo(Object)} cannot be
+	 * used since they cannot be enumerated.
+	 *
+	 * @param job
+	 * @return String
+	 */
+	static String getFamilyKey(Job job) {
+		return job.getClass().getName() + ':' + job.getName();
+	}
+
+	/**
+	 * Adds a scheduled job to the family.
+	 *
+	 * @param info
+	 * @param threshold
+	 *            the number of scheduled jobs at which the family gets
+	 *            aggregated
+	 * @return boolean <code>true</code> if the family became aggregated
+	 */
+	boolean jobScheduled(JobInfo info, int threshold) {
+		synchronized (familyLock) {
+			if (scheduledJobs.containsKey(info)) {
+				return false;
+			}
+			scheduledJobs.put(info, Long.valueOf(System.nanoTime()));
+			if (aggregated) {
+				info.setFamilyInfo(this);
+				return false;
+			}
+			if (scheduledJobs.size() < threshold) {
+				return false;
+			}
+			aggregated = true;
+			aggregationStart = System.nanoTime();
+			completed = 0;
+			failed = 0;
+			canceled = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				durations[i] = 0;
+			}
+			for (JobInfo jobInfo : scheduledJobs.keySet()) {
+				jobInfo.setFamilyInfo(this);
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Records the end of a job of the family. Jobs that are kept in the
+	 * finished jobs, e.g. failed jobs, are detached from the family so that
+	 * they are shown on their own.
+	 *
+	 * @param info
+	 * @return boolean <code>true</code> if the family is no longer aggregated
+	 */
+	boolean jobDone(JobInfo info) {
+		synchronized (familyLock) {
+			Long scheduled = scheduledJobs.remove(info);
+			if (scheduled == null || !aggregated) {
+				return false;
+			}
+			long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - scheduled.longValue());
+			durations[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(millis))]++;
+			IStatus result = info.getJob().getResult();
+			if (result == null || result.getSeverity() == IStatus.CANCEL) {
+				canceled++;
+			} else if (result.getSeverity() == IStatus.ERROR) {
+				failed++;
+			} else {
+				completed++;
+			}
+			if (FinishedJobs.keep(info)) {
+				info.setFamilyInfo(null);
+			}
+			if (!scheduledJobs.isEmpty()) {
+				return false;
+			}
+			aggregated = false;
+			return true;
+		}
+	}
+
+	/**
+	 * Returns whether or not the jobs of the family are currently shown as
+	 * one element.
+	 *
+	 * @return boolean
+	 */
+	boolean isAggregated() {
+		synchronized (familyLock) {
+			return aggregated;
+		}
+	}
+
+	/**
+	 * Returns whether or not the family has any scheduled jobs.
+	 *
+	 * @return boolean
+	 */
+	boolean isEmpty() {
+		synchronized (familyLock) {
+			return scheduledJobs.isEmpty();
+		}
+	}
+
+	@Override
+	boolean hasChildren() {
+		synchronized (familyLock) {
+			return !scheduledJobs.isEmpty();
+		}
+	}
+
+	@Override
+	Object[] getChildren() {
+		synchronized (familyLock) {
+			int size = Math.min(MAX_SHOWN_JOBS, scheduledJobs.size());
+			Object[] children = new Object[size];
+			Iterator<JobInfo> iterator = scheduledJobs.keySet().iterator();
+			for (int i = 0; i < size; i++) {
+				children[i] = iterator.next();
+			}
+			return children;
+		}
+	}
+
+	@Override
+	String getDisplayString() {
+		return getTaskName();
+	}
+
+	@Override
+	String getTaskName() {
+		synchronized (familyLock) {
+			int finished = completed + failed + canceled;
+			long elapsed = System.nanoTime() - aggregationStart;
+			double throughput = elapsed > 0 ? finished * (double) TimeUnit.SECONDS.toNanos(1) / elapsed : 0;
+			return NLS.bind(ProgressMessages.JobFamilyInfo_Summary,
+					new Object[] { familyName, Integer.valueOf(scheduledJobs.size()), Integer.valueOf(completed),
+							Integer.valueOf(failed + canceled), String.format("%.1f", Double.valueOf(throughput)), //$NON-NLS-1$
+							Long.valueOf(getPercentile(finished, 0.5)), Long.valueOf(getPercentile(finished, 0.9)) });
+		}
+	}
+
+	/**
+	 * Returns the upper bound of the duration in milliseconds below which the
+	 * given fraction of the finished jobs completed. Must be called while
+	 * holding the family lock.
+	 */
+	private long getPercentile(int finished, double fraction) {
+		if (finished == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(finished * fraction);
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			count += durations[i];
+			if (count >= rank) {
+				return 1L << i;
+			}
+		}
+		return 1L << (BUCKETS - 1);
+	}
+
+	/**
+	 * Returns the percentage of the scheduled jobs that are finished.
+	 */
+	@Override
+	int getPercentDone() {
+		synchronized (familyLock) {
+			int finished = completed + failed + canceled;
+			int total = finished + scheduledJobs.size();
+			return total == 0 ? 0 : finished * 100 / total;
+		}
+	}
+
+	@Override
+	boolean isActive() {
+		return hasChildren();
+	}
+
+	@Override
+	public void cancel() {
+		JobInfo[] infos;
+		synchronized (familyLock) {
+			infos = scheduledJobs.keySet().toArray(new JobInfo[scheduledJobs.size()]);
+		}
+		for (JobInfo info : infos) {
+			info.cancel();
+		}
+		ProgressManager.getInstance().refreshGroup(this);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2015 IBM Corporation and others.
+ * Copyright (c) 2003, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -35,6 +35,10 @@ public class JobInfo extends JobTreeElement {
 
     private GroupInfo parent;
 
+    private volatile JobFamilyInfo familyInfo;
+
+    private volatile String familyKey;
+
     private TaskInfo taskInfo;
 
 	// Default to no progress.
@@ -387,6 +391,43 @@ public class JobInfo extends JobTreeElement {
         this.blockedStatus = blockedStatus;
     }
 
+    /**
+	 * Returns the JobFamilyInfo the receiver is aggregated into.
+	 *
+	 * @return JobFamilyInfo or <code>null</code>.
+	 */
+    JobFamilyInfo getFamilyInfo() {
+        return familyInfo;
+    }
+
+    /**
+	 * Sets the JobFamilyInfo the receiver is aggregated into.
+	 *
+	 * @param family
+	 */
+    void setFamilyInfo(JobFamilyInfo family) {
+        familyInfo = family;
+    }
+
+    /**
+	 * Returns the key of the family the receiver was added to when its job was
+	 * scheduled.
+	 *
+	 * @return String or <code>null</code>.
+	 */
+    String getFamilyKey() {
+        return familyKey;
+    }
+
+    /**
+	 * Sets the key of the family the receiver was added to.
+	 *
+	 * @param key
+	 */
+    void setFamilyKey(String key) {
+        familyKey = key;
+    }
+
     /**
 	 * Sets the GroupInfo to be the group.
 	 *
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2016 IBM Corporation and others.
+ * Copyright (c) 2003, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -52,9 +52,11 @@ import org.eclipse.core.runtime.jobs.ProgressProvider;
 import org.eclipse.jface.dialogs.Dialog;
 import org.eclipse.jface.operation.IRunnableContext;
 import org.eclipse.jface.operation.IRunnableWithProgress;
+import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.resource.ImageRegistry;
 import org.eclipse.jface.resource.JFaceResources;
+import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.swt.custom.BusyIndicator;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.ImageData;
@@ -133,6 +135,21 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 
 	final ConcurrentMap<Job, JobMonitor> runnableMonitors = new ConcurrentHashMap<>();
 
+	/**
+	 * The families of the scheduled jobs, keyed by
+	 * {@link JobFamilyInfo#getFamilyKey(Job)}. Only used if job family
+	 * aggregation is enabled.
+	 */
+	private final ConcurrentMap<String, JobFamilyInfo> jobFamilies = new ConcurrentHashMap<>();
+
+	/**
+	 * The value of the job family aggregation threshold preference, kept
+	 * current by {@link #preferenceListener}.
+	 */
+	private volatile int familyAggregationThreshold;
+
+	private final IPropertyChangeListener preferenceListener;
+
 	// A table that maps families to keys in the Jface image table
 	private Hashtable<Object, String> imageKeyTable = new Hashtable<>();
 
@@ -145,7 +162,8 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 	/**
 	 * Lock object for synchronizing updates of {@code pendingJobUpdates},
 	 * {@code pendingGroupUpdates}, {@code pendingJobRemoval},
-	 * {@code pendingGroupRemoval} and {@code pendingJobAddition}.
+	 * {@code pendingGroupRemoval}, {@code pendingJobAddition} and
+	 * {@code pendingRefreshAll}.
 	 */
 	private final Object pendingUpdatesMutex = new Object();
 
@@ -174,6 +192,11 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 	 */
 	private Map<JobInfo, Set<IJobProgressManagerListener>> pendingJobAddition = new LinkedHashMap<>();
 
+	/**
+	 * Modification guarded by {@link #pendingUpdatesMutex}.
+	 */
+	private boolean pendingRefreshAll;
+
 	private static final String IMAGE_KEY = "org.eclipse.ui.progress.images"; //$NON-NLS-1$
 
 	private final Throttler uiRefreshThrottler;
@@ -348,6 +371,15 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 		Job.getJobManager().addJobChangeListener(this.changeListener);
 		StatusManager.getManager().addListener(notificationListener);
 
+		IPreferenceStore store = WorkbenchPlugin.getDefault().getPreferenceStore();
+		familyAggregationThreshold = store.getInt(IPreferenceConstants.PROGRESS_FAMILY_AGGREGATION_THRESHOLD);
+		preferenceListener = event -> {
+			if (IPreferenceConstants.PROGRESS_FAMILY_AGGREGATION_THRESHOLD.equals(event.getProperty())) {
+				familyAggregationThreshold = store.getInt(IPreferenceConstants.PROGRESS_FAMILY_AGGREGATION_THRESHOLD);
+			}
+		};
+		store.addPropertyChangeListener(preferenceListener);
+
 		uiRefreshThrottler = new Throttler(Display.getDefault(), Duration.ofMillis(100), this::notifyListeners);
 	}
 
@@ -355,6 +387,7 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 		Set<GroupInfo> localPendingGroupUpdates, localPendingGroupRemoval;
 		Map<JobInfo, Set<IJobProgressManagerListener>> localPendingJobUpdates, localPendingJobAddition,
 				localPendingJobRemoval;
+		boolean localPendingRefreshAll;
 		synchronized (pendingUpdatesMutex) {
 			localPendingJobUpdates = pendingJobUpdates;
 			pendingJobUpdates = new LinkedHashMap<>();
@@ -366,6 +399,8 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 			pendingGroupRemoval = new LinkedHashSet<>();
 			localPendingJobAddition = pendingJobAddition;
 			pendingJobAddition = new LinkedHashMap<>();
+			localPendingRefreshAll = pendingRefreshAll;
+			pendingRefreshAll = false;
 		}
 
 		localPendingJobAddition.entrySet().forEach(e -> e.getValue().forEach(listener -> listener.addJob(e.getKey())));
@@ -387,6 +422,10 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 		localPendingGroupRemoval.forEach(group -> {
 			listeners.forEach(listener -> listener.removeGroup(group));
 		});
+
+		if (localPendingRefreshAll) {
+			listeners.forEach(IJobProgressManagerListener::refreshAll);
+		}
 	}
 
 	private void setUpImages() {
@@ -663,8 +702,19 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 	public void removeJobInfo(JobInfo info) {
 		Job job = info.getJob();
 		managedJobs.remove(job);
+		removeFromJobFamily(info);
 		synchronized (pendingUpdatesMutex) {
-			rememberListenersForJob(info, pendingJobRemoval);
+			// A job that was added and removed again within the same update
+			// window has never been shown; drop all of its pending
+			// notifications instead of adding, refreshing and removing it.
+			// Jobs kept in the finished jobs list still need every event.
+			boolean keep = FinishedJobs.keep(info);
+			if (!keep && pendingJobUpdates.remove(info) != null && info.getGroupInfo() != null) {
+				pendingGroupUpdates.add(info.getGroupInfo());
+			}
+			if (keep || pendingJobAddition.remove(info) == null) {
+				rememberListenersForJob(info, pendingJobRemoval);
+			}
 		}
 		runnableMonitors.remove(job);
 		uiRefreshThrottler.throttledExec();
@@ -692,6 +742,8 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 		GroupInfo group = info.getGroupInfo();
 		if (group != null) {
 			refreshGroup(group);
+		} else {
+			addToJobFamily(info);
 		}
 
 		managedJobs.add(info.getJob());
@@ -701,6 +753,62 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 		uiRefreshThrottler.throttledExec();
 	}
 
+	/**
+	 * Adds the job to its family if job family aggregation is enabled. The
+	 * listeners are refreshed once the family starts to be shown as one
+	 * element.
+	 *
+	 * @param info
+	 */
+	private void addToJobFamily(JobInfo info) {
+		int threshold = familyAggregationThreshold;
+		if (threshold <= 0) {
+			return;
+		}
+		Job job = info.getJob();
+		String familyKey = JobFamilyInfo.getFamilyKey(job);
+		info.setFamilyKey(familyKey);
+		boolean[] aggregated = new boolean[1];
+		jobFamilies.compute(familyKey, (key, family) -> {
+			JobFamilyInfo result = family == null ? new JobFamilyInfo(job) : family;
+			aggregated[0] = result.jobScheduled(info, threshold);
+			return result;
+		});
+		if (aggregated[0]) {
+			refreshAllListeners();
+		}
+	}
+
+	/**
+	 * Removes the job from the family it was added to. The job name may have
+	 * changed in the meantime, so the key is not computed again. The listeners
+	 * are refreshed once the family is no longer shown as one element.
+	 *
+	 * @param info
+	 */
+	private void removeFromJobFamily(JobInfo info) {
+		String familyKey = info.getFamilyKey();
+		if (familyKey == null) {
+			return;
+		}
+		info.setFamilyKey(null);
+		boolean[] separated = new boolean[1];
+		jobFamilies.computeIfPresent(familyKey, (key, family) -> {
+			separated[0] = family.jobDone(info);
+			return family.isEmpty() ? null : family;
+		});
+		if (separated[0]) {
+			refreshAllListeners();
+		}
+	}
+
+	private void refreshAllListeners() {
+		synchronized (pendingUpdatesMutex) {
+			pendingRefreshAll = true;
+		}
+		uiRefreshThrottler.throttledExec();
+	}
+
 	private void rememberListenersForJob(JobInfo info, Map<JobInfo, Set<IJobProgressManagerListener>> listenersMap) {
 		Set<IJobProgressManagerListener> localListeners = listenersMap.computeIfAbsent(info,
 				k -> new LinkedHashSet<>());
@@ -759,6 +867,10 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 			JobInfo jobInfo = progressFor(job).getJobInfo();
 			GroupInfo group = jobInfo.getGroupInfo();
 			if (group == null) {
+				JobFamilyInfo family = jobInfo.getFamilyInfo();
+				if (family != null && family.isAggregated()) {
+					return family;
+				}
 				return jobInfo;
 			}
 			return group;
@@ -881,6 +993,7 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 	 */
 	private void shutdown() {
 		listeners.clear();
+		WorkbenchPlugin.getDefault().getPreferenceStore().removePropertyChangeListener(preferenceListener);
 		Job.getJobManager().setProgressProvider(null);
 		Job.getJobManager().removeJobChangeListener(this.changeListener);
 	}
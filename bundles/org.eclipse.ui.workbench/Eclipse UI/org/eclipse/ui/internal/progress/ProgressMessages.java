@@ -30,6 +30,7 @@ public class ProgressMessages extends NLS {
 	public static String JobInfo_Blocked;
 	public static String JobInfo_Finished;
 	public static String JobInfo_FinishedAt;
+	public static String JobFamilyInfo_Summary;
 	public static String JobErrorDialog_CloseDialogMessage;
 	public static String InternalError;
 	public static String DeferredTreeContentManager_NotDeferred;
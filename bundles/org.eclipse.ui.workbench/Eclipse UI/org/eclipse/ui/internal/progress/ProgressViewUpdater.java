@@ -89,48 +89,45 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
             updateAll = false;
         }
 
+        /**
+         * Compact the pending updates in place: finished additions that are
+         * deleted again are not added and refreshes of elements that are
+         * added, deleted or finished are dropped.
+         */
         void processForUpdate() {
-            HashSet staleAdditions = new HashSet();
-
             Iterator additionsIterator = additions.iterator();
             while (additionsIterator.hasNext()) {
                 JobTreeElement treeElement = (JobTreeElement) additionsIterator
                         .next();
-                if (!treeElement.isActive()) {
-                    if (deletions.contains(treeElement)) {
-						staleAdditions.add(treeElement);
-					}
+                if (!treeElement.isActive() && deletions.contains(treeElement)) {
+                    additionsIterator.remove();
                 }
             }
 
-            additions.removeAll(staleAdditions);
-
-            HashSet obsoleteRefresh = new HashSet();
             Iterator refreshIterator = refreshes.iterator();
             while (refreshIterator.hasNext()) {
                 JobTreeElement treeElement = (JobTreeElement) refreshIterator
                         .next();
-                if (deletions.contains(treeElement)
-                        || additions.contains(treeElement)) {
-					obsoleteRefresh.add(treeElement);
-				}
+                boolean obsolete = deletions.contains(treeElement)
+                        || additions.contains(treeElement);
 
                 //Also check for groups that are being added
-               Object parent = treeElement.getParent();
-               if(parent != null && (deletions.contains(parent)
-                       || additions.contains(parent))){
-            	   obsoleteRefresh.add(treeElement);
-               }
+                Object parent = treeElement.getParent();
+                if (parent != null && (deletions.contains(parent)
+                        || additions.contains(parent))) {
+                    obsolete = true;
+                }
 
                 if (!treeElement.isActive()) {
                     //If it is done then delete it
-                    obsoleteRefresh.add(treeElement);
+                    obsolete = true;
                     deletions.add(treeElement);
                 }
-            }
-
-            refreshes.removeAll(obsoleteRefresh);
 
+                if (obsolete) {
+                    refreshIterator.remove();
+                }
+            }
         }
     }
 
@@ -274,7 +271,12 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 
     @Override
 	public void refreshJobInfo(JobInfo info) {
-		currentInfo.refresh(info);
+		JobFamilyInfo family = info.getFamilyInfo();
+		if (family == null) {
+			currentInfo.refresh(info);
+		} else {
+			currentInfo.refresh(family);
+		}
         //Add in a 100ms delay so as to keep priority low
 		throttledUpdate.throttledExec();
 
@@ -311,7 +313,12 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 		GroupInfo group = info.getGroupInfo();
 
 		if (group == null) {
-			currentInfo.add(info);
+			JobFamilyInfo family = info.getFamilyInfo();
+			if (family == null) {
+				currentInfo.add(info);
+			} else {
+				currentInfo.refresh(family);
+			}
 		} else {
 			currentInfo.refresh(group);
         }
@@ -324,6 +331,10 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 		GroupInfo group = info.getGroupInfo();
 		if (group == null) {
 			currentInfo.remove(info);
+			JobFamilyInfo family = info.getFamilyInfo();
+			if (family != null) {
+				currentInfo.refresh(family);
+			}
 		} else {
 			currentInfo.refresh(group);
         }
@@ -115,9 +115,7 @@ public class ProgressViewerContentProvider extends ProgressContentProvider {
 
 	@Override
 	public void refresh(Object[] elements) {
-		for (Object refresh : getRoots(elements, true)) {
-			progressViewer.refresh(refresh, true);
-		}
+		progressViewer.refresh(getRoots(elements, true));
 	}
 
 	@Override
@@ -169,6 +167,9 @@ public class ProgressViewerContentProvider extends ProgressContentProvider {
 			JobTreeElement jobTreeElement = (JobTreeElement) element;
 			if (jobTreeElement.isJobInfo()) {
 				GroupInfo group = ((JobInfo) jobTreeElement).getGroupInfo();
+				if (group == null) {
+					group = ((JobInfo) jobTreeElement).getFamilyInfo();
+				}
 				if (group == null) {
 					roots.add(jobTreeElement);
 				} else {
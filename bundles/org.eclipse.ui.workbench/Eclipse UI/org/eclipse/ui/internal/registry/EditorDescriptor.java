@@ -622,5 +622,19 @@ public final class EditorDescriptor implements IEditorDescriptor, Serializable,
         return matchingStrategy;
     }
 
+	/**
+	 * Returns whether this editor declares a matching strategy, without
+	 * creating the strategy.
+	 *
+	 * @return <code>true</code> if the editor may have a matching strategy
+	 * @since 3.110
+	 */
+	public boolean hasEditorMatchingStrategy() {
+		if (matchingStrategy != null) {
+			return true;
+		}
+		return !matchingStrategyChecked && program == null && configurationElement != null
+				&& configurationElement.getAttribute(IWorkbenchRegistryConstants.ATT_MATCHING_STRATEGY) != null;
+	}
 
 }
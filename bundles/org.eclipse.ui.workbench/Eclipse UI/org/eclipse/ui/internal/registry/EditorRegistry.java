@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -30,12 +30,17 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.core.commands.common.EventManager;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtension;
@@ -64,6 +69,7 @@ import org.eclipse.ui.ISharedImages;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.WorkbenchException;
 import org.eclipse.ui.XMLMemento;
+import org.eclipse.ui.activities.IWorkbenchActivitySupport;
 import org.eclipse.ui.activities.WorkbenchActivityHelper;
 import org.eclipse.ui.internal.IPreferenceConstants;
 import org.eclipse.ui.internal.IWorkbenchConstants;
@@ -84,6 +90,68 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 
 	private final static IEditorDescriptor [] EMPTY = new IEditorDescriptor[0];
 
+	/**
+	 * Stands for a <code>null</code> result in the resolution cache.
+	 */
+	private static final Object NONE = new Object();
+
+	/**
+	 * The number of resolutions cached before the least recently used ones are
+	 * evicted. Most names are resolved by extension, but names with their own
+	 * mappings are unbounded, so the cache must not grow with every name ever
+	 * resolved.
+	 */
+	private static final int MAX_CACHED_RESOLUTIONS = 1000;
+
+	/**
+	 * The key of a resolution cached in {@link EditorRegistry#resolutionCache}.
+	 * File names without mappings or content types of their own are resolved
+	 * by their extension only, so they share one key.
+	 */
+	private static final class ResolutionKey {
+		static final int CONTENT_TYPE = 0;
+
+		static final int EDITORS = 1;
+
+		static final int DEFAULT_EDITOR = 2;
+
+		static final int IMAGE = 3;
+
+		private final int kind;
+
+		/**
+		 * The file name, or its extension if {@link #byExtension} is set.
+		 */
+		private final String name;
+
+		private final boolean byExtension;
+
+		private final IContentType contentType;
+
+		ResolutionKey(int kind, String name, boolean byExtension, IContentType contentType) {
+			this.kind = kind;
+			this.name = name;
+			this.byExtension = byExtension;
+			this.contentType = contentType;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ResolutionKey)) {
+				return false;
+			}
+			ResolutionKey other = (ResolutionKey) obj;
+			return kind == other.kind && byExtension == other.byExtension && Objects.equals(name, other.name)
+					&& Objects.equals(contentType, other.contentType);
+		}
+
+		@Override
+		public int hashCode() {
+			return ((kind * 31 + Objects.hashCode(name)) * 31 + Objects.hashCode(contentType)) * 2
+					+ (byExtension ? 1 : 0);
+		}
+	}
+
 	class RelatedRegistry {
 
 		/**
@@ -131,7 +199,30 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 	 * table. It is in fact a superset of the keys one would find in
 	 * typeEditorMappings
 	 */
-	private Map<Object, ImageDescriptor> extensionImages = new HashMap<>();
+	private Map<Object, ImageDescriptor> extensionImages = new ConcurrentHashMap<>();
+
+	/**
+	 * The content types, editors and images resolved for file names, keyed by
+	 * {@link ResolutionKey}. The map is replaced as a whole whenever the
+	 * mappings, the content types or the enabled activities change. Lookups
+	 * store their result in the map they started with, so a result computed
+	 * from an outdated state ends up in a discarded map. The map evicts the
+	 * least recently used entries beyond {@link #MAX_CACHED_RESOLUTIONS}.
+	 */
+	private volatile Map<ResolutionKey, Object> resolutionCache = newResolutionCache();
+
+	/**
+	 * The lower case file names that content types are declared for, or
+	 * <code>null</code> if they have not been collected since the content
+	 * types last changed.
+	 */
+	private volatile Set<String> contentTypeFileNames;
+
+	/**
+	 * Whether the resolution cache is invalidated on activity changes. Until
+	 * then nothing is cached.
+	 */
+	private volatile boolean activityManagerHooked;
 
     /**
      * Vector of EditorDescriptor - all the editors loaded from plugin files.
@@ -186,9 +277,99 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 				contentTypeToEditorMappingsFromUser.remove(event.getContentType());
 				saveAssociations();
 			}
+			clearResolutionCache();
 		});
+		// the registry may be created before the workbench runs, in which
+		// case getResolutionCache hooks the activity manager later
+		if (PlatformUI.isWorkbenchRunning()) {
+			hookActivityManager();
+		}
     }
 
+	/**
+	 * Clears the resolution cache if enabled activities change, since disabled
+	 * editors are filtered from the resolved editors.
+	 *
+	 * @return whether the activity manager is available
+	 */
+	private synchronized boolean hookActivityManager() {
+		if (activityManagerHooked) {
+			return true;
+		}
+		if (!PlatformUI.isWorkbenchRunning()) {
+			return false;
+		}
+		IWorkbenchActivitySupport activitySupport = PlatformUI.getWorkbench().getActivitySupport();
+		if (activitySupport == null) {
+			return false;
+		}
+		activitySupport.getActivityManager().addActivityManagerListener(event -> {
+			if (event.haveEnabledActivityIdsChanged()) {
+				clearResolutionCache();
+			}
+		});
+		activityManagerHooked = true;
+		return true;
+	}
+
+	/**
+	 * Returns the current resolution cache, or <code>null</code> if results
+	 * must not be cached yet.
+	 */
+	private Map<ResolutionKey, Object> getResolutionCache() {
+		if (!activityManagerHooked && !hookActivityManager()) {
+			return null;
+		}
+		return resolutionCache;
+	}
+
+	/**
+	 * Discards all cached resolutions.
+	 */
+	private void clearResolutionCache() {
+		contentTypeFileNames = null;
+		resolutionCache = newResolutionCache();
+	}
+
+	private static Map<ResolutionKey, Object> newResolutionCache() {
+		return Collections.synchronizedMap(new LinkedHashMap<ResolutionKey, Object>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<ResolutionKey, Object> eldest) {
+				return size() > MAX_CACHED_RESOLUTIONS;
+			}
+		});
+	}
+
+	/**
+	 * Returns the key of a resolution for the given file name. The key is the
+	 * extension of the name, unless an editor mapping or a content type is
+	 * declared for the whole name.
+	 */
+	private ResolutionKey resolutionKey(int kind, String fileName, IContentType contentType) {
+		if (fileName == null || getMappingFor(fileName) != null
+				|| getContentTypeFileNames().contains(fileName.toLowerCase())) {
+			return new ResolutionKey(kind, fileName, false, contentType);
+		}
+		int index = fileName.lastIndexOf('.');
+		return new ResolutionKey(kind, index == -1 ? "" : fileName.substring(index), true, contentType); //$NON-NLS-1$
+	}
+
+	private Set<String> getContentTypeFileNames() {
+		Set<String> fileNames = contentTypeFileNames;
+		if (fileNames == null) {
+			fileNames = new HashSet<>();
+			for (IContentType contentType : contentTypeManager.getAllContentTypes()) {
+				for (String fileName : contentType.getFileSpecs(IContentType.FILE_NAME_SPEC)) {
+					fileNames.add(fileName.toLowerCase());
+				}
+			}
+			contentTypeFileNames = fileNames;
+		}
+		return fileNames;
+	}
+
     /**
      * Add an editor for the given extensions with the specified (possibly null)
      * extended type. The editor is being registered from a plugin
@@ -270,6 +451,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 
         // Update editor map.
         mapIDtoEditor.put(editor.getId(), editor);
+        clearResolutionCache();
     }
 
 	public void addContentTypeBindingFromPlugin(IContentType contentType, IEditorDescriptor editor, boolean bDefault) {
@@ -290,6 +472,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 			}
 			contentTypeToEditorMappingsFromPlugins.put(contentType, newArray);
 		}
+		clearResolutionCache();
 	}
 
     /**
@@ -346,6 +529,21 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 
     @Override
 	public IEditorDescriptor getDefaultEditor(String filename) {
+		Map<ResolutionKey, Object> cache = getResolutionCache();
+		ResolutionKey key = cache == null ? null : resolutionKey(ResolutionKey.DEFAULT_EDITOR, filename, null);
+		Object cached = cache == null ? null : cache.get(key);
+		if (cached != null) {
+			return cached == NONE ? null : (IEditorDescriptor) cached;
+		}
+
+		IEditorDescriptor defaultEditor = findDefaultEditor(filename);
+		if (cache != null) {
+			cache.put(key, defaultEditor == null ? NONE : defaultEditor);
+		}
+		return defaultEditor;
+	}
+
+	private IEditorDescriptor findDefaultEditor(String filename) {
 		IEditorDescriptor defaultEditor = getDefaultEditor(filename, guessAtContentType(filename));
 		if (defaultEditor != null) {
 			return defaultEditor;
@@ -369,7 +567,18 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 	 * @since 3.1
 	 */
 	private IContentType guessAtContentType(String filename) {
-		return contentTypeManager.findContentTypeFor(filename);
+		Map<ResolutionKey, Object> cache = getResolutionCache();
+		if (cache == null || filename == null) {
+			return contentTypeManager.findContentTypeFor(filename);
+		}
+		ResolutionKey key = resolutionKey(ResolutionKey.CONTENT_TYPE, filename, null);
+		Object cached = cache.get(key);
+		if (cached == null) {
+			IContentType contentType = contentTypeManager.findContentTypeFor(filename);
+			cached = contentType == null ? NONE : contentType;
+			cache.put(key, cached);
+		}
+		return cached == NONE ? null : (IContentType) cached;
 	}
 
     /**
@@ -555,7 +764,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
      */
     private void initializeFromStorage() {
         typeEditorMappings = new EditorMap();
-        extensionImages = new HashMap<>();
+        extensionImages = new ConcurrentHashMap<>();
 
         //Get editors from the registry
         EditorRegistryReader registryReader = new EditorRegistryReader();
@@ -1073,8 +1282,9 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
         for (FileEditorMapping mapping : newResourceTypes) {
             typeEditorMappings.put(mappingKeyFor(mapping), mapping);
         }
-        extensionImages = new HashMap<>();
+        extensionImages = new ConcurrentHashMap<>();
         rebuildEditorMap();
+        clearResolutionCache();
         firePropertyChange(PROP_CONTENTS);
     }
 
@@ -1092,6 +1302,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 		if (mapping[1] != null) {
 			mapping[1].setDefaultEditor(desc);
 		}
+		clearResolutionCache();
     }
 
     /**
@@ -1271,6 +1482,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
             }
 
         }
+        clearResolutionCache();
     }
 
     /**
@@ -1354,17 +1566,35 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 	 */
 	private IEditorDescriptor getEditorForContentType(String filename,
 			IContentType contentType) {
-		IEditorDescriptor desc = null;
-		Object[] contentTypeResults = findRelatedObjects(contentType, filename, relatedRegistry);
-		if (contentTypeResults != null && contentTypeResults.length > 0) {
-			desc = (IEditorDescriptor) contentTypeResults[0];
-		}
-		return desc;
+		IEditorDescriptor[] contentTypeResults = resolveEditors(filename, contentType);
+		return contentTypeResults.length > 0 ? contentTypeResults[0] : null;
 	}
 
 	@Override
 	public IEditorDescriptor[] getEditors(String fileName, IContentType contentType) {
-		return findRelatedObjects(contentType, fileName, relatedRegistry);
+		IEditorDescriptor[] editors = resolveEditors(fileName, contentType);
+		return editors.length == 0 ? editors : editors.clone();
+	}
+
+	/**
+	 * Returns the editors for a file with the given name and content type.
+	 * The returned array is shared and must not be modified.
+	 */
+	private IEditorDescriptor[] resolveEditors(String fileName, IContentType contentType) {
+		Map<ResolutionKey, Object> cache = getResolutionCache();
+		if (cache == null) {
+			return findRelatedObjects(contentType, fileName, relatedRegistry);
+		}
+		ResolutionKey key = resolutionKey(ResolutionKey.EDITORS, fileName, contentType);
+		IEditorDescriptor[] editors = (IEditorDescriptor[]) cache.get(key);
+		if (editors == null) {
+			editors = findRelatedObjects(contentType, fileName, relatedRegistry);
+			if (editors.length == 0) {
+				editors = EMPTY;
+			}
+			cache.put(key, editors);
+		}
+		return editors;
 	}
 
 	@Override
@@ -1373,6 +1603,24 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 			return getDefaultImage();
 		}
 
+		Map<ResolutionKey, Object> cache = getResolutionCache();
+		if (cache == null) {
+			return findImageDescriptor(filename, contentType);
+		}
+		ResolutionKey key = resolutionKey(ResolutionKey.IMAGE, filename, contentType);
+		ImageDescriptor image = (ImageDescriptor) cache.get(key);
+		if (image == null) {
+			image = findImageDescriptor(filename, contentType);
+			// the cache is cleared when editors are added or removed, so
+			// images of external editors can be cached as well
+			if (image != null) {
+				cache.put(key, image);
+			}
+		}
+		return image;
+	}
+
+	private ImageDescriptor findImageDescriptor(String filename, IContentType contentType) {
 		if (contentType != null) {
 			IEditorDescriptor desc = getEditorForContentType(filename, contentType);
 			if (desc != null) {
@@ -1381,7 +1629,9 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 					return anImage;
 				}
 				anImage = desc.getImageDescriptor();
-				extensionImages.put(desc, anImage);
+				if (anImage != null) {
+					extensionImages.put(desc, anImage);
+				}
 				return anImage;
 			}
 		}
@@ -1406,7 +1656,9 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
                 IEditorDescriptor editor = mapping[i].getDefaultEditor();
                 if (editor != null) {
                     mappingImage = editor.getImageDescriptor();
-                    extensionImages.put(mappingKey, mappingImage);
+                    if (mappingImage != null) {
+                        extensionImages.put(mappingKey, mappingImage);
+                    }
                     return mappingImage;
                 }
             }
@@ -1634,6 +1886,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 		if (this.contentTypeToEditorMappingsFromUser.containsKey(contentType)) {
 			this.contentTypeToEditorMappingsFromUser.get(contentType).remove(editor);
 		}
+		clearResolutionCache();
 		saveAssociations();
 	}
 
@@ -1649,6 +1902,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 			mapIDtoEditor.put(selectedEditor.getId(), selectedEditor);
 		}
 		this.contentTypeToEditorMappingsFromUser.get(contentType).add(selectedEditor);
+		clearResolutionCache();
 		saveAssociations();
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 IBM Corporation and others.
+ * Copyright (c) 2004, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,6 +11,7 @@
 package org.eclipse.ui.internal.themes;
 
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import org.eclipse.jface.resource.ColorRegistry;
 import org.eclipse.jface.util.IPropertyChangeListener;
@@ -31,10 +32,16 @@ public class CascadingColorRegistry extends ColorRegistry {
 		// then a change in our parent registry shouldn't cause a change in
 		// us. Without this check we will propagate a new value
 		// (event.getNewValue()) to our listeners despite the fact that this
-		// value is NOT our current value.
-		if (!hasOverrideFor(event.getProperty()))
-			fireMappingChanged(event.getProperty(), event.getOldValue(),
-					event.getNewValue());
+		// value is NOT our current value. All keys that the parent changed
+		// together are passed on together.
+		Map<?, ?> oldValues = (Map<?, ?>) event.getOldValue();
+		Map<?, ?> newValues = (Map<?, ?>) event.getNewValue();
+		runBatch(() -> {
+			for (Object key : newValues.keySet()) {
+				if (!hasOverrideFor((String) key))
+					fireMappingChanged((String) key, oldValues.get(key), newValues.get(key));
+			}
+		});
 	};
 
     /**
@@ -45,7 +52,7 @@ public class CascadingColorRegistry extends ColorRegistry {
     public CascadingColorRegistry(ColorRegistry parent) {
     	super(Display.getCurrent(), false);
         this.parent = parent;
-        parent.addListener(listener);
+        parent.addBatchListener(listener);
     }
 
     @Override
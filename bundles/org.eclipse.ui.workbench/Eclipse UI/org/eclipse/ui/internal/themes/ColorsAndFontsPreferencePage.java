@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2016 IBM Corporation and others.
+ * Copyright (c) 2003, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -341,8 +341,10 @@ public final class ColorsAndFontsPreferencePage extends PreferencePage
 
         private int usableImageSize = -1;
 
+        // notified once for all values that changed together, e.g. by a
+        // theme switch
         private IPropertyChangeListener listener = event -> {
-			if (event.getNewValue() != null) {
+			if (!((Map<?, ?>) event.getNewValue()).containsValue(null)) {
 				fireLabelProviderChanged(new LabelProviderChangedEvent(
 						PresentationLabelProvider.this));
 			} else {
@@ -362,8 +364,8 @@ public final class ColorsAndFontsPreferencePage extends PreferencePage
          * Hook the listeners onto the various registries.
          */
         public void hookListeners() {
-            colorRegistry.addListener(listener);
-            fontRegistry.addListener(listener);
+            colorRegistry.addBatchListener(listener);
+            fontRegistry.addBatchListener(listener);
         }
 
         @Override
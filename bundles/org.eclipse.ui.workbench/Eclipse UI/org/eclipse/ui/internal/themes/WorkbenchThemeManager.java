@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2016 IBM Corporation and others.
+ * Copyright (c) 2004, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -27,6 +27,7 @@ import org.eclipse.jface.preference.PreferenceConverter;
 import org.eclipse.jface.resource.ColorRegistry;
 import org.eclipse.jface.resource.FontRegistry;
 import org.eclipse.jface.resource.JFaceResources;
+import org.eclipse.jface.resource.ResourceRegistry;
 import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.swt.SWT;
@@ -345,23 +346,22 @@ public class WorkbenchThemeManager extends EventManager implements
 				PrefUtil.saveAPIPrefs();
 			}
 
-			// update the jface registries
-			{
-				ColorRegistry jfaceColors = JFaceResources.getColorRegistry();
+			// update the jface registries, their listeners are notified once
+			// all values of the new theme are in place
+			ColorRegistry jfaceColors = JFaceResources.getColorRegistry();
+			FontRegistry jfaceFonts = JFaceResources.getFontRegistry();
+			runBatch(() -> {
 				ColorRegistry themeColors = currentTheme.getColorRegistry();
 				for (Object themeColorKey : themeColors.getKeySet()) {
 					String key = (String) themeColorKey;
 					jfaceColors.put(key, themeColors.getRGB(key));
 				}
-			}
-			{
-				FontRegistry jfaceFonts = JFaceResources.getFontRegistry();
 				FontRegistry themeFonts = currentTheme.getFontRegistry();
 				for (Object themeFontKey : themeFonts.getKeySet()) {
 					String key = (String) themeFontKey;
 					jfaceFonts.put(key, themeFonts.getFontData(key));
 				}
-			}
+			}, jfaceColors, jfaceFonts);
 			{
 				if (oldTheme != null && eventBroker != null) {
 					eventBroker.send(UIEvents.UILifeCycle.THEME_CHANGED, null);
@@ -372,6 +372,27 @@ public class WorkbenchThemeManager extends EventManager implements
 		}
 	}
 
+	/**
+	 * Runs the given changes as a batch of all given registries, see
+	 * {@link ResourceRegistry#runBatch(Runnable)}. The listeners of the
+	 * registries that come first are notified first, so changes that they
+	 * forward to the registries that come later are part of the batch of those
+	 * registries.
+	 *
+	 * @param changes
+	 *            the changes to run
+	 * @param registries
+	 *            the registries that are changed
+	 */
+	static void runBatch(Runnable changes, ResourceRegistry... registries) {
+		Runnable batch = changes;
+		for (ResourceRegistry registry : registries) {
+			Runnable inner = batch;
+			batch = () -> registry.runBatch(inner);
+		}
+		batch.run();
+	}
+
 	public static class WorkbenchThemeChangedHandler implements EventHandler {
 		@Override
 		public void handleEvent(org.osgi.service.event.Event event) {
@@ -380,10 +401,15 @@ public class WorkbenchThemeManager extends EventManager implements
 			FontRegistry fontRegistry = getFontRegistry();
 			ColorRegistry colorRegistry = getColorRegistry();
 
-			resetThemeRegistries(themeRegistry, fontRegistry, colorRegistry);
-			overrideAlreadyExistingDefinitions(event, engine, themeRegistry, fontRegistry,
-					colorRegistry);
-			addNewDefinitions(event, engine, themeRegistry, fontRegistry, colorRegistry);
+			// definitions are reset before they are styled again, so the
+			// listeners are only notified of the values that really changed
+			runBatch(() -> {
+				resetThemeRegistries(themeRegistry, fontRegistry, colorRegistry);
+				overrideAlreadyExistingDefinitions(event, engine, themeRegistry, fontRegistry,
+						colorRegistry);
+				addNewDefinitions(event, engine, themeRegistry, fontRegistry, colorRegistry);
+			}, fontRegistry, colorRegistry, JFaceResources.getFontRegistry(),
+					JFaceResources.getColorRegistry());
 
 			sendThemeRegistryRestyledEvent();
 		}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2016 IBM Corporation and others. All rights reserved. This
+ * Copyright (c) 2008, 2018 IBM Corporation and others. All rights reserved. This
  * program and the accompanying materials are made available under the terms of
  * the Eclipse Public License v1.0 which accompanies this distribution, and is
  * available at http://www.eclipse.org/legal/epl-v10.html
@@ -46,6 +46,7 @@ import org.eclipse.e4.ui.tests.css.swt.ShellTest;
 import org.eclipse.e4.ui.tests.css.swt.StyledTextScrollbarTest;
 import org.eclipse.e4.ui.tests.css.swt.TableTest;
 import org.eclipse.e4.ui.tests.css.swt.TextTextTransformTest;
+import org.eclipse.e4.ui.tests.css.swt.ThemeEngineTest;
 import org.eclipse.e4.ui.tests.css.swt.ThemeTest;
 import org.eclipse.e4.ui.tests.css.swt.ThemesExtensionTest;
 import org.eclipse.e4.ui.tests.css.swt.TreeTest;
@@ -83,6 +84,7 @@ import org.junit.runners.Suite;
 	TextTextTransformTest.class,
 	DescendentTest.class,
 	ThemeTest.class,
+	ThemeEngineTest.class,
 	Bug459961Test.class,
 	Bug419482Test.class,
 	ShellActiveTest.class,
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.tests.css.swt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.eclipse.e4.ui.css.core.engine.CSSEngine;
+import org.eclipse.e4.ui.css.swt.engine.CSSSWTEngineImpl;
+import org.eclipse.e4.ui.css.swt.internal.theme.ThemeEngine;
+import org.eclipse.e4.ui.css.swt.theme.ITheme;
+import org.eclipse.swt.widgets.Display;
+import org.junit.Test;
+import org.w3c.dom.stylesheets.StyleSheet;
+import org.w3c.dom.stylesheets.StyleSheetList;
+
+public class ThemeEngineTest {
+
+	@Test
+	public void testStyleSheetsAreParsedOnce() throws IOException {
+		Display display = Display.getDefault();
+		File file = File.createTempFile("theme", ".css");
+		file.deleteOnExit();
+		Files.write(file.toPath(), "Label { color: red; }".getBytes(StandardCharsets.UTF_8));
+
+		ThemeEngine themer = new ThemeEngine(display);
+		CSSEngine engine1 = new CSSSWTEngineImpl(display);
+		CSSEngine engine2 = new CSSSWTEngineImpl(display);
+		try {
+			themer.addCSSEngine(engine1);
+			themer.addCSSEngine(engine2);
+			ITheme theme = themer.registerTheme("shared", "Shared", file.toURI().toString());
+
+			themer.setTheme(theme, false);
+			StyleSheet styleSheet = getStyleSheet(engine1);
+			assertSame(styleSheet, getStyleSheet(engine2));
+
+			// switching to the same unchanged theme reuses the parsed style sheet
+			themer.setTheme(theme, false, true);
+			assertSame(styleSheet, getStyleSheet(engine1));
+			assertSame(styleSheet, getStyleSheet(engine2));
+
+			// a changed style sheet is parsed again
+			Files.write(file.toPath(), "Label { color: blue; }".getBytes(StandardCharsets.UTF_8));
+			themer.setTheme(theme, false, true);
+			assertNotSame(styleSheet, getStyleSheet(engine1));
+			assertSame(getStyleSheet(engine1), getStyleSheet(engine2));
+		} finally {
+			engine1.dispose();
+			engine2.dispose();
+		}
+	}
+
+	private StyleSheet getStyleSheet(CSSEngine engine) {
+		StyleSheetList styleSheets = engine.getDocumentCSS().getStyleSheets();
+		assertEquals(1, styleSheets.getLength());
+		return styleSheets.item(0);
+	}
+}
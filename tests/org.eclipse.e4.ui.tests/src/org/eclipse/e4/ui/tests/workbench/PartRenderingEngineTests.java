@@ -45,6 +45,7 @@ import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
 import org.eclipse.e4.ui.model.application.ui.menu.MToolBar;
 import org.eclipse.e4.ui.model.application.ui.menu.MToolControl;
 import org.eclipse.e4.ui.workbench.IPresentationEngine;
+import org.eclipse.e4.ui.workbench.UIEvents;
 import org.eclipse.e4.ui.workbench.addons.cleanupaddon.CleanupAddon;
 import org.eclipse.e4.ui.workbench.modeling.EModelService;
 import org.eclipse.e4.ui.workbench.modeling.EPartService;
@@ -3504,4 +3505,81 @@ public class PartRenderingEngineTests {
 		modelService.removePerspectiveModel(perspectiveB, window);
 		assertNull(part.getCurSharedRef());
 	}
+
+	private MPartStack createHiddenStack(MPartSashContainer sash, String partId) {
+		MPartStack stack = ems.createModelElement(MPartStack.class);
+		stack.setVisible(false);
+		sash.getChildren().add(stack);
+		MPart part = ems.createModelElement(MPart.class);
+		part.setElementId(partId);
+		part.setContributionURI("bundleclass://org.eclipse.e4.ui.tests/org.eclipse.e4.ui.tests.workbench.SampleView");
+		stack.getChildren().add(part);
+		stack.setSelectedElement(part);
+		return stack;
+	}
+
+	@Test
+	public void testDeferredRendering_OrderOfCreation() {
+		appContext.set(E4Workbench.DEFERRED_RENDERING, Boolean.TRUE);
+		MWindow window = createWindowWithOneView("Part Name");
+		MPartSashContainer sash = (MPartSashContainer) window.getChildren().get(0);
+		MPartStack stackB = createHiddenStack(sash, "partB");
+		MPartStack stackC = createHiddenStack(sash, "partC");
+
+		MApplication application = ems.createModelElement(MApplication.class);
+		application.getChildren().add(window);
+		application.setContext(appContext);
+		appContext.set(MApplication.class, application);
+
+		wb = new E4Workbench(application, appContext);
+		wb.createAndRunUI(window);
+
+		assertNotNull(sash.getChildren().get(0).getWidget());
+		assertNull(stackB.getWidget());
+		assertNull(stackC.getWidget());
+
+		// the stack hosting the most recently activated part comes first
+		UIEvents.publishEvent(UIEvents.UILifeCycle.ACTIVATE, stackC.getChildren().get(0));
+
+		PartRenderingEngine engine = (PartRenderingEngine) appContext.get(IPresentationEngine.class);
+		assertTrue(engine.createNextDeferredElement());
+		assertNotNull(stackC.getWidget());
+		assertNull(stackB.getWidget());
+
+		assertTrue(engine.createNextDeferredElement());
+		assertNotNull(stackB.getWidget());
+
+		assertFalse(engine.createNextDeferredElement());
+	}
+
+	@Test
+	public void testDeferredRendering_CreatedOnAccess() {
+		appContext.set(E4Workbench.DEFERRED_RENDERING, Boolean.TRUE);
+		MWindow window = createWindowWithOneView("Part Name");
+		MPartSashContainer sash = (MPartSashContainer) window.getChildren().get(0);
+		MPartStack stackB = createHiddenStack(sash, "partB");
+		MPartStack stackC = createHiddenStack(sash, "partC");
+
+		MApplication application = ems.createModelElement(MApplication.class);
+		application.getChildren().add(window);
+		application.setContext(appContext);
+		appContext.set(MApplication.class, application);
+
+		wb = new E4Workbench(application, appContext);
+		wb.createAndRunUI(window);
+
+		assertNull(stackB.getWidget());
+		assertNull(stackC.getWidget());
+
+		// an explicit request creates the element right away
+		IPresentationEngine engine = appContext.get(IPresentationEngine.class);
+		engine.createGui(stackB);
+		assertNotNull(stackB.getWidget());
+
+		// so does showing it
+		stackC.setVisible(true);
+		assertNotNull(stackC.getWidget());
+
+		assertFalse(((PartRenderingEngine) engine).createNextDeferredElement());
+	}
 }
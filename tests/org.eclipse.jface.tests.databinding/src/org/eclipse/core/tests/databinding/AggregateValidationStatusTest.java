@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,8 +13,19 @@ package org.eclipse.core.tests.databinding;
 
 import org.eclipse.core.databinding.AggregateValidationStatus;
 import org.eclipse.core.databinding.DataBindingContext;
+import org.eclipse.core.databinding.ValidationStatusProvider;
+import org.eclipse.core.databinding.observable.Observables;
 import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.core.databinding.validation.ValidationStatus;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.databinding.conformance.util.ChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.StaleEventTracker;
 import org.eclipse.jface.tests.databinding.AbstractSWTTestCase;
 
 /**
@@ -34,4 +45,141 @@ public class AggregateValidationStatusTest extends AbstractSWTTestCase {
 				.getBindings(), AggregateValidationStatus.MAX_SEVERITY);
 		assertEquals(Realm.getDefault(), status.getRealm());
 	}
+
+	public void testMaxSeverity_TracksStatusChanges() throws Exception {
+		DataBindingContext dbc = new DataBindingContext();
+		StatusProvider first = new StatusProvider();
+		StatusProvider second = new StatusProvider();
+		dbc.addValidationStatusProvider(first);
+		dbc.addValidationStatusProvider(second);
+		AggregateValidationStatus status = new AggregateValidationStatus(dbc,
+				AggregateValidationStatus.MAX_SEVERITY);
+		ChangeEventTracker.observe(status);
+		assertTrue(((IStatus) status.getValue()).isOK());
+
+		IStatus warning = ValidationStatus.warning("warning");
+		second.status.setValue(warning);
+		assertSame(warning, status.getValue());
+
+		IStatus error = ValidationStatus.error("error");
+		first.status.setValue(error);
+		assertSame(error, status.getValue());
+
+		first.status.setValue(Status.OK_STATUS);
+		assertSame(warning, status.getValue());
+		status.dispose();
+	}
+
+	public void testMaxSeverity_PicksFirstOfSameSeverity() throws Exception {
+		DataBindingContext dbc = new DataBindingContext();
+		StatusProvider first = new StatusProvider();
+		StatusProvider second = new StatusProvider();
+		dbc.addValidationStatusProvider(first);
+		dbc.addValidationStatusProvider(second);
+		AggregateValidationStatus status = new AggregateValidationStatus(dbc,
+				AggregateValidationStatus.MAX_SEVERITY);
+		ChangeEventTracker.observe(status);
+		status.getValue();
+
+		IStatus secondError = ValidationStatus.error("second");
+		second.status.setValue(secondError);
+		IStatus firstError = ValidationStatus.error("first");
+		first.status.setValue(firstError);
+		assertSame(firstError, status.getValue());
+		status.dispose();
+	}
+
+	public void testMerged_TracksProviders() throws Exception {
+		DataBindingContext dbc = new DataBindingContext();
+		StatusProvider first = new StatusProvider();
+		dbc.addValidationStatusProvider(first);
+		AggregateValidationStatus status = new AggregateValidationStatus(dbc,
+				AggregateValidationStatus.MERGED);
+		ChangeEventTracker.observe(status);
+		IStatus firstError = ValidationStatus.error("first");
+		first.status.setValue(firstError);
+		assertSame(firstError, status.getValue());
+
+		StatusProvider second = new StatusProvider();
+		IStatus secondError = ValidationStatus.error("second");
+		second.status.setValue(secondError);
+		dbc.addValidationStatusProvider(second);
+		IStatus merged = (IStatus) status.getValue();
+		assertTrue(merged instanceof MultiStatus);
+		assertEquals(2, merged.getChildren().length);
+		assertSame(firstError, merged.getChildren()[0]);
+		assertSame(secondError, merged.getChildren()[1]);
+
+		dbc.removeValidationStatusProvider(first);
+		assertSame(secondError, status.getValue());
+		status.dispose();
+	}
+
+	public void testLastListenerRemoved_DetachesFromStatuses()
+			throws Exception {
+		DataBindingContext dbc = new DataBindingContext();
+		StatusProvider first = new StatusProvider();
+		dbc.addValidationStatusProvider(first);
+		AggregateValidationStatus status = new AggregateValidationStatus(dbc,
+				AggregateValidationStatus.MERGED);
+		ChangeEventTracker tracker = ChangeEventTracker.observe(status);
+		assertTrue(first.status.hasListeners());
+
+		status.removeChangeListener(tracker);
+		assertFalse(first.status.hasListeners());
+
+		IStatus error = ValidationStatus.error("error");
+		first.status.setValue(error);
+		assertSame(error, status.getValue());
+		status.dispose();
+	}
+
+	public void testProvidersStalenessIsPropagated() throws Exception {
+		WritableList providers = new WritableList();
+		providers.add(new StatusProvider());
+		AggregateValidationStatus status = new AggregateValidationStatus(
+				providers, AggregateValidationStatus.MAX_SEVERITY);
+		ChangeEventTracker.observe(status);
+		StaleEventTracker staleTracker = StaleEventTracker.observe(status);
+		assertFalse(status.isStale());
+
+		providers.setStale(true);
+		assertTrue(status.isStale());
+		assertEquals(1, staleTracker.count);
+
+		providers.setStale(false);
+		assertFalse(status.isStale());
+		status.dispose();
+	}
+
+	private static class ListenedValue extends WritableValue {
+		ListenedValue(Object initialValue, Object valueType) {
+			super(initialValue, valueType);
+		}
+
+		@Override
+		public boolean hasListeners() {
+			return super.hasListeners();
+		}
+	}
+
+	private static class StatusProvider extends ValidationStatusProvider {
+		final ListenedValue status = new ListenedValue(Status.OK_STATUS,
+				IStatus.class);
+
+		@Override
+		public IObservableValue getValidationStatus() {
+			return status;
+		}
+
+		@Override
+		public IObservableList getTargets() {
+			return Observables.emptyObservableList();
+		}
+
+		@Override
+		public IObservableList getModels() {
+			return Observables.emptyObservableList();
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2014 Matthew Hall and others.
+ * Copyright (c) 2009, 2018 Matthew Hall and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -53,4 +53,109 @@ public class BeanPropertyHelperTest extends TestCase {
 				pd.getWriteMethod());
 	}
 
+	public void testReadProperty() {
+		PropertyDescriptor pd = BeanPropertyHelper.getPropertyDescriptor(
+				Bean.class, "value");
+		assertEquals("x", BeanPropertyHelper.readProperty(new Bean("x"), pd));
+	}
+
+	public void testWriteProperty() {
+		PropertyDescriptor pd = BeanPropertyHelper.getPropertyDescriptor(
+				Bean.class, "value");
+		Bean bean = new Bean("x");
+		BeanPropertyHelper.writeProperty(bean, pd, "y");
+		assertEquals("y", bean.getValue());
+		BeanPropertyHelper.writeProperty(bean, pd, null);
+		assertNull(bean.getValue());
+	}
+
+	public void testReadProperty_InterfaceProperty() {
+		PropertyDescriptor pd = BeanPropertyHelper.getPropertyDescriptor(
+				IBean.class, "value");
+		assertEquals("x", BeanPropertyHelper.readProperty(new Bean("x"), pd));
+	}
+
+	public void testReadProperty_WrapsExceptionOfReadMethod() {
+		PropertyDescriptor pd = BeanPropertyHelper.getPropertyDescriptor(
+				ThrowingBean.class, "value");
+		try {
+			BeanPropertyHelper.readProperty(new ThrowingBean(), pd);
+			fail("Expected RuntimeException");
+		} catch (RuntimeException e) {
+			assertTrue(e.getCause() instanceof UnsupportedOperationException);
+		}
+	}
+
+	public void testWriteProperty_PrimitiveProperty() {
+		PropertyDescriptor pd = BeanPropertyHelper.getPropertyDescriptor(
+				ThrowingBean.class, "count");
+		ThrowingBean bean = new ThrowingBean();
+		BeanPropertyHelper.writeProperty(bean, pd, Integer.valueOf(3));
+		assertEquals(Integer.valueOf(3),
+				BeanPropertyHelper.readProperty(bean, pd));
+	}
+
+	public void testWriteProperty_WidensPrimitiveValue() {
+		PropertyDescriptor pd = BeanPropertyHelper.getPropertyDescriptor(
+				NumberBean.class, "total");
+		NumberBean bean = new NumberBean();
+		BeanPropertyHelper.writeProperty(bean, pd, Integer.valueOf(5));
+		assertEquals(5L, bean.getTotal());
+
+		pd = BeanPropertyHelper.getPropertyDescriptor(NumberBean.class,
+				"ratio");
+		BeanPropertyHelper.writeProperty(bean, pd, Character.valueOf('a'));
+		assertEquals(97d, bean.getRatio(), 0);
+	}
+
+	public void testWriteProperty_DoesNotNarrowPrimitiveValue() {
+		PropertyDescriptor pd = BeanPropertyHelper.getPropertyDescriptor(
+				ThrowingBean.class, "count");
+		ThrowingBean bean = new ThrowingBean();
+		// logged like the argument type mismatch of Method.invoke
+		BeanPropertyHelper.writeProperty(bean, pd, Long.valueOf(3));
+		assertEquals(0, bean.getCount());
+	}
+
+	public static class NumberBean {
+		private long total;
+
+		private double ratio;
+
+		public long getTotal() {
+			return total;
+		}
+
+		public void setTotal(long total) {
+			this.total = total;
+		}
+
+		public double getRatio() {
+			return ratio;
+		}
+
+		public void setRatio(double ratio) {
+			this.ratio = ratio;
+		}
+	}
+
+	public static class ThrowingBean {
+		private int count;
+
+		public String getValue() {
+			throw new UnsupportedOperationException();
+		}
+
+		public void setValue(String value) {
+			throw new UnsupportedOperationException();
+		}
+
+		public int getCount() {
+			return count;
+		}
+
+		public void setCount(int count) {
+			this.count = count;
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2009 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -142,6 +142,96 @@ public class BeanPropertyListenerSupportTest extends
 		assertEquals(IStatus.WARNING, log.status.getSeverity());
 	}
 
+	public void testListenersShareOneBeanListener() throws Exception {
+		GenericListenerBean bean = new GenericListenerBean();
+		PropertyChangeListenerStub otherListener = new PropertyChangeListenerStub();
+		BeanPropertyListenerSupport.hookListener(bean, propertyName, listener);
+		BeanPropertyListenerSupport.hookListener(bean, "other", otherListener);
+
+		assertEquals(1, bean.changeSupport.getPropertyChangeListeners().length);
+
+		bean.setValue("value");
+		assertEquals(1, listener.count);
+		assertEquals(0, otherListener.count);
+
+		bean.setOther("other");
+		assertEquals(1, listener.count);
+		assertEquals(1, otherListener.count);
+	}
+
+	public void testUnhookKeepsBeanListenerWhileListenersRemain()
+			throws Exception {
+		GenericListenerBean bean = new GenericListenerBean();
+		PropertyChangeListenerStub otherListener = new PropertyChangeListenerStub();
+		BeanPropertyListenerSupport.hookListener(bean, propertyName, listener);
+		BeanPropertyListenerSupport.hookListener(bean, "other", otherListener);
+
+		BeanPropertyListenerSupport.unhookListener(bean, propertyName, listener);
+		assertTrue(bean.changeSupport.hasListeners("other"));
+		bean.setValue("value");
+		assertEquals(0, listener.count);
+
+		BeanPropertyListenerSupport.unhookListener(bean, "other", otherListener);
+		assertFalse(bean.changeSupport.hasListeners("other"));
+	}
+
+	public void testEventWithoutPropertyNameIsDispatchedToAllListeners()
+			throws Exception {
+		GenericListenerBean bean = new GenericListenerBean();
+		PropertyChangeListenerStub otherListener = new PropertyChangeListenerStub();
+		BeanPropertyListenerSupport.hookListener(bean, propertyName, listener);
+		BeanPropertyListenerSupport.hookListener(bean, "other", otherListener);
+
+		bean.changeSupport.firePropertyChange(null, null, null);
+		assertEquals(1, listener.count);
+		assertEquals(1, otherListener.count);
+	}
+
+	public void testUnnamedRegistrationIsPreferred() throws Exception {
+		DualListenerBean bean = new DualListenerBean();
+		PropertyChangeListenerStub otherListener = new PropertyChangeListenerStub();
+		BeanPropertyListenerSupport.hookListener(bean, propertyName, listener);
+		BeanPropertyListenerSupport.hookListener(bean, "other", otherListener);
+
+		assertEquals(0, bean.namedAdds);
+		assertEquals(1, bean.unnamedAdds);
+
+		bean.setOther("other");
+		assertEquals(0, listener.count);
+		assertEquals(1, otherListener.count);
+		bean.setValue("value");
+		assertEquals(1, listener.count);
+	}
+
+	public void testConcurrentHookAndUnhookDoNotLeakRegistration()
+			throws Exception {
+		final GenericListenerBean bean = new GenericListenerBean();
+		Runnable hookAndUnhook = () -> {
+			PropertyChangeListenerStub threadListener = new PropertyChangeListenerStub();
+			for (int i = 0; i < 1000; i++) {
+				BeanPropertyListenerSupport.hookListener(bean, propertyName,
+						threadListener);
+				BeanPropertyListenerSupport.unhookListener(bean, propertyName,
+						threadListener);
+			}
+		};
+		Thread first = new Thread(hookAndUnhook);
+		Thread second = new Thread(hookAndUnhook);
+		first.start();
+		second.start();
+		first.join();
+		second.join();
+
+		assertEquals(0, bean.changeSupport.getPropertyChangeListeners().length);
+	}
+
+	public void testBeanIsNotCalledWhileHoldingLock() throws Exception {
+		CallbackListenerBean bean = new CallbackListenerBean();
+		BeanPropertyListenerSupport.hookListener(bean, propertyName, listener);
+
+		assertTrue("hooking from another thread is blocked", bean.hookedFromOtherThread);
+	}
+
 	static class GenericListenerBean {
 		private String other;
 		PropertyChangeSupport changeSupport = new PropertyChangeSupport(this);
@@ -199,6 +289,48 @@ public class BeanPropertyListenerSupportTest extends
 		}
 	}
 
+	static class DualListenerBean extends GenericListenerBean {
+		int namedAdds;
+		int unnamedAdds;
+
+		@Override
+		public void addPropertyChangeListener(PropertyChangeListener listener) {
+			unnamedAdds++;
+			super.addPropertyChangeListener(listener);
+		}
+
+		public void addPropertyChangeListener(String name,
+				PropertyChangeListener listener) {
+			namedAdds++;
+			changeSupport.addPropertyChangeListener(name, listener);
+		}
+
+		public void removePropertyChangeListener(String name,
+				PropertyChangeListener listener) {
+			changeSupport.removePropertyChangeListener(name, listener);
+		}
+	}
+
+	static class CallbackListenerBean extends SpecificListenerBean {
+		boolean hookedFromOtherThread;
+
+		@Override
+		public void addPropertyChangeListener(String name,
+				PropertyChangeListener listener) {
+			Thread thread = new Thread(() -> BeanPropertyListenerSupport
+					.hookListener(new GenericListenerBean(), name,
+							new PropertyChangeListenerStub()));
+			thread.start();
+			try {
+				thread.join(5000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			hookedFromOtherThread = !thread.isAlive();
+			super.addPropertyChangeListener(name, listener);
+		}
+	}
+
 	static class PropertyChangeListenerStub implements PropertyChangeListener {
 		PropertyChangeEvent event;
 		int count;
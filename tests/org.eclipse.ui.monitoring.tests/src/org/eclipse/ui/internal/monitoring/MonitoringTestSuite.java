@@ -23,6 +23,8 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
 	EventLoopMonitorThreadTests.class,
 	FilterHandlerTests.class,
-	DefaultLoggerTests.class})
+	DefaultLoggerTests.class,
+	UiThreadProfileTests.class,
+	UiThreadWorkTrackerTests.class})
 public class MonitoringTestSuite {
 }
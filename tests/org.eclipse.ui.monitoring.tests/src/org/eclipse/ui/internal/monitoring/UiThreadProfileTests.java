@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (C) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.eclipse.ui.internal.monitoring.UiThreadProfile.HotFrame;
+import org.junit.Test;
+
+/**
+ * Tests for {@link UiThreadProfile} class.
+ */
+public class UiThreadProfileTests {
+	private static StackTraceElement frame(String className, String methodName) {
+		return new StackTraceElement(className, methodName, null, -1);
+	}
+
+	private static StackTraceElement[] stack(StackTraceElement... frames) {
+		return frames;
+	}
+
+	@Test
+	public void testCollapsedStacks() throws Exception {
+		UiThreadProfile profile = new UiThreadProfile(new FilterHandler(""));
+		StackTraceElement main = frame("a.Main", "main");
+		StackTraceElement run = frame("a.Loop", "run");
+		profile.addSample(stack(frame("b.Foo", "foo"), run, main), 10);
+		profile.addSample(stack(frame("b.Foo", "foo"), run, main), 10);
+		profile.addSample(stack(run, main), 5);
+
+		StringBuilder out = new StringBuilder();
+		profile.writeCollapsedStacks(out);
+		String result = out.toString();
+		assertTrue(result, result.contains("a.Main.main;a.Loop.run;b.Foo.foo 20\n"));
+		assertTrue(result, result.contains("a.Main.main;a.Loop.run 5\n"));
+		assertEquals(25, profile.getTotalTime());
+	}
+
+	@Test
+	public void testHotFramesSkipFilteredFrames() throws Exception {
+		UiThreadProfile profile = new UiThreadProfile(new FilterHandler("java.*,org.eclipse.swt.*"));
+		StackTraceElement main = frame("a.Main", "main");
+		profile.addSample(stack(frame("java.util.HashMap", "get"), frame("b.Foo", "foo"), main), 30);
+		profile.addSample(stack(frame("org.eclipse.swt.widgets.Display", "sleep"),
+				frame("c.Bar", "bar"), main), 10);
+		profile.addSample(stack(frame("b.Foo", "foo"), main), 5);
+
+		List<HotFrame> hotFrames = profile.getHotFrames(10);
+		assertEquals(2, hotFrames.size());
+		assertEquals("b.Foo.foo", hotFrames.get(0).frame);
+		assertEquals(35, hotFrames.get(0).time);
+		assertEquals("c.Bar.bar", hotFrames.get(1).frame);
+		assertEquals(10, hotFrames.get(1).time);
+		assertEquals(1, profile.getHotFrames(1).size());
+	}
+
+	@Test
+	public void testClear() throws Exception {
+		UiThreadProfile profile = new UiThreadProfile(new FilterHandler(""));
+		profile.addSample(stack(frame("a.Main", "main")), 10);
+		profile.clear();
+		assertTrue(profile.isEmpty());
+		StringBuilder out = new StringBuilder();
+		profile.writeCollapsedStacks(out);
+		assertEquals("", out.toString());
+	}
+
+	@Test
+	public void testSizeIsBounded() throws Exception {
+		UiThreadProfile profile = new UiThreadProfile(new FilterHandler(""), 3);
+		StackTraceElement main = frame("a.Main", "main");
+		StackTraceElement run = frame("a.Loop", "run");
+		profile.addSample(stack(frame("b.Foo", "foo"), run, main), 10);
+		// the tree is full, the time goes to the deepest existing frame
+		profile.addSample(stack(frame("c.Bar", "bar"), run, main), 5);
+
+		StringBuilder out = new StringBuilder();
+		profile.writeCollapsedStacks(out);
+		String result = out.toString();
+		assertTrue(result, result.contains("a.Main.main;a.Loop.run;b.Foo.foo 10\n"));
+		assertTrue(result, result.contains("a.Main.main;a.Loop.run 5\n"));
+		assertEquals(15, profile.getTotalTime());
+
+		profile.addSample(stack(frame("d.Baz", "baz")), 1);
+		profile.addSample(stack(frame("e.Qux", "qux")), 1);
+		profile.addSample(stack(frame("f.Quux", "quux")), 1);
+		profile.addSample(stack(frame("g.Corge", "corge")), 1);
+		assertEquals(3, profile.getHotFrames(10).size());
+		assertEquals(19, profile.getTotalTime());
+	}
+}
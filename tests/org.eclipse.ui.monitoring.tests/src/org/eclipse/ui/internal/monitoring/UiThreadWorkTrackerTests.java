@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (C) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.eclipse.ui.monitoring.UiThreadWorkStatistics;
+import org.junit.Test;
+
+/**
+ * Tests for {@link UiThreadWorkTracker} and {@link LatencyHistogram} classes.
+ */
+public class UiThreadWorkTrackerTests {
+	@Test
+	public void testHistogram() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 0; i < 99; i++) {
+			histogram.record(10);
+		}
+		histogram.record(5000);
+		assertEquals(100, histogram.getCount());
+		assertEquals(99 * 10 + 5000, histogram.getSum());
+		assertEquals(5000, histogram.getMax());
+		// Percentiles are accurate within a factor of two.
+		long p50 = histogram.getPercentile(50);
+		assertTrue(String.valueOf(p50), p50 >= 10 && p50 < 20);
+		assertEquals(5000, histogram.getPercentile(100));
+	}
+
+	@Test
+	public void testHistogramAdd() {
+		LatencyHistogram histogram1 = new LatencyHistogram();
+		histogram1.record(1);
+		LatencyHistogram histogram2 = new LatencyHistogram();
+		histogram2.record(100);
+		histogram1.add(histogram2);
+		assertEquals(2, histogram1.getCount());
+		assertEquals(101, histogram1.getSum());
+		assertEquals(100, histogram1.getMax());
+	}
+
+	@Test
+	public void testContributorName() {
+		assertEquals("a.b.Foo",
+				UiThreadWorkTracker.getContributorName("a.b.Foo$$Lambda$12/1234567"));
+		assertEquals("a.b.Foo", UiThreadWorkTracker.getContributorName("a.b.Foo$1"));
+		assertEquals("a.b.Foo", UiThreadWorkTracker.getContributorName("a.b.Foo$1$2"));
+		assertEquals("a.b.Foo$Inner", UiThreadWorkTracker.getContributorName("a.b.Foo$Inner"));
+		assertEquals("a.b.Foo$Inner", UiThreadWorkTracker.getContributorName("a.b.Foo$Inner$3"));
+		assertEquals("a.b.Foo$Inner",
+				UiThreadWorkTracker.getContributorName("a.b.Foo$Inner$$Lambda$7/7654321"));
+	}
+
+	@Test
+	public void testAttribution() {
+		UiThreadWorkTracker tracker = new UiThreadWorkTracker();
+		int[] runs = new int[1];
+		for (int i = 0; i < 3; i++) {
+			tracker.apply(() -> runs[0]++).run();
+		}
+		Runnable wrapped = tracker.apply(() -> runs[0]++);
+		assertSame(wrapped, tracker.apply(wrapped));
+		wrapped.run();
+
+		assertEquals(4, runs[0]);
+		List<UiThreadWorkStatistics> contributors = tracker.getTopContributors(10);
+		assertEquals(1, contributors.size());
+		assertEquals(getClass().getName(), contributors.get(0).getContributor());
+		assertEquals(4, contributors.get(0).getCount());
+
+		Runnable anonymous = new Runnable() {
+			@Override
+			public void run() {
+				runs[0]++;
+			}
+		};
+		tracker.apply(anonymous).run();
+		contributors = tracker.getTopContributors(10);
+		assertEquals(1, contributors.size());
+		assertEquals(5, contributors.get(0).getCount());
+
+		tracker.reset();
+		assertTrue(tracker.getTopContributors(10).isEmpty());
+		tracker.apply(() -> runs[0]++).run();
+		assertEquals(1, tracker.getTopContributors(10).get(0).getCount());
+	}
+}
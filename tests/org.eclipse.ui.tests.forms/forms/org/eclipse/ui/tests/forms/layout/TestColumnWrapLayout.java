@@ -13,6 +13,7 @@
 package org.eclipse.ui.tests.forms.layout;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Point;
@@ -348,4 +349,25 @@ public class TestColumnWrapLayout {
 			assertEquals("Child " + idx + " should have the correct width", desiredWidth, bounds.width);
 		}
 	}
+
+	/**
+	 * Test that changing one child only flushes the cached size of that child.
+	 */
+	@Test
+	public void testChangedChildIsFlushedAlone() {
+		Composite c1 = ControlFactory.create(inner, 100, 20);
+		Composite c2 = ControlFactory.create(inner, 100, 20);
+		inner.layout(true);
+		assertEquals(20, c1.getSize().y);
+		assertEquals(20, c2.getLocation().y);
+
+		TestLayout layout2 = (TestLayout) c2.getLayout();
+		layout2.wasChanged = false;
+		c1.setLayout(ControlFactory.createLayout(100, 40));
+		inner.layout(new Control[] { c1 });
+
+		assertEquals(40, c1.getSize().y);
+		assertEquals(40, c2.getLocation().y);
+		assertFalse("The unchanged child should not be flushed", layout2.wasChanged);
+	}
 }
@@ -13,6 +13,7 @@
 package org.eclipse.ui.tests.forms.layout;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import org.eclipse.swt.SWT;
@@ -27,6 +28,7 @@ import org.eclipse.swt.widgets.Shell;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.forms.widgets.TableWrapData;
 import org.eclipse.ui.forms.widgets.TableWrapLayout;
+import org.eclipse.ui.tests.forms.layout.ControlFactory.TestLayout;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -335,4 +337,24 @@ public class TestTableWrapLayout {
 		return bounds.y + bounds.height;
 	}
 
+	/**
+	 * Test that changing one child only flushes the cached size of that child.
+	 */
+	@Test
+	public void testChangedChildIsFlushedAlone() {
+		Composite c1 = ControlFactory.create(inner, 100, 20);
+		Composite c2 = ControlFactory.create(inner, 100, 20);
+		inner.layout(true);
+		assertEquals(20, c1.getSize().y);
+		assertEquals(20, c2.getLocation().y);
+
+		TestLayout layout2 = (TestLayout) c2.getLayout();
+		layout2.wasChanged = false;
+		c1.setLayout(ControlFactory.createLayout(100, 40));
+		inner.layout(new Control[] { c1 });
+
+		assertEquals(40, c1.getSize().y);
+		assertEquals(40, c2.getLocation().y);
+		assertFalse("The unchanged child should not be flushed", layout2.wasChanged);
+	}
 }
@@ -19,7 +19,8 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
 	ExpandableCompositeTest.class,
-	FormTextModelTest.class
+	FormTextModelTest.class,
+	FormTextTest.class
 })
 public class AllWidgetsTests {
 
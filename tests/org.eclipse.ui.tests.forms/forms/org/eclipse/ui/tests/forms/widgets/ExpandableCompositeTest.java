@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2017 QNX Software Systems and others.
+ * Copyright (c) 2015, 2018 QNX Software Systems and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -32,6 +32,8 @@ import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.forms.events.ExpansionEvent;
 import org.eclipse.ui.forms.events.IExpansionListener;
 import org.eclipse.ui.forms.widgets.ExpandableComposite;
+import org.eclipse.ui.forms.widgets.ScrolledForm;
+import org.eclipse.ui.forms.widgets.TableWrapLayout;
 import org.eclipse.ui.tests.forms.layout.ControlFactory;
 import org.junit.After;
 import org.junit.Before;
@@ -391,6 +393,63 @@ public class ExpandableCompositeTest {
 			assertEquals(bounds.height, sepBounds.y + sepBounds.height);
 	}
 
+	private ScrolledForm createFormWithSections(int[] reflows, ExpandableComposite[] sections) {
+		ScrolledForm form = new ScrolledForm(shell) {
+			@Override
+			public void reflow(boolean flushCache) {
+				reflows[0]++;
+				super.reflow(flushCache);
+			}
+		};
+		GridDataFactory.fillDefaults().grab(true, true).applyTo(form);
+		form.getBody().setLayout(new TableWrapLayout());
+		for (int i = 0; i < sections.length; i++) {
+			sections[i] = new ExpandableComposite(form.getBody(), SWT.NONE, defaultFlags);
+			sections[i].setText(shortText);
+			sections[i].setClient(rectangleComposite(sections[i], 200, 100));
+		}
+		shell.layout(true, true);
+		form.reflow(true);
+		dispatch();
+		reflows[0] = 0;
+		return form;
+	}
+
+	@Test
+	public void testExpandReflowsFormRightAway() {
+		int[] reflows = new int[1];
+		ExpandableComposite[] sections = new ExpandableComposite[2];
+		ScrolledForm form = createFormWithSections(reflows, sections);
+		int height = form.getMinHeight();
+
+		sections[0].setExpanded(true);
+		assertEquals(1, reflows[0]);
+		assertTrue(form.getMinHeight() >= height + 100);
+	}
+
+	@Test
+	public void testDelayedExpandReflowsAreCoalesced() {
+		int[] reflows = new int[1];
+		ExpandableComposite[] sections = new ExpandableComposite[2];
+		ScrolledForm form = createFormWithSections(reflows, sections);
+		form.setDelayedReflow(true);
+		int height = form.getMinHeight();
+
+		sections[0].setExpanded(true);
+		sections[1].setExpanded(true);
+		assertEquals(0, reflows[0]);
+		dispatch();
+		assertEquals(1, reflows[0]);
+		assertTrue(form.getMinHeight() >= height + 200);
+
+		// an explicit reflow performs the pending one right away
+		sections[0].setExpanded(false);
+		form.reflow(false);
+		assertTrue(form.getMinHeight() < height + 200);
+		dispatch();
+		assertEquals(2, reflows[0]);
+	}
+
 	private void width500() {
 		GridData layoutData = new GridData();
 		layoutData.widthHint = 500;
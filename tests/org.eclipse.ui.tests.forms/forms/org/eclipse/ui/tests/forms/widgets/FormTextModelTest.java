@@ -11,8 +11,13 @@
 package org.eclipse.ui.tests.forms.widgets;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
 import org.eclipse.ui.internal.forms.widgets.FormTextModel;
+import org.eclipse.ui.internal.forms.widgets.Paragraph;
 import org.junit.Test;
 
 /**
@@ -37,4 +42,85 @@ public class FormTextModelTest {
 		assertEquals("FormTextModel does not preserve whitespace correctly according to the rules",
 				"   line with        whitespace  Test " + System.lineSeparator(), formTextModel.getAccessibleText());
 	}
+
+	@Test
+	public void testSameMarkupCreatesNewParagraphs() {
+		String markup = "<form><p>first paragraph</p><li>second <b>paragraph</b></li></form>";
+		FormTextModel first = new FormTextModel();
+		first.parseTaggedText(markup, false);
+		FormTextModel second = new FormTextModel();
+		second.parseTaggedText(markup, false);
+
+		Paragraph[] firstParagraphs = first.getParagraphs();
+		Paragraph[] secondParagraphs = second.getParagraphs();
+		assertEquals(2, firstParagraphs.length);
+		assertEquals(2, secondParagraphs.length);
+		for (int i = 0; i < firstParagraphs.length; i++) {
+			assertNotSame("Paragraphs must not be shared between models", firstParagraphs[i], secondParagraphs[i]);
+		}
+		assertEquals(first.getAccessibleText(), second.getAccessibleText());
+	}
+
+	@Test
+	public void testSameMarkupWithOtherWhitespaceSetting() {
+		String markup = "<form><p>same   markup</p></form>";
+		FormTextModel formTextModel = new FormTextModel();
+		formTextModel.setWhitespaceNormalized(true);
+		formTextModel.parseTaggedText(markup, false);
+		assertEquals("same markup" + System.lineSeparator(), formTextModel.getAccessibleText());
+
+		formTextModel.setWhitespaceNormalized(false);
+		formTextModel.parseTaggedText(markup, false);
+		assertEquals("same   markup" + System.lineSeparator(), formTextModel.getAccessibleText());
+	}
+
+	@Test
+	public void testHyperlinks() {
+		FormTextModel formTextModel = new FormTextModel();
+		formTextModel.parseTaggedText(
+				"<form><p>Go to <a href=\"first\">the first</a> or <a href=\"second\" nowrap=\"true\">the second</a> link.</p></form>",
+				false);
+		assertEquals(2, formTextModel.getHyperlinkCount());
+		assertEquals("first", formTextModel.getHyperlink(0).getHref());
+		assertEquals("the first", formTextModel.getHyperlink(0).getText());
+		assertEquals("second", formTextModel.getHyperlink(1).getHref());
+	}
+
+	@Test
+	public void testInvalidMarkup() {
+		FormTextModel formTextModel = new FormTextModel();
+		formTextModel.parseTaggedText("<form><p>valid</p></form>", false);
+		try {
+			formTextModel.parseTaggedText("<form><p>invalid</form>", false);
+			fail("Invalid markup must be rejected");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		assertEquals(0, formTextModel.getParagraphs().length);
+	}
+
+	@Test
+	public void testParagraphsInRange() {
+		FormTextModel formTextModel = new FormTextModel();
+		formTextModel.parseTaggedText("<form><p>first</p><p>second</p><p>third</p></form>", false);
+		Paragraph[] paragraphs = formTextModel.getParagraphs();
+		formTextModel.resetLayout(0);
+		formTextModel.paragraphLaidOut(0, 10);
+		formTextModel.paragraphLaidOut(15, 25);
+
+		assertEquals(2, formTextModel.getLaidOutCount());
+		Paragraph[] inRange = formTextModel.getParagraphsIn(12, 5);
+		assertEquals(1, inRange.length);
+		assertSame(paragraphs[1], inRange[0]);
+		assertEquals("Paragraphs that are not laid out must be skipped", 2,
+				formTextModel.getParagraphsIn(0, 100).length);
+		assertEquals(0, formTextModel.getParagraphsIn(25, 10).length);
+
+		formTextModel.paragraphLaidOut(30, 40);
+		assertEquals(3, formTextModel.getParagraphsIn(0, 100).length);
+		assertNull(formTextModel.findSegmentAt(0, 50));
+
+		formTextModel.resetLayout(0);
+		assertEquals(0, formTextModel.getParagraphsIn(0, 100).length);
+	}
 }
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.forms.widgets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.forms.widgets.FormText;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for FormText
+ */
+public class FormTextTest {
+	private static Display display;
+
+	static {
+		try {
+			display = PlatformUI.getWorkbench().getDisplay();
+		} catch (Throwable e) {
+			// this is to run without eclipse
+			display = new Display();
+		}
+	}
+
+	private Shell shell;
+
+	@Before
+	public void setUp() throws Exception {
+		shell = new Shell(display);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		shell.dispose();
+	}
+
+	private static String createMarkup(int paragraphs) {
+		StringBuilder markup = new StringBuilder("<form>");
+		for (int i = 0; i < paragraphs; i++) {
+			markup.append("<p>Paragraph ").append(i).append(" with some text that wraps and <a href=\"")
+					.append(i).append("\">a link</a>.</p>");
+		}
+		return markup.append("</form>").toString();
+	}
+
+	private FormText createFormText(boolean virtualized) {
+		FormText formText = new FormText(shell, SWT.NONE);
+		formText.setVirtualized(virtualized);
+		formText.setText(createMarkup(200), true, false);
+		return formText;
+	}
+
+	@Test
+	public void testVirtualizedSize() {
+		FormText eager = createFormText(false);
+		FormText virtualized = createFormText(true);
+		assertFalse(eager.isVirtualized());
+		assertTrue(virtualized.isVirtualized());
+
+		for (int width : new int[] { SWT.DEFAULT, 300, 100 }) {
+			assertEquals(eager.computeSize(width, SWT.DEFAULT), virtualized.computeSize(width, SWT.DEFAULT));
+		}
+		virtualized.setSize(virtualized.computeSize(300, SWT.DEFAULT));
+		virtualized.layout();
+		virtualized.setVirtualized(false);
+		assertFalse(virtualized.isVirtualized());
+	}
+
+	@Test
+	public void testSizeComputedAgain() {
+		FormText formText = createFormText(false);
+		FormText other = createFormText(false);
+		formText.computeSize(300, SWT.DEFAULT);
+		formText.computeSize(100, SWT.DEFAULT);
+		assertEquals(other.computeSize(300, SWT.DEFAULT), formText.computeSize(300, SWT.DEFAULT));
+		assertEquals(other.computeSize(100, SWT.DEFAULT), formText.computeSize(100, SWT.DEFAULT));
+	}
+
+	@Test
+	public void testSizeAfterMarginChange() {
+		FormText formText = createFormText(false);
+		FormText other = createFormText(false);
+		other.marginWidth = 20;
+		formText.computeSize(300, SWT.DEFAULT);
+		formText.marginWidth = 20;
+		assertEquals(other.computeSize(300, SWT.DEFAULT), formText.computeSize(300, SWT.DEFAULT));
+	}
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.performance;
+
+import java.lang.reflect.Method;
+
+import org.eclipse.core.databinding.beans.IBeanValueProperty;
+import org.eclipse.core.databinding.beans.PojoProperties;
+import org.eclipse.test.performance.Dimension;
+
+/**
+ * Compares reading and writing bean properties through the databinding value
+ * properties with plain reflective access.
+ */
+public class BeanPropertyAccessTest extends BasicPerformanceTest {
+
+	/**
+	 * Number of property accesses per measurement.
+	 */
+	public static final int ITERATIONS = 1000000;
+
+	/**
+	 * Maximum time to run each test.
+	 */
+	public static final int MAX_RUNTIME = 4000;
+
+	/**
+	 * Maximum number of iterations for each test.
+	 */
+	public static final int MAX_ITERATIONS = 100;
+
+	/**
+	 * Create a new instance of the receiver.
+	 *
+	 * @param testName
+	 */
+	public BeanPropertyAccessTest(String testName) {
+		super(testName);
+	}
+
+	public static class Pojo {
+		private String value = "value";
+
+		public String getValue() {
+			return value;
+		}
+
+		public void setValue(String value) {
+			this.value = value;
+		}
+	}
+
+	private interface Accesses {
+		void run() throws Exception;
+	}
+
+	/**
+	 * Measures the accesses, which perform {@link #ITERATIONS} property
+	 * reads or writes.
+	 */
+	private void measure(Accesses accesses) throws Exception {
+		tagIfNecessary(getName(), Dimension.ELAPSED_PROCESS);
+		exercise(new TestRunnable() {
+			@Override
+			public void run() throws Exception {
+				startMeasuring();
+				accesses.run();
+				stopMeasuring();
+			}
+		}, 1, MAX_ITERATIONS, MAX_RUNTIME);
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Baseline: reflective reads of the property.
+	 */
+	public void testReflectiveRead() throws Exception {
+		Pojo pojo = new Pojo();
+		Method getter = Pojo.class.getMethod("getValue");
+		measure(() -> {
+			int length = 0;
+			for (int i = 0; i < ITERATIONS; i++) {
+				length += ((String) getter.invoke(pojo)).length();
+			}
+			assertTrue(length > 0);
+		});
+	}
+
+	/**
+	 * Reads of the property through a value property.
+	 */
+	public void testPropertyRead() throws Exception {
+		Pojo pojo = new Pojo();
+		IBeanValueProperty property = PojoProperties.value(Pojo.class, "value");
+		measure(() -> {
+			int length = 0;
+			for (int i = 0; i < ITERATIONS; i++) {
+				length += ((String) property.getValue(pojo)).length();
+			}
+			assertTrue(length > 0);
+		});
+	}
+
+	/**
+	 * Baseline: reflective writes of the property.
+	 */
+	public void testReflectiveWrite() throws Exception {
+		Pojo pojo = new Pojo();
+		Method setter = Pojo.class.getMethod("setValue", String.class);
+		measure(() -> {
+			for (int i = 0; i < ITERATIONS; i++) {
+				setter.invoke(pojo, (i & 1) == 0 ? "even" : "odd");
+			}
+		});
+	}
+
+	/**
+	 * Writes of the property through a value property.
+	 */
+	public void testPropertyWrite() throws Exception {
+		Pojo pojo = new Pojo();
+		IBeanValueProperty property = PojoProperties.value(Pojo.class, "value");
+		measure(() -> {
+			for (int i = 0; i < ITERATIONS; i++) {
+				property.setValue(pojo, (i & 1) == 0 ? "even" : "odd");
+			}
+		});
+	}
+}
@@ -37,5 +37,6 @@ public class UIPerformanceTestSuite extends FilteredTestSuite {
 		addTest(new TestSuite(CommandsPerformanceTest.class));
 		addTest(new LabelProviderTestSuite());
 		addTest(new TestSuite(ProgressReportingTest.class));
+		addTest(new TestSuite(BeanPropertyAccessTest.class));
 	}
 }
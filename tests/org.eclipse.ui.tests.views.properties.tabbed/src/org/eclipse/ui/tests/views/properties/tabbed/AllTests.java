@@ -29,6 +29,8 @@ public class AllTests
         suite.addTestSuite(TabbedPropertySheetPageTextTest.class);
         suite.addTestSuite(TabbedPropertySheetPageOverrideTest.class);
         suite.addTestSuite(TabbedPropertySheetPageDecorationsTest.class);
+        suite.addTestSuite(TabContentsTest.class);
+        suite.addTestSuite(SectionDescriptorTest.class);
         return suite;
     }
 
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.views.properties.tabbed;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.viewers.StructuredSelection;
+import org.eclipse.ui.views.properties.tabbed.AbstractSectionDescriptor;
+import org.eclipse.ui.views.properties.tabbed.ISection;
+
+/**
+ * Tests that sections are filtered by the types of the selected objects.
+ */
+public class SectionDescriptorTest extends TestCase {
+
+	private static class TestSectionDescriptor extends AbstractSectionDescriptor {
+		private final String id;
+
+		private final List inputTypes;
+
+		TestSectionDescriptor(String id, String inputType) {
+			this.id = id;
+			this.inputTypes = Collections.singletonList(inputType);
+		}
+
+		@Override
+		public String getId() {
+			return id;
+		}
+
+		@Override
+		public ISection getSectionClass() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public String getTargetTab() {
+			return "tab"; //$NON-NLS-1$
+		}
+
+		@Override
+		public List getInputTypes() {
+			return inputTypes;
+		}
+	}
+
+	public void testSectionsAppliesToTypes() {
+		TestSectionDescriptor serializable = new TestSectionDescriptor("serializable", //$NON-NLS-1$
+				Serializable.class.getName());
+		TestSectionDescriptor string = new TestSectionDescriptor("string", String.class.getName()); //$NON-NLS-1$
+
+		// Integer implements Serializable through Number
+		StructuredSelection numbers = new StructuredSelection(new Object[] { Integer.valueOf(1), Long.valueOf(2) });
+		assertTrue(serializable.appliesTo(null, numbers));
+		assertFalse(string.appliesTo(null, numbers));
+
+		StructuredSelection mixed = new StructuredSelection(new Object[] { "a", Integer.valueOf(1) }); //$NON-NLS-1$
+		assertTrue(serializable.appliesTo(null, mixed));
+		assertFalse(string.appliesTo(null, mixed));
+		assertTrue(string.appliesTo(null, new StructuredSelection("a"))); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.views.properties.tabbed;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ui.views.properties.tabbed.AbstractPropertySection;
+import org.eclipse.ui.views.properties.tabbed.AbstractSectionDescriptor;
+import org.eclipse.ui.views.properties.tabbed.AbstractTabDescriptor;
+import org.eclipse.ui.views.properties.tabbed.ISection;
+import org.eclipse.ui.views.properties.tabbed.TabContents;
+
+/**
+ * Tests that the sections of a tab are only created when they are needed.
+ */
+public class TabContentsTest extends TestCase {
+
+	private int createdSections;
+
+	private class TestSectionDescriptor extends AbstractSectionDescriptor {
+		private final String id;
+
+		private final List inputTypes;
+
+		TestSectionDescriptor(String id, String inputType) {
+			this.id = id;
+			this.inputTypes = Collections.singletonList(inputType);
+		}
+
+		@Override
+		public String getId() {
+			return id;
+		}
+
+		@Override
+		public ISection getSectionClass() {
+			createdSections++;
+			return new AbstractPropertySection() {
+				// a section without controls
+			};
+		}
+
+		@Override
+		public String getTargetTab() {
+			return "tab"; //$NON-NLS-1$
+		}
+
+		@Override
+		public List getInputTypes() {
+			return inputTypes;
+		}
+	}
+
+	private static class TestTabDescriptor extends AbstractTabDescriptor {
+		@Override
+		public String getCategory() {
+			return "category"; //$NON-NLS-1$
+		}
+
+		@Override
+		public String getId() {
+			return "tab"; //$NON-NLS-1$
+		}
+
+		@Override
+		public String getLabel() {
+			return "Tab"; //$NON-NLS-1$
+		}
+	}
+
+	private TestTabDescriptor createTabDescriptor() {
+		TestTabDescriptor tab = new TestTabDescriptor();
+		List sections = new ArrayList();
+		sections.add(new TestSectionDescriptor("one", Object.class.getName())); //$NON-NLS-1$
+		sections.add(new TestSectionDescriptor("two", Object.class.getName())); //$NON-NLS-1$
+		tab.setSectionDescriptors(sections);
+		return tab;
+	}
+
+	public void testSectionsAreCreatedLazily() {
+		TabContents tab = createTabDescriptor().createTab();
+		assertEquals(0, createdSections);
+
+		ISection[] sections = tab.getSections();
+		assertEquals(2, sections.length);
+		assertEquals(2, createdSections);
+		assertSame(sections[1], tab.getSectionAtIndex(1));
+		assertEquals(1, tab.getSectionIndex(sections[1]));
+		assertEquals(2, createdSections);
+	}
+
+	public void testDisposeWithoutSections() {
+		TabContents tab = createTabDescriptor().createTab();
+		tab.dispose();
+		assertEquals(0, createdSections);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2017 IBM Corporation and others.
+ * Copyright (c) 2009, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,10 +10,18 @@
  ******************************************************************************/
 package org.eclipse.jface.tests.fieldassist;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
 import org.eclipse.jface.bindings.keys.KeyStroke;
+import org.eclipse.jface.fieldassist.ContentProposal;
 import org.eclipse.jface.fieldassist.ContentProposalAdapter;
 import org.eclipse.jface.fieldassist.ControlDecoration;
 import org.eclipse.jface.fieldassist.FieldDecorationRegistry;
+import org.eclipse.jface.fieldassist.IAsyncContentProposalProvider;
+import org.eclipse.jface.fieldassist.IContentProposal;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.widgets.Display;
@@ -33,6 +41,20 @@ public abstract class FieldAssistTestCase extends AbstractFieldAssistTestCase {
 	static final char ACTIVATE_CHAR = 'i';
 	static final char EXTRA_CHAR = 'b';
 
+	static class AsyncProposalProvider implements IAsyncContentProposalProvider {
+		final List<CompletableFuture<IContentProposal[]>> requests = new ArrayList<>();
+		Consumer<IContentProposal[]> partialProposals;
+
+		@Override
+		public CompletableFuture<IContentProposal[]> getProposalsAsync(String contents, int position,
+				Consumer<IContentProposal[]> partialProposals) {
+			CompletableFuture<IContentProposal[]> request = new CompletableFuture<>();
+			requests.add(request);
+			this.partialProposals = partialProposals;
+			return request;
+		}
+	}
+
 	public void testAutoactivateNoDelay() {
 		AbstractFieldAssistWindow window = getFieldAssistWindow();
 		window.setPropagateKeys(false);
@@ -274,4 +296,80 @@ public abstract class FieldAssistTestCase extends AbstractFieldAssistTestCase {
 		controlBounds = getDisplay().map(getFieldAssistWindow().getFieldAssistControl().getParent(), null, controlBounds);
 		assertFalse("Popup is blocking the control", popupBounds.intersects(controlBounds));
 	}
+
+	public void testAsyncProposalProvider() throws InterruptedException {
+		AbstractFieldAssistWindow window = getFieldAssistWindow();
+		AsyncProposalProvider provider = new AsyncProposalProvider();
+		window.setContentProposalProvider(provider);
+		window.setPropagateKeys(false);
+		KeyStroke stroke = KeyStroke.getInstance(SWT.F4);
+		window.setKeyStroke(stroke);
+		window.open();
+		sendKeyDownToControl(stroke);
+		assertEquals(1, provider.requests.size());
+		assertOneShellUp();
+
+		// the popup opens as soon as the first proposals are reported
+		IContentProposal[] partialProposals = { new ContentProposal("one") };
+		Thread thread = new Thread(() -> provider.partialProposals.accept(partialProposals));
+		thread.start();
+		thread.join();
+		assertTwoShellsUp();
+		assertTrue(window.getContentProposalAdapter().isProposalPopupOpen());
+
+		// closing the popup cancels the computation
+		sendFocusElsewhere();
+		assertOneShellUp();
+		assertTrue(provider.requests.get(0).isCancelled());
+
+		sendKeyDownToControl(stroke);
+		assertEquals(2, provider.requests.size());
+		IContentProposal[] allProposals = { new ContentProposal("one"), new ContentProposal("two") };
+		thread = new Thread(() -> provider.requests.get(1).complete(allProposals));
+		thread.start();
+		thread.join();
+		assertTwoShellsUp();
+	}
+
+	public void testAsyncProposalsDiscardedWhenClosedBeforeCompletion() throws InterruptedException {
+		AbstractFieldAssistWindow window = getFieldAssistWindow();
+		AsyncProposalProvider provider = new AsyncProposalProvider();
+		window.setContentProposalProvider(provider);
+		window.setPropagateKeys(false);
+		KeyStroke stroke = KeyStroke.getInstance(SWT.F4);
+		window.setKeyStroke(stroke);
+		window.open();
+		IContentProposal[] proposals = { new ContentProposal("one") };
+
+		// focus leaves the control before the proposals arrive
+		sendKeyDownToControl(stroke);
+		assertEquals(1, provider.requests.size());
+		sendFocusElsewhere();
+		assertTrue(provider.requests.get(0).isCancelled());
+		Thread thread = new Thread(() -> provider.partialProposals.accept(proposals));
+		thread.start();
+		thread.join();
+		assertOneShellUp();
+
+		// escape is pressed before the proposals arrive
+		sendKeyDownToControl(stroke);
+		assertEquals(2, provider.requests.size());
+		sendKeyDownToControl(SWT.ESC);
+		assertTrue(provider.requests.get(1).isCancelled());
+		thread = new Thread(() -> provider.partialProposals.accept(proposals));
+		thread.start();
+		thread.join();
+		assertOneShellUp();
+
+		// the adapter is disabled before the proposals arrive
+		sendKeyDownToControl(stroke);
+		assertEquals(3, provider.requests.size());
+		window.getContentProposalAdapter().setEnabled(false);
+		assertTrue(provider.requests.get(2).isCancelled());
+		thread = new Thread(() -> provider.partialProposals.accept(proposals));
+		thread.start();
+		thread.join();
+		assertOneShellUp();
+		assertFalse(window.getContentProposalAdapter().isProposalPopupOpen());
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016 Red Hat Inc. and others
+ * Copyright (c) 2016, 2018 Red Hat Inc. and others
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,13 +12,24 @@ package org.eclipse.jface.tests.images;
 
 import static org.junit.Assert.assertNotEquals;
 
+import java.util.Arrays;
+
 import org.eclipse.jface.dialogs.Dialog;
+import org.eclipse.jface.internal.ImageDataCache;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.resource.ImageRegistry;
 import org.eclipse.jface.resource.JFaceResources;
+import org.eclipse.jface.resource.LocalResourceManager;
 import org.eclipse.jface.viewers.DecorationOverlayIcon;
 import org.eclipse.jface.viewers.IDecoration;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Display;
 import org.junit.Before;
 
 import junit.framework.TestCase;
@@ -92,4 +103,86 @@ public class DecorationOverlayIconTest extends TestCase {
 		assertFalse(icon1.equals(icon2));
 		assertNotEquals(icon1.hashCode(), icon2.hashCode());
 	}
+
+	public void testEqualsWithSize() {
+		DecorationOverlayIcon icon1 = new DecorationOverlayIcon(baseImage1,
+				new ImageDescriptor[] { overlayDescriptor1 }, new Point(16, 16));
+		DecorationOverlayIcon icon2 = new DecorationOverlayIcon(baseImage1,
+				new ImageDescriptor[] { overlayDescriptor1 }, new Point(16, 16));
+		DecorationOverlayIcon icon3 = new DecorationOverlayIcon(baseImage1,
+				new ImageDescriptor[] { overlayDescriptor1 }, new Point(32, 32));
+		assertTrue(icon1.equals(icon2));
+		assertEquals(icon1.hashCode(), icon2.hashCode());
+		assertFalse(icon1.equals(icon3));
+	}
+
+	public void testSizeIsCopied() {
+		Point size = new Point(16, 16);
+		DecorationOverlayIcon icon = new DecorationOverlayIcon(baseImage1,
+				new ImageDescriptor[] { overlayDescriptor1 }, size);
+		size.x = 32;
+		assertEquals(new DecorationOverlayIcon(baseImage1, new ImageDescriptor[] { overlayDescriptor1 },
+				new Point(16, 16)), icon);
+	}
+
+	public void testResourceManagersShareImage() {
+		LocalResourceManager manager1 = new LocalResourceManager(JFaceResources.getResources());
+		LocalResourceManager manager2 = new LocalResourceManager(JFaceResources.getResources());
+		try {
+			Image image2;
+			try {
+				Image image1 = manager1.createImage(
+						new DecorationOverlayIcon(baseDescriptor1, overlayDescriptor1, IDecoration.TOP_LEFT));
+				image2 = manager2.createImage(
+						new DecorationOverlayIcon(baseDescriptor1, overlayDescriptor1, IDecoration.TOP_LEFT));
+				assertSame(image1, image2);
+			} finally {
+				manager1.dispose();
+			}
+			assertFalse(image2.isDisposed());
+		} finally {
+			manager2.dispose();
+		}
+	}
+
+	public void testComposedImageDataIsCached() {
+		ImageDataCache cache = ImageDataCache.getDefault();
+		DecorationOverlayIcon icon1 = new DecorationOverlayIcon(baseDescriptor2, overlayDescriptor2,
+				IDecoration.BOTTOM_RIGHT);
+		DecorationOverlayIcon icon2 = new DecorationOverlayIcon(baseDescriptor2, overlayDescriptor2,
+				IDecoration.BOTTOM_RIGHT);
+		ImageData data1 = icon1.getImageData(100);
+		long hits = cache.getHitCount();
+		ImageData data2 = icon2.getImageData(100);
+		assertTrue(cache.getHitCount() > hits);
+		assertNotSame(data1, data2);
+		assertEquals(data1.width, data2.width);
+		assertEquals(data1.height, data2.height);
+		assertTrue(Arrays.equals(data1.data, data2.data));
+	}
+
+	public void testChangedBaseImageIsComposedAgain() {
+		Display display = Display.getDefault();
+		Image base = new Image(display, 16, 16);
+		try {
+			fill(base, display.getSystemColor(SWT.COLOR_RED));
+			ImageData red = new DecorationOverlayIcon(base, new ImageDescriptor[5]).getImageData(100);
+			fill(base, display.getSystemColor(SWT.COLOR_BLUE));
+			ImageData blue = new DecorationOverlayIcon(base, new ImageDescriptor[5]).getImageData(100);
+			assertEquals(new RGB(255, 0, 0), red.palette.getRGB(red.getPixel(0, 0)));
+			assertEquals(new RGB(0, 0, 255), blue.palette.getRGB(blue.getPixel(0, 0)));
+		} finally {
+			base.dispose();
+		}
+	}
+
+	private static void fill(Image image, Color color) {
+		GC gc = new GC(image);
+		try {
+			gc.setBackground(color);
+			gc.fillRectangle(image.getBounds());
+		} finally {
+			gc.dispose();
+		}
+	}
 }
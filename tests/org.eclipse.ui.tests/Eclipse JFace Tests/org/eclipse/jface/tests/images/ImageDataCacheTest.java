@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.images;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jface.internal.ImageDataCache;
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Display;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the cache of decoded image data.
+ */
+public class ImageDataCacheTest extends TestCase {
+
+	private int loadCount;
+
+	private ImageData load(int size) {
+		loadCount++;
+		return new ImageData(size, size, 8, new PaletteData(new RGB[] { new RGB(0, 0, 0) }));
+	}
+
+	public void testCachedImageDataIsCopied() {
+		ImageDataCache cache = new ImageDataCache(100000);
+		ImageData first = cache.getImageData("a", 100, () -> load(16));
+		ImageData second = cache.getImageData("a", 100, () -> load(16));
+		assertEquals(1, loadCount);
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertNotSame(first, second);
+		assertNotSame(first.data, second.data);
+		assertEquals(16, second.width);
+	}
+
+	public void testMissingImageIsCached() {
+		ImageDataCache cache = new ImageDataCache(100000);
+		assertNull(cache.getImageData("a", 200, () -> null));
+		assertNull(cache.getImageData("a", 200, () -> load(16)));
+		assertEquals(0, loadCount);
+		assertFalse(cache.contains("a", 200));
+	}
+
+	public void testLeastRecentlyUsedIsEvicted() {
+		// room for two images of 32x32 pixels
+		ImageDataCache cache = new ImageDataCache(2500);
+		cache.getImageData("a", 100, () -> load(32));
+		cache.getImageData("b", 100, () -> load(32));
+		cache.getImageData("a", 100, () -> load(32));
+		cache.getImageData("c", 100, () -> load(32));
+		assertTrue(cache.contains("a", 100));
+		assertFalse(cache.contains("b", 100));
+		assertTrue(cache.contains("c", 100));
+		assertTrue(cache.getSize() <= 2500);
+	}
+
+	public void testFailureIsNotCached() {
+		ImageDataCache cache = new ImageDataCache(100000);
+		try {
+			cache.getImageData("a", 100, () -> {
+				throw new UncheckedIOException(new IOException("transient failure"));
+			});
+			fail("the failure of the loader must be passed on");
+		} catch (UncheckedIOException e) {
+			// expected
+		}
+		assertFalse(cache.contains("a", 100));
+		assertNotNull(cache.getImageData("a", 100, () -> load(16)));
+		assertEquals(1, loadCount);
+	}
+
+	public void testDecodeInBackground() throws Exception {
+		ImageDescriptor descriptor = ImageDescriptor
+				.createFromURL(ImageDataCacheTest.class.getResource("anything.gif"));
+		String location = ImageDataCacheTest.class.getResource("anything.gif").toExternalForm();
+		ImageDataCache cache = ImageDataCache.getDefault();
+		cache.clear();
+		ImageDescriptor.decodeInBackground(Collections.singleton(descriptor));
+		// images are decoded in order, so the descriptor is decoded once this
+		// has completed
+		cache.decodeInBackground(new Object(), zoom -> null).get(10, TimeUnit.SECONDS);
+		assertTrue(cache.contains(location, 100));
+
+		Image image = descriptor.createImage(false, Display.getDefault());
+		assertNotNull(image);
+		image.dispose();
+		assertTrue(ImageDataCache.getDefault().getHitCount() > 0);
+	}
+
+	public void testCreateImageFillsCache() {
+		ImageDescriptor descriptor = ImageDescriptor
+				.createFromURL(ImageDataCacheTest.class.getResource("anything.gif"));
+		String location = ImageDataCacheTest.class.getResource("anything.gif").toExternalForm();
+		ImageDataCache cache = ImageDataCache.getDefault();
+		cache.clear();
+
+		Image image = descriptor.createImage(false, Display.getDefault());
+		assertNotNull(image);
+		image.dispose();
+		assertTrue(cache.contains(location, 100));
+
+		// creating the image again after it has been disposed does not decode
+		// it again
+		long misses = cache.getMissCount();
+		image = descriptor.createImage(false, Display.getDefault());
+		assertNotNull(image);
+		image.dispose();
+		assertTrue(cache.getHitCount() > 0);
+		assertEquals(misses, cache.getMissCount());
+	}
+}
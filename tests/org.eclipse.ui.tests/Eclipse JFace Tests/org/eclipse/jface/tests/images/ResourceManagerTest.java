@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2017 IBM Corporation and others.
+ * Copyright (c) 2004, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,7 +10,11 @@
  *******************************************************************************/
 package org.eclipse.jface.tests.images;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.eclipse.jface.resource.ColorDescriptor;
+import org.eclipse.jface.resource.ConcurrentResourceManager;
 import org.eclipse.jface.resource.DeviceResourceDescriptor;
 import org.eclipse.jface.resource.DeviceResourceException;
 import org.eclipse.jface.resource.DeviceResourceManager;
@@ -286,4 +290,128 @@ public class ResourceManagerTest extends TestCase {
     	// Destroy the resource we created
     	globalResourceManager.destroy(descriptor);
     }
+
+    public void testConcurrentManagerAllocations() throws Exception {
+        Display display = Display.getCurrent();
+        ConcurrentResourceManager manager = new ConcurrentResourceManager(globalResourceManager);
+
+        // Allocate every resource from several background threads at once
+        Object[][] resources = new Object[4][descriptors.length];
+        Exception[] failure = new Exception[1];
+        Thread[] threads = new Thread[resources.length];
+        for (int i = 0; i < threads.length; i++) {
+            Object[] threadResources = resources[i];
+            threads[i] = new Thread(() -> {
+                try {
+                    for (int j = 0; j < descriptors.length; j++) {
+                        threadResources[j] = manager.create(descriptors[j]);
+                    }
+                } catch (Exception e) {
+                    failure[0] = e;
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            while (thread.isAlive()) {
+                if (!display.readAndDispatch()) {
+                    thread.join(10);
+                }
+            }
+        }
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+
+        for (int j = 0; j < descriptors.length; j++) {
+            validateResource(resources[0][j]);
+            for (Object[] threadResources : resources) {
+                Assert.assertSame("Every thread should get the same resource", resources[0][j], threadResources[j]);
+            }
+            Assert.assertSame(resources[0][j], manager.find(descriptors[j]));
+        }
+        Assert.assertEquals("Duplicate descriptors should be reused",
+                descriptors.length - numDupes,
+                TestDescriptor.refCount);
+
+        // Release all but the references of the first thread, then dispose
+        for (int i = 1; i < resources.length; i++) {
+            for (DeviceResourceDescriptor next : descriptors) {
+                manager.destroy(next);
+            }
+        }
+        Assert.assertEquals(descriptors.length - numDupes, TestDescriptor.refCount);
+        manager.dispose();
+        Assert.assertEquals(0, TestDescriptor.refCount);
+    }
+
+    public void testConcurrentManagerCreateAfterDispose() throws Exception {
+        ConcurrentResourceManager manager = new ConcurrentResourceManager(globalResourceManager);
+        manager.dispose();
+        try {
+            manager.create(descriptors[0]);
+            fail("Creating a resource after dispose should fail");
+        } catch (DeviceResourceException e) {
+            // expected
+        }
+        Assert.assertEquals("Nothing should be allocated after dispose", 0, TestDescriptor.refCount);
+        Assert.assertNull(manager.find(descriptors[0]));
+    }
+
+    public void testConcurrentManagerCreateAll() throws Exception {
+        Display display = Display.getCurrent();
+        ConcurrentResourceManager manager = new ConcurrentResourceManager(globalResourceManager);
+
+        List<?>[] resources = new List<?>[1];
+        Exception[] failure = new Exception[1];
+        Thread thread = new Thread(() -> {
+            try {
+                resources[0] = manager.createAll(Arrays.asList(descriptors));
+            } catch (Exception e) {
+                failure[0] = e;
+            }
+        });
+        thread.start();
+        while (thread.isAlive()) {
+            if (!display.readAndDispatch()) {
+                thread.join(10);
+            }
+        }
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+
+        Assert.assertEquals(descriptors.length, resources[0].size());
+        for (int j = 0; j < descriptors.length; j++) {
+            validateResource(resources[0].get(j));
+            Assert.assertSame(resources[0].get(j), manager.find(descriptors[j]));
+        }
+        Assert.assertEquals(descriptors.length - numDupes, TestDescriptor.refCount);
+        manager.dispose();
+        Assert.assertEquals(0, TestDescriptor.refCount);
+    }
+
+    public void testConcurrentManagerCreateAllReleasesOnFailure() throws Exception {
+        ConcurrentResourceManager manager = new ConcurrentResourceManager(globalResourceManager);
+        DeviceResourceDescriptor failing = new TestDescriptor(new DeviceResourceDescriptor() {
+            @Override
+            public Object createResource(Device device) throws DeviceResourceException {
+                throw new DeviceResourceException(this);
+            }
+
+            @Override
+            public void destroyResource(Object previouslyCreatedObject) {
+            }
+        });
+        try {
+            manager.createAll(Arrays.asList(descriptors[0], descriptors[12], failing));
+            fail("Creating a resource that cannot be allocated should fail");
+        } catch (DeviceResourceException e) {
+            // expected
+        }
+        Assert.assertEquals("The created resources should be released", 0, TestDescriptor.refCount);
+        Assert.assertNull(manager.find(descriptors[0]));
+        Assert.assertNull(manager.find(descriptors[12]));
+        manager.dispose();
+    }
 }
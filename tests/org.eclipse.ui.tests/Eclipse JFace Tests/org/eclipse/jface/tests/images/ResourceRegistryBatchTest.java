@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.images;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jface.resource.ColorRegistry;
+import org.eclipse.jface.resource.ResourceRegistry;
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Display;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests batches of changes to a resource registry.
+ */
+public class ResourceRegistryBatchTest extends TestCase {
+
+	private static final RGB RED = new RGB(255, 0, 0);
+
+	private static final RGB GREEN = new RGB(0, 255, 0);
+
+	private static final RGB BLUE = new RGB(0, 0, 255);
+
+	private ColorRegistry registry;
+
+	private List<PropertyChangeEvent> events;
+
+	private List<PropertyChangeEvent> batchEvents;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		registry = new ColorRegistry(Display.getDefault(), false);
+		registry.put("a", RED);
+		registry.put("b", RED);
+		events = new ArrayList<>();
+		batchEvents = new ArrayList<>();
+		registry.addListener(events::add);
+		registry.addBatchListener(batchEvents::add);
+	}
+
+	public void testChangeOutsideOfBatch() {
+		registry.put("a", GREEN);
+		assertEquals(1, events.size());
+		assertEquals("a", events.get(0).getProperty());
+		assertEquals(1, batchEvents.size());
+		assertEquals(ResourceRegistry.MAPPINGS_CHANGED, batchEvents.get(0).getProperty());
+		assertEquals(RED, ((Map<?, ?>) batchEvents.get(0).getOldValue()).get("a"));
+		assertEquals(GREEN, ((Map<?, ?>) batchEvents.get(0).getNewValue()).get("a"));
+	}
+
+	public void testBatchIsFiredOnce() {
+		registry.runBatch(() -> {
+			registry.put("a", GREEN);
+			registry.put("b", GREEN);
+			registry.put("c", BLUE);
+			assertTrue(events.isEmpty());
+			assertTrue(batchEvents.isEmpty());
+		});
+		assertEquals(3, events.size());
+		assertEquals(1, batchEvents.size());
+		Map<?, ?> newValues = (Map<?, ?>) batchEvents.get(0).getNewValue();
+		assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<>(newValues.keySet()));
+		assertEquals(BLUE, newValues.get("c"));
+		assertNull(((Map<?, ?>) batchEvents.get(0).getOldValue()).get("c"));
+	}
+
+	public void testChangesAreCoalesced() {
+		registry.runBatch(() -> {
+			registry.put("a", GREEN);
+			registry.put("a", BLUE);
+			// changed back to the value before the batch
+			registry.put("b", GREEN);
+			registry.put("b", RED);
+		});
+		assertEquals(1, events.size());
+		assertEquals("a", events.get(0).getProperty());
+		assertEquals(RED, events.get(0).getOldValue());
+		assertEquals(BLUE, events.get(0).getNewValue());
+		assertEquals(1, batchEvents.size());
+		assertEquals(1, ((Map<?, ?>) batchEvents.get(0).getNewValue()).size());
+	}
+
+	public void testNestedBatches() {
+		registry.runBatch(() -> {
+			registry.runBatch(() -> registry.put("a", GREEN));
+			assertTrue(batchEvents.isEmpty());
+			registry.put("b", GREEN);
+		});
+		assertEquals(1, batchEvents.size());
+		assertEquals(2, ((Map<?, ?>) batchEvents.get(0).getNewValue()).size());
+	}
+
+	public void testBatchIsFiredOnException() {
+		try {
+			registry.runBatch(() -> {
+				registry.put("a", GREEN);
+				throw new IllegalStateException();
+			});
+			fail();
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		assertEquals(1, batchEvents.size());
+		registry.put("b", GREEN);
+		assertEquals(2, batchEvents.size());
+	}
+
+	public void testRemoveBatchListener() {
+		IPropertyChangeListener listener = event -> fail();
+		registry.addBatchListener(listener);
+		registry.removeListener(listener);
+		registry.put("a", GREEN);
+		assertEquals(1, batchEvents.size());
+	}
+}
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.activities;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.ui.internal.activities.ActivityPatternBinding;
+import org.eclipse.ui.internal.activities.ActivityPatternMatcher;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests that the compiled activity pattern matcher gives the same results as
+ * matching every pattern binding on its own.
+ */
+public class ActivityPatternMatcherTest extends TestCase {
+
+	private Map<String, Set<ActivityPatternBinding>> bindings = new HashMap<>();
+
+	private void addRegex(String activityId, String pattern) {
+		bindings.computeIfAbsent(activityId, key -> new HashSet<>())
+				.add(new ActivityPatternBinding(activityId, pattern, false));
+	}
+
+	private void addEquality(String activityId, String pattern) {
+		bindings.computeIfAbsent(activityId, key -> new HashSet<>())
+				.add(new ActivityPatternBinding(activityId, pattern, true));
+	}
+
+	private Set<String> expected(String id) {
+		Set<String> activityIds = new HashSet<>();
+		for (Set<ActivityPatternBinding> activityBindings : bindings.values()) {
+			for (ActivityPatternBinding binding : activityBindings) {
+				if (binding.isMatch(id)) {
+					activityIds.add(binding.getActivityId());
+				}
+			}
+		}
+		return activityIds;
+	}
+
+	private void assertMatches(ActivityPatternMatcher matcher, String id, String... activityIds) {
+		Set<String> expected = new HashSet<>(Arrays.asList(activityIds));
+		assertEquals(id, expected, expected(id));
+		assertEquals(id, expected, matcher.getActivityIds(id));
+	}
+
+	public void testPrefixPatterns() {
+		addRegex("jdt", "org\\.eclipse\\.jdt\\.ui/.*");
+		addRegex("jdtDebug", "org\\.eclipse\\.jdt\\.debug\\.ui/.*");
+		addRegex("all", ".*");
+		ActivityPatternMatcher matcher = new ActivityPatternMatcher(bindings);
+
+		assertMatches(matcher, "org.eclipse.jdt.ui/org.eclipse.jdt.ui.PackageExplorer", "jdt", "all");
+		assertMatches(matcher, "org.eclipse.jdt.debug.ui/view", "jdtDebug", "all");
+		assertMatches(matcher, "org.eclipse.jdt.ui/", "jdt", "all");
+		assertMatches(matcher, "org.eclipse.jdt.uix/view", "all");
+		assertMatches(matcher, "org.eclipse.jdt.ui/line\nbreak");
+	}
+
+	public void testEqualityPatterns() {
+		addEquality("equality", "org.eclipse.ui/.*");
+		addRegex("literal", "org/view");
+		ActivityPatternMatcher matcher = new ActivityPatternMatcher(bindings);
+
+		assertMatches(matcher, "org.eclipse.ui/.*", "equality");
+		assertMatches(matcher, "org.eclipse.ui/view");
+		assertMatches(matcher, "org/view", "literal");
+		assertMatches(matcher, "org/views");
+	}
+
+	public void testRegexFallback() {
+		addRegex("quantifier", "org\\.eclipse\\.uix?/.*");
+		addRegex("alternation", "org\\.eclipse\\.ui/a.*|.*/b");
+		addRegex("class", "org\\.eclipse\\.ui/[a-z]+\\.view");
+		addRegex("quoted", "\\Qorg.eclipse.ui/\\E.*");
+		addRegex("suffix", "org\\.eclipse\\..*\\.editor");
+		ActivityPatternMatcher matcher = new ActivityPatternMatcher(bindings);
+
+		assertMatches(matcher, "org.eclipse.ui/a", "quantifier", "alternation", "quoted");
+		assertMatches(matcher, "org.eclipse.uix/b", "quantifier", "alternation");
+		assertMatches(matcher, "org.eclipse.ui/abc.view", "quantifier", "alternation", "class", "quoted");
+		assertMatches(matcher, "org.eclipse.ui/x.editor", "quantifier", "quoted", "suffix");
+		assertMatches(matcher, "org.eclipse.u/x");
+	}
+
+	public void testNoBindings() {
+		ActivityPatternMatcher matcher = new ActivityPatternMatcher(Collections.emptyMap());
+		assertTrue(matcher.getActivityIds("org.eclipse.ui/view").isEmpty());
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,6 +13,9 @@ package org.eclipse.ui.tests.api;
 
 import static org.junit.Assert.assertArrayEquals;
 
+import java.lang.reflect.Field;
+import java.util.Map;
+
 import org.eclipse.core.internal.content.ContentTypeManager;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
@@ -101,6 +104,63 @@ public class IEditorRegistryTest extends TestCase {
 		assertEquals(editors.length, 0);
 	}
 
+	/**
+	 * The arrays returned by getEditors must not share state with the
+	 * registry.
+	 */
+	public void testGetEditorsReturnsCopy() {
+		IEditorDescriptor[] editors = fReg.getEditors("a.mock1");
+		assertEquals(1, editors.length);
+		editors[0] = null;
+		assertEquals(MockEditorPart.ID1, fReg.getEditors("a.mock1")[0].getId());
+	}
+
+	/**
+	 * Changing the file editor mappings must be reflected by the following
+	 * lookups.
+	 */
+	public void testSetFileEditorMappingsUpdatesResolution() {
+		assertEquals(MockEditorPart.ID1, fReg.getDefaultEditor("a.mock1").getId());
+
+		IFileEditorMapping[] src = fReg.getFileEditorMappings();
+		FileEditorMapping[] maps = new FileEditorMapping[src.length];
+		for (int i = 0; i < src.length; i++) {
+			maps[i] = (FileEditorMapping) ((FileEditorMapping) src[i]).clone();
+			if ("*".equals(maps[i].getName()) && "mock1".equals(maps[i].getExtension())) {
+				EditorDescriptor editor = (EditorDescriptor) fReg.findEditor(MockEditorPart.ID2);
+				maps[i].addEditor(editor);
+				maps[i].setDefaultEditor(editor);
+			}
+		}
+		FileEditorMapping[] original = new FileEditorMapping[src.length];
+		System.arraycopy(src, 0, original, 0, src.length);
+
+		try {
+			((EditorRegistry) fReg).setFileEditorMappings(maps);
+			assertEquals(MockEditorPart.ID2, fReg.getDefaultEditor("a.mock1").getId());
+			assertEquals(2, fReg.getEditors("a.mock1").length);
+		} finally {
+			((EditorRegistry) fReg).setFileEditorMappings(original);
+		}
+		assertEquals(MockEditorPart.ID1, fReg.getDefaultEditor("a.mock1").getId());
+		assertEquals(1, fReg.getEditors("a.mock1").length);
+	}
+
+	/**
+	 * Distinct file names without mappings of their own share the resolution
+	 * of their extension, so they do not fill the resolution cache.
+	 */
+	public void testResolutionIsSharedByExtension() throws Exception {
+		for (int i = 0; i < 5000; i++) {
+			assertEquals(MockEditorPart.ID1, fReg.getDefaultEditor("file" + i + ".mock1").getId());
+			assertNotNull(fReg.getImageDescriptor("file" + i + ".mock1"));
+		}
+		Field cacheField = EditorRegistry.class.getDeclaredField("resolutionCache");
+		cacheField.setAccessible(true);
+		Map<?, ?> cache = (Map<?, ?>) cacheField.get(fReg);
+		assertTrue(String.valueOf(cache.size()), cache.size() <= 10);
+	}
+
 	public void testFindEditor() {
 		String id = MockEditorPart.ID1;
 		IEditorDescriptor editor = fReg.findEditor(id);
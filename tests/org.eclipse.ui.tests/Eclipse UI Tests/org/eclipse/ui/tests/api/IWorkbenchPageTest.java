@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -31,6 +31,7 @@ import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.ILogListener;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.swt.events.ShellListener;
@@ -39,6 +40,7 @@ import org.eclipse.ui.IEditorPart;
 import org.eclipse.ui.IEditorReference;
 import org.eclipse.ui.IPageLayout;
 import org.eclipse.ui.IPartListener2;
+import org.eclipse.ui.IPersistableElement;
 import org.eclipse.ui.IPerspectiveDescriptor;
 import org.eclipse.ui.IPerspectiveRegistry;
 import org.eclipse.ui.IViewPart;
@@ -46,6 +48,7 @@ import org.eclipse.ui.IViewReference;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.IWorkbenchCommandConstants;
 import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.IWorkbenchPartConstants;
 import org.eclipse.ui.IWorkbenchPartReference;
 import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.IWorkingSet;
@@ -2653,6 +2656,60 @@ public class IWorkbenchPageTest extends UITestCase {
 		assertEquals(part4, refs[0].getPart(true));
 	}
 
+	/**
+	 * Tests that findEditors finds a reusable editor by its current input
+	 * after the input of the editor changed.
+	 */
+	public void testFindEditorsAfterInputChange() throws Exception {
+		IWorkbenchPage page = fActivePage;
+		proj = FileUtil.createProject("testFindEditorsAfterInputChange");
+		FileEditorInput input1 = new FileEditorInput(FileUtil.createFile("a.mock1", proj));
+		FileEditorInput input2 = new FileEditorInput(FileUtil.createFile("b.mock1", proj));
+
+		MockReusableEditorPart editor = (MockReusableEditorPart) page.openEditor(input1,
+				MockReusableEditorPart.ID1);
+		IEditorReference[] refs = page.findEditors(input1, null, IWorkbenchPage.MATCH_INPUT);
+		assertEquals(1, refs.length);
+		assertEquals(editor, refs[0].getPart(false));
+
+		editor.setInput(input2);
+		refs = page.findEditors(input1, null, IWorkbenchPage.MATCH_INPUT);
+		assertEquals(0, refs.length);
+		refs = page.findEditors(input2, MockReusableEditorPart.ID1,
+				IWorkbenchPage.MATCH_INPUT | IWorkbenchPage.MATCH_ID);
+		assertEquals(1, refs.length);
+		assertEquals(editor, page.findEditor(input2));
+
+		page.closeEditor(editor, false);
+		assertEquals(0, page.findEditors(input2, null, IWorkbenchPage.MATCH_INPUT).length);
+	}
+
+	/**
+	 * Tests that findEditors and openEditor match inputs with equals only,
+	 * even if the input does not override hashCode or changes its name.
+	 */
+	public void testFindEditorsWithEqualsOnlyInput() throws Exception {
+		IWorkbenchPage page = fActivePage;
+		EqualsOnlyEditorInput input = new EqualsOnlyEditorInput("id", "name");
+		IEditorPart editor = page.openEditor(input, MockEditorPart.ID1);
+
+		EqualsOnlyEditorInput equalInput = new EqualsOnlyEditorInput("id", "name");
+		assertEquals(editor, page.findEditor(equalInput));
+		assertEquals(editor, page.openEditor(equalInput, MockEditorPart.ID1));
+		assertEquals(1, page.findEditors(equalInput, null, IWorkbenchPage.MATCH_INPUT).length);
+
+		input.name = "renamed";
+		((MockEditorPart) editor).firePropertyChange(IWorkbenchPartConstants.PROP_TITLE);
+		EqualsOnlyEditorInput renamedInput = new EqualsOnlyEditorInput("id", "renamed");
+		assertEquals(editor, page.findEditor(renamedInput));
+		assertEquals(editor, page.openEditor(renamedInput, MockEditorPart.ID1));
+		assertEquals(1, page.findEditors(renamedInput, MockEditorPart.ID1,
+				IWorkbenchPage.MATCH_INPUT | IWorkbenchPage.MATCH_ID).length);
+
+		page.closeEditor(editor, false);
+		assertNull(page.findEditor(renamedInput));
+	}
+
 
 	/**
 	 * Create and hide a single editor, and check it is reflected in the
@@ -3214,4 +3271,54 @@ public class IWorkbenchPageTest extends UITestCase {
 		assertEquals(0, page.getEditorReferences().length);
 	}
 
+	/**
+	 * An editor input that overrides equals but not hashCode, and whose name
+	 * can change.
+	 */
+	private static class EqualsOnlyEditorInput implements IEditorInput {
+		private final String id;
+
+		String name;
+
+		EqualsOnlyEditorInput(String id, String name) {
+			this.id = id;
+			this.name = name;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof EqualsOnlyEditorInput && id.equals(((EqualsOnlyEditorInput) obj).id);
+		}
+
+		@Override
+		public <T> T getAdapter(Class<T> adapter) {
+			return null;
+		}
+
+		@Override
+		public boolean exists() {
+			return false;
+		}
+
+		@Override
+		public ImageDescriptor getImageDescriptor() {
+			return null;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public IPersistableElement getPersistable() {
+			return null;
+		}
+
+		@Override
+		public String getToolTipText() {
+			return name;
+		}
+	}
+
 }
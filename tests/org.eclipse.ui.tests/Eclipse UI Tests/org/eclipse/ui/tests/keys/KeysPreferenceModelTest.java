@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2017 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -249,6 +249,30 @@ public class KeysPreferenceModelTest extends UITestCase {
 		assertChanges(expected, events);
 	}
 
+	public void testLoadInBackground() throws Exception {
+		final KeyController controller = new KeyController();
+		controller.readServices(getWorkbench());
+		Thread loader = new Thread(() -> controller.buildModels());
+		loader.start();
+		loader.join();
+		controller.hookListeners();
+		assertTrue(controller.isNotifying());
+
+		final ConflictModel cf = controller.getConflictModel();
+		final BindingModel bm = controller.getBindingModel();
+		final BindingElement conflict1 = getBindingElement(bm, ID_CMD_CONFLICT1);
+		assertNotNull(conflict1);
+		assertEquals(Boolean.TRUE, conflict1.getConflict());
+
+		final ArrayList<PropertyChangeEvent> events = new ArrayList<>();
+		controller.addPropertyChangeListener(event -> events.add(event));
+
+		bm.setSelectedElement(conflict1);
+		assertEquals(conflict1, cf.getSelectedElement());
+		assertEquals(3, cf.getConflicts().size());
+		assertEquals(4, events.size());
+	}
+
 	public void testConflictSelection() throws Exception {
 		final KeyController controller = new KeyController();
 		controller.init(getWorkbench());
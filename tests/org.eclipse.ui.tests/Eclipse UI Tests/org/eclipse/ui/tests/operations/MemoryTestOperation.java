@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.operations;
+
+import org.eclipse.core.commands.operations.IMemoryAwareOperation;
+import org.eclipse.core.commands.operations.IUndoableOperation;
+
+/**
+ * A test operation that reports a memory size and absorbs following memory
+ * test operations if it is mergeable.
+ */
+public class MemoryTestOperation extends TestOperation implements IMemoryAwareOperation {
+
+	private long memorySize;
+
+	private boolean mergeable;
+
+	MemoryTestOperation(String label, long memorySize, boolean mergeable) {
+		super(label);
+		this.memorySize = memorySize;
+		this.mergeable = mergeable;
+	}
+
+	@Override
+	public long getMemorySize() {
+		return memorySize;
+	}
+
+	void setMemorySize(long memorySize) {
+		this.memorySize = memorySize;
+	}
+
+	@Override
+	public boolean absorb(IUndoableOperation operation) {
+		if (!mergeable || !(operation instanceof MemoryTestOperation)) {
+			return false;
+		}
+		// merged operations share the bookkeeping overhead
+		memorySize += ((MemoryTestOperation) operation).memorySize / 2;
+		setLabel(getLabel() + "+" + operation.getLabel());
+		return true;
+	}
+}
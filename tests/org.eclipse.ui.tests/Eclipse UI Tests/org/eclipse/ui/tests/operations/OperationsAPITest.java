@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2006 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,6 +11,8 @@
 
 package org.eclipse.ui.tests.operations;
 
+import java.lang.reflect.Field;
+
 import junit.framework.TestCase;
 
 import org.eclipse.core.commands.ExecutionException;
@@ -814,4 +816,117 @@ public class OperationsAPITest extends TestCase {
 		history.removeOperationApprover(approver);
 	}
 
+	public void testContextIndexAfterContextChange() throws ExecutionException {
+		IUndoContext contextD = new ObjectUndoContext("D");
+		assertEquals(0, history.getUndoHistory(contextD).length);
+		op2.addContext(contextD);
+		op5.addContext(contextD);
+		IUndoableOperation[] undoHistory = history.getUndoHistory(contextD);
+		assertEquals(2, undoHistory.length);
+		assertSame(op2, undoHistory[0]);
+		assertSame(op5, undoHistory[1]);
+		assertSame(op5, history.getUndoOperation(contextD));
+
+		op5.removeContext(contextD);
+		assertSame(op2, history.getUndoOperation(contextD));
+		history.setLimit(contextD, 0);
+		assertFalse(op2.hasContext(contextD));
+		assertEquals(0, history.getUndoHistory(contextD).length);
+
+		contextA.addMatch(contextD);
+		op3.addContext(contextD);
+		assertSame(op6, history.getUndoOperation(contextA));
+		history.undo(contextA, null, null);
+		undoHistory = history.getUndoHistory(contextA);
+		assertEquals(3, undoHistory.length);
+		assertSame(op3, undoHistory[1]);
+	}
+
+	public void testContextChangeOnlyInvalidatesContainingHistory() throws Exception {
+		DefaultOperationHistory otherHistory = new DefaultOperationHistory();
+		IUndoableOperation other = new TestOperation("other");
+		other.addContext(contextA);
+		otherHistory.execute(other, null, null);
+		history.getUndoHistory(contextA);
+		otherHistory.getUndoHistory(contextA);
+
+		other.addContext(contextB);
+		assertFalse(isUndoIndexInvalid(history));
+		assertTrue(isUndoIndexInvalid(otherHistory));
+		op1.addContext(contextB);
+		assertTrue(isUndoIndexInvalid(history));
+		assertEquals(3, history.getUndoHistory(contextB).length);
+		assertFalse(isUndoIndexInvalid(history));
+
+		// operations removed from a history no longer invalidate its index
+		otherHistory.getUndoHistory(contextA);
+		otherHistory.dispose(IOperationHistory.GLOBAL_UNDO_CONTEXT, true, true, false);
+		other.addContext(contextC);
+		assertFalse(isUndoIndexInvalid(otherHistory));
+	}
+
+	private static boolean isUndoIndexInvalid(DefaultOperationHistory operationHistory) throws Exception {
+		Field undoList = DefaultOperationHistory.class.getDeclaredField("undoList");
+		undoList.setAccessible(true);
+		Object list = undoList.get(operationHistory);
+		Field contextsChanged = list.getClass().getDeclaredField("contextsChanged");
+		contextsChanged.setAccessible(true);
+		return contextsChanged.getBoolean(list);
+	}
+
+	public void testMemoryLimit() throws ExecutionException {
+		DefaultOperationHistory memoryHistory = new DefaultOperationHistory();
+		memoryHistory.addOperationHistoryListener(listener);
+		memoryHistory.setMemoryLimit(250);
+		MemoryTestOperation[] operations = new MemoryTestOperation[4];
+		for (int i = 0; i < operations.length; i++) {
+			operations[i] = new MemoryTestOperation("op" + i, 100, false);
+			operations[i].addContext(i % 2 == 0 ? contextA : contextB);
+			memoryHistory.execute(operations[i], null, null);
+		}
+		IUndoableOperation[] undoHistory = memoryHistory.getUndoHistory(IOperationHistory.GLOBAL_UNDO_CONTEXT);
+		assertEquals(2, undoHistory.length);
+		assertSame(operations[2], undoHistory[0]);
+		assertSame(operations[3], undoHistory[1]);
+		assertEquals(2, remove);
+
+		// the most recent operation is kept even if it exceeds the limit
+		MemoryTestOperation large = new MemoryTestOperation("large", 1000, false);
+		large.addContext(contextC);
+		memoryHistory.execute(large, null, null);
+		undoHistory = memoryHistory.getUndoHistory(IOperationHistory.GLOBAL_UNDO_CONTEXT);
+		assertEquals(1, undoHistory.length);
+		assertSame(large, undoHistory[0]);
+
+		// operations growing beyond the limit are trimmed when they change
+		memoryHistory.setMemoryLimit(0);
+		operations[0] = new MemoryTestOperation("grow", 10, false);
+		operations[0].addContext(contextA);
+		memoryHistory.execute(operations[0], null, null);
+		memoryHistory.setMemoryLimit(2000);
+		assertEquals(2, memoryHistory.getUndoHistory(IOperationHistory.GLOBAL_UNDO_CONTEXT).length);
+		large.setMemorySize(3000);
+		memoryHistory.operationChanged(large);
+		assertEquals(1, memoryHistory.getUndoHistory(IOperationHistory.GLOBAL_UNDO_CONTEXT).length);
+		memoryHistory.removeOperationHistoryListener(listener);
+	}
+
+	public void testMemoryLimitAbsorbsOperations() throws ExecutionException {
+		DefaultOperationHistory memoryHistory = new DefaultOperationHistory();
+		MemoryTestOperation[] operations = new MemoryTestOperation[4];
+		for (int i = 0; i < operations.length; i++) {
+			operations[i] = new MemoryTestOperation("op" + i, 100, true);
+			operations[i].addContext(contextA);
+			memoryHistory.execute(operations[i], null, null);
+		}
+		memoryHistory.setMemoryLimit(300);
+		IUndoableOperation[] undoHistory = memoryHistory.getUndoHistory(contextA);
+		// op0 absorbs op1 and op2, the most recent operation is not absorbed
+		assertEquals(2, undoHistory.length);
+		assertSame(operations[0], undoHistory[0]);
+		assertEquals("op0+op1+op2", undoHistory[0].getLabel());
+		assertSame(operations[3], undoHistory[1]);
+		assertTrue("absorbed operation should not be disposed", operations[1].canUndo());
+	}
+
 }
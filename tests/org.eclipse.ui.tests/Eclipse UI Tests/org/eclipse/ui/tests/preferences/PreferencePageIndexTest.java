@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.preferences;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jface.dialogs.DialogSettings;
+import org.eclipse.jface.dialogs.IDialogSettings;
+import org.eclipse.jface.preference.IPreferenceNode;
+import org.eclipse.jface.preference.PreferenceManager;
+import org.eclipse.jface.tests.preferences.SamplePreferencePage;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.internal.dialogs.PreferencePageIndex;
+import org.eclipse.ui.internal.dialogs.WorkbenchPreferenceNode;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the index that the filter of the workbench preference dialog searches.
+ */
+public class PreferencePageIndexTest extends TestCase {
+
+	private IDialogSettings settings;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		settings = new DialogSettings("Workbench");
+	}
+
+	private static List<WorkbenchPreferenceNode> getWorkbenchNodes() {
+		List<WorkbenchPreferenceNode> nodes = new ArrayList<>();
+		for (IPreferenceNode node : getManager().getElements(PreferenceManager.PRE_ORDER)) {
+			if (node instanceof WorkbenchPreferenceNode) {
+				nodes.add((WorkbenchPreferenceNode) node);
+			}
+		}
+		return nodes;
+	}
+
+	private static PreferenceManager getManager() {
+		return PlatformUI.getWorkbench().getPreferenceManager();
+	}
+
+	private PreferencePageIndex createIndex() throws InterruptedException {
+		PreferencePageIndex index = new PreferencePageIndex(settings);
+		index.update(getManager()).join();
+		return index;
+	}
+
+	public void testLabelsAndKeywordsAreIndexed() throws InterruptedException {
+		PreferencePageIndex index = createIndex();
+		List<WorkbenchPreferenceNode> nodes = getWorkbenchNodes();
+		assertFalse(nodes.isEmpty());
+		for (WorkbenchPreferenceNode node : nodes) {
+			List<String> texts = Arrays.asList(index.getSearchTexts(node.getId()));
+			assertTrue(texts.contains(node.getLabelText()));
+			assertTrue(texts.containsAll(node.getKeywordLabels()));
+		}
+	}
+
+	public void testUnknownPageIsNotIndexed() {
+		PreferencePageIndex index = new PreferencePageIndex(settings);
+		assertNull(index.getSearchTexts(getWorkbenchNodes().get(0).getId()));
+	}
+
+	public void testIndexIsLoadedFromSettings() throws InterruptedException {
+		PreferencePageIndex index = createIndex();
+		index.save();
+		PreferencePageIndex loaded = new PreferencePageIndex(settings);
+		for (WorkbenchPreferenceNode node : getWorkbenchNodes()) {
+			assertEquals(Arrays.asList(index.getSearchTexts(node.getId())),
+					Arrays.asList(loaded.getSearchTexts(node.getId())));
+		}
+	}
+
+	public void testIndexOfOtherLocaleIsDiscarded() throws InterruptedException {
+		createIndex().save();
+		settings.getSection("PreferencePageIndex").put("locale", "xx");
+		PreferencePageIndex loaded = new PreferencePageIndex(settings);
+		assertNull(loaded.getSearchTexts(getWorkbenchNodes().get(0).getId()));
+	}
+
+	public void testDescriptionIsIndexed() throws InterruptedException {
+		PreferencePageIndex index = createIndex();
+		WorkbenchPreferenceNode node = null;
+		for (WorkbenchPreferenceNode candidate : getWorkbenchNodes()) {
+			if (candidate.getPage() == null) {
+				node = candidate;
+				break;
+			}
+		}
+		assertNotNull(node);
+		SamplePreferencePage page = new SamplePreferencePage("Sample", "Sample");
+		page.setDescription("An indexed description");
+		node.setPage(page);
+		try {
+			index.addDescription(node);
+		} finally {
+			node.setPage(null);
+		}
+		assertTrue(Arrays.asList(index.getSearchTexts(node.getId())).contains("An indexed description"));
+
+		index.save();
+		PreferencePageIndex loaded = new PreferencePageIndex(settings);
+		assertTrue(Arrays.asList(loaded.getSearchTexts(node.getId())).contains("An indexed description"));
+	}
+}
@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.progress;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.runtime.Status;
+import org.eclipse.ui.internal.IPreferenceConstants;
+import org.eclipse.ui.internal.WorkbenchPlugin;
+import org.eclipse.ui.internal.progress.FinishedJobs;
+import org.eclipse.ui.internal.progress.JobInfo;
+import org.eclipse.ui.internal.progress.JobTreeElement;
+import org.eclipse.ui.internal.progress.ProgressManager;
+import org.eclipse.ui.progress.IProgressConstants;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the notifications the {@link ProgressManager} sends to its listeners.
+ */
+public class ProgressManagerTest {
+
+	private static final String LISTENER_TYPE = "org.eclipse.ui.internal.progress.IJobProgressManagerListener";
+
+	private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+	private Object listener;
+
+	@Before
+	public void setUp() throws Exception {
+		ProgressManager manager = ProgressManager.getInstance();
+		// Deliver anything that is still pending from earlier tests
+		manager.notifyListeners();
+
+		Class<?> listenerType = Class.forName(LISTENER_TYPE, false, ProgressManager.class.getClassLoader());
+		listener = Proxy.newProxyInstance(listenerType.getClassLoader(), new Class<?>[] { listenerType },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+					case "showsDebug":
+						return Boolean.FALSE;
+					case "hashCode":
+						return Integer.valueOf(System.identityHashCode(proxy));
+					case "equals":
+						return Boolean.valueOf(proxy == args[0]);
+					case "toString":
+						return "RecordingListener";
+					default:
+						events.add(describe(method, args));
+						return null;
+					}
+				});
+		invokeManager("addListener", listenerType, listener);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		Class<?> listenerType = Class.forName(LISTENER_TYPE, false, ProgressManager.class.getClassLoader());
+		invokeManager("removeListener", listenerType, listener);
+		FinishedJobs.getInstance().clearAll();
+		WorkbenchPlugin.getDefault().getPreferenceStore()
+				.setToDefault(IPreferenceConstants.PROGRESS_FAMILY_AGGREGATION_THRESHOLD);
+	}
+
+	@Test
+	public void testRefreshBurstIsCoalesced() {
+		ProgressManager manager = ProgressManager.getInstance();
+		JobInfo info = createJobInfo("Burst Job");
+		manager.addJobInfo(info);
+		manager.notifyListeners();
+		events.clear();
+
+		for (int i = 0; i < 100; i++) {
+			manager.refreshJobInfo(info);
+		}
+		manager.notifyListeners();
+
+		assertEquals(Collections.singletonList("refreshJobInfo Burst Job"), events);
+		manager.removeJobInfo(info);
+	}
+
+	@Test
+	public void testRemovalIsNotDropped() {
+		ProgressManager manager = ProgressManager.getInstance();
+		JobInfo info = createJobInfo("Removed Job");
+		manager.addJobInfo(info);
+		manager.notifyListeners();
+		events.clear();
+
+		for (int i = 0; i < 10; i++) {
+			manager.refreshJobInfo(info);
+		}
+		manager.removeJobInfo(info);
+		manager.notifyListeners();
+
+		assertEquals(Collections.singletonList("removeJob Removed Job"), events);
+	}
+
+	@Test
+	public void testShortLivedJobIsDropped() {
+		ProgressManager manager = ProgressManager.getInstance();
+		JobInfo info = createJobInfo("Short Job");
+		manager.addJobInfo(info);
+		manager.refreshJobInfo(info);
+		manager.removeJobInfo(info);
+		manager.notifyListeners();
+
+		assertEquals(Collections.emptyList(), events);
+	}
+
+	@Test
+	public void testKeptJobReceivesEveryEvent() {
+		ProgressManager manager = ProgressManager.getInstance();
+		JobInfo info = createJobInfo("Kept Job");
+		info.getJob().setProperty(IProgressConstants.KEEP_PROPERTY, Boolean.TRUE);
+		manager.addJobInfo(info);
+		manager.refreshJobInfo(info);
+		manager.removeJobInfo(info);
+		manager.notifyListeners();
+
+		assertTrue(events.toString(), events.contains("addJob Kept Job"));
+		assertTrue(events.toString(), events.contains("refreshJobInfo Kept Job"));
+		assertTrue(events.toString(), events.contains("removeJob Kept Job"));
+	}
+
+	@Test
+	public void testFamilyGroupsJobsOfSameClassAndName() {
+		setFamilyAggregationThreshold(2);
+		ProgressManager manager = ProgressManager.getInstance();
+		JobInfo first = createJobInfo("Family Job");
+		JobInfo other = createJobInfo("Other Job");
+		JobInfo second = createJobInfo("Family Job");
+		try {
+			manager.addJobInfo(first);
+			manager.addJobInfo(other);
+			manager.notifyListeners();
+
+			// Jobs of the same class with different names are not grouped
+			assertFalse(events.toString(), events.contains("refreshAll"));
+			assertTrue(events.toString(), events.contains("addJob Other Job"));
+
+			manager.addJobInfo(second);
+			manager.notifyListeners();
+
+			assertTrue(events.toString(), events.contains("refreshAll"));
+		} finally {
+			manager.removeJobInfo(first);
+			manager.removeJobInfo(other);
+			manager.removeJobInfo(second);
+		}
+	}
+
+	@Test
+	public void testKeptJobsOfFamilyAreKept() {
+		FinishedJobs finishedJobs = FinishedJobs.getInstance();
+		setFamilyAggregationThreshold(2);
+		ProgressManager manager = ProgressManager.getInstance();
+		JobInfo first = createJobInfo("Kept Family Job");
+		first.getJob().setProperty(IProgressConstants.KEEP_PROPERTY, Boolean.TRUE);
+		JobInfo second = createJobInfo("Kept Family Job");
+		second.getJob().setProperty(IProgressConstants.KEEPONE_PROPERTY, Boolean.TRUE);
+		manager.addJobInfo(first);
+		manager.addJobInfo(second);
+		manager.notifyListeners();
+		assertTrue(events.toString(), events.contains("refreshAll"));
+
+		manager.removeJobInfo(first);
+		manager.notifyListeners();
+		assertTrue(finishedJobs.isKept(first));
+
+		manager.removeJobInfo(second);
+		manager.notifyListeners();
+		assertTrue(finishedJobs.isKept(second));
+	}
+
+	private static void setFamilyAggregationThreshold(int threshold) {
+		WorkbenchPlugin.getDefault().getPreferenceStore()
+				.setValue(IPreferenceConstants.PROGRESS_FAMILY_AGGREGATION_THRESHOLD, threshold);
+	}
+
+	private static JobInfo createJobInfo(String name) {
+		return new ExtendedJobInfo(new DummyJob(name, Status.OK_STATUS));
+	}
+
+	private static String describe(Method method, Object[] args) {
+		Object element = args == null ? null : args[0];
+		if (element instanceof JobInfo) {
+			return method.getName() + " " + ((JobInfo) element).getJob().getName();
+		}
+		if (element instanceof JobTreeElement) {
+			return method.getName() + " " + element.getClass().getSimpleName();
+		}
+		return method.getName();
+	}
+
+	private static void invokeManager(String name, Class<?> type, Object argument) throws Exception {
+		Method m = ProgressManager.class.getDeclaredMethod(name, type);
+		m.setAccessible(true);
+		m.invoke(ProgressManager.getInstance(), argument);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corporation and others.
+ * Copyright (c) 2009, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -29,6 +29,7 @@ import org.junit.runners.Suite;
 	JobInfoTest.class,
 	JobInfoTestOrdering.class,
 	ProgressAnimationItemTest.class,
+	ProgressManagerTest.class,
 	AccumulatingProgressMonitorTest.class
 })
 public class ProgressTestSuite {
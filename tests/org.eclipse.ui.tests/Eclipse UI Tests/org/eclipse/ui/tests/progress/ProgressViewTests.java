@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2010 IBM Corporation and others.
+ * Copyright (c) 2009, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,8 +11,13 @@
 
 package org.eclipse.ui.tests.progress;
 
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.swt.widgets.Label;
 import org.eclipse.ui.internal.progress.JobInfo;
 import org.eclipse.ui.internal.progress.JobTreeElement;
 import org.eclipse.ui.internal.progress.ProgressInfoItem;
@@ -70,6 +75,71 @@ public class ProgressViewTests extends ProgressTestCase {
 		}
 	}
 
+	public void testBurstOfJobsIsRemoved() throws Exception {
+		openProgressView();
+
+		List<DummyJob> jobs = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			DummyJob job = new DummyJob("Burst Job " + i, Status.OK_STATUS);
+			job.shouldFinish = false;
+			job.schedule();
+			jobs.add(job);
+		}
+		assertTrue("The jobs are not shown",
+				processEventsUntil(() -> jobs.stream().allMatch(job -> findProgressInfoItem(job) != null), 5000));
+
+		for (DummyJob job : jobs) {
+			job.shouldFinish = true;
+		}
+		for (DummyJob job : jobs) {
+			job.join();
+		}
+
+		// The removals of a burst of finished jobs must all reach the view
+		assertTrue("Finished jobs are still shown",
+				processEventsUntil(() -> jobs.stream().allMatch(job -> findProgressInfoItem(job) == null), 5000));
+	}
+
+	public void testKeptJobShowsFinalState() throws Exception {
+		openProgressView();
+
+		DummyJob job = new DummyJob("Kept Job", Status.OK_STATUS);
+		job.setProperty(IProgressConstants.KEEP_PROPERTY, Boolean.TRUE);
+		job.shouldFinish = false;
+		job.schedule();
+		assertTrue("The job is not shown", processEventsUntil(() -> findProgressInfoItem(job) != null, 5000));
+
+		job.shouldFinish = true;
+		job.join();
+
+		// The refresh with the finished state must not be coalesced away
+		assertTrue("The final state of the job is not shown", processEventsUntil(() -> {
+			ProgressInfoItem item = findProgressInfoItem(job);
+			return item != null && item.getJobNameAndStatus(item.getJobInfos()[0]).equals(getMainText(item));
+		}, 5000));
+	}
+
+	private ProgressInfoItem findProgressInfoItem(Job job) {
+		for (ProgressInfoItem progressInfoItem : progressView.getViewer().getProgressInfoItems()) {
+			for (JobInfo jobInfo : progressInfoItem.getJobInfos()) {
+				if (job.equals(jobInfo.getJob())) {
+					return progressInfoItem;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static String getMainText(ProgressInfoItem item) {
+		try {
+			Field field = ProgressInfoItem.class.getDeclaredField("progressLabel");
+			field.setAccessible(true);
+			return ((Label) field.get(item)).getText();
+		} catch (ReflectiveOperationException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
 	protected boolean checkJob(Job job, boolean found, JobInfo jobInfo) {
 		if(job.equals(jobInfo.getJob())) {
 			if(found) {
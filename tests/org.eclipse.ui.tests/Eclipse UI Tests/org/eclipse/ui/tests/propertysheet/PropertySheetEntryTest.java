@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Eclipse contributors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eclipse contributors - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.propertysheet;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ui.views.properties.IPropertyDescriptor;
+import org.eclipse.ui.views.properties.IPropertySheetEntry;
+import org.eclipse.ui.views.properties.IPropertySource;
+import org.eclipse.ui.views.properties.PropertyDescriptor;
+import org.eclipse.ui.views.properties.PropertySheetEntry;
+
+/**
+ * Tests merging the properties of multiple selected objects.
+ */
+public class PropertySheetEntryTest extends TestCase {
+
+	private static final String ID_NAME = "name"; //$NON-NLS-1$
+
+	private static final String ID_SIZE = "size"; //$NON-NLS-1$
+
+	private static class CountingDescriptor extends PropertyDescriptor {
+		int compatibilityChecks;
+
+		CountingDescriptor(Object id) {
+			super(id, id.toString());
+		}
+
+		@Override
+		public boolean isCompatibleWith(IPropertyDescriptor anotherProperty) {
+			compatibilityChecks++;
+			return super.isCompatibleWith(anotherProperty);
+		}
+	}
+
+	private static class Source implements IPropertySource {
+		private final IPropertyDescriptor[] descriptors;
+
+		private final Object name;
+
+		Source(IPropertyDescriptor[] descriptors, Object name) {
+			this.descriptors = descriptors;
+			this.name = name;
+		}
+
+		@Override
+		public Object getEditableValue() {
+			return this;
+		}
+
+		@Override
+		public IPropertyDescriptor[] getPropertyDescriptors() {
+			return descriptors;
+		}
+
+		@Override
+		public Object getPropertyValue(Object id) {
+			return ID_NAME.equals(id) ? name : Integer.valueOf(1);
+		}
+
+		@Override
+		public boolean isPropertySet(Object id) {
+			return false;
+		}
+
+		@Override
+		public void resetPropertyValue(Object id) {
+		}
+
+		@Override
+		public void setPropertyValue(Object id, Object value) {
+		}
+	}
+
+	private static class Entry extends PropertySheetEntry {
+		@Override
+		protected PropertySheetEntry createChildEntry() {
+			return new Entry();
+		}
+
+		@Override
+		public boolean hasMixedValues() {
+			return super.hasMixedValues();
+		}
+	}
+
+	private Entry root;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		root = new Entry();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		root.dispose();
+		super.tearDown();
+	}
+
+	public void testSharedDescriptorsAreMergedOnce() {
+		CountingDescriptor name = new CountingDescriptor(ID_NAME);
+		CountingDescriptor size = new CountingDescriptor(ID_SIZE);
+		IPropertyDescriptor[] descriptors = { name, size };
+		Object[] selection = new Object[1000];
+		for (int i = 0; i < selection.length; i++) {
+			selection[i] = new Source(descriptors, "same"); //$NON-NLS-1$
+		}
+		root.setValues(selection);
+
+		assertEquals(2, root.getChildEntries().length);
+		assertEquals(1, name.compatibilityChecks);
+		assertEquals(1, size.compatibilityChecks);
+
+		size.setAlwaysIncompatible(true);
+		root.setValues(selection);
+		assertEquals(1, root.getChildEntries().length);
+	}
+
+	public void testDescriptorsAreIntersected() {
+		IPropertyDescriptor name = new PropertyDescriptor(ID_NAME, ID_NAME);
+		IPropertyDescriptor size = new PropertyDescriptor(ID_SIZE, ID_SIZE);
+		IPropertyDescriptor otherName = new PropertyDescriptor(ID_NAME, ID_NAME);
+		root.setValues(new Object[] { new Source(new IPropertyDescriptor[] { name, size }, "a"), //$NON-NLS-1$
+				new Source(new IPropertyDescriptor[] { name, size }, "b"), //$NON-NLS-1$
+				new Source(new IPropertyDescriptor[] { otherName }, "c") }); //$NON-NLS-1$
+
+		IPropertySheetEntry[] children = root.getChildEntries();
+		assertEquals(1, children.length);
+		assertEquals(ID_NAME, children[0].getDisplayName());
+		assertTrue(root.hasChildEntries());
+
+		root.setValues(new Object[] { new Source(new IPropertyDescriptor[] { size }, "a"), //$NON-NLS-1$
+				new Source(new IPropertyDescriptor[] { otherName }, "b") }); //$NON-NLS-1$
+		assertEquals(0, root.getChildEntries().length);
+		assertFalse(root.hasChildEntries());
+	}
+
+	public void testMixedValues() {
+		IPropertyDescriptor[] descriptors = { new PropertyDescriptor(ID_NAME, ID_NAME),
+				new PropertyDescriptor(ID_SIZE, ID_SIZE) };
+		root.setValues(new Object[] { new Source(descriptors, "a"), new Source(descriptors, "b"), //$NON-NLS-1$ //$NON-NLS-2$
+				new Source(descriptors, "a") }); //$NON-NLS-1$
+
+		IPropertySheetEntry[] children = root.getChildEntries();
+		Entry nameEntry = (Entry) (ID_NAME.equals(children[0].getDisplayName()) ? children[0] : children[1]);
+		Entry sizeEntry = (Entry) (nameEntry == children[0] ? children[1] : children[0]);
+		assertTrue(nameEntry.hasMixedValues());
+		assertFalse(sizeEntry.hasMixedValues());
+		// mixed values are displayed as empty text
+		assertEquals("", nameEntry.getValueAsString()); //$NON-NLS-1$
+		assertEquals("1", sizeEntry.getValueAsString()); //$NON-NLS-1$
+	}
+}
@@ -40,5 +40,6 @@ public class PropertySheetTestSuite extends TestSuite {
         addTest(new TestSuite(PropertySheetAuto.class));
         addTest(new TestSuite(ComboBoxPropertyDescriptorTest.class));
         addTest(new TestSuite(DirtyStatePropertySheetTest.class));
+        addTest(new TestSuite(PropertySheetEntryTest.class));
     }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2017 IBM Corporation and others.
+ * Copyright (c) 2013, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,6 +15,7 @@ import static org.eclipse.ui.internal.themes.WorkbenchThemeManager.EMPTY_COLOR_V
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -30,6 +31,7 @@ import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.preference.PreferenceConverter;
 import org.eclipse.jface.resource.ColorRegistry;
 import org.eclipse.jface.resource.FontRegistry;
+import org.eclipse.jface.resource.ResourceRegistry;
 import org.eclipse.swt.graphics.FontData;
 import org.eclipse.swt.graphics.RGB;
 import org.eclipse.ui.internal.themes.ColorDefinition;
@@ -67,9 +69,9 @@ public class WorkbenchThemeChangedHandlerTest extends TestCase {
 		doReturn(new FontDefinition[]{fontDefinition1, fontDefinition2}).when(themeRegistry).getFonts();
 		doReturn(new ColorDefinition[] {colorDefinition}).when(themeRegistry).getColors();
 
-		FontRegistry fontRegistry = mock(FontRegistry.class);
+		FontRegistry fontRegistry = mockRegistry(FontRegistry.class);
 
-		ColorRegistry colorRegistry = mock(ColorRegistry.class);
+		ColorRegistry colorRegistry = mockRegistry(ColorRegistry.class);
 
 		ThemesExtension themesExtension = mock(ThemesExtension.class);
 
@@ -141,9 +143,9 @@ public class WorkbenchThemeChangedHandlerTest extends TestCase {
 		doReturn(new FontDefinition[]{fontDefinition1, fontDefinition2}).when(themeRegistry).getFonts();
 		doReturn(new ColorDefinition[] {colorDefinition1, colorDefinition2}).when(themeRegistry).getColors();
 
-		FontRegistry fontRegistry = mock(FontRegistry.class);
+		FontRegistry fontRegistry = mockRegistry(FontRegistry.class);
 
-		ColorRegistry colorRegistry = mock(ColorRegistry.class);
+		ColorRegistry colorRegistry = mockRegistry(ColorRegistry.class);
 
 		ThemesExtension themesExtension = mock(ThemesExtension.class);
 
@@ -194,9 +196,9 @@ public class WorkbenchThemeChangedHandlerTest extends TestCase {
 
 		ThemeRegistry themeRegistry = spy(new ThemeRegistry());
 
-		FontRegistry fontRegistry = mock(FontRegistry.class);
+		FontRegistry fontRegistry = mockRegistry(FontRegistry.class);
 
-		ColorRegistry colorRegistry = mock(ColorRegistry.class);
+		ColorRegistry colorRegistry = mockRegistry(ColorRegistry.class);
 
 		ThemesExtension themesExtension = mock(ThemesExtension.class);
 		doReturn(Arrays.asList(fontDefinition, colorDefinition)).when(themesExtension).getDefinitions();
@@ -257,9 +259,9 @@ public class WorkbenchThemeChangedHandlerTest extends TestCase {
 		doReturn(new FontDefinition[]{fontDefinition1, fontDefinition2}).when(themeRegistry).getFonts();
 		doReturn(new ColorDefinition[] {colorDefinition1, colorDefinition2}).when(themeRegistry).getColors();
 
-		FontRegistry fontRegistry = mock(FontRegistry.class);
+		FontRegistry fontRegistry = mockRegistry(FontRegistry.class);
 
-		ColorRegistry colorRegistry = mock(ColorRegistry.class);
+		ColorRegistry colorRegistry = mockRegistry(ColorRegistry.class);
 
 		ThemesExtension themesExtension = mock(ThemesExtension.class);
 
@@ -344,9 +346,9 @@ public class WorkbenchThemeChangedHandlerTest extends TestCase {
 		doReturn(new FontDefinition[]{fontDefinition1, fontDefinition2, fontDefinition3}).when(themeRegistry).getFonts();
 		doReturn(new ColorDefinition[] {colorDefinition1, colorDefinition2, colorDefinition3}).when(themeRegistry).getColors();
 
-		FontRegistry fontRegistry = mock(FontRegistry.class);
+		FontRegistry fontRegistry = mockRegistry(FontRegistry.class);
 
-		ColorRegistry colorRegistry = mock(ColorRegistry.class);
+		ColorRegistry colorRegistry = mockRegistry(ColorRegistry.class);
 
 		WorkbenchThemeChangedHandlerTestable handler = spy(new WorkbenchThemeChangedHandlerTestable());
 
@@ -381,6 +383,18 @@ public class WorkbenchThemeChangedHandlerTest extends TestCase {
 		verify(colorRegistry, times(1)).put(colorDefinition3.getId(), WorkbenchThemeManager.EMPTY_COLOR_VALUE);
 	}
 
+	/**
+	 * Mocks a registry that runs batches of changes right away.
+	 */
+	private static <T extends ResourceRegistry> T mockRegistry(Class<T> registryClass) {
+		T registry = mock(registryClass);
+		doAnswer(invocation -> {
+			((Runnable) invocation.getArguments()[0]).run();
+			return null;
+		}).when(registry).runBatch(any(Runnable.class));
+		return registry;
+	}
+
 	public static class WorkbenchThemeChangedHandlerTestable extends WorkbenchThemeChangedHandler {
 		@Override
 		public IStylingEngine getStylingEngine() {